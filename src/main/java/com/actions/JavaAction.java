@@ -1,9 +1,10 @@
 package com.actions;
 
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.Set;
 
+import org.antlr.v4.runtime.ParserRuleContext;
+
 /**
  * Abstract class that represents a given java action, subclassed based on the String passed into it.
  * 
@@ -14,7 +15,22 @@ public abstract class JavaAction implements Serializable {
 	/**
 	 * The actions that this action are dependent on.
 	 */
-	protected Set<JavaAction> dependentActions = new HashSet<JavaAction>();
+	protected Set<JavaAction> dependentActions = new JavaActionSet();
+	
+	/**
+	 * The id of this action in the session, 0 until it's first depended on. This isn't saved, so a loaded action gets a new one.
+	 */
+	private transient long actionId;
+	
+	/**
+	 * The table of the session the id is from, NULL until it has one.
+	 */
+	private transient volatile JavaActionTable actionTable;
+	
+	/**
+	 * The actions that have been given ids in this session. Loading a session starts a new table, so the actions of the old one can go.
+	 */
+	private static volatile JavaActionTable actionsById = new JavaActionTable();
 	
 	/**
 	 * The action type.
@@ -26,11 +42,32 @@ public abstract class JavaAction implements Serializable {
 	 */
 	private String rawInput;
 	
+	/**
+	 * The declaration the snippet is made from, NULL if that's just the raw input.
+	 */
+	private String snippetInput;
+	
 	/**
 	 * The conditional action that we might also need to put into the maps.
 	 */
 	private JavaAction conditionalAction;
 	
+	/**
+	 * The name of the snippet class this action was compiled into, if it has one.
+	 */
+	private String snippetClassName;
+	
+	/**
+	 * Has this action already been run against the live session state? This isn't saved, so that a loaded session runs its fields
+	 * and expressions once more to build the state back up.
+	 */
+	private transient boolean applied;
+	
+	/**
+	 * The parsed statement, so it can be run without compiling. This isn't saved, and it's let go once the statement has run.
+	 */
+	private transient ParserRuleContext parseTree;
+	
 	/**
 	 * Protected constructor to send in the raw input.
 	 * 
@@ -47,7 +84,7 @@ public abstract class JavaAction implements Serializable {
 	 * @param dependentActions -- set the dependent actions here.
 	 */
 	public void setDependentActions(Set<JavaAction> dependentActions) {
-		this.dependentActions = dependentActions;
+		this.dependentActions = dependentActions instanceof JavaActionSet ? dependentActions : new JavaActionSet(dependentActions);
 	}
 	
 	/**
@@ -68,6 +105,72 @@ public abstract class JavaAction implements Serializable {
 		return this.dependentActions;
 	}
 	
+	/**
+	 * Method to get the id of this action in the session, giving it the next one if it doesn't have one yet. Only the actions put into
+	 * a {@link JavaActionSet} -- the ones something depends on -- are ever given one.
+	 * 
+	 * @return long -- the id.
+	 */
+	public long getActionId() {
+		
+		if(actionTable != actionsById) {
+			
+			synchronized(JavaAction.class) {
+				
+				if(actionTable != actionsById) {
+					actionId = actionsById.add(this);
+					actionTable = actionsById;
+				}
+			}
+		}
+		
+		return actionId;
+	}
+	
+	/**
+	 * Method to let go of this action's id once nothing in the graph depends on it, so the table doesn't keep it around. Its slot is
+	 * given out again, under a new id, and the action gets a new one too if it's ever depended on again. A set of a statement that
+	 * isn't in the graph can still have the old id, so sets check each id as they look it up (see {@link JavaActionTable}).
+	 */
+	public void releaseActionId() {
+		
+		synchronized(JavaAction.class) {
+			
+			if(actionTable == actionsById) {
+				actionsById.release(actionId);
+			}
+			
+			actionTable = null;
+			actionId = 0;
+		}
+	}
+	
+	/**
+	 * Method to check if this action has been given an id in this session yet.
+	 * 
+	 * @return TRUE if it has, FALSE if not.
+	 */
+	public boolean hasActionId() {
+		return actionTable == actionsById;
+	}
+	
+	/**
+	 * Method to get the table of the session, for a set to look its ids up in.
+	 * 
+	 * @return {@link JavaActionTable} -- the table.
+	 */
+	static JavaActionTable getActionTable() {
+		return actionsById;
+	}
+	
+	/**
+	 * Method to start a new table of ids, for when a session is loaded. The actions of the old session are only kept for as long as
+	 * a set of them is.
+	 */
+	public static synchronized void resetActionIds() {
+		actionsById = new JavaActionTable();
+	}
+	
 	/**
 	 * Getter for the raw input.
 	 * 
@@ -77,6 +180,24 @@ public abstract class JavaAction implements Serializable {
 		return this.rawInput;
 	}
 
+	/**
+	 * Getter for the declaration the snippet is made from.
+	 * 
+	 * @return String -- the declaration, which is the raw input unless it was set to something else.
+	 */
+	public String getSnippetInput() {
+		return this.snippetInput == null ? this.rawInput : this.snippetInput;
+	}
+	
+	/**
+	 * Setter for the declaration the snippet is made from.
+	 * 
+	 * @param snippetInput -- the declaration.
+	 */
+	public void setSnippetInput(String snippetInput) {
+		this.snippetInput = snippetInput;
+	}
+
 	/**
 	 * Getter for the action type.
 	 * 
@@ -104,6 +225,60 @@ public abstract class JavaAction implements Serializable {
 		this.conditionalAction = conditionalAction;
 	}
 
+	/**
+	 * Method to get the snippet class name. Returns NULL if this action hasn't been compiled into a snippet.
+	 * 
+	 * @return String -- the fully qualified snippet class name.
+	 */
+	public String getSnippetClassName() {
+		return this.snippetClassName;
+	}
+	
+	/**
+	 * Method to set the snippet class name.
+	 * 
+	 * @param snippetClassName -- the fully qualified snippet class name.
+	 */
+	public void setSnippetClassName(String snippetClassName) {
+		this.snippetClassName = snippetClassName;
+	}
+
+	/**
+	 * Method to check if this action has already been run against the live session state.
+	 * 
+	 * @return TRUE if it has been run, FALSE if not.
+	 */
+	public boolean isApplied() {
+		return this.applied;
+	}
+	
+	/**
+	 * Method to set if this action has already been run against the live session state.
+	 * 
+	 * @param applied -- TRUE if it has been run, FALSE if not.
+	 */
+	public void setApplied(boolean applied) {
+		this.applied = applied;
+	}
+
+	/**
+	 * Method to get the parsed statement. Returns NULL if we don't have it.
+	 * 
+	 * @return ParserRuleContext -- the parsed statement.
+	 */
+	public ParserRuleContext getParseTree() {
+		return this.parseTree;
+	}
+	
+	/**
+	 * Method to set the parsed statement.
+	 * 
+	 * @param parseTree -- the parsed statement, NULL once it isn't needed.
+	 */
+	public void setParseTree(ParserRuleContext parseTree) {
+		this.parseTree = parseTree;
+	}
+
 	/**
 	 * Method to get the name of this action. Default implementation is empty string.
 	 * 
@@ -0,0 +1,379 @@
+package com.actions;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of actions kept as the sorted ids of the actions (see {@link JavaAction#getActionId()}). Actions are the same if they're the
+ * same action, whatever their names, and they come back in the order they were given ids, which is the order they were first depended
+ * on. Checking for an action is a binary search, and adding or taking out another set of them is one pass over the ids.
+ *
+ * The ids only mean something in the session that gave them out, so the actions themselves are what's saved, and they're given new
+ * ids when they're read back. A set from before a load keeps looking its ids up in the old session, until it's changed or checked,
+ * and then its actions are given ids in the new one. An id that's been let go of is found out as it's looked up (see
+ * {@link JavaActionTable}) -- it's skipped while iterating, and taken out when the set is sized or merged. Nothing else has to
+ * know about it, since an action that's depended on again gets a new id, and so is never the same as an id let go of.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaActionSet extends AbstractSet<JavaAction> implements Serializable {
+
+	/**
+	 * The serial version.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The ids of the actions in the set, sorted, in the first {@link #size} slots. Most actions only depend on a few others, so this
+	 * stays small however many ids the session has given out.
+	 */
+	private transient long[] actionIds = new long[INITIAL_CAPACITY];
+
+	/**
+	 * The number of actions in the set.
+	 */
+	private transient int size = 0;
+
+	/**
+	 * The table of the session the ids are from.
+	 */
+	private transient JavaActionTable actionTable = JavaAction.getActionTable();
+
+	/**
+	 * The room there is to start with.
+	 */
+	private static final int INITIAL_CAPACITY = 4;
+
+	/**
+	 * Constructor for an empty set.
+	 */
+	public JavaActionSet() {
+		;
+	}
+
+	/**
+	 * Constructor to copy the actions of another collection.
+	 *
+	 * @param javaActions -- the actions.
+	 */
+	public JavaActionSet(Collection<? extends JavaAction> javaActions) {
+		addAll(javaActions);
+	}
+
+	@Override
+	public boolean add(JavaAction javaAction) {
+		checkTable();
+		long actionId = javaAction.getActionId();
+
+		// The ids mostly come in order, so check the end first.
+		int index = size > 0 && actionIds[size - 1] < actionId ? -(size + 1) : Arrays.binarySearch(actionIds, 0, size, actionId);
+
+		if(index >= 0) {
+			return false;
+		}
+
+		// Make room, and slot it in.
+		index = -(index + 1);
+
+		if(size == actionIds.length) {
+			actionIds = Arrays.copyOf(actionIds, size * 2);
+		}
+
+		System.arraycopy(actionIds, index, actionIds, index + 1, size - index);
+		actionIds[index] = actionId;
+		size++;
+
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object javaAction) {
+		checkTable();
+
+		// An action without an id has never been in any set, and one with an id has that id for as long as it's good.
+		return javaAction instanceof JavaAction && ((JavaAction) javaAction).hasActionId() && containsId(((JavaAction) javaAction).getActionId());
+	}
+
+	@Override
+	public boolean remove(Object javaAction) {
+
+		if(!contains(javaAction)) {
+			return false;
+		}
+
+		int index = Arrays.binarySearch(actionIds, 0, size, ((JavaAction) javaAction).getActionId());
+		System.arraycopy(actionIds, index + 1, actionIds, index, size - index - 1);
+		size--;
+
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends JavaAction> javaActions) {
+
+		if(!(javaActions instanceof JavaActionSet)) {
+			return super.addAll(javaActions);
+		}
+
+		// Merge the two sorted ids, leaving out any that were let go of.
+		JavaActionSet otherSet = (JavaActionSet) javaActions;
+		checkTable();
+		otherSet.checkTable();
+		purge();
+		JavaActionTable.Slots slots = actionTable.getSlots();
+		long[] mergedIds = new long[Math.max(INITIAL_CAPACITY, size + otherSet.size)];
+		int mergedSize = 0, index = 0, otherIndex = 0;
+
+		while(index < size || otherIndex < otherSet.size) {
+
+			if(otherIndex == otherSet.size || (index < size && actionIds[index] < otherSet.actionIds[otherIndex])) {
+				mergedIds[mergedSize++] = actionIds[index++];
+			}
+
+			else if(index == size || otherSet.actionIds[otherIndex] < actionIds[index]) {
+				long otherId = otherSet.actionIds[otherIndex++];
+
+				if(slots.getAction(otherId) != null) {
+					mergedIds[mergedSize++] = otherId;
+				}
+			}
+
+			else {
+				mergedIds[mergedSize++] = actionIds[index++];
+				otherIndex++;
+			}
+		}
+
+		boolean added = mergedSize != size;
+		actionIds = mergedIds;
+		size = mergedSize;
+
+		return added;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> javaActions) {
+
+		if(!(javaActions instanceof JavaActionSet)) {
+			boolean removed = false;
+
+			for(Object javaAction : javaActions) {
+				removed |= remove(javaAction);
+			}
+
+			return removed;
+		}
+
+		// Keep whatever isn't in the other set and is still good, in place.
+		JavaActionSet otherSet = (JavaActionSet) javaActions;
+		checkTable();
+		otherSet.checkTable();
+		JavaActionTable.Slots slots = actionTable.getSlots();
+		int keptSize = 0;
+
+		for(int index = 0; index < size; index++) {
+
+			if(!otherSet.containsId(actionIds[index]) && slots.getAction(actionIds[index]) != null) {
+				actionIds[keptSize++] = actionIds[index];
+			}
+		}
+
+		boolean removed = keptSize != size;
+		size = keptSize;
+
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		checkTable();
+		purge();
+
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Method to get the ids of the actions in the set, in order.
+	 *
+	 * @return int[] -- the ids.
+	 */
+	public long[] getActionIds() {
+		checkTable();
+		purge();
+
+		return Arrays.copyOf(actionIds, size);
+	}
+
+	/**
+	 * Method to move the ids over to the table of the session, if a session was loaded since they were given out. Each action gets
+	 * its id in the new one, in the same order.
+	 */
+	private void checkTable() {
+		JavaActionTable oldTable = actionTable;
+
+		if(oldTable == JavaAction.getActionTable()) {
+			return;
+		}
+
+		JavaActionTable.Slots oldSlots = oldTable.getSlots();
+		long[] oldIds = Arrays.copyOf(actionIds, size);
+		actionTable = JavaAction.getActionTable();
+		size = 0;
+
+		for(long oldId : oldIds) {
+			JavaAction javaAction = oldSlots.getAction(oldId);
+
+			// An action that was let go of isn't part of any session now.
+			if(javaAction != null) {
+				add(javaAction);
+			}
+		}
+	}
+
+	/**
+	 * Method to take out the ids that have been let go of.
+	 */
+	private void purge() {
+		JavaActionTable.Slots slots = actionTable.getSlots();
+		int keptSize = 0;
+
+		for(int index = 0; index < size; index++) {
+
+			if(slots.getAction(actionIds[index]) != null) {
+				actionIds[keptSize++] = actionIds[index];
+			}
+		}
+
+		size = keptSize;
+	}
+
+	/**
+	 * Method to check if an id is in the set.
+	 *
+	 * @param actionId -- the id.
+	 * @return TRUE if it is, FALSE if not.
+	 */
+	private boolean containsId(long actionId) {
+		return Arrays.binarySearch(actionIds, 0, size, actionId) >= 0;
+	}
+
+	@Override
+	public Iterator<JavaAction> iterator() {
+		checkTable();
+
+		return new Iterator<JavaAction>() {
+
+			/**
+			 * The slots to look the ids up in, read once for the whole iteration. An id let go of while it's going is still found
+			 * out, since it's let go of in these same slots, unless the table had to grow in the meantime.
+			 */
+			private JavaActionTable.Slots slots = actionTable.getSlots();
+
+			/**
+			 * The next action, once {@link #hasNext()} has found it.
+			 */
+			private JavaAction nextAction;
+
+			/**
+			 * The index of the next action.
+			 */
+			private int nextIndex = 0;
+
+			/**
+			 * The index of the last action given out, or -1 if it can't be removed.
+			 */
+			private int lastIndex = -1;
+
+			@Override
+			public boolean hasNext() {
+
+				// Skip anything that's been let go of.
+				while(nextAction == null && nextIndex < size) {
+					nextAction = slots.getAction(actionIds[nextIndex]);
+
+					if(nextAction == null) {
+						nextIndex++;
+					}
+				}
+
+				return nextAction != null;
+			}
+
+			@Override
+			public JavaAction next() {
+
+				if(!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				JavaAction javaAction = nextAction;
+				nextAction = null;
+				lastIndex = nextIndex++;
+
+				return javaAction;
+			}
+
+			@Override
+			public void remove() {
+
+				if(lastIndex < 0) {
+					throw new IllegalStateException();
+				}
+
+				System.arraycopy(actionIds, lastIndex + 1, actionIds, lastIndex, size - lastIndex - 1);
+				size--;
+				nextIndex--;
+				lastIndex = -1;
+			}
+		};
+	}
+
+	/**
+	 * Method to save the actions themselves, since their ids won't mean anything when they're read back.
+	 *
+	 * @param objectOutput -- the stream.
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream objectOutput) throws IOException {
+		objectOutput.defaultWriteObject();
+		objectOutput.writeInt(size());
+
+		for(JavaAction javaAction : this) {
+			objectOutput.writeObject(javaAction);
+		}
+	}
+
+	/**
+	 * Method to read the actions back, giving them ids in this session.
+	 *
+	 * @param objectInput -- the stream.
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream objectInput) throws IOException, ClassNotFoundException {
+		objectInput.defaultReadObject();
+		actionIds = new long[INITIAL_CAPACITY];
+		actionTable = JavaAction.getActionTable();
+
+		for(int actionCount = objectInput.readInt(); actionCount > 0; actionCount--) {
+			add((JavaAction) objectInput.readObject());
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package com.actions;
+
+import java.util.Arrays;
+
+/**
+ * Table of the actions that have been given ids in a session (see {@link JavaAction#getActionId()}). An id is the order it was given
+ * out in the high half, and the slot the action is in in the low half, so sorting ids sorts them in the order they were given out.
+ * A slot that's let go of is given out again, with a new id, so the table only ever grows to the most actions held at once.
+ *
+ * Each slot keeps the id it was given out under, and an id is only good while its slot still has it. Anything holding onto ids
+ * checks them that way as it looks them up, so one that's been let go of -- even one whose slot has been given out again -- is
+ * never mistaken for another action.
+ *
+ * The slots are read without locking. They're published through a volatile field each time one changes, so a reader that gets the
+ * slots once sees every change made before that.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaActionTable {
+
+	/**
+	 * The slots.
+	 */
+	private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+
+	/**
+	 * The slots that have been let go of, to give out again, in the first {@link #freeCount} places.
+	 */
+	private int[] freeSlots = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The number of slots let go of that haven't been given out again.
+	 */
+	private int freeCount = 0;
+
+	/**
+	 * The number of slots that have ever been given out.
+	 */
+	private int usedSlots = 0;
+
+	/**
+	 * The order of the next id given out. It starts at 1, so that no id is ever 0.
+	 */
+	private long nextOrder = 1;
+
+	/**
+	 * The room there is to start with.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Class that holds the actions by slot, along with the id each slot was given out under. An empty slot has a NULL action and
+	 * an id of 0.
+	 */
+	static final class Slots {
+
+		/**
+		 * The actions, by slot.
+		 */
+		private final JavaAction[] actions;
+
+		/**
+		 * The ids, by slot.
+		 */
+		private final long[] actionIds;
+
+		/**
+		 * Constructor for empty slots.
+		 *
+		 * @param capacity -- the number of slots.
+		 */
+		private Slots(int capacity) {
+			this.actions = new JavaAction[capacity];
+			this.actionIds = new long[capacity];
+		}
+
+		/**
+		 * Constructor to copy slots into more room.
+		 *
+		 * @param oldSlots -- the slots to copy.
+		 * @param capacity -- the number of slots.
+		 */
+		private Slots(Slots oldSlots, int capacity) {
+			this.actions = Arrays.copyOf(oldSlots.actions, capacity);
+			this.actionIds = Arrays.copyOf(oldSlots.actionIds, capacity);
+		}
+
+		/**
+		 * Method to get the action with an id, if the id is still good.
+		 *
+		 * @param actionId -- the id.
+		 * @return JavaAction -- the action, NULL if the id was let go of.
+		 */
+		JavaAction getAction(long actionId) {
+			int slot = getSlot(actionId);
+
+			// The slot might have been given out again since.
+			return slot < actionIds.length && actionIds[slot] == actionId ? actions[slot] : null;
+		}
+	}
+
+	/**
+	 * Method to give an action an id, in a slot that's been let go of if there is one.
+	 *
+	 * @param javaAction -- the action.
+	 * @return long -- the new id.
+	 */
+	synchronized long add(JavaAction javaAction) {
+		int slot = freeCount > 0 ? freeSlots[--freeCount] : usedSlots++;
+		Slots newSlots = slots;
+
+		if(slot == newSlots.actions.length) {
+			newSlots = new Slots(newSlots, slot * 2);
+		}
+
+		long actionId = (nextOrder++ << 32) | slot;
+
+		newSlots.actions[slot] = javaAction;
+		newSlots.actionIds[slot] = actionId;
+		slots = newSlots;
+
+		return actionId;
+	}
+
+	/**
+	 * Method to let go of an id, so its slot can be given out again.
+	 *
+	 * @param actionId -- the id.
+	 */
+	synchronized void release(long actionId) {
+		Slots newSlots = slots;
+		int slot = getSlot(actionId);
+
+		if(newSlots.getAction(actionId) == null) {
+			return;
+		}
+
+		newSlots.actions[slot] = null;
+		newSlots.actionIds[slot] = 0;
+		slots = newSlots;
+
+		if(freeCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		}
+
+		freeSlots[freeCount++] = slot;
+	}
+
+	/**
+	 * Method to get the slots, to look ids up in. A set gets them once for all of its ids, rather than once for each.
+	 *
+	 * @return {@link Slots} -- the slots.
+	 */
+	Slots getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Method to get the slot of an id.
+	 *
+	 * @param actionId -- the id.
+	 * @return int -- the slot.
+	 */
+	private static int getSlot(long actionId) {
+		return (int) actionId;
+	}
+}
@@ -0,0 +1,92 @@
+package com.actions;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class that represents an array initializer as the user typed it, or one of its elements. A nested initializer keeps its own
+ * elements, so that <code>{{1, 2}, {3}}</code> is an initializer of two initializers, of two and one expressions.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaArrayInitializer implements Serializable {
+
+	/**
+	 * The serial version.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The initializer or the expression, as the user typed it.
+	 */
+	private String text;
+
+	/**
+	 * The elements, NULL if this is an expression rather than an initializer.
+	 */
+	private List<JavaArrayInitializer> elements;
+
+	/**
+	 * The number of expressions in it, all the way down.
+	 */
+	private int size;
+
+	/**
+	 * Constructor for an expression.
+	 *
+	 * @param text -- the expression.
+	 */
+	public JavaArrayInitializer(String text) {
+		this.text = text;
+		this.size = 1;
+	}
+
+	/**
+	 * Constructor for an initializer.
+	 *
+	 * @param text -- the initializer, braces and all.
+	 * @param elements -- its elements.
+	 */
+	public JavaArrayInitializer(String text, List<JavaArrayInitializer> elements) {
+		this.text = text;
+		this.elements = elements;
+		this.size = elements.stream().mapToInt(JavaArrayInitializer::getSize).sum();
+	}
+
+	/**
+	 * Getter for the text.
+	 *
+	 * @return String -- the initializer or the expression, as the user typed it.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Getter for the elements.
+	 *
+	 * @return List -- the elements, empty if this is an expression.
+	 */
+	public List<JavaArrayInitializer> getElements() {
+		return elements == null ? Collections.<JavaArrayInitializer>emptyList() : elements;
+	}
+
+	/**
+	 * Method to check if this is a nested initializer, rather than an expression.
+	 *
+	 * @return TRUE if it's an initializer, FALSE if it's an expression.
+	 */
+	public boolean isInitializer() {
+		return elements != null;
+	}
+
+	/**
+	 * Getter for the size.
+	 *
+	 * @return int -- the number of expressions in it, all the way down.
+	 */
+	public int getSize() {
+		return size;
+	}
+}
@@ -1,5 +1,7 @@
 package com.actions;
 
+import java.util.Objects;
+
 /**
  * Class that represents a java class, that extends {@link JavaAction}.
  *
@@ -46,6 +48,11 @@ public class JavaClass extends JavaAction {
 		}
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(getName());
+	}
+	
 	@Override
 	public String getName() {
 		return getClassName();
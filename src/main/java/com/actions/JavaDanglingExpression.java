@@ -6,7 +6,7 @@ package com.actions;
  * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
  */
 public class JavaDanglingExpression extends JavaAction {
-
+	
 	/**
 	 * Constructor for a dangling expression.
 	 * 
@@ -16,9 +16,13 @@ public class JavaDanglingExpression extends JavaAction {
 		super(rawInput, ActionType.DANGLING_EXPRESSION);
 	}
 
+	/**
+	 * The evaluation goes through a lambda, so the same code works whether the expression has a value or is a void call. See
+	 * {@link com.javasource.InterpreterSuperClass#result(com.javasource.InterpreterSuperClass.ValueStatement)}.
+	 */
 	@Override
 	public String getEvaluation() {
-		return "\"\t\tResult returned: --> \" + (" + getActualEvaluation() + ")";
+		return "result(() -> " + getActualEvaluation() + ")";
 	}
 	
 	@Override
@@ -11,6 +11,12 @@ public class JavaExpression extends JavaAction {
 	 * The expression variable.
 	 */
 	private String expressionVariable;
+	
+	/**
+	 * Does this expression only ever change its variable itself? It's worked out from the parse tree when the expression is put into
+	 * the maps, since the tree isn't saved.
+	 */
+	private boolean selfContained;
 
 	/**
 	 * Constructor for an expression.
@@ -33,6 +39,24 @@ public class JavaExpression extends JavaAction {
 		return expressionVariable;
 	}
 	
+	/**
+	 * Method to check if this expression only ever changes its variable itself.
+	 * 
+	 * @return TRUE if it does, FALSE if it might change something else.
+	 */
+	public boolean isSelfContained() {
+		return selfContained;
+	}
+	
+	/**
+	 * Method to set if this expression only ever changes its variable itself.
+	 * 
+	 * @param selfContained -- TRUE if it does, FALSE if it might change something else.
+	 */
+	public void setSelfContained(boolean selfContained) {
+		this.selfContained = selfContained;
+	}
+	
 	@Override
 	public String getName() {
 		return getExpressionVariable();
@@ -1,5 +1,9 @@
 package com.actions;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Class that extends {@link JavaAction}, representing a Java field.
  *
@@ -12,6 +16,21 @@ public class JavaField extends JavaAction {
 	 */
 	private String fieldName;
 	
+	/**
+	 * The declared type of the field, as the user typed it.
+	 */
+	private String fieldType;
+	
+	/**
+	 * The declared variables, as the user typed them (for example, <code>values[]</code>).
+	 */
+	private List<String> variableDeclaratorIds = new ArrayList<String>();
+	
+	/**
+	 * The array initializer, as the user typed it, when the field declares one variable with one. NULL otherwise.
+	 */
+	private JavaArrayInitializer arrayInitializer;
+	
 	/**
 	 * Constructor that will call the superclass constructor to intialize the raw input and the dependent actions.
 	 * 
@@ -34,6 +53,60 @@ public class JavaField extends JavaAction {
 		return fieldName;
 	}
 	
+	/**
+	 * Getter for the field type.
+	 * 
+	 * @return String -- the field type.
+	 */
+	public String getFieldType() {
+		return fieldType;
+	}
+	
+	/**
+	 * Setter for the field type.
+	 * 
+	 * @param fieldType -- the field type.
+	 */
+	public void setFieldType(String fieldType) {
+		this.fieldType = fieldType;
+	}
+	
+	/**
+	 * Getter for the declared variables.
+	 * 
+	 * @return List -- the declared variables.
+	 */
+	public List<String> getVariableDeclaratorIds() {
+		return variableDeclaratorIds;
+	}
+	
+	/**
+	 * Setter for the declared variables.
+	 * 
+	 * @param variableDeclaratorIds -- the declared variables.
+	 */
+	public void setVariableDeclaratorIds(List<String> variableDeclaratorIds) {
+		this.variableDeclaratorIds = variableDeclaratorIds;
+	}
+	
+	/**
+	 * Getter for the array initializer.
+	 * 
+	 * @return {@link JavaArrayInitializer} -- the initializer, NULL if there isn't one.
+	 */
+	public JavaArrayInitializer getArrayInitializer() {
+		return arrayInitializer;
+	}
+	
+	/**
+	 * Setter for the array initializer.
+	 * 
+	 * @param arrayInitializer -- the initializer.
+	 */
+	public void setArrayInitializer(JavaArrayInitializer arrayInitializer) {
+		this.arrayInitializer = arrayInitializer;
+	}
+	
 	@Override
 	public String getName() {
 		return getFieldName();
@@ -52,6 +125,11 @@ public class JavaField extends JavaAction {
 		}
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(getName());
+	}
+	
 	@Override
 	public String getEvaluation() {
 		return "\"\t\tResult returned: --> " + getFieldName() + " = \" + " + getFieldName();
@@ -3,6 +3,8 @@ package com.actions;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.interpret.JavaInterpreterBenchmark;
+
 /**
  * Class that represents a java identifier, that extends {@link JavaAction} to invoke a certain method.
  *
@@ -47,6 +49,36 @@ public class JavaReservedMethod extends JavaAction {
 		 */
 		UNIMPORT("unimport", "The import could not be unimported -- it may have already been unimported. This is not a failure, but an informational message."),
 		
+		/**
+		 * The add jar method.
+		 */
+		ADD_JAR("addJar", "The jar could not be added -- make sure the path points to an existing jar file."),
+		
+		/**
+		 * The statistics method.
+		 */
+		STATS("stats", ""),
+		
+		/**
+		 * The engine method.
+		 */
+		ENGINE("engine", "The engine could not be set -- use engine(auto), engine(compiler) or engine(interpreter)."),
+		
+		/**
+		 * The tiers method.
+		 */
+		TIERS("tiers", ""),
+		
+		/**
+		 * The types method.
+		 */
+		TYPES("types", ""),
+		
+		/**
+		 * The benchmark method.
+		 */
+		BENCHMARK("benchmark", "The benchmark could not be run -- compile a statement first, then use benchmark(runs) with at least " + JavaInterpreterBenchmark.MINIMUM_RUNS + " runs."),
+		
 		/**
 		 * The exit method.
 		 */
@@ -82,6 +114,24 @@ public class JavaReservedMethod extends JavaAction {
 			return theMethods;
 		}
 		
+		/**
+		 * Method to get the reserved method with a given name.
+		 * 
+		 * @param methodName -- the name of the method called.
+		 * @return ReservedMethods -- the reserved method, NULL if it isn't one.
+		 */
+		public static ReservedMethods getReservedMethod(String methodName) {
+			
+			for(ReservedMethods reservedMethod : values()) {
+				
+				if(reservedMethod.methodName.equals(methodName)) {
+					return reservedMethod;
+				}
+			}
+			
+			return null;
+		}
+		
 		/**
 		 * Method to get the method name.
 		 * 
@@ -0,0 +1,409 @@
+package com.compiler;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of compiled classes, keyed by a hash of the exact generated source that produced them, the class path it was compiled
+ * against, and the JDK that compiled it. There are two tiers:
+ *
+ * <ul>
+ * <li>An in-memory LRU tier, that holds at most a given number of bytes of bytecode.</li>
+ * <li>An optional on-disk tier, one file per source hash, so that compiled classes survive restarts.</li>
+ * </ul>
+ *
+ * The memory budget is set with <code>-Dinterpreter.cache.bytes</code>. The disk tier is off unless
+ * <code>-Dinterpreter.cache.dir</code> points at a directory. Each file there starts with the key it was written under, and
+ * anything read back that isn't under the right key, isn't whole, or isn't class files is treated as a miss and deleted.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterClassCache {
+
+	/**
+	 * The default memory budget -- 16MB of bytecode.
+	 */
+	private static final long DEFAULT_MEMORY_BUDGET = 16L * 1024 * 1024;
+
+	/**
+	 * The extension of the disk tier files.
+	 */
+	private static final String CACHE_FILE_EXTENSION = ".classes";
+
+	/**
+	 * The magic number every class file starts with.
+	 */
+	private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+	/**
+	 * The JDK the classes are compiled and run by.
+	 */
+	private static final String COMPILER_VERSION = System.getProperty("java.version", "") + "\0" + System.getProperty("java.vm.version", "");
+
+	/**
+	 * The memory tier, in access order so the eldest entry is the least recently used.
+	 */
+	private Map<String, Map<String, byte[]>> memoryTier = new LinkedHashMap<String, Map<String, byte[]>>(16, 0.75f, true);
+
+	/**
+	 * The number of bytes of bytecode held by the memory tier.
+	 */
+	private long memoryBytes = 0;
+
+	/**
+	 * The most bytes of bytecode the memory tier may hold.
+	 */
+	private long memoryBudget;
+
+	/**
+	 * The disk tier directory, NULL if there's no disk tier.
+	 */
+	private File diskDirectory;
+
+	/**
+	 * Hits in the memory tier.
+	 */
+	private long memoryHits = 0;
+
+	/**
+	 * Hits in the disk tier.
+	 */
+	private long diskHits = 0;
+
+	/**
+	 * Misses in both tiers.
+	 */
+	private long misses = 0;
+
+	/**
+	 * Entries evicted from the memory tier.
+	 */
+	private long evictions = 0;
+
+	/**
+	 * Constructor that configures the cache from the system properties.
+	 */
+	public JavaInterpreterClassCache() {
+		this(Long.getLong("interpreter.cache.bytes", DEFAULT_MEMORY_BUDGET), System.getProperty("interpreter.cache.dir") == null ? null : new File(System.getProperty("interpreter.cache.dir")));
+	}
+
+	/**
+	 * Constructor to set the memory budget and the disk directory.
+	 *
+	 * @param memoryBudget -- the most bytes of bytecode to hold in memory.
+	 * @param diskDirectory -- the directory for the disk tier, NULL for no disk tier.
+	 */
+	public JavaInterpreterClassCache(long memoryBudget, File diskDirectory) {
+		this.memoryBudget = memoryBudget;
+		this.diskDirectory = diskDirectory;
+
+		// Make sure we have somewhere to write.
+		if(this.diskDirectory != null) {
+			this.diskDirectory.mkdirs();
+		}
+	}
+
+	/**
+	 * Method to get the hash of a generated source by itself, whatever it's compiled against.
+	 *
+	 * @param source -- the generated source.
+	 * @return String -- the hash of the source, as hex.
+	 */
+	public static String getKey(String source) {
+		return hash("", source);
+	}
+
+	/**
+	 * Method to get the key for a given generated source. The same source can compile to different classes, or not at all, when the
+	 * class path is different, so that's part of the key too. So is the JDK doing the compiling, since the disk tier outlives the run,
+	 * and a class compiled by one JDK might not load or behave the same under another.
+	 *
+	 * @param classPath -- the class path it's compiled against.
+	 * @param source -- the generated source.
+	 * @return String -- the hash of the JDK, the class path and the source, as hex.
+	 */
+	public static String getKey(String classPath, String source) {
+		return hash(COMPILER_VERSION, classPath, source);
+	}
+
+	/**
+	 * Method to hash some strings together. A zero byte can't be in a path or a version, so one between each keeps them apart.
+	 *
+	 * @param parts -- the strings, the last of which can have anything in it.
+	 * @return String -- the hash, as hex.
+	 */
+	private static String hash(String... parts) {
+
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+			for(int part = 0; part < parts.length - 1; part++) {
+				messageDigest.update(parts[part].getBytes(StandardCharsets.UTF_8));
+				messageDigest.update((byte) 0);
+			}
+
+			byte[] digest = messageDigest.digest(parts[parts.length - 1].getBytes(StandardCharsets.UTF_8));
+
+			// Turn it into hex.
+			StringBuilder key = new StringBuilder();
+
+			for(byte digestByte : digest) {
+				key.append(String.format("%02x", digestByte));
+			}
+
+			return key.toString();
+		}
+
+		// Every JVM has to support SHA-256, so this shouldn't ever happen.
+		catch(NoSuchAlgorithmException e) {
+			throw new RuntimeException("Failed hashing source!", e);
+		}
+	}
+
+	/**
+	 * Method to get the compiled classes for a given key. Checks memory first, then disk.
+	 *
+	 * @param key -- the source hash.
+	 * @return Map -- the bytecode keyed by class name, NULL if it isn't cached.
+	 */
+	public synchronized Map<String, byte[]> get(String key) {
+
+		// Check memory first.
+		Map<String, byte[]> compiledClasses = memoryTier.get(key);
+
+		if(compiledClasses != null) {
+			memoryHits++;
+			return compiledClasses;
+		}
+
+		// Then disk, and promote it into memory if we find it there.
+		compiledClasses = readFromDisk(key);
+
+		if(compiledClasses != null) {
+			diskHits++;
+			putInMemory(key, compiledClasses);
+			return compiledClasses;
+		}
+
+		// Not anywhere.
+		misses++;
+		return null;
+	}
+
+	/**
+	 * Method to put compiled classes into the cache.
+	 *
+	 * @param key -- the source hash.
+	 * @param compiledClasses -- the bytecode keyed by class name.
+	 */
+	public synchronized void put(String key, Map<String, byte[]> compiledClasses) {
+		putInMemory(key, compiledClasses);
+		writeToDisk(key, compiledClasses);
+	}
+
+	/**
+	 * Method to put compiled classes into the memory tier, evicting the least recently used ones to stay under budget.
+	 *
+	 * @param key -- the source hash.
+	 * @param compiledClasses -- the bytecode keyed by class name.
+	 */
+	private void putInMemory(String key, Map<String, byte[]> compiledClasses) {
+
+		// Replace what was there, if anything.
+		Map<String, byte[]> replaced = memoryTier.put(key, compiledClasses);
+
+		if(replaced != null) {
+			memoryBytes -= getSize(replaced);
+		}
+
+		memoryBytes += getSize(compiledClasses);
+
+		// Evict until we're under budget. Never evict what we just put in.
+		Iterator<Map<String, byte[]>> eldest = memoryTier.values().iterator();
+
+		while(memoryBytes > memoryBudget && memoryTier.size() > 1) {
+			memoryBytes -= getSize(eldest.next());
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Method to read compiled classes from the disk tier.
+	 *
+	 * @param key -- the source hash.
+	 * @return Map -- the bytecode keyed by class name, NULL if it isn't on disk.
+	 */
+	private Map<String, byte[]> readFromDisk(String key) {
+
+		// No disk tier? Nothing to read.
+		if(diskDirectory == null) {
+			return null;
+		}
+
+		File cacheFile = new File(diskDirectory, key + CACHE_FILE_EXTENSION);
+
+		if(!cacheFile.isFile()) {
+			return null;
+		}
+
+		// Read each of the classes back.
+		Map<String, byte[]> compiledClasses = new LinkedHashMap<String, byte[]>();
+
+		try(DataInputStream input = new DataInputStream(new FileInputStream(cacheFile))) {
+
+			// It has to be the entry for this key, all of it, and nothing but class files.
+			boolean valid = key.equals(input.readUTF());
+			int classCount = valid ? input.readInt() : 0;
+
+			for(int classIndex = 0; valid && classIndex < classCount; classIndex++) {
+				String className = input.readUTF();
+				int byteCodeLength = input.readInt();
+
+				if(byteCodeLength < 4 || byteCodeLength > cacheFile.length()) {
+					valid = false;
+					break;
+				}
+
+				byte[] byteCode = new byte[byteCodeLength];
+				input.readFully(byteCode);
+				valid = ((byteCode[0] & 0xff) << 24 | (byteCode[1] & 0xff) << 16 | (byteCode[2] & 0xff) << 8 | (byteCode[3] & 0xff)) == CLASS_FILE_MAGIC;
+				compiledClasses.put(className, byteCode);
+			}
+
+			if(valid && input.read() < 0) {
+				return compiledClasses;
+			}
+		}
+
+		// A bad cache file is just a miss.
+		catch(Exception e) {
+			;
+		}
+
+		System.err.println("Ignoring bad cached classes! Filename : " + cacheFile);
+		cacheFile.delete();
+
+		return null;
+	}
+
+	/**
+	 * Method to write compiled classes to the disk tier.
+	 *
+	 * @param key -- the source hash.
+	 * @param compiledClasses -- the bytecode keyed by class name.
+	 */
+	private void writeToDisk(String key, Map<String, byte[]> compiledClasses) {
+
+		// No disk tier? Nothing to write.
+		if(diskDirectory == null) {
+			return;
+		}
+
+		// Write to a temporary file first, so another process never sees half of an entry.
+		File cacheFile = new File(diskDirectory, key + CACHE_FILE_EXTENSION);
+		File temporaryFile = new File(diskDirectory, key + "." + System.nanoTime() + ".tmp");
+
+		try(DataOutputStream output = new DataOutputStream(new FileOutputStream(temporaryFile))) {
+			output.writeUTF(key);
+			output.writeInt(compiledClasses.size());
+
+			for(Map.Entry<String, byte[]> compiledClass : compiledClasses.entrySet()) {
+				output.writeUTF(compiledClass.getKey());
+				output.writeInt(compiledClass.getValue().length);
+				output.write(compiledClass.getValue());
+			}
+		}
+
+		catch(Exception e) {
+			System.err.println("Failed writing cached classes! Filename : " + cacheFile);
+			temporaryFile.delete();
+			return;
+		}
+
+		// Now move it into place.
+		if(!temporaryFile.renameTo(cacheFile)) {
+			temporaryFile.delete();
+		}
+	}
+
+	/**
+	 * Method to get the number of bytes of bytecode in a set of compiled classes.
+	 *
+	 * @param compiledClasses -- the bytecode keyed by class name.
+	 * @return long -- the size.
+	 */
+	private static long getSize(Map<String, byte[]> compiledClasses) {
+		long size = 0;
+
+		for(byte[] byteCode : compiledClasses.values()) {
+			size += byteCode.length;
+		}
+
+		return size;
+	}
+
+	/**
+	 * Getter for the number of bytes of bytecode held by the memory tier.
+	 *
+	 * @return long -- the bytes.
+	 */
+	public synchronized long getMemoryBytes() {
+		return this.memoryBytes;
+	}
+
+	/**
+	 * Getter for the memory tier hits.
+	 *
+	 * @return long -- the memory hits.
+	 */
+	public synchronized long getMemoryHits() {
+		return this.memoryHits;
+	}
+
+	/**
+	 * Getter for the disk tier hits.
+	 *
+	 * @return long -- the disk hits.
+	 */
+	public synchronized long getDiskHits() {
+		return this.diskHits;
+	}
+
+	/**
+	 * Getter for the misses.
+	 *
+	 * @return long -- the misses.
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Getter for the evictions.
+	 *
+	 * @return long -- the evictions.
+	 */
+	public synchronized long getEvictions() {
+		return this.evictions;
+	}
+
+	/**
+	 * Method to get a printable summary of the counters.
+	 *
+	 * @return String -- the summary.
+	 */
+	public synchronized String getStatistics() {
+		return "Class cache: " + memoryHits + " memory hits, " + diskHits + " disk hits, " + misses + " misses, " + evictions + " evictions, "
+				+ memoryTier.size() + " entries (" + memoryBytes + " of " + memoryBudget + " bytes)" + (diskDirectory == null ? "" : ", disk tier at " + diskDirectory);
+	}
+}
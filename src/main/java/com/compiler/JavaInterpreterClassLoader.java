@@ -0,0 +1,91 @@
+package com.compiler;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+/**
+ * Class loader that defines classes straight from the bytecode the compiler produced in memory. One of these lives for the
+ * whole session, so that classes compiled by one statement can be linked against by the next.
+ *
+ * The bytecode of a class is only held until the class is defined. After that the class itself is all it needs, and the compiler
+ * has its own copy to link against (see {@link JavaInterpreterFileManager}).
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterClassLoader extends ClassLoader {
+
+	/**
+	 * The bytecode of the classes that haven't been defined yet, keyed by the binary class name.
+	 */
+	private Map<String, byte[]> classBytes;
+	
+	/**
+	 * The class loader for any jars the user added, NULL if there aren't any.
+	 */
+	private URLClassLoader jarClassLoader;
+
+	/**
+	 * Constructor to pass in the compiled classes and the parent loader.
+	 *
+	 * @param classBytes -- the bytecode, keyed by the binary class name.
+	 * @param parent -- the parent class loader.
+	 */
+	public JavaInterpreterClassLoader(Map<String, byte[]> classBytes, ClassLoader parent) {
+		super(parent);
+		this.classBytes = classBytes;
+	}
+	
+	/**
+	 * Method to add newly compiled classes, so they can be loaded. A class that's already been defined keeps the one it has.
+	 * 
+	 * @param newClassBytes -- the bytecode, keyed by the binary class name.
+	 */
+	public synchronized void addClasses(Map<String, byte[]> newClassBytes) {
+		
+		newClassBytes.forEach( (className, byteCode) -> {
+			
+			if(findLoadedClass(className) == null) {
+				classBytes.put(className, byteCode);
+			}
+		});
+	}
+	
+	/**
+	 * Method to check if we have a class, either defined already or waiting to be.
+	 * 
+	 * @param className -- the binary class name.
+	 * @return TRUE if we can load it, FALSE if not.
+	 */
+	public synchronized boolean containsClass(String className) {
+		return classBytes.containsKey(className) || findLoadedClass(className) != null;
+	}
+	
+	/**
+	 * Method to add a jar, so its classes can be loaded.
+	 * 
+	 * @param jarUrl -- the jar.
+	 */
+	public synchronized void addJar(URL jarUrl) {
+		jarClassLoader = new URLClassLoader(new URL[]{jarUrl}, jarClassLoader == null ? getParent() : jarClassLoader);
+	}
+
+	@Override
+	protected synchronized Class<?> findClass(String className) throws ClassNotFoundException {
+
+		// Get the bytes for this class. Once it's defined, they aren't needed anymore.
+		byte[] byteCode = classBytes.remove(className);
+
+		// If we didn't compile it, it might be in one of the jars.
+		if(byteCode == null) {
+			
+			if(jarClassLoader != null) {
+				return jarClassLoader.loadClass(className);
+			}
+			
+			throw new ClassNotFoundException(className);
+		}
+
+		return defineClass(className, byteCode, 0, byteCode.length);
+	}
+}
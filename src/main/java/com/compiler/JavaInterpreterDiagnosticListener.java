@@ -29,7 +29,7 @@ public class JavaInterpreterDiagnosticListener implements DiagnosticListener {
 	public void report(Diagnostic diagnostic) {
 		
 		// Put the error lines together.
-		List<String> errorLines = Arrays.asList(diagnostic.toString().replaceAll("\\/CompileClass.java:[0-9]+: ", "").replace("error:", "ERROR:").split("\n"));
+		List<String> errorLines = Arrays.asList(diagnostic.toString().replaceAll("\\/repl\\/\\w+.java:[0-9]+: ", "").replace("error:", "ERROR:").split("\n"));
 		
 		// The ultimate error message for this.
 		diagnosticError.append(errorLines.get(0) + "\n");
@@ -47,12 +47,13 @@ public class JavaInterpreterDiagnosticListener implements DiagnosticListener {
 			}
 			
 			// If we've got result returned, we need to exclude this line and the next.
-			if(errorLine.contains("Result returned: -->")) {
+			if(errorLine.contains("Result returned: -->") || errorLine.contains("result(() -> ")) {
 				excludeLine = true;
 			}
 			
-			// Otherwise, we need to check to see if we make reference to the compile clas, we don't want that to show.
-			else if(!errorLine.contains("location: class CompileClass")) {
+			// Otherwise, we need to check to see if we make reference to the compile class or a snippet, we don't want that to show. The
+			// note about simplified messages comes from the result() overloads, so don't show that either.
+			else if(!errorLine.contains("location: class repl.") && !errorLine.startsWith("Note: Some messages have been simplified")) {
 				diagnosticError.append("\t\t" + errorLine + "\n");
 			}
 		}
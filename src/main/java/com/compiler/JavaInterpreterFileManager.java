@@ -0,0 +1,256 @@
+package com.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+import com.javasource.JavaClassOutput;
+
+/**
+ * File manager that forwards everything to the standard file manager, except for the class output. Compiled classes are
+ * captured as {@link JavaClassOutput} objects, so that nothing gets written to the working directory.
+ * <br><br>
+ * 
+ * This file manager is meant to live for the whole session. The standard file manager underneath keeps its opened archives, and
+ * we remember each package listing the compiler asks for, so that only the first statement pays for scanning the JDK and the class path.
+ * The listings are only thrown away through {@link #invalidate()} -- when an import or a jar is added.
+ * <br><br>
+ * 
+ * Classes compiled earlier in the session are listed on the class path too, so new statements can link against them without
+ * compiling them again. They're kept by package, and a snippet that's been declared over is taken back out through
+ * {@link #removeSessionClasses(String)}, so the listing only ever has what the session can still use.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+	/**
+	 * The classes written by the compiler, keyed by their binary name.
+	 */
+	private Map<String, JavaClassOutput> compiledClasses = new LinkedHashMap<String, JavaClassOutput>();
+	
+	/**
+	 * The package listings we've already asked the standard file manager for.
+	 */
+	private Map<String, List<JavaFileObject>> listingCache = new HashMap<String, List<JavaFileObject>>();
+	
+	/**
+	 * The classes compiled earlier in the session, by their binary name, keyed by their package name.
+	 */
+	private Map<String, Map<String, JavaFileObject>> sessionClasses = new HashMap<String, Map<String, JavaFileObject>>();
+
+	/**
+	 * Constructor to wrap the standard file manager.
+	 *
+	 * @param standardFileManager -- the standard file manager to forward to.
+	 */
+	public JavaInterpreterFileManager(StandardJavaFileManager standardFileManager) {
+		super(standardFileManager);
+	}
+	
+	@Override
+	public Iterable<JavaFileObject> list(Location location, String packageName, Set<Kind> kinds, boolean recurse) throws IOException {
+		
+		// The key for this listing.
+		String listingKey = location.getName() + ":" + packageName + ":" + kinds + ":" + recurse;
+		
+		// Get the cached listing.
+		List<JavaFileObject> listing = listingCache.get(listingKey);
+		
+		// If we haven't asked for this before, go list it and remember what we found.
+		if(listing == null) {
+			listing = new ArrayList<JavaFileObject>();
+			
+			for(JavaFileObject fileObject : super.list(location, packageName, kinds, recurse)) {
+				listing.add(fileObject);
+			}
+			
+			listingCache.put(listingKey, listing);
+		}
+		
+		// Add on the classes from earlier in the session, if they're in this package. They're walked where they are, not copied.
+		Map<String, JavaFileObject> packageClasses = sessionClasses.get(packageName);
+		
+		if(StandardLocation.CLASS_PATH.equals(location) && kinds.contains(Kind.CLASS) && packageClasses != null && !packageClasses.isEmpty()) {
+			
+			if(listing.isEmpty()) {
+				return packageClasses.values();
+			}
+			
+			List<JavaFileObject> packageListing = listing;
+			return () -> Stream.concat(packageListing.stream(), packageClasses.values().stream()).iterator();
+		}
+		
+		return listing;
+	}
+	
+	@Override
+	public String inferBinaryName(Location location, JavaFileObject fileObject) {
+		
+		// We know the name of the classes we compiled.
+		if(fileObject instanceof JavaClassOutput) {
+			return ((JavaClassOutput) fileObject).getClassName();
+		}
+		
+		return super.inferBinaryName(location, fileObject);
+	}
+	
+	@Override
+	public boolean isSameFile(FileObject fileObject, FileObject otherFileObject) {
+		
+		// The standard file manager only knows about its own files.
+		if(fileObject instanceof JavaClassOutput || otherFileObject instanceof JavaClassOutput) {
+			return fileObject.toUri().equals(otherFileObject.toUri());
+		}
+		
+		return super.isSameFile(fileObject, otherFileObject);
+	}
+
+	@Override
+	public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling) {
+
+		// Keep the class in memory instead of writing it out.
+		JavaClassOutput classOutput = new JavaClassOutput(className);
+		compiledClasses.put(className, classOutput);
+
+		return classOutput;
+	}
+
+	/**
+	 * Method to get the bytecode of everything compiled since the last call, and then forget about it so the next compile starts fresh.
+	 *
+	 * @return Map -- the bytecode, keyed by the binary class name.
+	 */
+	public Map<String, byte[]> takeCompiledClasses() {
+
+		// The bytecode to return.
+		Map<String, byte[]> classBytes = new LinkedHashMap<String, byte[]>();
+
+		// Grab the bytes off of each of the outputs.
+		for(JavaClassOutput classOutput : compiledClasses.values()) {
+			classBytes.put(classOutput.getClassName(), classOutput.getBytes());
+		}
+		
+		// Start fresh for the next compile.
+		compiledClasses.clear();
+
+		return classBytes;
+	}
+	
+	/**
+	 * Method to add compiled classes to the session, so that the compiler can link against them.
+	 * 
+	 * @param compiledClasses -- the bytecode, keyed by the binary class name.
+	 */
+	public void addSessionClasses(Map<String, byte[]> compiledClasses) {
+		
+		for(Map.Entry<String, byte[]> compiledClass : compiledClasses.entrySet()) {
+			
+			String className = compiledClass.getKey();
+			
+			// Either GET the existing classes, or CREATE a new map to hold them. The same class compiled again replaces the old one.
+			sessionClasses.computeIfAbsent(getPackageName(className), newPackageName -> new LinkedHashMap<String, JavaFileObject>())
+							.put(className, new JavaClassOutput(className, compiledClass.getValue()));
+		}
+	}
+	
+	/**
+	 * Method to take a class compiled earlier in the session, along with its nested classes, back off of the class path. Nothing new
+	 * can link against it after that.
+	 * 
+	 * @param className -- the binary class name.
+	 */
+	public void removeSessionClasses(String className) {
+		Map<String, JavaFileObject> packageClasses = sessionClasses.get(getPackageName(className));
+		
+		if(packageClasses != null) {
+			packageClasses.keySet().removeIf( sessionClassName -> sessionClassName.equals(className) || sessionClassName.startsWith(className + "$") );
+		}
+	}
+	
+	/**
+	 * Method to get the bytecode of a class compiled earlier in the session, and of any classes nested in it.
+	 * 
+	 * @param className -- the binary class name.
+	 * @return Map -- the bytecode, keyed by the binary class name, empty if it isn't on the class path.
+	 */
+	public Map<String, byte[]> getSessionClasses(String className) {
+		Map<String, byte[]> classBytes = new HashMap<String, byte[]>();
+		
+		sessionClasses.getOrDefault(getPackageName(className), Collections.<String, JavaFileObject>emptyMap()).forEach( (sessionClassName, sessionClass) -> {
+			
+			if(sessionClassName.equals(className) || sessionClassName.startsWith(className + "$")) {
+				classBytes.put(sessionClassName, ((JavaClassOutput) sessionClass).getBytes());
+			}
+		});
+		
+		return classBytes;
+	}
+	
+	/**
+	 * Method to get the number of classes compiled earlier in the session that are on the class path.
+	 * 
+	 * @return int -- the number of classes.
+	 */
+	public int getSessionClassCount() {
+		return sessionClasses.values().stream().mapToInt(Map::size).sum();
+	}
+	
+	/**
+	 * Method to get the package of a class.
+	 * 
+	 * @param className -- the binary class name.
+	 * @return String -- the package name, empty for the default package.
+	 */
+	private static String getPackageName(String className) {
+		return className.contains(".") ? className.substring(0, className.lastIndexOf('.')) : "";
+	}
+	
+	/**
+	 * Method to add a jar (or directory) onto the class path the compiler sees. This will invalidate the listings.
+	 * 
+	 * @param classPathEntry -- the jar or directory.
+	 * @throws IOException
+	 */
+	public void addToClassPath(File classPathEntry) throws IOException {
+		
+		// The current class path.
+		List<File> classPath = new ArrayList<File>();
+		
+		// If nothing's been set yet, the standard file manager uses the system class path.
+		Iterable<? extends File> existingClassPath = fileManager.getLocation(StandardLocation.CLASS_PATH);
+		
+		if(existingClassPath != null) {
+			for(File existingEntry : existingClassPath) {
+				classPath.add(existingEntry);
+			}
+		}
+		
+		classPath.add(classPathEntry);
+		fileManager.setLocation(StandardLocation.CLASS_PATH, classPath);
+		
+		// The class path listings are now out of date.
+		invalidate();
+	}
+	
+	/**
+	 * Method to throw away the cached package listings.
+	 */
+	public void invalidate() {
+		listingCache.clear();
+	}
+}
@@ -0,0 +1,72 @@
+package com.compiler;
+
+import java.util.Map;
+
+/**
+ * Class loader for a single statement class. Snippets live for the whole session in the {@link JavaInterpreterClassLoader}, but a
+ * statement only runs once, so it gets a loader of its own under the session loader. Once nothing holds onto the statement, the
+ * loader and its class can be unloaded, and the Metaspace they took comes back.
+ *
+ * A class under this loader is in a different runtime package than the snippets, even though they share a name, so it can only use
+ * what's public in them. The snippets' own members are, and so is everything in the user's classes and enums that isn't private,
+since their snippets make it public.
+ *
+ * The classes it's given always come from it, before the session loader is asked. That way it can also hold fresh copies of
+ * snippets the session already has, for the benchmark (see {@link com.interpret.JavaInterpreterBenchmark}).
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterStatementLoader extends ClassLoader {
+
+	/**
+	 * The bytecode of the statement class and any classes nested in it, keyed by the binary class name.
+	 */
+	private Map<String, byte[]> classBytes;
+
+	/**
+	 * Constructor to pass in the statement's classes and the session loader.
+	 *
+	 * @param classBytes -- the bytecode, keyed by the binary class name.
+	 * @param parent -- the session class loader, for the snippets and anything else the statement uses.
+	 */
+	public JavaInterpreterStatementLoader(Map<String, byte[]> classBytes, ClassLoader parent) {
+		super(parent);
+		this.classBytes = classBytes;
+	}
+
+	@Override
+	protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+
+		if(!classBytes.containsKey(className)) {
+			return super.loadClass(className, resolve);
+		}
+
+		// Ours, even if the session loader has one by the same name.
+		synchronized(getClassLoadingLock(className)) {
+			Class<?> loadedClass = findLoadedClass(className);
+
+			if(loadedClass == null) {
+				loadedClass = findClass(className);
+			}
+
+			if(resolve) {
+				resolveClass(loadedClass);
+			}
+
+			return loadedClass;
+		}
+	}
+
+	@Override
+	protected synchronized Class<?> findClass(String className) throws ClassNotFoundException {
+
+		// Get the bytes for this class.
+		byte[] byteCode = classBytes.get(className);
+
+		if(byteCode == null) {
+			throw new ClassNotFoundException(className);
+		}
+
+		return defineClass(className, byteCode, 0, byteCode.length);
+	}
+}
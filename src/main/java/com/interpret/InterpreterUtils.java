@@ -3,6 +3,9 @@ package com.interpret;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.misc.Interval;
+
 import com.actions.ActionType;
 import com.actions.JavaAction;
 
@@ -90,4 +93,15 @@ public class InterpreterUtils {
 	public static boolean isDanglingExpression(JavaAction javaAction) {
 		return ActionType.DANGLING_EXPRESSION.equals(javaAction.getActionType());
 	}
+	
+	/**
+	 * Return the text of the given parse tree exactly as the user typed it, whitespace included. The <code>getText()</code> of a parse
+	 * tree glues the tokens together, which loses the spaces we need for things like <code>List&lt;? extends Number&gt;</code>.
+	 * 
+	 * @param parseContext -- the parse tree.
+	 * @return String -- the original text.
+	 */
+	public static String getOriginalText(ParserRuleContext parseContext) {
+		return parseContext.start.getInputStream().getText(Interval.of(parseContext.start.getStartIndex(), parseContext.stop.getStopIndex()));
+	}
 }
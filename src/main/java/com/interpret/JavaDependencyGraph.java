@@ -0,0 +1,506 @@
+package com.interpret;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.actions.JavaAction;
+
+/**
+ * Class that keeps the graph of which actions depend on which. Each action in it is given a node id, so the graph only grows with
+ * what's in it, and an action's closure -- everything it depends on, all the way down -- comes out in the order it needs running:
+ *
+ * <pre>
+ * int x = 5;                 -->   [x]
+ * int y = x + 1;             -->   [x, y]
+ * int m() { return y; }      -->   [x, y, m]
+ * m();                       -->   [x, y, m, m()]
+ * </pre>
+ *
+ * A closure is found by walking the graph from the action, dependencies first, and every action's closure is remembered the first
+ * time it's needed. After that, getting it costs its length, to copy it out. The first time costs its length plus the edges walked
+ * to find it, and a dependency whose closure is remembered is copied in rather than walked, so a new link on the end of a chain of
+ * assignments only walks its own edges. What that costs is space: each action keeps its whole closure, so a chain of n assignments
+ * keeps n * (n + 1) / 2 node ids. That's why no more than <code>-Dinterpreter.graph.memo</code> node ids (about a million by default, or 4MB)
+ * are remembered in all. Past that, closures that aren't remembered yet are walked every time, at the cost of the first time.
+ * Closures that run into a cycle (a method that reads a field, and an assignment to the field that calls the method) are never
+ * remembered, since every action in the cycle would have a different one.
+ *
+ * A statement nothing depends on (like <code>m();</code>) is never put in the graph. When the dependencies of an action change (say,
+ * a method picks up a new assignment of a field it reads), {@link #update(JavaAction)} forgets the closures that were built from it,
+ * which is its own and that of everything that depends on it, found through the reverse edges.
+ * When the maps drop an action, {@link #remove(JavaAction)} takes it out of the graph once nothing depends on it anymore, and its node
+ * id goes to the next action that comes in.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaDependencyGraph {
+
+	/**
+	 * The instance.
+	 */
+	private static final JavaDependencyGraph INSTANCE = new JavaDependencyGraph();
+
+	/**
+	 * The default number of node ids to remember closures for, in all.
+	 */
+	private static final int DEFAULT_MEMO_BUDGET = 1 << 20;
+
+	/**
+	 * The node id of each action in the graph. Actions that are equal by name are still different nodes.
+	 */
+	private Map<JavaAction, Integer> nodeIds = new IdentityHashMap<JavaAction, Integer>();
+
+	/**
+	 * The actions in the graph, by node id. NULL for an id that's free.
+	 */
+	private List<JavaAction> nodes = new ArrayList<JavaAction>();
+
+	/**
+	 * The node ids of what each action depends on directly, by node id.
+	 */
+	private List<int[]> dependencies = new ArrayList<int[]>();
+
+	/**
+	 * The node ids of what depends on each action directly, by node id.
+	 */
+	private List<BitSet> dependents = new ArrayList<BitSet>();
+
+	/**
+	 * The remembered closure of each action, in the order it needs running, by node id. NULL if there isn't one.
+	 */
+	private List<int[]> closures = new ArrayList<int[]>();
+
+	/**
+	 * The node ids of the actions the maps have dropped, that are still here because something depends on them.
+	 */
+	private BitSet dropped = new BitSet();
+
+	/**
+	 * The node ids that are free to be given out again.
+	 */
+	private BitSet freeIds = new BitSet();
+
+	/**
+	 * The number of node ids in all of the remembered closures.
+	 */
+	private long memoizedIds = 0;
+
+	/**
+	 * The most node ids to remember closures for, in all.
+	 */
+	private long memoBudget = Long.getLong("interpreter.graph.memo", DEFAULT_MEMO_BUDGET);
+
+	/**
+	 * The number of closures that were already remembered when they were needed.
+	 */
+	private long closureHits = 0;
+
+	/**
+	 * The number of closures that had to be walked.
+	 */
+	private long closureMisses = 0;
+
+	/**
+	 * The number of actions taken out of the graph.
+	 */
+	private long removedNodes = 0;
+
+	/**
+	 * No-op private constructor.
+	 */
+	private JavaDependencyGraph() {
+		;
+	}
+
+	/**
+	 * Get the singleton instance.
+	 *
+	 * @return JavaDependencyGraph -- the instance.
+	 */
+	public static JavaDependencyGraph getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Method to get the closure of an action -- everything it depends on, all the way down, each once, with the dependencies before
+	 * what depends on them. The action itself comes last.
+	 *
+	 * @param javaAction -- the action.
+	 * @return List -- the closure, in order.
+	 */
+	public synchronized List<JavaAction> getClosure(JavaAction javaAction) {
+		Integer nodeId = nodeIds.get(javaAction);
+		List<Integer> closureIds = new ArrayList<Integer>();
+		BitSet seen = new BitSet();
+
+		// Not in the graph, so it's put together from what it depends on, without giving it a node. Anything it depends on that's been
+		// taken out of the graph since has let go of its id, and nothing needs it run anymore.
+		if(nodeId == null) {
+
+			for(JavaAction dependentAction : javaAction.getDependentActions()) {
+
+				if(dependentAction.hasActionId()) {
+					addClosure(getNodeId(dependentAction), seen, closureIds);
+				}
+			}
+		}
+
+		else {
+			addClosure(nodeId, seen, closureIds);
+		}
+
+		List<JavaAction> closure = new ArrayList<JavaAction>(closureIds.size() + 1);
+		closureIds.forEach( closureId -> closure.add(nodes.get(closureId)) );
+
+		if(nodeId == null) {
+			closure.add(javaAction);
+		}
+
+		return closure;
+	}
+
+	/**
+	 * Method to put an action the maps keep into the graph, so that what it depends on knows about it.
+	 *
+	 * @param javaAction -- the action.
+	 */
+	public synchronized void add(JavaAction javaAction) {
+		Integer nodeId = nodeIds.get(javaAction);
+
+		// Something depended on it before the maps had it, so it's kept for real now.
+		if(nodeId != null) {
+			dropped.clear(nodeId);
+		}
+
+		getNodeId(javaAction);
+	}
+
+	/**
+	 * Method to tell the graph the maps have dropped an action -- it's been declared over, or compacted away. It's taken out as soon as
+	 * nothing depends on it, along with anything else the maps have dropped that was only still here for it.
+	 *
+	 * @param javaAction -- the action.
+	 */
+	public synchronized void remove(JavaAction javaAction) {
+		Integer nodeId = nodeIds.get(javaAction);
+
+		if(nodeId != null) {
+			dropped.set(nodeId);
+			freeUnused(nodeId);
+		}
+	}
+
+	/**
+	 * Method to get the actions that depend on an action directly.
+	 *
+	 * @param javaAction -- the action.
+	 * @return List -- the actions, none if it isn't in the graph.
+	 */
+	public synchronized List<JavaAction> getDependents(JavaAction javaAction) {
+		Integer nodeId = nodeIds.get(javaAction);
+
+		if(nodeId == null) {
+			return Collections.emptyList();
+		}
+
+		return dependents.get(nodeId).stream().mapToObj(nodes::get).collect(Collectors.toList());
+	}
+
+	/**
+	 * Method to tell the graph the dependencies of an action have changed. The closures built from it are forgotten, and anything
+	 * the maps have dropped that it no longer depends on is taken out.
+	 *
+	 * @param javaAction -- the action.
+	 */
+	public synchronized void update(JavaAction javaAction) {
+		Integer nodeId = nodeIds.get(javaAction);
+
+		// Nothing to update if we've never seen it. We'll read what it depends on when we do.
+		if(nodeId == null) {
+			return;
+		}
+
+		// Take the old edges out, and put the new ones in.
+		int[] oldDependencyIds = dependencies.get(nodeId);
+
+		for(int dependencyId : oldDependencyIds) {
+			dependents.get(dependencyId).clear(nodeId);
+		}
+
+		setDependencies(nodeId);
+		forgetClosures(nodeId);
+
+		for(int dependencyId : oldDependencyIds) {
+			freeUnused(dependencyId);
+		}
+	}
+
+	/**
+	 * Method to forget the whole graph, for when the maps are loaded and all new actions come in.
+	 */
+	public synchronized void clear() {
+		nodeIds.clear();
+		nodes.clear();
+		dependencies.clear();
+		dependents.clear();
+		closures.clear();
+		dropped.clear();
+		freeIds.clear();
+		memoizedIds = 0;
+	}
+
+	/**
+	 * Method to get the statistics of the graph, to show the user.
+	 *
+	 * @return String -- the statistics.
+	 */
+	public synchronized String getStatistics() {
+		return "Dependency graph: " + nodeIds.size() + " actions (" + dropped.cardinality() + " dropped but kept for the fields and types built on them, " + removedNodes + " removed), "
+				+ closureHits + " closures looked up, " + closureMisses + " walked, " + memoizedIds + " ids remembered";
+	}
+
+	/**
+	 * Method to get the node id of an action, adding it to the graph if it's new.
+	 *
+	 * @param javaAction -- the action.
+	 * @return int -- the node id.
+	 */
+	private int getNodeId(JavaAction javaAction) {
+		Integer nodeId = nodeIds.get(javaAction);
+
+		if(nodeId != null) {
+			return nodeId;
+		}
+
+		// Add it in, in a free slot if there is one, then what it depends on.
+		nodeId = freeIds.nextSetBit(0);
+
+		if(nodeId < 0) {
+			nodeId = nodes.size();
+			nodes.add(null);
+			dependencies.add(null);
+			dependents.add(new BitSet());
+			closures.add(null);
+		}
+
+		freeIds.clear(nodeId);
+		nodeIds.put(javaAction, nodeId);
+		nodes.set(nodeId, javaAction);
+		dependencies.set(nodeId, new int[0]);
+
+		setDependencies(nodeId);
+
+		return nodeId;
+	}
+
+	/**
+	 * Method to read the direct dependencies of an action into the graph, adding any that are new. Anything that used to be a join
+	 * point's only dependent might make it one now, so nothing has to change for that -- it's remembered the next time it's walked.
+	 *
+	 * @param nodeId -- the action's node id.
+	 */
+	private void setDependencies(int nodeId) {
+		int[] dependencyIds = nodes.get(nodeId).getDependentActions().stream().mapToInt(this::getNodeId).toArray();
+
+		for(int dependencyId : dependencyIds) {
+			dependents.get(dependencyId).set(nodeId);
+		}
+
+		dependencies.set(nodeId, dependencyIds);
+	}
+
+	/**
+	 * Method to forget the remembered closures an action is in -- its own, and those of everything that depends on it.
+	 *
+	 * @param nodeId -- the action's node id.
+	 */
+	private void forgetClosures(int nodeId) {
+		BitSet invalidated = new BitSet();
+		BitSet visited = new BitSet();
+		invalidated.set(nodeId);
+
+		for(int invalidatedId = nodeId; invalidatedId >= 0; invalidatedId = invalidated.nextSetBit(0)) {
+			invalidated.clear(invalidatedId);
+			visited.set(invalidatedId);
+			forgetClosure(invalidatedId);
+
+			// Everything that depends on it, that hasn't been done yet.
+			BitSet invalidatedDependents = (BitSet) dependents.get(invalidatedId).clone();
+			invalidatedDependents.andNot(visited);
+			invalidated.or(invalidatedDependents);
+		}
+	}
+
+	/**
+	 * Method to forget the remembered closure of one action.
+	 *
+	 * @param nodeId -- the action's node id.
+	 */
+	private void forgetClosure(int nodeId) {
+		int[] closure = closures.get(nodeId);
+
+		if(closure != null) {
+			memoizedIds -= closure.length;
+			closures.set(nodeId, null);
+		}
+	}
+
+	/**
+	 * Method to take a dropped action out of the graph if nothing depends on it, and then anything dropped that was only still here
+	 * for it.
+	 *
+	 * @param nodeId -- the action's node id.
+	 */
+	private void freeUnused(int nodeId) {
+		Deque<Integer> unusedIds = new ArrayDeque<Integer>();
+		unusedIds.push(nodeId);
+
+		while(!unusedIds.isEmpty()) {
+			int unusedId = unusedIds.pop();
+
+			if(!dropped.get(unusedId) || !dependents.get(unusedId).isEmpty()) {
+				continue;
+			}
+
+			for(int dependencyId : dependencies.get(unusedId)) {
+				dependents.get(dependencyId).clear(unusedId);
+				unusedIds.push(dependencyId);
+			}
+
+			// Nothing was built on it, so its own closure is all there is to forget, and its id can go too.
+			forgetClosure(unusedId);
+			nodes.get(unusedId).releaseActionId();
+			nodeIds.remove(nodes.get(unusedId));
+			nodes.set(unusedId, null);
+			dependencies.set(unusedId, null);
+			dropped.clear(unusedId);
+			freeIds.set(unusedId);
+			removedNodes++;
+		}
+	}
+
+	/**
+	 * Method to add the closure of an action to a closure being put together, leaving out what's already in it. The action's closure
+	 * is remembered the first time it's needed, unless it runs into a cycle or there's no budget left for it.
+	 *
+	 * @param nodeId -- the action's node id.
+	 * @param seen -- the node ids already in the closure.
+	 * @param closureIds -- the closure so far, in order.
+	 */
+	private void addClosure(int nodeId, BitSet seen, List<Integer> closureIds) {
+
+		if(seen.get(nodeId)) {
+			return;
+		}
+
+		if(closures.get(nodeId) != null) {
+			closureHits++;
+			spliceClosure(closures.get(nodeId), seen, closureIds);
+			return;
+		}
+
+		closureMisses++;
+
+		// No room left to remember it, so it's walked right into the closure.
+		if(memoizedIds >= memoBudget) {
+			walkClosure(nodeId, seen, closureIds);
+			return;
+		}
+
+		List<Integer> nodeClosureIds = new ArrayList<Integer>();
+		int[] nodeClosure = null;
+
+		if(walkClosure(nodeId, new BitSet(), nodeClosureIds)) {
+			nodeClosure = nodeClosureIds.stream().mapToInt(Integer::intValue).toArray();
+			closures.set(nodeId, nodeClosure);
+			memoizedIds += nodeClosure.length;
+		}
+
+		spliceClosure(nodeClosure != null ? nodeClosure : nodeClosureIds.stream().mapToInt(Integer::intValue).toArray(), seen, closureIds);
+	}
+
+	/**
+	 * Method to add a closure that's already in order to a closure being put together, leaving out what's already in it.
+	 *
+	 * @param nodeClosure -- the node ids of the closure to add.
+	 * @param seen -- the node ids already in the closure.
+	 * @param closureIds -- the closure so far, in order.
+	 */
+	private static void spliceClosure(int[] nodeClosure, BitSet seen, List<Integer> closureIds) {
+
+		for(int closureId : nodeClosure) {
+
+			if(!seen.get(closureId)) {
+				seen.set(closureId);
+				closureIds.add(closureId);
+			}
+		}
+	}
+
+	/**
+	 * Method to walk the closure of an action, each action once, with the dependencies first. Any remembered closure it comes to is
+	 * added as it is, rather than walked. It keeps its own stack, so a long chain of assignments can't run out of the thread's.
+	 *
+	 * @param nodeId -- the action's node id.
+	 * @param seen -- the node ids already in the closure.
+	 * @param closureIds -- the closure so far, in order.
+	 * @return boolean -- TRUE if it didn't run into a cycle, FALSE if it did.
+	 */
+	private boolean walkClosure(int nodeId, BitSet seen, List<Integer> closureIds) {
+
+		if(seen.get(nodeId)) {
+			return true;
+		}
+
+		// Each entry is a node id, and how many of its dependencies have been walked.
+		Deque<int[]> walkStack = new ArrayDeque<int[]>();
+		BitSet onStack = new BitSet();
+		boolean acyclic = true;
+
+		seen.set(nodeId);
+		onStack.set(nodeId);
+		walkStack.push(new int[] { nodeId, 0 });
+
+		while(!walkStack.isEmpty()) {
+			int[] walking = walkStack.peek();
+			int[] walkingDependencies = dependencies.get(walking[0]);
+
+			// Done with everything it depends on, so it goes in.
+			if(walking[1] == walkingDependencies.length) {
+				walkStack.pop();
+				onStack.clear(walking[0]);
+				closureIds.add(walking[0]);
+				continue;
+			}
+
+			int dependencyId = walkingDependencies[walking[1]++];
+
+			if(onStack.get(dependencyId)) {
+				acyclic = false;
+			}
+
+			else if(!seen.get(dependencyId)) {
+
+				if(closures.get(dependencyId) != null) {
+					closureHits++;
+					spliceClosure(closures.get(dependencyId), seen, closureIds);
+				}
+
+				else {
+					seen.set(dependencyId);
+					onStack.set(dependencyId);
+					walkStack.push(new int[] { dependencyId, 0 });
+				}
+			}
+		}
+
+		return acyclic;
+	}
+}
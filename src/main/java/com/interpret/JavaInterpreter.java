@@ -1,17 +1,13 @@
 package com.interpret;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Scanner;
-import java.util.Stack;
 
-import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 import com.actions.JavaAction;
-import com.antlr.Java8Lexer;
-import com.antlr.Java8Parser;
+import com.interpret.evaluator.JavaExpressionEvaluator;
+import com.interpret.evaluator.JavaTreeInterpreter;
 import com.interpret.listener.JavaInterpreterBaseListener;
 import com.javasource.InterpreterSuperClass;
 
@@ -22,60 +18,6 @@ import com.javasource.InterpreterSuperClass;
  */
 public class JavaInterpreter {
 	
-	/**
-	 * Constant for start brace.
-	 */
-	private static final String START_BRACE = "{";
-	
-	/**
-	 * Constant for end brace.
-	 */
-	private static final String END_BRACE = "}";
-	
-	/**
-	 * Constant for start paren.
-	 */
-	private static final String START_PAREN = "(";
-	
-	/**
-	 * Constant for end paren.
-	 */
-	private static final String END_PAREN = ")";
-	
-	/**
-	 * Constant for start bracket.
-	 */
-	private static final String START_BRACKET = "[";
-	
-	/**
-	 * Constant for end bracket.
-	 */
-	private static final String END_BRACKET = "]";
-	
-	/**
-	 * Constant for start angle bracket.
-	 */
-	private static final String START_ANGLE_BRACKET = "<";
-	
-	/**
-	 * Constant for end angle bracket.
-	 */
-	private static final String END_ANGLE_BRACKET = ">";
-	
-	/**
-	 * The list of matchable symbols.
-	 */
-	private static final List<String> SYMBOLS = new ArrayList<String>() {{ 
-		add(START_BRACE);
-		add(END_BRACE);
-		add(START_PAREN);
-		add(END_PAREN);
-		add(START_BRACKET);
-		add(END_BRACKET);
-		add(START_ANGLE_BRACKET);
-		add(END_ANGLE_BRACKET);
-	}};
-	
 	/**
 	 * Main hookpoint for the interpreter.
 	 * 
@@ -97,20 +39,17 @@ public class JavaInterpreter {
 	 */
 	public void go() throws Exception {
 		
+		// Build the parser's DFA while the user types the first statement.
+		JavaInterpreterParser.getInstance().warmUp();
+		
 		// Initialize the scanner.
         Scanner theScanner = new Scanner(System.in);
         
         // Keep going forever...
         boolean keepGoing = true;
         
-        // Track the input.
-        StringBuilder inputBuilder = new StringBuilder();
-        
-        // Use a stack to track all symbols.
-        Stack<String> symbolStack = new Stack<String>();
-        
-        // Valid input?
-        boolean validInput = true;
+        // Track the input, and whether it's a whole statement yet.
+        JavaInterpreterInput javaInput = new JavaInterpreterInput();
         
         // Keep accepting input.
         while(keepGoing) {
@@ -124,120 +63,19 @@ public class JavaInterpreter {
         	// Don't do anything if it's not null.
         	if(nextInput != null && ! nextInput.trim().isEmpty()) {
         		
-        		// Parse through the string, one character at a time searching for open/close parens and braces.
-        		for(int charIndex = 0; charIndex < nextInput.length(); charIndex++) {
-        			
-        			// Grab this character.
-        			String thisChar = String.valueOf(nextInput.charAt(charIndex));
-        			
-        			// Does it have a symbol we care about?
-        			if(SYMBOLS.contains(thisChar)) {
-        				
-        				// Switch on it.
-        				switch(thisChar) {
-        				
-	        				case START_BRACE: {
-	        					symbolStack.push(START_BRACE);
-	        					break;
-	        				}
-        				
-	        				case END_BRACE: {
-	        					
-	        					// If we have something other than an end brace, something is wrong.
-	        					if(symbolStack.isEmpty() || !START_BRACE.equals(symbolStack.peek())) {
-	        						validInput = false;
-	        					}
-	        					
-	        					// Otherwise we are good, pop the brace off.
-	        					else {
-		        					symbolStack.pop();
-	        					}
-	        					
-	        					break;
-	        				}
-	        				
-	        				case START_PAREN: {
-	        					symbolStack.push(START_PAREN);
-	        					break;
-	        				}
-	        				
-	        				case END_PAREN: {
-	        					
-	        					// If we have something other than an end brace, something is wrong.
-	        					if(symbolStack.isEmpty() || !START_PAREN.equals(symbolStack.peek())) {
-	        						validInput = false;
-	        					}
-	        					
-	        					// Otherwise we are good, pop the brace off.
-	        					else {
-		        					symbolStack.pop();
-	        					}
-	        					
-	        					break;
-	        				}
-	        				
-	        				case START_BRACKET: {
-	        					symbolStack.push(START_BRACKET);
-	        					break;
-	        				}
-	        				
-	        				case END_BRACKET: {
-	        					
-	        					// If we have something other than an end bracket, something is wrong.
-	        					if(symbolStack.isEmpty() || !START_BRACKET.equals(symbolStack.peek())) {
-	        						validInput = false;
-	        					}
-	        					
-	        					// Otherwise we are good, pop the bracket off.
-	        					else {
-		        					symbolStack.pop();
-	        					}
-	        					
-	        					break;
-	        				}
-	        				
-	        				case START_ANGLE_BRACKET: {
-	        					symbolStack.push(START_ANGLE_BRACKET);
-	        					break;
-	        				}
-	        				
-	        				case END_ANGLE_BRACKET: {
-	        					
-	        					// If we have something other than an end angle bracket, something is wrong.
-	        					if(symbolStack.isEmpty() || !START_ANGLE_BRACKET.equals(symbolStack.peek())) {
-	        						validInput = false;
-	        					}
-	        					
-	        					// Otherwise we are good, pop the angle bracket off.
-	        					else {
-		        					symbolStack.pop();
-	        					}
-	        					
-	        					break;
-	        				}
-        				}
-        			}
-        		}
-
-        		// Always add on the input here.
-    			inputBuilder.append(nextInput);
+        		// Lex just the new line, picking up where the last one left off.
+        		javaInput.addLine(nextInput);
         		
         		JavaAction newlyCreatedAction = null;
         		
         		// We might be in the middle of a statement. If we are, go do it again.
-        		if(!symbolStack.isEmpty()) {
-        			
-        			// Keep going if we've got valid input. Otherwise, we need to let it die out.
-        			if(validInput) {
-        				continue;
-        			}
+        		if(!javaInput.isComplete()) {
+        			continue;
         		}
         		
-        		// Otherwise, evaluate this statement.
-        		else {
-	        		if(validInput) {
-	        			newlyCreatedAction = parseInput(inputBuilder.toString());
-	        		}
+        		// Otherwise, evaluate this statement, unless it's already gone wrong.
+        		if(javaInput.isValid()) {
+        			newlyCreatedAction = parseInput(javaInput.getInput());
         		}
         	
         		// If we've made it this far, parse the input.
@@ -265,10 +103,9 @@ public class JavaInterpreter {
         			}
         		}
 
-	        	// Reset the variables, each time we try to evaluate.
+	        	// Reset the input, each time we try to evaluate.
         		finally {
-    	        	validInput = true;
-    	        	inputBuilder = new StringBuilder();
+        			javaInput.reset();
         		}
         	}
         }
@@ -282,46 +119,81 @@ public class JavaInterpreter {
 	 */
 	private JavaAction parseInput(String nextInput) {
 		
-		// Put it into a lexer.
-    	Java8Lexer java8Lexer = new Java8Lexer(new ANTLRInputStream(nextInput));
-    	
-    	// Generate the token stream from that lexer.
-    	CommonTokenStream tokenStream = new CommonTokenStream(java8Lexer);
-    	
-    	// Now use the parser
-    	Java8Parser parser = new Java8Parser(tokenStream);
-    	
-    	// Make the parser and lexer be quiet.
-    	parser.removeErrorListeners();
-    	java8Lexer.removeErrorListeners();
-    	
-    	// Walk the tree.
+		// Walk the tree.
     	ParseTreeWalker walker = new ParseTreeWalker();
     	
     	// The listener.
     	JavaInterpreterBaseListener listener = new JavaInterpreterBaseListener(nextInput);
     	
+    	// Parse it, once. The nested listeners walk the parts of this same tree.
+    	long startTime = System.nanoTime();
+    	ParserRuleContext parseTree = JavaInterpreterParser.getInstance().parse(nextInput);
+    	long parseTime = System.nanoTime() - startTime;
+    	
     	// Walk it!
-    	walker.walk(listener, parser.compilationUnit());
+    	walker.walk(listener, parseTree);
+    	
+    	// Keep track of how long each kind of statement takes to parse.
+    	if(listener.getNewAction() != null) {
+    		JavaInterpreterParser.getInstance().statementParsed(listener.getNewAction().getActionType(), parseTime);
+    	}
     	
     	// Get the newly created action from the listener.
     	return listener.getNewAction();
 	}
 	
 	/**
-	 * Method to compile the action and evaluate what happened with it.
+	 * Method to compile the action and evaluate what happened with it. How long it took is passed on to the maps, since that's what
+	 * replaying it would cost.
 	 * 
 	 * @param createdAction
 	 * @throws Exception
 	 */
 	private void compileAndEvaluateJavaAction(JavaAction createdAction) throws Exception {
+		long startTime = System.nanoTime();
+		
+		try {
+			evaluateJavaAction(createdAction);
+		}
+		
+		finally {
+			JavaInterpreterMaps.getInstance().statementRan(createdAction, System.nanoTime() - startTime);
+			
+			// It's run, or been tiered, so the tree would only hold on to memory from here on.
+			createdAction.setParseTree(null);
+		}
+	}
+	
+	/**
+	 * Method to run the action through whichever of the evaluator, the interpreter and the compiler can take it, and show the result.
+	 * 
+	 * @param createdAction
+	 * @throws Exception
+	 */
+	private void evaluateJavaAction(JavaAction createdAction) throws Exception {
+		
+		// Simple expressions don't need the compiler at all.
+		String evaluatedResult = JavaExpressionEvaluator.getInstance().evaluate(createdAction);
+		
+		if(evaluatedResult != null) {
+			System.out.println(evaluatedResult + "\n");
+			return;
+		}
+		
+		// Then the interpreter, unless we've been told to always compile.
+		String interpretedResult = JavaTreeInterpreter.getInstance().interpret(createdAction);
+		
+		if(interpretedResult != null) {
+			System.out.println(interpretedResult + "\n");
+			return;
+		}
 		
 		// Compile it, we'll get the new version of the InterpreterSuperClass by doing this, with updated methods and values.
     	InterpreterSuperClass superClass = JavaInterpreterCompiler.getInstance().compile(createdAction, true);
     	
     	// The class will be null if the compile failed.
     	if(superClass != null) {
-    		System.out.println(superClass.evaluate() + "\n");
+    		System.out.println(JavaInterpreterCompiler.getInstance().evaluate(createdAction, superClass) + "\n");
     	}
 	}
-}
+}
\ No newline at end of file
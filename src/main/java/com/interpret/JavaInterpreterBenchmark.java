@@ -0,0 +1,87 @@
+package com.interpret;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.javasource.InterpreterSuperClass;
+
+/**
+ * Class that times a compiled statement run over and over, to show how much faster the user's code gets once the JVM has warmed
+ * up to it. The methods a statement calls live on in their snippet classes for the whole session (see
+ * {@link JavaInterpreterCompiler}), so the JIT compiles them once and keeps that code, across runs and across statements:
+ *
+ * <pre>
+ * engine(compiler);
+ * long sum(int n) { long total = 0; for(int i = 0; i != n; i++) { total += i; } return total; }
+ * sum(100000);
+ * benchmark(2000);
+ * </pre>
+ *
+ * The same runs are then made the old way, with every statement in a class of its own that had fresh copies of all of the user's
+ * methods: each run gets a new copy of the statement and the methods it uses (see {@link JavaInterpreterCompiler#copyLastStatement()}),
+ * so the JIT never gets to keep what it learned. Only running them is timed, not loading the copies. The steady state of the two
+ * is the difference the long-lived snippets make.
+ *
+ * The statement really runs each time, so anything it changes or prints happens again. Only statements that went through the compiler
+ * can be benchmarked, since the interpreter doesn't leave a class behind.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterBenchmark {
+
+	/**
+	 * The fewest runs that say anything about the steady state.
+	 */
+	public static final int MINIMUM_RUNS = 10;
+
+	/**
+	 * The share of the runs at either end that are compared, one in ten.
+	 */
+	private static final int SAMPLE_DIVISOR = 10;
+
+	/**
+	 * Method to run a statement the given number of times, and sum up how long the first and the last runs took. Then the same again
+	 * the old way, with a fresh copy for each run.
+	 *
+	 * @param statement -- the statement, which is the last one compiled, and has already run once.
+	 * @param runs -- the number of times to run it.
+	 * @return String -- the timings, to show the user.
+	 * @throws Exception whatever the statement threw.
+	 */
+	public static String benchmark(InterpreterSuperClass statement, int runs) throws Exception {
+
+		// It already ran once, so everything it replayed is live -- replaying it again would start the fields over.
+		statement.setReplayMethods(Collections.emptyList(), Collections.emptyList());
+
+		// Time each of the runs by itself.
+		long[] runTimes = new long[runs];
+
+		for(int runIndex = 0; runIndex < runs; runIndex++) {
+			long startTime = System.nanoTime();
+			statement.evaluate();
+			runTimes[runIndex] = System.nanoTime() - startTime;
+		}
+
+		// The old way, a new copy of everything for each run.
+		long[] copyRunTimes = new long[runs];
+
+		for(int runIndex = 0; runIndex < runs; runIndex++) {
+			InterpreterSuperClass copiedStatement = JavaInterpreterCompiler.getInstance().copyLastStatement();
+
+			long startTime = System.nanoTime();
+			copiedStatement.evaluate();
+			copyRunTimes[runIndex] = System.nanoTime() - startTime;
+		}
+
+		// The first runs are cold, the last ones are the steady state.
+		int sampleSize = Math.max(1, runs / SAMPLE_DIVISOR);
+		double coldAverage = Arrays.stream(runTimes, 0, sampleSize).average().getAsDouble();
+		double warmAverage = Arrays.stream(runTimes, runs - sampleSize, runs).average().getAsDouble();
+		double copyAverage = Arrays.stream(copyRunTimes, runs - sampleSize, runs).average().getAsDouble();
+
+		return String.format("Ran %s %d times.\n\tfirst run : %.1f us\n\tfirst %d runs : %.1f us average\n\tlast %d runs : %.1f us average\n\tsteady-state speedup : %.1fx"
+				+ "\n\tlast %d runs with fresh copies of the methods (the old way) : %.1f us average\n\tlong-lived snippets against fresh copies : %.1fx",
+				statement.getClass().getSimpleName(), runs, runTimes[0] / 1000.0, sampleSize, coldAverage / 1000.0, sampleSize, warmAverage / 1000.0, coldAverage / Math.max(warmAverage, 1.0),
+				sampleSize, copyAverage / 1000.0, copyAverage / Math.max(warmAverage, 1.0));
+	}
+}
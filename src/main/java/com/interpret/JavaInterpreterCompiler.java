@@ -1,19 +1,31 @@
 package com.interpret;
 
 import java.io.File;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.io.IOException;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.tools.JavaCompiler;
 import javax.tools.JavaCompiler.CompilationTask;
 import javax.tools.ToolProvider;
 
+import com.actions.ActionType;
 import com.actions.JavaAction;
+import com.compiler.JavaInterpreterClassCache;
+import com.compiler.JavaInterpreterClassLoader;
 import com.compiler.JavaInterpreterDiagnosticListener;
+import com.compiler.JavaInterpreterFileManager;
+import com.compiler.JavaInterpreterStatementLoader;
+import com.javasource.InterpreterSnippetClass;
 import com.javasource.InterpreterSuperClass;
 import com.javasource.JavaStringSource;
 
@@ -34,6 +46,67 @@ public class JavaInterpreterCompiler {
 	 */
 	private static final JavaInterpreterCompiler INSTANCE = new JavaInterpreterCompiler();
 	
+	/**
+	 * The file manager we will re-use for each of the statements provided, so the JDK and class path listings stay warm.
+	 */
+	private JavaInterpreterFileManager fileManager = new JavaInterpreterFileManager(COMPILER.getStandardFileManager(null, null, null));
+	
+	/**
+	 * The cache of compiled classes, keyed by the generated source.
+	 */
+	private JavaInterpreterClassCache classCache = new JavaInterpreterClassCache();
+	
+	/**
+	 * The class loader the compiled classes are loaded under, for the whole session. This will pick up any jars the user adds.
+	 */
+	private JavaInterpreterClassLoader sessionClassLoader = new JavaInterpreterClassLoader(new HashMap<String, byte[]>(), this.getClass().getClassLoader());
+	
+	/**
+	 * The replay methods of the snippets we've looked up, keyed by class and method name.
+	 */
+	private Map<String, Method> replayMethodCache = new HashMap<String, Method>();
+	
+	/**
+	 * The loaders of the statement classes, which go away once the statements are collected.
+	 */
+	private List<WeakReference<ClassLoader>> statementLoaders = new LinkedList<WeakReference<ClassLoader>>();
+	
+	/**
+	 * The number of statement loaders made this session.
+	 */
+	private long statementLoadersCreated = 0;
+	
+	/**
+	 * The last statement that compiled and ran, so it can be benchmarked.
+	 */
+	private InterpreterSuperClass lastStatement;
+	
+	/**
+	 * The action of the last statement that compiled and ran.
+	 */
+	private JavaAction lastStatementAction;
+	
+	/**
+	 * The bytecode of the last statement that compiled and ran, keyed by class name, so the benchmark can load copies of it.
+	 */
+	private Map<String, byte[]> lastStatementClasses;
+	
+	/**
+	 * The bytecode of the statement that just compiled, until it runs.
+	 */
+	private Map<String, byte[]> compiledStatementClasses;
+	
+	/**
+	 * The import statements the listings were cached against.
+	 */
+	private String cachedImportStatements = "";
+	
+	/**
+	 * The class path the statements compile against, along with when each added jar last changed. It goes into every cache key, so
+	 * a class compiled against one class path is never reused against another.
+	 */
+	private String classPathKey = System.getProperty("java.class.path", "");
+	
 	/**
 	 * No-op private constructor.
 	 */
@@ -51,29 +124,34 @@ public class JavaInterpreterCompiler {
 	}
 	
 	/**
-	 * Method to compile the new action(s)!
+	 * Method to compile the new action(s)! Each field, method, class and enum is compiled once into its own snippet class (see
+	 * {@link InterpreterSnippetClass}), and the values of the fields live on in those classes for the rest of the session. After that,
+	 * a statement only needs to compile the snippets that aren't loaded yet, plus a small statement class that runs its own code
+	 * against the live state. Nothing that already ran gets run again. The statement class is loaded under a loader of its own, so it
+	 * can be unloaded once it's done.
 	 * 
 	 * @param InterpreterSuperClass -- the newly created class with the actions baked in.
-	 * @throws MalformedURLException 
+	 * @throws IOException 
 	 * @throws ClassNotFoundException 
 	 * @throws IllegalAccessException 
 	 * @throws InstantiationException 
 	 */
-	public InterpreterSuperClass compile(JavaAction newAction, boolean expectReturn) throws MalformedURLException, InstantiationException, IllegalAccessException, ClassNotFoundException {
+	public InterpreterSuperClass compile(JavaAction newAction, boolean expectReturn) throws IOException, InstantiationException, IllegalAccessException, ClassNotFoundException {
 		
 		// Get the import statements.
-		StringBuilder importStatements = new StringBuilder();
-		JavaInterpreterMaps.getInstance().getImports().forEach( importStatement -> importStatements.append(importStatement.getRawInput()).append("\n"));
+		String importStatements = getImportStatements();
 		
 		// Get the exception statements.
 		StringBuilder exceptionStatements = new StringBuilder();
 		JavaInterpreterMaps.getInstance().getExceptions().forEach( exceptionStatement -> exceptionStatements.append(exceptionStatement.getRawInput().replace("}", " return \"\";}")).append("\n"));
 		
-		// These are the statements that will need to be declared globally.
-		String globalClassStatements = generateGlobalCodeFromDependencies(newAction, new LinkedList<JavaAction>());
+		// These are the snippets that need compiling before the statement can link against them.
+		Map<String, JavaStringSource> snippetSources = new LinkedHashMap<String, JavaStringSource>();
+		generateGlobalCode(newAction, importStatements, snippetSources);
 		
-		// These are the statements that will need to be declared and 
-		String localClassStatements = generateLocalCodeFromDependencies(newAction, newAction, new LinkedList<JavaAction>(), expectReturn);
+		// These are the statements that will need to be declared and run, along with any fields and expressions that haven't run yet (say, after a load).
+		List<JavaAction> replayActions = new ArrayList<JavaAction>();
+		String localClassStatements = generateLocalCode(newAction, expectReturn, replayActions);
 		
 		// Make sure we return something if we need to.
 		if(localClassStatements == null || localClassStatements.isEmpty()) {
@@ -81,37 +159,46 @@ public class JavaInterpreterCompiler {
 		}
 		
 		// Here, we need to figure out local context as well.
-		JavaStringSource source = InterpreterSuperClass.generateClass(importStatements.toString(), globalClassStatements, localClassStatements, exceptionStatements.toString());
+		JavaStringSource source = InterpreterSuperClass.generateClass(importStatements + generateStaticImports(newAction), localClassStatements, exceptionStatements.toString());
 		
 		// The diagnostic.
 		JavaInterpreterDiagnosticListener diagListener = new JavaInterpreterDiagnosticListener();
 		
-		// Get the task from the compiler.
-		CompilationTask task = COMPILER.getTask(null, null, diagListener, null, null, Collections.singletonList(source));
+		// The bytecode for this statement and any snippets it needs. If we've run this exact statement before, it comes out of the cache.
+		List<JavaStringSource> compilationUnits = new ArrayList<JavaStringSource>(snippetSources.values());
+		compilationUnits.add(source);
 		
-		// Call the compiler, and if it works, put it into the maps!
-		if(task.call()) {
+		Map<String, byte[]> compiledClasses = compileSources(compilationUnits, diagListener);
+		
+		// If it works, put it into the maps!
+		if(compiledClasses != null) {
 			
-			// If we are successful, put it into the map.
-			JavaInterpreterMaps.getInstance().putEntry(newAction);
+			// The statement's own classes are only needed while it runs, so split them off from the snippets.
+			Map<String, byte[]> snippetClasses = new HashMap<String, byte[]>(compiledClasses);
+			Map<String, byte[]> statementClasses = takeStatementClasses(snippetClasses, source.getClassName());
 			
-			// Check to see if we need to do anything conditional. This would be, for example, the case where we remove something from a list. Although
-			// it's a dangling expression, we need to be sure we track the action so that further calls make sense.
-			if(newAction.getConditionalAction() != null) {
-				JavaInterpreterMaps.getInstance().putEntry(newAction.getConditionalAction());
+			// Remember the statement by itself too, so running it again doesn't need the compiler now that its snippets are loaded.
+			if(!snippetSources.isEmpty()) {
+				classCache.put(JavaInterpreterClassCache.getKey(classPathKey, source.getCharContent(true).toString()), statementClasses);
 			}
 			
-			// Load up the class again with this class loader.
-			URLClassLoader classLoader = new URLClassLoader(new URL[]{new File(".").toURI().toURL()}, this.getClass().getClassLoader());
+			// Make the new snippets available to the statements that come after.
+			addSessionClasses(snippetClasses);
+			
+			// Get an instance of this class, and tell it what to replay. Nothing is part of the live state until it runs, through
+			// evaluate(...).
+			InterpreterSuperClass superClass = (InterpreterSuperClass) loadStatementClass(statementClasses, source.getClassName()).newInstance();
+			superClass.setReplayMethods(getReplayMethods(replayActions), replayActions);
+			compiledStatementClasses = statementClasses;
 			
-			// Return an instance of this class.
-			return (InterpreterSuperClass) classLoader.loadClass("CompileClass").newInstance();
+			return superClass;
 		}
 		
 		// Otherwise return nothing.
 		else {
 
-			// We need to try and recompile in the event we have a void cannot be converted error.
+			// We need to try and recompile in the event we have a void cannot be converted error. Dangling expressions work out whether
+			// they're void in the one compile, so this is only a fallback for anything else that returns a void.
 			if(diagListener.shouldTryRecompile() && expectReturn) {
 				return compile(newAction, false);
 			}
@@ -134,91 +221,476 @@ public class JavaInterpreterCompiler {
 	}
 
 	/**
-	 * Recursive method to get the dependent action raw input to use when compiling for GLOBAL code.
+	 * Method to run a statement that compiled. The fields and expressions it replays are part of the live state as each of them
+	 * finishes, and the statement itself once it's run without throwing. If it throws (say, <code>int y = 1 / 0;</code>), it's left
+	 * out of the maps, the same as if it had never been typed.
 	 * 
-	 * @param dependentAction -- the dependent action to generate code from.
-	 * @param alreadyProcessedDependents -- the already processed dependencies.
-	 * @return String -- the action code.
+	 * @param newAction -- the statement's action.
+	 * @param superClass -- the statement, from {@link #compile(JavaAction, boolean)}.
+	 * @return Object -- what the statement returned, to show the user.
+	 * @throws Exception whatever the statement threw.
 	 */
-	private String generateGlobalCodeFromDependencies(JavaAction dependentAction, List<JavaAction> alreadyProcessedDependents) {
+	public Object evaluate(JavaAction newAction, InterpreterSuperClass superClass) throws Exception {
+		Object result = superClass.evaluate();
 		
-		// Build up the dependent code.
-		StringBuilder rawDependentCode = new StringBuilder();
+		// It ran, so now put it into the map.
+		JavaInterpreterMaps.getInstance().putAppliedAction(newAction);
+		
+		// Remember it for a benchmark, unless it's one of ours.
+		if(!ActionType.RESERVED_METHOD.equals(newAction.getActionType())) {
+			lastStatement = superClass;
+			lastStatementAction = newAction;
+			lastStatementClasses = compiledStatementClasses;
+		}
+		
+		compiledStatementClasses = null;
+		
+		return result;
+	}
+	
+	/**
+	 * Method to get the statistics of the compiler, to show the user.
+	 * 
+	 * @return String -- the statistics.
+	 */
+	public String getStatistics() {
+		return classCache.getStatistics() + "\n" + getMemoryStatistics();
+	}
+	
+	/**
+	 * Method to get how many statement loaders and classes are alive, and how much Metaspace they take. A long session should stay flat,
+	 * since only the snippets and the statements that use the user's classes stay loaded -- run <code>System.gc()</code> first for an exact count.
+	 * 
+	 * @return String -- the statistics.
+	 */
+	private String getMemoryStatistics() {
+		ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+		
+		// Metaspace only exists on HotSpot, so it might not be there.
+		String metaspace = ManagementFactory.getMemoryPoolMXBeans().stream()
+								.filter( memoryPool -> "Metaspace".equals(memoryPool.getName()) )
+								.map( memoryPool -> "Metaspace: " + (memoryPool.getUsage().getUsed() / 1024) + " KB used, " + (memoryPool.getUsage().getCommitted() / 1024) + " KB committed" )
+								.findFirst().orElse("Metaspace: not available");
+		
+		statementLoaders.removeIf( statementLoader -> statementLoader.get() == null );
+		
+		return "Statement classes: " + statementLoaders.size() + " of " + statementLoadersCreated + " statement loaders live, " + fileManager.getSessionClassCount() + " snippet classes to compile against\nClasses: " + classLoading.getLoadedClassCount() + " loaded, " + classLoading.getUnloadedClassCount() + " unloaded\n" + metaspace;
+	}
+	
+	/**
+	 * Getter for the last statement that compiled.
+	 * 
+	 * @return {@link InterpreterSuperClass} -- the statement, NULL if nothing has compiled yet.
+	 */
+	public InterpreterSuperClass getLastStatement() {
+		return this.lastStatement;
+	}
+	
+	/**
+	 * Method to load a fresh copy of the last statement that compiled, along with fresh copies of the methods it uses, all the way
+	 * down. This is how every statement used to run, with all of the user's methods compiled into its own class, so the JIT had to
+	 * start over on them each time. The fields are still the ones the session has. Only the benchmark needs this.
+	 * 
+	 * @return {@link InterpreterSuperClass} -- the copy, NULL if nothing has compiled yet.
+	 * @throws ReflectiveOperationException
+	 */
+	public InterpreterSuperClass copyLastStatement() throws ReflectiveOperationException {
 		
-		// Recurse for any nested dependencies that may exist.
-		for(JavaAction nestedDependency : dependentAction.getDependentActions()) {
+		if(lastStatement == null) {
+			return null;
+		}
+		
+		Map<String, byte[]> copiedClasses = new HashMap<String, byte[]>(lastStatementClasses);
+		
+		for(JavaAction dependentAction : JavaDependencyGraph.getInstance().getClosure(lastStatementAction)) {
 			
-			// Make sure we only do this once. Bypass any we might've already processed. This is the case where we may have a list like...
-			//		add(t1), add(t2), add(t3);
-			// In the case where t3 has a dependency on t1, we would have t1 declared and gathered twice, causing a compile error.
-			if(!alreadyProcessedDependents.contains(nestedDependency)) {
-				rawDependentCode.append(generateGlobalCodeFromDependencies(nestedDependency, alreadyProcessedDependents));
-				alreadyProcessedDependents.add(nestedDependency);
+			if(ActionType.METHOD.equals(dependentAction.getActionType()) && dependentAction.getSnippetClassName() != null) {
+				copiedClasses.putAll(fileManager.getSessionClasses(dependentAction.getSnippetClassName()));
 			}
 		}
 		
-		// Add this one in if it's global -- should be declared at the class level.
-		if(InterpreterUtils.isGlobal(dependentAction)) {
-			rawDependentCode.append("\n").append(dependentAction.getRawInput());
+		InterpreterSuperClass copiedStatement = (InterpreterSuperClass) new JavaInterpreterStatementLoader(copiedClasses, sessionClassLoader).loadClass(lastStatement.getClass().getName()).newInstance();
+		copiedStatement.setReplayMethods(Collections.emptyList(), Collections.emptyList());
+		
+		return copiedStatement;
+	}
+	
+	/**
+	 * Method to compile the snippet of a field, method, class or enum on its own, along with any snippets it uses that aren't loaded
+	 * yet. Nothing gets run. This is how a method the interpreter has been running gets compiled once it's called enough.
+	 * 
+	 * @param memberAction -- the member.
+	 * @return TRUE if its snippet is loaded, FALSE if it wouldn't compile.
+	 */
+	public boolean compileMember(JavaAction memberAction) {
+		
+		// The snippets that need compiling.
+		Map<String, JavaStringSource> snippetSources = new LinkedHashMap<String, JavaStringSource>();
+		generateGlobalCode(memberAction, getImportStatements(), snippetSources);
+		
+		if(snippetSources.isEmpty()) {
+			return isLoaded(memberAction.getSnippetClassName());
+		}
+		
+		// Compile them, and make them available.
+		JavaInterpreterDiagnosticListener diagListener = new JavaInterpreterDiagnosticListener();
+		Map<String, byte[]> compiledClasses = compileSources(new ArrayList<JavaStringSource>(snippetSources.values()), diagListener);
+		
+		if(compiledClasses == null) {
+			diagListener.printErrors();
+			return false;
 		}
 		
-		// Return the value of what we've built up.
-		return rawDependentCode.toString();
+		addSessionClasses(compiledClasses);
+		return true;
 	}
 	
 	/**
-	 * Recursive method to get the dependent action raw input to use when compiling for LOCAL code -- at the method level!
+	 * Method to check if a class has been compiled and loaded for the session.
 	 * 
-	 * @param initialAction -- the initial action to generate code from.
-	 * @param dependentAction -- the dependent action to generate code from.
-	 * @param alreadyProcessedDependents -- the already processed dependencies.
-	 * @param expectReturn -- are we expecting to put a return in?
-	 * @return String -- the action code.
+	 * @param className -- the fully qualified class name.
+	 * @return TRUE if it's loaded, FALSE if not.
+	 */
+	public boolean isLoaded(String className) {
+		return className != null && sessionClassLoader.containsClass(className);
+	}
+	
+	/**
+	 * Getter for the session class loader, that the snippets and statements are loaded under.
+	 * 
+	 * @return ClassLoader -- the session class loader.
 	 */
-	private String generateLocalCodeFromDependencies(JavaAction initialAction, JavaAction dependentAction, List<JavaAction> alreadyProcessedDependents, boolean expectReturn) {
+	public ClassLoader getSessionClassLoader() {
+		return this.sessionClassLoader;
+	}
+	
+	/**
+	 * Method to add a jar onto the class path, both for compiling and for running statements.
+	 * 
+	 * @param jarFile -- the jar to add.
+	 * @return TRUE if the jar was added, FALSE if not.
+	 */
+	public boolean addJar(File jarFile) {
 		
-		// Build up the dependent code.
-		StringBuilder rawDependentCode = new StringBuilder();
+		// Can't add what isn't there.
+		if(!jarFile.isFile()) {
+			return false;
+		}
 		
-		// Recurse for any nested dependencies that may exist.
-		for(JavaAction nestedDependency : dependentAction.getDependentActions()) {
+		// Add it to both the compiler and the class loader.
+		try {
+			fileManager.addToClassPath(jarFile);
+			sessionClassLoader.addJar(jarFile.toURI().toURL());
 			
-			// Make sure we only do this once. Bypass any we might've already processed. This is the case where we may have a list like...
-			//		add(t1), add(t2), add(t3);
-			// In the case where t3 has a dependency on t1, we would have t1 declared and gathered twice, causing a compile error.
-			if(!alreadyProcessedDependents.contains(nestedDependency)) {
-				rawDependentCode.append(generateLocalCodeFromDependencies(initialAction, nestedDependency, alreadyProcessedDependents, expectReturn));
-				alreadyProcessedDependents.add(nestedDependency);
-			}
+			// What's cached was compiled without it.
+			classPathKey += File.pathSeparator + jarFile.getCanonicalPath() + "@" + jarFile.lastModified();
+			return true;
 		}
 		
-		// If it's both local and NOT an identifier, then do append on the raw input.
-		if(InterpreterUtils.isLocal(dependentAction) && !InterpreterUtils.isIdentifier(dependentAction)) {
-			rawDependentCode.append("\n").append(dependentAction.getRawInput());
+		catch(IOException e) {
+			System.err.println("Failed adding jar! " + e);
+			return false;
 		}
+	}
+
+	/**
+	 * Method to get the import statements of the session. If they changed, the listings we have might not be enough anymore.
+	 * 
+	 * @return String -- the import statements.
+	 */
+	private String getImportStatements() {
+		StringBuilder importStatements = new StringBuilder();
+		JavaInterpreterMaps.getInstance().getImports().forEach( importStatement -> importStatements.append(importStatement.getRawInput()).append("\n"));
+		
+		if(!cachedImportStatements.equals(importStatements.toString())) {
+			fileManager.invalidate();
+			cachedImportStatements = importStatements.toString();
+		}
+		
+		return importStatements.toString();
+	}
+	
+	/**
+	 * Method to compile sources, or get them out of the cache if we've compiled the exact same sources before.
+	 * 
+	 * @param compilationUnits -- the sources.
+	 * @param diagListener -- the listener for any compile errors.
+	 * @return Map -- the bytecode by class name, NULL if they didn't compile.
+	 */
+	private Map<String, byte[]> compileSources(List<JavaStringSource> compilationUnits, JavaInterpreterDiagnosticListener diagListener) {
 		
-		// If we made it back around to the beginning of the recursion, add on what we need to return.
-		if(initialAction == dependentAction) {
+		// If we've compiled this exact source before, we don't need to go through the compiler again. Every snippet the sources
+		// import is named after the hash of its own source, so the same sources always link against the same snippets.
+		StringBuilder allSources = new StringBuilder();
+		compilationUnits.forEach( compilationUnit -> allSources.append(compilationUnit.getCharContent(true)));
+		
+		String cacheKey = JavaInterpreterClassCache.getKey(classPathKey, allSources.toString());
+		Map<String, byte[]> compiledClasses = classCache.get(cacheKey);
+		
+		// Otherwise, compile it.
+		if(compiledClasses == null) {
+		
+			// Get the task from the compiler. The file manager keeps the compiled class in memory, rather than writing it to the working directory.
+			CompilationTask task = COMPILER.getTask(null, fileManager, diagListener, null, null, compilationUnits);
 			
-			// The ultimate return value.
-			String returnValue = "return " + dependentAction.getEvaluation();
+			// Call the compiler, and grab what we compiled so the file manager is ready for the next statement.
+			boolean compiled = task.call();
+			compiledClasses = fileManager.takeCompiledClasses();
 			
-			// No return? It was a void statement, so print out that there's no real result.
-			if(!expectReturn) {
-				rawDependentCode.append("\n").append(dependentAction.getAlternateEvaluation()).append(";");
-				returnValue = "return \"\t\tResult returned: --> Return type of statement was void. Values or expressions may have been printed to the console.\"";
+			// Only remember what actually compiled.
+			if(compiled) {
+				classCache.put(cacheKey, compiledClasses);
 			}
-
-			// If it's a loop, 
-			else if(InterpreterUtils.isLoopOrIf(initialAction)) {
-				rawDependentCode.append(dependentAction.getRawInput());
+			
+			else {
+				compiledClasses = null;
 			}
+		}
+		
+		return compiledClasses;
+	}
+	
+	/**
+	 * Method to take the classes of a statement out of what the compiler produced -- the statement class, and any classes nested in it.
+	 * 
+	 * @param compiledClasses -- the bytecode by class name, which is left with just the snippets.
+	 * @param statementClassName -- the statement class name.
+	 * @return Map -- the statement's bytecode by class name.
+	 */
+	private static Map<String, byte[]> takeStatementClasses(Map<String, byte[]> compiledClasses, String statementClassName) {
+		Map<String, byte[]> statementClasses = new HashMap<String, byte[]>();
+		
+		for(String className : new ArrayList<String>(compiledClasses.keySet())) {
 			
-			// Append on what we built up.
-			rawDependentCode.append("\n").append(returnValue + ";");
+			if(className.equals(statementClassName) || className.startsWith(statementClassName + "$")) {
+				statementClasses.put(className, compiledClasses.remove(className));
+			}
 		}
 		
+		return statementClasses;
+	}
+	
+	/**
+	 * Method to load a statement class. It gets a loader of its own, so it can be unloaded once the statement is done with (see
+	 * {@link JavaInterpreterStatementLoader}). That works for statements that use the user's classes and enums too, since their
+	 * snippets make their members public.
+	 * 
+	 * @param statementClasses -- the statement's bytecode by class name.
+	 * @param statementClassName -- the statement class name.
+	 * @return Class -- the statement class.
+	 * @throws ClassNotFoundException
+	 */
+	private Class<?> loadStatementClass(Map<String, byte[]> statementClasses, String statementClassName) throws ClassNotFoundException {
+		
+		// Forget the loaders that have already been collected.
+		statementLoaders.removeIf( statementLoader -> statementLoader.get() == null );
+		
+		JavaInterpreterStatementLoader statementLoader = new JavaInterpreterStatementLoader(statementClasses, sessionClassLoader);
+		statementLoaders.add(new WeakReference<ClassLoader>(statementLoader));
+		statementLoadersCreated++;
+		
+		return statementLoader.loadClass(statementClassName);
+	}
+	
+	/**
+	 * Method to make newly compiled classes available to everything that comes after, both to run and to compile against.
+	 * 
+	 * @param compiledClasses -- the bytecode by class name.
+	 */
+	private void addSessionClasses(Map<String, byte[]> compiledClasses) {
+		sessionClassLoader.addClasses(compiledClasses);
+		fileManager.addSessionClasses(compiledClasses);
+	}
+	
+	/**
+	 * Method to stop compiling against the snippet of a member that's been declared over. It stays loaded for anything already
+	 * running against it, but nothing new links against it. The user's classes and enums are never dropped, since an old instance
+	 * in a field still needs its old version to compile against.
+	 * 
+	 * @param replacedAction -- the old member.
+	 * @param newAction -- what it was replaced with, which might have the very same snippet.
+	 */
+	public void dropSnippet(JavaAction replacedAction, JavaAction newAction) {
+		String snippetClassName = replacedAction.getSnippetClassName();
+		
+		if(snippetClassName != null && !InterpreterSnippetClass.isType(replacedAction) && !snippetClassName.equals(newAction.getSnippetClassName())) {
+			fileManager.removeSessionClasses(snippetClassName);
+		}
+	}
+	
+	/**
+	 * Method to generate the snippets to compile for GLOBAL code -- the code that lives outside of the statement class. Snippets that
+	 * are already loaded are skipped, so only new code goes to the compiler. Expressions only need a snippet when they have to be
+	 * replayed, since a new expression runs right in the statement class. The actions come from the closure in
+	 * {@link JavaDependencyGraph}, which has each one once, with its dependencies before it.
+	 * 
+	 * @param initialAction -- the initial action to generate code from.
+	 * @param importStatements -- the import statements.
+	 * @param snippetSources -- the snippets to compile, in the order they need compiling, keyed by class name.
+	 */
+	private void generateGlobalCode(JavaAction initialAction, String importStatements, Map<String, JavaStringSource> snippetSources) {
+		
+		for(JavaAction dependentAction : JavaDependencyGraph.getInstance().getClosure(initialAction)) {
+		
+			// Add this one in if it has a snippet we haven't loaded. The dependencies came first, so their snippet names are already set.
+			if(needsSnippet(initialAction, dependentAction) && (dependentAction.getSnippetClassName() == null || !sessionClassLoader.containsClass(dependentAction.getSnippetClassName()))) {
+				
+				// Any name it has is from before a load, and the snippet shouldn't import itself.
+				dependentAction.setSnippetClassName(null);
+				JavaStringSource snippetSource = InterpreterSnippetClass.generateSnippet(dependentAction, importStatements + generateStaticImports(dependentAction));
+				
+				// The same snippet could come from two actions (say, the same expression entered twice), and it only needs compiling once.
+				if(!sessionClassLoader.containsClass(snippetSource.getClassName())) {
+					snippetSources.put(snippetSource.getClassName(), snippetSource);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Method to check if an action needs its snippet to run this statement. Members always do, since that's where they live. Expressions
+	 * only do when they still need replaying.
+	 * 
+	 * @param initialAction -- the initial action.
+	 * @param dependentAction -- the action to check.
+	 * @return TRUE if it needs its snippet, FALSE if not.
+	 */
+	private boolean needsSnippet(JavaAction initialAction, JavaAction dependentAction) {
+		return InterpreterSnippetClass.isMember(dependentAction) || (InterpreterSnippetClass.isSnippet(dependentAction) && isReplayed(initialAction, dependentAction));
+	}
+	
+	/**
+	 * Method to check if an action gets replayed from its snippet before the statement runs. That's any field or expression that
+	 * hasn't been run against the live state yet, except for a new expression, which runs right in the statement class.
+	 * 
+	 * @param initialAction -- the initial action.
+	 * @param dependentAction -- the action to check.
+	 * @return TRUE if it gets replayed, FALSE if not.
+	 */
+	private boolean isReplayed(JavaAction initialAction, JavaAction dependentAction) {
+		
+		// Already part of the live state.
+		if(!InterpreterSnippetClass.isReplayable(dependentAction) || dependentAction.isApplied()) {
+			return false;
+		}
+		
+		return initialAction != dependentAction || !ActionType.EXPRESSION.equals(dependentAction.getActionType());
+	}
+	
+	/**
+	 * Method to get the static imports of the snippets an action uses directly, so it can refer to them by name.
+	 * 
+	 * @param javaAction -- the action.
+	 * @return String -- the static imports.
+	 */
+	private String generateStaticImports(JavaAction javaAction) {
+		
+		// The static imports, by the name and type they bring in. The action's own snippet wins over anything it depends on.
+		Map<String, String> staticImports = new LinkedHashMap<String, String>();
+		
+		if(InterpreterSnippetClass.isMember(javaAction) && javaAction.getSnippetClassName() != null) {
+			staticImports.put(javaAction.getName() + ":" + javaAction.getActionType(), InterpreterSnippetClass.getStaticImport(javaAction));
+		}
+		
+		// Now add in the direct dependencies.
+		for(JavaAction dependentAction : javaAction.getDependentActions()) {
+			
+			if(InterpreterSnippetClass.isMember(dependentAction) && dependentAction.getSnippetClassName() != null) {
+				staticImports.putIfAbsent(dependentAction.getName() + ":" + dependentAction.getActionType(), InterpreterSnippetClass.getStaticImport(dependentAction));
+			}
+		}
+		
+		// Put them together.
+		StringBuilder staticImportStatements = new StringBuilder();
+		staticImports.values().forEach( staticImport -> staticImportStatements.append(staticImport).append("\n"));
+		
+		return staticImportStatements.toString();
+	}
+	
+	/**
+	 * Method to get the dependent action code to use when compiling for LOCAL code -- at the method level! Fields and expressions that
+	 * already ran aren't run again, since their values are still there in the snippets. Any that haven't are gathered up, in the order
+	 * of the closure, so they can be replayed from their snippets.
+	 * 
+	 * @param initialAction -- the initial action to generate code from.
+	 * @param expectReturn -- are we expecting to put a return in?
+	 * @param replayActions -- the fields and expressions to replay, in order.
+	 * @return String -- the action code.
+	 */
+	private String generateLocalCode(JavaAction initialAction, boolean expectReturn, List<JavaAction> replayActions) {
+		
+		// If it's a field or an expression that hasn't run yet, replay it from its snippet.
+		for(JavaAction dependentAction : JavaDependencyGraph.getInstance().getClosure(initialAction)) {
+			
+			if(isReplayed(initialAction, dependentAction)) {
+				replayActions.add(dependentAction);
+			}
+		}
+		
+		// Build up the code, and add on what we need to return.
+		StringBuilder rawDependentCode = new StringBuilder();
+		
+		// A new expression just runs here.
+		if(ActionType.EXPRESSION.equals(initialAction.getActionType())) {
+			rawDependentCode.append("\n").append(initialAction.getRawInput());
+		}
+		
+		// The ultimate return value.
+		String returnValue = "return " + initialAction.getEvaluation();
+		
+		// No return? It was a void statement, so print out that there's no real result.
+		if(!expectReturn) {
+			rawDependentCode.append("\n").append(initialAction.getAlternateEvaluation()).append(";");
+			returnValue = "return InterpreterSuperClass.VOID_RESULT";
+		}
+
+		// If it's a loop, 
+		else if(InterpreterUtils.isLoopOrIf(initialAction)) {
+			rawDependentCode.append(initialAction.getRawInput());
+		}
+		
+		// Append on what we built up.
+		rawDependentCode.append("\n").append(returnValue + ";");
+		
 		// Return the value of what we've built up.
 		return rawDependentCode.toString();
 	}
+	
+	/**
+	 * Method to look up the snippet methods that replay the given fields and expressions.
+	 * 
+	 * @param replayActions -- the fields and expressions, in order.
+	 * @return List -- the <code>$init()</code> and <code>$run()</code> methods, in the same order.
+	 * @throws ClassNotFoundException
+	 */
+	private List<Method> getReplayMethods(List<JavaAction> replayActions) throws ClassNotFoundException {
+		
+		// The methods to return.
+		List<Method> replayMethods = new ArrayList<Method>();
+		
+		for(JavaAction replayAction : replayActions) {
+			
+			// Look it up once, and remember it.
+			String replayMethodKey = replayAction.getSnippetClassName() + "." + InterpreterSnippetClass.getReplayMethodName(replayAction);
+			Method replayMethod = replayMethodCache.get(replayMethodKey);
+			
+			if(replayMethod == null) {
+				
+				try {
+					replayMethod = sessionClassLoader.loadClass(replayAction.getSnippetClassName()).getMethod(InterpreterSnippetClass.getReplayMethodName(replayAction));
+				}
+				
+				// Every snippet has its replay method, so this shouldn't ever happen.
+				catch(NoSuchMethodException e) {
+					throw new RuntimeException("Failed finding replay method! Method : " + replayMethodKey, e);
+				}
+				
+				replayMethodCache.put(replayMethodKey, replayMethod);
+			}
+			
+			replayMethods.add(replayMethod);
+		}
+		
+		return replayMethods;
+	}
 }
@@ -0,0 +1,260 @@
+package com.interpret;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+
+import com.antlr.Java8Lexer;
+
+/**
+ * Class that holds the lines the user has typed for one statement, and works out if the statement is complete yet. Each line is run
+ * through the lexer once, as it comes in, and only what the next line needs is kept:
+ *
+ * <pre>
+ * the open ( [ { tokens      -->   more lines are needed until they're closed
+ * an unclosed comment        -->   the next line starts inside it
+ * the last token             -->   a line ending in an operator, a . or a , goes on
+ * a token the lexer can't    -->   the statement can't be fixed by more lines
+ * </pre>
+ *
+ * Since it's tokens, braces in strings, chars and comments don't count, and neither do the &lt; and &gt; of comparisons and generics.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterInput {
+
+	/**
+	 * The lexer, pointed at each new line in turn.
+	 */
+	private Java8Lexer java8Lexer = new Java8Lexer(new ANTLRInputStream(""));
+
+	/**
+	 * The lines so far, one after the other.
+	 */
+	private StringBuilder inputBuilder = new StringBuilder();
+
+	/**
+	 * The types of the ( [ { tokens that haven't been closed yet, the last one first.
+	 */
+	private Deque<Integer> openTokenTypes = new ArrayDeque<Integer>();
+
+	/**
+	 * Did the last line end inside a comment?
+	 */
+	private boolean inComment = false;
+
+	/**
+	 * The type of the last token, NULL if there hasn't been one.
+	 */
+	private Integer lastTokenType = null;
+
+	/**
+	 * Could the lines so far still be a statement?
+	 */
+	private boolean validInput = true;
+
+	/**
+	 * The start of a comment.
+	 */
+	private static final String START_COMMENT = "/*";
+
+	/**
+	 * The end of a comment.
+	 */
+	private static final String END_COMMENT = "*/";
+
+	/**
+	 * Constructor that makes the lexer quiet, other than to say the input can't be lexed.
+	 */
+	public JavaInterpreterInput() {
+		java8Lexer.removeErrorListeners();
+
+		java8Lexer.addErrorListener(new BaseErrorListener() {
+
+			@Override
+			public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+
+				// An unclosed string or char, or a character java doesn't have. No line after this one can fix that.
+				validInput = false;
+			}
+		});
+	}
+
+	/**
+	 * Method to add the next line the user typed.
+	 *
+	 * @param nextLine -- the line.
+	 */
+	public void addLine(String nextLine) {
+
+		// Keep the lines apart, so a // comment doesn't take the next one with it.
+		if(inputBuilder.length() > 0) {
+			inputBuilder.append("\n");
+		}
+
+		inputBuilder.append(nextLine);
+
+		// Nothing more to learn once it's wrong.
+		if(!validInput) {
+			return;
+		}
+
+		// Skip to the end of a comment from the last line, if it ends on this one.
+		String lineToLex = nextLine;
+
+		if(inComment) {
+			int commentEnd = nextLine.indexOf(END_COMMENT);
+
+			if(commentEnd < 0) {
+				return;
+			}
+
+			inComment = false;
+			lineToLex = nextLine.substring(commentEnd + END_COMMENT.length());
+		}
+
+		// Just this line.
+		java8Lexer.setInputStream(new ANTLRInputStream(lineToLex));
+		List<? extends Token> tokens = java8Lexer.getAllTokens();
+
+		for(int tokenIndex = 0; tokenIndex < tokens.size() && validInput; tokenIndex++) {
+			Token token = tokens.get(tokenIndex);
+
+			// A comment that's closed is skipped by the lexer, so a / right before a * is one that isn't, and it takes the rest of the line.
+			if(token.getType() == Java8Lexer.DIV && lineToLex.startsWith(START_COMMENT, token.getStartIndex())) {
+				inComment = true;
+				return;
+			}
+
+			addToken(token.getType());
+		}
+	}
+
+	/**
+	 * Method to take the next token into account.
+	 *
+	 * @param tokenType -- the type of the token.
+	 */
+	private void addToken(int tokenType) {
+		lastTokenType = tokenType;
+
+		switch(tokenType) {
+
+			case Java8Lexer.LPAREN: case Java8Lexer.LBRACK: case Java8Lexer.LBRACE: {
+				openTokenTypes.push(tokenType);
+				break;
+			}
+
+			case Java8Lexer.RPAREN: {
+				closeToken(Java8Lexer.LPAREN);
+				break;
+			}
+
+			case Java8Lexer.RBRACK: {
+				closeToken(Java8Lexer.LBRACK);
+				break;
+			}
+
+			case Java8Lexer.RBRACE: {
+				closeToken(Java8Lexer.LBRACE);
+				break;
+			}
+
+			default: {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Method to close the last open token, if it's the right one.
+	 *
+	 * @param openTokenType -- the type of token it should be.
+	 */
+	private void closeToken(int openTokenType) {
+
+		// If we have something other than the one it closes, something is wrong.
+		if(openTokenTypes.isEmpty() || openTokenTypes.peek() != openTokenType) {
+			validInput = false;
+		}
+
+		// Otherwise we are good, pop it off.
+		else {
+			openTokenTypes.pop();
+		}
+	}
+
+	/**
+	 * Method to check if the lines so far are all of the statement. They are once everything opened has been closed, unless the last
+	 * line ended in the middle of a comment or an expression. Input that's wrong is complete too, since more lines won't help it.
+	 *
+	 * @return TRUE if it's complete, FALSE if more lines are needed.
+	 */
+	public boolean isComplete() {
+		return !validInput || (openTokenTypes.isEmpty() && !inComment && !(lastTokenType != null && isContinued(lastTokenType)));
+	}
+
+	/**
+	 * Method to check if the lines so far could be a statement.
+	 *
+	 * @return TRUE if they could, FALSE if not.
+	 */
+	public boolean isValid() {
+		return validInput;
+	}
+
+	/**
+	 * Method to get the lines so far.
+	 *
+	 * @return String -- the input.
+	 */
+	public String getInput() {
+		return inputBuilder.toString();
+	}
+
+	/**
+	 * Method to start again, for the next statement.
+	 */
+	public void reset() {
+		inputBuilder = new StringBuilder();
+		openTokenTypes.clear();
+		inComment = false;
+		lastTokenType = null;
+		validInput = true;
+	}
+
+	/**
+	 * Method to check if a line ending in the given token has to go on to the next one. No statement ends in an operator, a separator
+	 * other than a closing one, or the &lt; or &gt; of a type that hasn't been named yet.
+	 *
+	 * @param tokenType -- the type of the last token.
+	 * @return TRUE if it does, FALSE if not.
+	 */
+	private static boolean isContinued(int tokenType) {
+
+		switch(tokenType) {
+
+			case Java8Lexer.COMMA: case Java8Lexer.DOT: case Java8Lexer.AT: case Java8Lexer.ELLIPSIS: case Java8Lexer.COLONCOLON: case Java8Lexer.ARROW:
+			case Java8Lexer.ASSIGN: case Java8Lexer.GT: case Java8Lexer.LT: case Java8Lexer.BANG: case Java8Lexer.TILDE: case Java8Lexer.QUESTION:
+			case Java8Lexer.COLON: case Java8Lexer.EQUAL: case Java8Lexer.LE: case Java8Lexer.GE: case Java8Lexer.NOTEQUAL: case Java8Lexer.AND:
+			case Java8Lexer.OR: case Java8Lexer.ADD: case Java8Lexer.SUB: case Java8Lexer.MUL: case Java8Lexer.DIV: case Java8Lexer.BITAND:
+			case Java8Lexer.BITOR: case Java8Lexer.CARET: case Java8Lexer.MOD: case Java8Lexer.ADD_ASSIGN: case Java8Lexer.SUB_ASSIGN:
+			case Java8Lexer.MUL_ASSIGN: case Java8Lexer.DIV_ASSIGN: case Java8Lexer.AND_ASSIGN: case Java8Lexer.OR_ASSIGN: case Java8Lexer.XOR_ASSIGN:
+			case Java8Lexer.MOD_ASSIGN: case Java8Lexer.LSHIFT_ASSIGN: case Java8Lexer.RSHIFT_ASSIGN: case Java8Lexer.URSHIFT_ASSIGN:
+			case Java8Lexer.NEW: case Java8Lexer.EXTENDS: case Java8Lexer.IMPLEMENTS: case Java8Lexer.THROWS: case Java8Lexer.INSTANCEOF:
+			case Java8Lexer.ELSE: {
+				return true;
+			}
+
+			default: {
+				return false;
+			}
+		}
+	}
+}
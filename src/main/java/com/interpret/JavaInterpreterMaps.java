@@ -1,66 +1,209 @@
 package com.interpret;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.Field;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.Trees;
 
 import com.actions.ActionType;
 import com.actions.JavaAction;
+import com.actions.JavaActionSet;
 import com.actions.JavaExpression;
 import com.actions.JavaField;
 import com.actions.JavaMethod;
+import com.antlr.Java8Parser;
+import com.antlr.Java8Parser.AssignmentContext;
+import com.antlr.Java8Parser.ExpressionStatementContext;
+import com.antlr.Java8Parser.MethodInvocationContext;
+import com.antlr.Java8Parser.MethodInvocation_lf_primaryContext;
+import com.antlr.Java8Parser.MethodInvocation_lfno_primaryContext;
+import com.antlr.Java8Parser.PostfixExpressionContext;
+import com.antlr.Java8Parser.PreDecrementExpressionContext;
+import com.antlr.Java8Parser.PreIncrementExpressionContext;
+import com.interpret.evaluator.JavaMethodTiers;
+import com.javasource.InterpreterSnippetClass;
 
 /**
  * Class to house all of the varying maps that will contain fields, classes, methods, etc.
+ * 
+ * A save captures the live values of the fields that can be serialized into a checkpoint, which is saved along with the maps. A load
+ * puts those values straight back, so only the fields and expressions that came after the checkpoint are replayed. The values all go
+ * through the one stream, so two fields that point at the same object still do after the load.
+ *
+ * If <code>-Dinterpreter.checkpoint.folder</code> names a folder, the session is also saved there every so often, so that after a
+ * crash <code>load(folder)</code> picks up from the last one. How often adapts to what it costs -- it's saved every
+ * <code>-Dinterpreter.checkpoint.statements</code> fields and expressions, or once they've taken <code>-Dinterpreter.checkpoint.ms</code>
+ * to run, and the number of statements grows when saving costs more than the replay it saves, and shrinks when it costs less.
  *
  * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
  */
 public class JavaInterpreterMaps {
 	
 	/**
-	 * Map of variables.
+	 * The symbol table -- the fields, methods, expressions, classes and enums, all by name. Everything for a name is in the one entry,
+	 * so finding what an identifier refers to is one lookup, however many kinds of thing share the name.
 	 */
-	private Map<String, JavaAction> fields = new LinkedHashMap<String, JavaAction>();
+	private Map<String, JavaSymbol> symbols = new HashMap<String, JavaSymbol>();
 	
 	/**
-	 * Map of methods.
+	 * The names of the methods that use each name, so a new assignment only has to look at the methods that use its variable.
 	 */
-	private Map<String, JavaAction> methods = new LinkedHashMap<String, JavaAction>();
+	private Map<String, Set<String>> methodsByDependency = new HashMap<String, Set<String>>();
 	
 	/**
-	 * Map of expressions.
+	 * Map of imports.
 	 */
-	private Map<String, List<JavaAction>> expressions = new LinkedHashMap<String, List<JavaAction>>();
+	private Map<String, JavaAction> imports = new LinkedHashMap<String, JavaAction>();
 	
 	/**
-	 * Map of classes.
+	 * Map of exceptions.
 	 */
-	private Map<String, JavaAction> classes = new LinkedHashMap<String, JavaAction>();
+	private Map<String, JavaAction> exceptions = new LinkedHashMap<String, JavaAction>();
 	
 	/**
-	 * Map of enums.
+	 * The number of expressions compacted out of the history, that will never need replaying.
 	 */
-	private Map<String, JavaAction> enums = new LinkedHashMap<String, JavaAction>();
+	private long compactedExpressions = 0;
 	
 	/**
-	 * Map of imports.
+	 * The fields in the latest checkpoint, by field name, in the order their values were written.
 	 */
-	private Map<String, JavaAction> imports = new LinkedHashMap<String, JavaAction>();
+	private Map<String, FieldCheckpoint> checkpoints = new LinkedHashMap<String, FieldCheckpoint>();
 	
 	/**
-	 * Map of exceptions.
+	 * The values of the fields in the latest checkpoint, serialized one after another through the one stream.
 	 */
-	private Map<String, JavaAction> exceptions = new LinkedHashMap<String, JavaAction>();
+	private byte[] checkpointValues = new byte[0];
+	
+	/**
+	 * The folder under ./serialize the session is saved to every so often, NULL to only save when the user does.
+	 */
+	private String checkpointFolder = System.getProperty("interpreter.checkpoint.folder");
+	
+	/**
+	 * The number of fields and expressions to run between checkpoints.
+	 */
+	private int checkpointInterval = Integer.getInteger("interpreter.checkpoint.statements", DEFAULT_CHECKPOINT_INTERVAL);
+	
+	/**
+	 * How long the fields and expressions between checkpoints can take to run, in nanoseconds, before a checkpoint is taken anyway.
+	 */
+	private long checkpointReplayBudget = Long.getLong("interpreter.checkpoint.ms", DEFAULT_CHECKPOINT_REPLAY_MS) * 1000000L;
+	
+	/**
+	 * The fields and expressions run since the last checkpoint.
+	 */
+	private int statementsSinceCheckpoint = 0;
+	
+	/**
+	 * How long the fields and expressions run since the last checkpoint took, in nanoseconds. That's what replaying them would cost.
+	 */
+	private long replayCostSinceCheckpoint = 0;
+	
+	/**
+	 * The number of checkpoints taken.
+	 */
+	private long checkpointsTaken = 0;
+	
+	/**
+	 * How long the last checkpoint took, in nanoseconds.
+	 */
+	private long lastCheckpointCost = 0;
+	
+	/**
+	 * The number of fields put back from a checkpoint by the last load.
+	 */
+	private int restoredFields = 0;
+	
+	/**
+	 * The default number of fields and expressions to run between checkpoints.
+	 */
+	private static final int DEFAULT_CHECKPOINT_INTERVAL = 50;
+	
+	/**
+	 * The default time the fields and expressions between checkpoints can take, in milliseconds.
+	 */
+	private static final long DEFAULT_CHECKPOINT_REPLAY_MS = 1000;
+	
+	/**
+	 * The fewest and the most statements between checkpoints, however the costs work out.
+	 */
+	private static final int MIN_CHECKPOINT_INTERVAL = 10, MAX_CHECKPOINT_INTERVAL = 5000;
+	
+	/**
+	 * A checkpoint should cost less than this fraction of the replay it saves, one in ten.
+	 */
+	private static final int CHECKPOINT_COST_DIVISOR = 10;
+	
+	/**
+	 * A field at a checkpoint, along with the expressions its value stands in for. The value itself is in the checkpoint's values.
+	 */
+	private static class FieldCheckpoint implements Serializable {
+		
+		/**
+		 * The serial version.
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * The field, as it was declared at the checkpoint.
+		 */
+		private JavaAction fieldAction;
+		
+		/**
+		 * The expressions of the field at the checkpoint.
+		 */
+		private List<JavaAction> expressionActions;
+		
+		/**
+		 * Constructor to pass everything in.
+		 * 
+		 * @param fieldAction -- the field.
+		 * @param expressionActions -- the expressions of the field.
+		 */
+		private FieldCheckpoint(JavaAction fieldAction, List<JavaAction> expressionActions) {
+			this.fieldAction = fieldAction;
+			this.expressionActions = expressionActions;
+		}
+	}
+	
+	/**
+	 * The file the maps are serialized into.
+	 */
+	private static final String SESSION_FILE = "session.ser";
+	
+	/**
+	 * The key the checkpoint's values are saved under.
+	 */
+	private static final String CHECKPOINT_VALUES = "values";
 	
 	/**
 	 * Singleton instance.
@@ -83,6 +226,24 @@ public class JavaInterpreterMaps {
 		return INSTANCE;
 	}
 	
+	/**
+	 * Method to put an action that has just run against the live session state into the maps, along with its conditional action.
+	 * This is the same whether the compiler or the interpreter ran it.
+	 * 
+	 * @param javaAction -- the action.
+	 */
+	public void putAppliedAction(JavaAction javaAction) {
+		putEntry(javaAction);
+		javaAction.setApplied(true);
+		
+		// Check to see if we need to do anything conditional. This would be, for example, the case where we remove something from a list. Although
+		// it's a dangling expression, we need to be sure we track the action so that further calls make sense.
+		if(javaAction.getConditionalAction() != null) {
+			putEntry(javaAction.getConditionalAction());
+			javaAction.getConditionalAction().setApplied(true);
+		}
+	}
+	
 	/**
 	 * Method to put a {@link JavaAction} into a proper map based on the action type.
 	 * 
@@ -97,16 +258,52 @@ public class JavaInterpreterMaps {
 			case FIELD: {
 				
 				// Now put it back.
-				fields.put(javaAction.getName(), javaAction);
-				
+				JavaSymbol fieldSymbol = getSymbol(javaAction.getName());
+				List<JavaAction> replacedActions = new ArrayList<JavaAction>(fieldSymbol.get(ActionType.EXPRESSION));
+				JavaAction replacedField = fieldSymbol.put(javaAction);
+
+				// A new declaration starts the variable over, so the assignments made to the old one don't apply anymore.
+				fieldSymbol.removeExpressions();
+
+				// Its own name in its initializer is itself, not the old one, so it doesn't depend on the old one either.
+				if(replacedField != null) {
+					replacedActions.add(replacedField);
+					javaAction.getDependentActions().removeAll(replacedActions);
+				}
+
+				JavaDependencyGraph.getInstance().add(javaAction);
+
+				// Anything compiled against the old declaration has to be compiled against this one.
+				if(replacedField != null) {
+					JavaInterpreterCompiler.getInstance().dropSnippet(replacedField, javaAction);
+					rebindDependents(replacedActions, javaAction);
+					replacedActions.forEach(this::dropAction);
+				}
+
 				break;
 			}
 			
 			// Get the method.
 			case METHOD: {
 				
-				// Now put it back.
-				methods.put(javaAction.getName(), javaAction);
+				// Now put it back, in place of the old one if it's declared again.
+				JavaAction replacedMethod = getSymbol(javaAction.getName()).put(javaAction);
+				
+				// Its own name in its body is itself, not the old one, so it doesn't depend on the old one.
+				if(replacedMethod != null) {
+					javaAction.getDependentActions().remove(replacedMethod);
+					JavaInterpreterCompiler.getInstance().dropSnippet(replacedMethod, javaAction);
+					unindexMethod(replacedMethod);
+				}
+				
+				indexMethod(javaAction);
+				JavaDependencyGraph.getInstance().add(javaAction);
+				
+				// Anything that called the old one has to call this one.
+				if(replacedMethod != null) {
+					rebindDependents(Collections.singletonList(replacedMethod), javaAction);
+					dropAction(replacedMethod);
+				}
 				
 				break;
 			}
@@ -115,14 +312,20 @@ public class JavaInterpreterMaps {
 			case EXPRESSION: {
 				
 				// Either GET the existing expressions, or CREATE a new list to hold them.
-				List<JavaAction> currentExpressions = expressions.containsKey(javaAction.getName()) 
-																? expressions.get(javaAction.getName()) 
-																	: new LinkedList<JavaAction>();
+				JavaSymbol expressionSymbol = getSymbol(javaAction.getName());
+				
+				// Work out what it changes while we still have its tree.
+				if(javaAction instanceof JavaExpression) {
+					((JavaExpression) javaAction).setSelfContained(isSelfContained(javaAction, javaAction.getName()));
+				}
+				
+				// Drop whatever this one makes dead, so it never gets replayed.
+				compactExpressions(javaAction, expressionSymbol.getExpressions());
+				expressionSymbol.updateExpressions();
+				
 				// Add this one in.
-				currentExpressions.add(javaAction);
-			
-				// Now put it back.
-				expressions.put(javaAction.getName(), currentExpressions);
+				expressionSymbol.put(javaAction);
+				JavaDependencyGraph.getInstance().add(javaAction);
 				
 				// Make sure we update any possible references in a method.
 				updateMethodWithNewAction(javaAction);
@@ -131,20 +334,25 @@ public class JavaInterpreterMaps {
 				break;
 			}
 			
-			// Get the class.
-			case CLASS: {
+			// Get the class or the enum.
+			case CLASS:
+			case ENUM: {
 				
-				// Add this in.
-				classes.put(javaAction.getName(), javaAction);
+				// Add this in, in place of the old one if it's declared again.
+				JavaAction replacedType = getSymbol(javaAction.getName()).put(javaAction);
 				
-				break;
-			}
-			
-			// Get the enum.
-			case ENUM: {
+				// Its own name in its body is itself, not the old one.
+				if(replacedType != null) {
+					javaAction.getDependentActions().remove(replacedType);
+				}
 				
-				// Add this in.
-				enums.put(javaAction.getName(), javaAction);
+				JavaDependencyGraph.getInstance().add(javaAction);
+				
+				// The methods and expressions that used the old one use this one now. Fields and types built on the old one keep it.
+				if(replacedType != null) {
+					rebindDependents(Collections.singletonList(replacedType), javaAction);
+					dropAction(replacedType);
+				}
 				
 				break;
 			}
@@ -195,38 +403,13 @@ public class JavaInterpreterMaps {
 	 */
 	public List<JavaAction> getEntry(String entryName, ActionType entryType) {
 		
-		// Switch on the entry type to know what to return.
-		switch(entryType) {
-			
-			// Get the field.
-			case FIELD: {
-				return fields.containsKey(entryName) ? Collections.singletonList(fields.get(entryName)) : Collections.EMPTY_LIST;
-			}
-			
-			// Return the method.
-			case METHOD: {
-				return methods.containsKey(entryName) ? Collections.singletonList(methods.get(entryName)) : Collections.EMPTY_LIST;
-			}
-			
-			// Return the expression.
-			case EXPRESSION: {
-				return expressions.containsKey(entryName) ? expressions.get(entryName) : Collections.EMPTY_LIST;
-			}
-			
-			// Return the class.
-			case CLASS: {
-				return classes.containsKey(entryName) ? Collections.singletonList(classes.get(entryName)) : Collections.EMPTY_LIST;
-			}
-			
-			// Return the enum.
-			case ENUM: {
-				return enums.containsKey(entryName) ? Collections.singletonList(enums.get(entryName)) : Collections.EMPTY_LIST;
-			}
-			
-			default: {
-				return null;
-			}
+		// Imports, exceptions and the rest aren't kept by name.
+		if(!isSymbolType(entryType)) {
+			return null;
 		}
+		
+		JavaSymbol symbol = symbols.get(entryName);
+		return symbol == null ? Collections.emptyList() : symbol.get(entryType);
 	}
 	
 	/**
@@ -237,33 +420,47 @@ public class JavaInterpreterMaps {
 	 * @return TRUE if the map contains the name, FALSE if not.
 	 */
 	public boolean containsEntry(String entryName, ActionType entryType) {
+		JavaSymbol symbol = symbols.get(entryName);
+		return symbol != null && isSymbolType(entryType) && symbol.contains(entryType);
+	}
+	
+	/**
+	 * Method to get everything known by a name -- the field and its expressions, the method, the class and the enum -- in one lookup.
+	 * 
+	 * @param entryName -- the name of the identifier.
+	 * @return List -- the actions, in the order of their action types, empty if there aren't any.
+	 */
+	public List<JavaAction> getEntries(String entryName) {
+		JavaSymbol symbol = symbols.get(entryName);
+		return symbol == null ? Collections.emptyList() : symbol.getAll();
+	}
+	
+	/**
+	 * Method to get the symbol for a name, adding an empty one if it's new.
+	 * 
+	 * @param entryName -- the name.
+	 * @return JavaSymbol -- the symbol.
+	 */
+	private JavaSymbol getSymbol(String entryName) {
+		return symbols.computeIfAbsent(entryName, symbolName -> new JavaSymbol());
+	}
+	
+	/**
+	 * Method to check if an action type is kept in the symbol table.
+	 * 
+	 * @param entryType -- the action type.
+	 * @return TRUE if it is, FALSE if not.
+	 */
+	private static boolean isSymbolType(ActionType entryType) {
 		
-		// Switch on the entry type to know what to return.
 		switch(entryType) {
 			
-			// Get the field.
-			case FIELD: {
-				return fields.containsKey(entryName);
-			}
-			
-			// Return the method.
-			case METHOD: {
-				return methods.containsKey(entryName);
-			}
-			
-			// Return the expression.
-			case EXPRESSION: {
-				return expressions.containsKey(entryName);
-			}
-			
-			// Return the class.
-			case CLASS: {
-				return classes.containsKey(entryName);
-			}
-			
-			// Return the class.
+			case FIELD:
+			case METHOD:
+			case EXPRESSION:
+			case CLASS:
 			case ENUM: {
-				return enums.containsKey(entryName);
+				return true;
 			}
 			
 			default: {
@@ -336,24 +533,606 @@ public class JavaInterpreterMaps {
 	 */
 	private void updateMethodWithNewAction(JavaAction newlyCreatedAction) {
 		
-		// Loop through each of the methods.
-		for(JavaAction javaAction : methods.values()) {
+		// Only the methods that use the name need to know.
+		for(String methodName : methodsByDependency.getOrDefault(newlyCreatedAction.getName(), Collections.emptySet())) {
+			JavaMethod javaMethod = (JavaMethod) symbols.get(methodName).getAction(ActionType.METHOD);
+			
+			javaMethod.addDependentAction(newlyCreatedAction);
+			JavaDependencyGraph.getInstance().update(javaMethod);
+		}
+	}
+	
+	/**
+	 * Method to point the methods and expressions that used a field, method, class or enum at its new declaration. For example:
+	 *
+	 * <pre>
+	 * int x = 5;
+	 * int getX() { return x; }
+	 * int x = 100;     // getX() has to read this x now, not the old one
+	 * </pre>
+	 *
+	 * Their snippets import the old snippet, so they're dropped, along with the snippets of anything that uses them in turn, and
+	 * compiled again the next time they're needed. A method that doesn't compile against the new declaration (say, x is a String
+	 * now) fails then, the same as if it had been declared that way. Fields and types built on the old declaration keep it, since
+	 * that's what their values and their code came from.
+	 *
+	 * @param replacedActions -- the old declaration, and its assignments if it's a field.
+	 * @param newAction -- the new declaration.
+	 */
+	private void rebindDependents(List<JavaAction> replacedActions, JavaAction newAction) {
+		JavaActionSet replacedSet = new JavaActionSet(replacedActions);
+		Deque<JavaAction> reboundActions = new ArrayDeque<JavaAction>();
+
+		// Swap the old declaration out for the new one.
+		for(JavaAction replacedAction : replacedActions) {
+
+			for(JavaAction dependentAction : JavaDependencyGraph.getInstance().getDependents(replacedAction)) {
+
+				if(isRebound(dependentAction) && !replacedSet.contains(dependentAction) && dependentAction.getDependentActions().removeAll(replacedSet)) {
+					dependentAction.addDependentAction(newAction);
+					JavaDependencyGraph.getInstance().update(dependentAction);
+					reboundActions.add(dependentAction);
+				}
+			}
+		}
+
+		// Now drop their snippets, and the snippets built on them.
+		Set<JavaAction> droppedActions = new JavaActionSet();
+
+		while(!reboundActions.isEmpty()) {
+			JavaAction reboundAction = reboundActions.poll();
+
+			if(droppedActions.add(reboundAction)) {
+				JavaInterpreterCompiler.getInstance().dropSnippet(reboundAction, newAction);
+				reboundAction.setSnippetClassName(null);
+				JavaMethodTiers.getInstance().remove(reboundAction);
+
+				JavaDependencyGraph.getInstance().getDependents(reboundAction).stream().filter(JavaInterpreterMaps::isRebound).forEach(reboundActions::add);
+			}
+		}
+	}
+
+	/**
+	 * Method to let go of an action the maps don't keep anymore, because it's been declared over or compacted away. Only a field or a
+	 * type built on it can still depend on it. A method or an expression that does would run the old code, so that's a bug in the maps.
+	 *
+	 * @param droppedAction -- the action.
+	 */
+	private void dropAction(JavaAction droppedAction) {
+
+		for(JavaAction dependentAction : JavaDependencyGraph.getInstance().getDependents(droppedAction)) {
+
+			if(isRebound(dependentAction)) {
+				throw new IllegalStateException(dependentAction.getActionType() + " " + dependentAction.getName() + " still depends on the dropped "
+						+ droppedAction.getActionType() + " " + droppedAction.getName());
+			}
+		}
+
+		JavaDependencyGraph.getInstance().remove(droppedAction);
+	}
+
+	/**
+	 * Method to check if an action's snippet is compiled again when a field it uses is declared again.
+	 *
+	 * @param javaAction -- the action.
+	 * @return TRUE for methods and expressions, FALSE for the rest.
+	 */
+	private static boolean isRebound(JavaAction javaAction) {
+		return ActionType.METHOD.equals(javaAction.getActionType()) || ActionType.EXPRESSION.equals(javaAction.getActionType());
+	}
+
+	/**
+	 * Method to add a method to the index, under each of the names it uses. A method only ever picks up more actions of the names it
+	 * already uses, so these don't change until it's declared again.
+	 * 
+	 * @param javaMethod -- the method.
+	 */
+	private void indexMethod(JavaAction javaMethod) {
+		
+		for(JavaAction dependentAction : javaMethod.getDependentActions()) {
+			methodsByDependency.computeIfAbsent(dependentAction.getName(), dependencyName -> new HashSet<String>()).add(javaMethod.getName());
+		}
+	}
+	
+	/**
+	 * Method to take a method out of the index.
+	 * 
+	 * @param javaMethod -- the method.
+	 */
+	private void unindexMethod(JavaAction javaMethod) {
+		
+		for(JavaAction dependentAction : javaMethod.getDependentActions()) {
+			Set<String> methodNames = methodsByDependency.get(dependentAction.getName());
+			
+			if(methodNames != null) {
+				methodNames.remove(javaMethod.getName());
+			}
+		}
+	}
+	
+	/**
+	 * Method that compacts the history of a variable as a new expression comes in. A plain reassignment like <code>x = 5;</code> that
+	 * doesn't read <code>x</code> makes the assignments before it dead, so long as they only ever changed <code>x</code> itself and nothing
+	 * else still depends on them. For example:
+	 * 
+	 * <pre>
+	 * int x = 0;
+	 * x = 3;          // dead once x = 5 comes in
+	 * int y = x + 1;  // y depends on x = 3, so that one stays
+	 * x++;            // dead once x = 5 comes in
+	 * x = 5;
+	 * </pre>
+	 * 
+	 * The declaration of the field always stays. Methods only ever see the current value of a variable, so they don't keep anything.
+	 * 
+	 * @param newExpression -- the new expression.
+	 * @param currentExpressions -- the history of the variable, which is compacted in place.
+	 */
+	private void compactExpressions(JavaAction newExpression, List<JavaAction> currentExpressions) {
+		String variableName = newExpression.getName();
+		
+		// Nothing before it, or it doesn't wipe out what came before.
+		if(currentExpressions.isEmpty() || !isReassignment(newExpression, variableName)) {
+			return;
+		}
+		
+		// Take out everything that can't make a difference anymore.
+		Set<JavaAction> deadExpressions = new JavaActionSet();
+		
+		for(Iterator<JavaAction> expressionIterator = currentExpressions.iterator(); expressionIterator.hasNext(); ) {
+			JavaAction currentExpression = expressionIterator.next();
+			
+			if(currentExpression instanceof JavaExpression && ((JavaExpression) currentExpression).isSelfContained() && !isDependedOn(currentExpression, variableName)) {
+				expressionIterator.remove();
+				deadExpressions.add(currentExpression);
+			}
+		}
+		
+		// The new expression and the methods don't need them run first anymore, either.
+		newExpression.getDependentActions().removeAll(deadExpressions);
+		JavaDependencyGraph.getInstance().update(newExpression);
+		
+		for(String methodName : methodsByDependency.getOrDefault(variableName, Collections.emptySet())) {
+			JavaAction javaMethod = symbols.get(methodName).getAction(ActionType.METHOD);
+			
+			if(javaMethod.getDependentActions().removeAll(deadExpressions)) {
+				JavaDependencyGraph.getInstance().update(javaMethod);
+			}
+		}
+		
+		deadExpressions.forEach(this::dropAction);
+		compactedExpressions += deadExpressions.size();
+	}
+	
+	/**
+	 * Method to check if an expression is a plain reassignment of the variable that doesn't depend on what it was before, even through
+	 * a method or a class of the user's. It's read from the parse tree, so a name in a string or a comment doesn't count.
+	 * 
+	 * @param javaExpression -- the expression.
+	 * @param variableName -- the variable.
+	 * @return TRUE if it's a reassignment, FALSE if not.
+	 */
+	private static boolean isReassignment(JavaAction javaExpression, String variableName) {
+		ParseTree statementTree = getStatementTree(javaExpression);
+		
+		if(!(statementTree instanceof AssignmentContext) || !variableName.equals(((AssignmentContext) statementTree).leftHandSide().getText())
+				|| !"=".equals(((AssignmentContext) statementTree).assignmentOperator().getText())) {
+			return false;
+		}
+		
+		ParseTree rightHandSide = ((AssignmentContext) statementTree).expression();
+		
+		// It can't read the variable, or run any of the user's code that might.
+		if(Trees.findAllTokenNodes(rightHandSide, Java8Parser.Identifier).stream().anyMatch( identifier -> variableName.equals(identifier.getText()) && !isQualified(identifier) )) {
+			return false;
+		}
+		
+		return Trees.getDescendants(rightHandSide).stream().noneMatch(JavaInterpreterMaps::runsCode) || !usesUserCode(javaExpression, variableName, new JavaActionSet());
+	}
+	
+	/**
+	 * Method to check if an expression only ever changes the variable itself -- an assignment, a compound assignment or an increment of
+	 * the whole variable, with nothing on the right that has a side effect. Anything that sets an element or a field of it changes an
+	 * object that something else might share, so that doesn't count.
+	 * 
+	 * @param javaExpression -- the expression.
+	 * @param variableName -- the variable.
+	 * @return TRUE if it's self contained, FALSE if not.
+	 */
+	private static boolean isSelfContained(JavaAction javaExpression, String variableName) {
+		ParseTree statementTree = getStatementTree(javaExpression);
+		
+		// An increment or a decrement, before or after.
+		if(statementTree instanceof PreIncrementExpressionContext) {
+			return variableName.equals(((PreIncrementExpressionContext) statementTree).unaryExpression().getText());
+		}
+		
+		else if(statementTree instanceof PreDecrementExpressionContext) {
+			return variableName.equals(((PreDecrementExpressionContext) statementTree).unaryExpression().getText());
+		}
+		
+		else if(statementTree instanceof PostfixExpressionContext) {
+			PostfixExpressionContext postfixExpression = (PostfixExpressionContext) statementTree;
+			
+			return postfixExpression.getChildCount() == 2 && postfixExpression.expressionName() != null && variableName.equals(postfixExpression.expressionName().getText());
+		}
+		
+		// Or an assignment with nothing else going on.
+		else if(statementTree instanceof AssignmentContext) {
+			AssignmentContext assignment = (AssignmentContext) statementTree;
+			
+			return variableName.equals(assignment.leftHandSide().getText()) && Trees.getDescendants(assignment.expression()).stream().noneMatch(JavaInterpreterMaps::hasSideEffects);
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Method to get what an expression statement really is, down through the rules that only wrap the one below them. For example,
+	 * <code>x = 5;</code> is an assignment, and <code>x++;</code> is the postfix expression <code>x</code> with <code>++</code> after it.
+	 * 
+	 * @param javaExpression -- the expression.
+	 * @return ParseTree -- the tree, NULL if the expression doesn't have one.
+	 */
+	private static ParseTree getStatementTree(JavaAction javaExpression) {
+		
+		if(!(javaExpression.getParseTree() instanceof ExpressionStatementContext)) {
+			return null;
+		}
+		
+		ParseTree statementTree = ((ExpressionStatementContext) javaExpression.getParseTree()).statementExpression();
+		
+		while(statementTree.getChildCount() == 1 && statementTree.getChild(0) instanceof ParserRuleContext) {
+			statementTree = statementTree.getChild(0);
+		}
+		
+		return statementTree;
+	}
+	
+	/**
+	 * Method to check if a name comes after a dot, like the <code>x</code> of <code>point.x</code>, so it isn't the variable.
+	 * 
+	 * @param identifier -- the name.
+	 * @return TRUE if it comes after a dot, FALSE if not.
+	 */
+	private static boolean isQualified(ParseTree identifier) {
+		ParseTree parent = identifier.getParent();
+		
+		for(int childIndex = 1; childIndex < parent.getChildCount(); childIndex++) {
+			
+			if(parent.getChild(childIndex) == identifier) {
+				return isToken(parent.getChild(childIndex - 1), Java8Parser.DOT);
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Method to check if a part of an expression runs code, which might be the user's -- a method call or a new object.
+	 * 
+	 * @param parseTree -- the part.
+	 * @return TRUE if it does, FALSE if not.
+	 */
+	private static boolean runsCode(ParseTree parseTree) {
+		return parseTree instanceof MethodInvocationContext || parseTree instanceof MethodInvocation_lf_primaryContext || parseTree instanceof MethodInvocation_lfno_primaryContext
+				|| isToken(parseTree, Java8Parser.NEW);
+	}
+	
+	/**
+	 * Method to check if a part of an expression might change something other than the variable it assigns -- anything that runs code,
+	 * an increment, or another assignment.
+	 * 
+	 * @param parseTree -- the part.
+	 * @return TRUE if it might, FALSE if not.
+	 */
+	private static boolean hasSideEffects(ParseTree parseTree) {
+		return runsCode(parseTree) || parseTree instanceof AssignmentContext || isToken(parseTree, Java8Parser.INC) || isToken(parseTree, Java8Parser.DEC);
+	}
+	
+	/**
+	 * Method to check if a part of a tree is a token of the given type.
+	 * 
+	 * @param parseTree -- the part.
+	 * @param tokenType -- the type.
+	 * @return TRUE if it is, FALSE if not.
+	 */
+	private static boolean isToken(ParseTree parseTree, int tokenType) {
+		return parseTree instanceof TerminalNode && ((TerminalNode) parseTree).getSymbol().getType() == tokenType;
+	}
+	
+	/**
+	 * Method to check if anything still in the maps depends on an expression, other than the history of its own variable and the methods.
+	 * A field or another variable that was worked out from it needs it replayed first. Only what depends on it directly is looked at,
+	 * through the graph.
+	 * 
+	 * @param javaExpression -- the expression.
+	 * @param variableName -- the variable it assigns.
+	 * @return TRUE if something depends on it, FALSE if not.
+	 */
+	private boolean isDependedOn(JavaAction javaExpression, String variableName) {
+		
+		for(JavaAction dependentAction : JavaDependencyGraph.getInstance().getDependents(javaExpression)) {
+			ActionType dependentType = dependentAction.getActionType();
 			
-			// Cast it.
-			JavaMethod javaMethod = (JavaMethod) javaAction;
+			// Anything declared, or any other variable.
+			if(!(ActionType.FIELD.equals(dependentType) || ActionType.CLASS.equals(dependentType) || ActionType.ENUM.equals(dependentType)
+					|| (ActionType.EXPRESSION.equals(dependentType) && !variableName.equals(dependentAction.getName())))) {
+				continue;
+			}
 			
-			// For each of it's dependent actions....
-			for(JavaAction dependentAction : javaMethod.getDependentActions()) {
+			// So long as it's still in the maps, and hasn't been declared again or compacted away.
+			if(getEntry(dependentAction.getName(), dependentType).stream().anyMatch( keptAction -> keptAction == dependentAction )) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Recursive method to check if an action depends on any of the user's methods, classes or enums, all the way down. The history of
+	 * the variable being assigned is skipped, since that's what's being checked for.
+	 * 
+	 * @param javaAction -- the action.
+	 * @param variableName -- the variable.
+	 * @param visited -- the actions already checked.
+	 * @return TRUE if it does, FALSE if not.
+	 */
+	private static boolean usesUserCode(JavaAction javaAction, String variableName, Set<JavaAction> visited) {
+		
+		for(JavaAction dependentAction : javaAction.getDependentActions()) {
+			
+			if(!visited.add(dependentAction) || (ActionType.EXPRESSION.equals(dependentAction.getActionType()) && variableName.equals(dependentAction.getName()))) {
+				continue;
+			}
+			
+			else if(ActionType.METHOD.equals(dependentAction.getActionType()) || ActionType.CLASS.equals(dependentAction.getActionType()) 
+						|| ActionType.ENUM.equals(dependentAction.getActionType()) || usesUserCode(dependentAction, variableName, visited)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Method to get the statistics of the expression history, to show the user.
+	 * 
+	 * @return String -- the statistics.
+	 */
+	public String getStatistics() {
+		long keptExpressions = symbols.values().stream().mapToLong( symbol -> symbol.get(ActionType.EXPRESSION).size() ).sum();
+		return "Symbol table: " + symbols.size() + " names\n" +
+				"Expression history: " + keptExpressions + " kept, " + compactedExpressions + " replay steps compacted away\n" +
+				"Checkpoints: " + checkpointsTaken + " taken, " + checkpoints.size() + " fields in the latest (" + (lastCheckpointCost / 1000) + " us), "
+				+ (checkpointFolder == null ? "on save only" : "saved to " + checkpointFolder + " every " + checkpointInterval + " statements") + ", "
+				+ restoredFields + " fields restored by the last load";
+	}
+	
+	/**
+	 * Method to tell the maps a statement has run, and how long it took, which saves the session to the checkpoint folder when it's
+	 * time. Only fields and expressions count, since they're all that would be replayed.
+	 * 
+	 * @param javaAction -- the action that ran.
+	 * @param runTime -- how long it took, in nanoseconds.
+	 */
+	public void statementRan(JavaAction javaAction, long runTime) {
+		
+		if(checkpointFolder == null || !javaAction.isApplied() || !(InterpreterSnippetClass.isReplayable(javaAction) || javaAction.getConditionalAction() != null)) {
+			return;
+		}
+		
+		statementsSinceCheckpoint++;
+		replayCostSinceCheckpoint += runTime;
+		
+		if(statementsSinceCheckpoint >= checkpointInterval || replayCostSinceCheckpoint >= checkpointReplayBudget) {
+			takeCheckpoint();
+		}
+	}
+	
+	/**
+	 * Method to save the session to the checkpoint folder, since enough has run. The interval then adapts: if saving cost more than a
+	 * tenth of the replay it saves, they're spread out further, and if it cost much less, they come sooner.
+	 */
+	private void takeCheckpoint() {
+		long startTime = System.nanoTime();
+		
+		// It's only a checkpoint, so the statement still ran if it can't be saved.
+		try {
+			saveBySerialize(checkpointFolder);
+		}
+		
+		catch(RuntimeException e) {
+			System.err.println("Couldn't save the checkpoint to " + checkpointFolder + " : " + e.getMessage());
+		}
+		
+		lastCheckpointCost = System.nanoTime() - startTime;
+		
+		// Adapt to what it cost.
+		if(lastCheckpointCost * CHECKPOINT_COST_DIVISOR > replayCostSinceCheckpoint) {
+			checkpointInterval = Math.min(MAX_CHECKPOINT_INTERVAL, checkpointInterval * 2);
+		}
+		
+		else if(lastCheckpointCost * CHECKPOINT_COST_DIVISOR * 4 < replayCostSinceCheckpoint) {
+			checkpointInterval = Math.max(MIN_CHECKPOINT_INTERVAL, checkpointInterval / 2);
+		}
+		
+		statementsSinceCheckpoint = 0;
+		replayCostSinceCheckpoint = 0;
+	}
+	
+	/**
+	 * Method to capture the live value of every field that can be serialized, in place of the last checkpoint. They're written
+	 * through the one stream, so an object two fields share is written once, and is still shared when it's read back. A field holding
+	 * something that can't be serialized after all leaves the stream broken, so it's left out and the rest are written again.
+	 */
+	private void captureCheckpoint() {
+		long startTime = System.nanoTime();
+		
+		List<JavaField> capturedFields = new ArrayList<JavaField>();
+		List<Object> capturedValues = new ArrayList<Object>();
+		
+		for(JavaAction fieldAction : getDeclarations(ActionType.FIELD).values()) {
+			
+			try {
+				if(isCapturable((JavaField) fieldAction)) {
+					capturedValues.add(getSnippetField((JavaField) fieldAction).get(null));
+					capturedFields.add((JavaField) fieldAction);
+				}
+			}
+			
+			// It has to be replayed.
+			catch(ReflectiveOperationException e) {
+				;
+			}
+		}
+		
+		// Write them all, leaving out any that fail.
+		byte[] values = null;
+		
+		while(values == null) {
+			ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+			int valueIndex = 0;
+			
+			try(ObjectOutputStream valueOutput = new ObjectOutputStream(valueBytes)) {
 				
-				// If we match names... then add it in.
-				if(newlyCreatedAction.getName().equals(dependentAction.getName())) {
-					javaMethod.addDependentAction(newlyCreatedAction);
-					
-					// Put it back, and then break.
-					methods.put(javaMethod.getMethodName(), javaMethod);
-					break;
+				for(; valueIndex < capturedValues.size(); valueIndex++) {
+					valueOutput.writeObject(capturedValues.get(valueIndex));
 				}
 			}
+			
+			// Anything it holds that can't be serialized means it has to be replayed.
+			catch(IOException e) {
+				capturedFields.remove(valueIndex);
+				capturedValues.remove(valueIndex);
+				continue;
+			}
+			
+			values = valueBytes.toByteArray();
+		}
+		
+		Map<String, FieldCheckpoint> newCheckpoints = new LinkedHashMap<String, FieldCheckpoint>();
+		capturedFields.forEach( javaField -> newCheckpoints.put(javaField.getName(), new FieldCheckpoint(javaField, new ArrayList<JavaAction>(getEntry(javaField.getName(), ActionType.EXPRESSION)))) );
+		
+		checkpoints = newCheckpoints;
+		checkpointValues = values;
+		checkpointsTaken++;
+		lastCheckpointCost = System.nanoTime() - startTime;
+	}
+	
+	/**
+	 * Method to check if the live value of a field can be captured, as it sits in its snippet.
+	 * 
+	 * @param javaField -- the field.
+	 * @return TRUE if it can be, FALSE if it has to be replayed.
+	 * @throws ReflectiveOperationException
+	 */
+	private boolean isCapturable(JavaField javaField) throws ReflectiveOperationException {
+		
+		// It has to be one variable, that's completely run.
+		if(javaField.getVariableDeclaratorIds().size() != 1 || !javaField.isApplied() || !JavaInterpreterCompiler.getInstance().isLoaded(javaField.getSnippetClassName())
+				|| getEntry(javaField.getName(), ActionType.EXPRESSION).stream().anyMatch( expressionAction -> !expressionAction.isApplied() )) {
+			return false;
+		}
+		
+		Object value = getSnippetField(javaField).get(null);
+		
+		return value == null || value instanceof Serializable;
+	}
+	
+	/**
+	 * Method to put the values from the checkpoint back into their snippets after a load. The snippet of each field is compiled, but
+	 * not run, and the value is set right into it. The field and its expressions from before the checkpoint are then already applied,
+	 * so only what came after gets replayed. The values are all read through the one stream, once every snippet is compiled, so the
+	 * types of any of them can be found. If they can't be read, they're all replayed like before, and any one field that's been
+	 * declared again since, or doesn't compile, is replayed by itself.
+	 */
+	private void restoreCheckpoint() {
+		restoredFields = 0;
+		
+		// Compile the snippets first, so their types are there to read the values into.
+		List<Boolean> restorable = new ArrayList<Boolean>();
+		
+		for(FieldCheckpoint checkpoint : checkpoints.values()) {
+			restorable.add(getEntry(checkpoint.fieldAction.getName(), ActionType.FIELD).stream().anyMatch( fieldAction -> fieldAction == checkpoint.fieldAction )
+					&& JavaInterpreterCompiler.getInstance().compileMember(checkpoint.fieldAction));
+		}
+		
+		// Read them all back, or none of them.
+		List<Object> values = new ArrayList<Object>();
+		
+		try(ObjectInputStream valueInput = new SessionObjectInputStream(checkpointValues)) {
+			
+			for(int valueIndex = 0; valueIndex < checkpoints.size(); valueIndex++) {
+				values.add(valueInput.readObject());
+			}
+		}
+		
+		catch(IOException | ClassNotFoundException e) {
+			return;
+		}
+		
+		int valueIndex = 0;
+		
+		for(FieldCheckpoint checkpoint : checkpoints.values()) {
+			Object value = values.get(valueIndex);
+			
+			if(!restorable.get(valueIndex++)) {
+				continue;
+			}
+			
+			try {
+				getSnippetField((JavaField) checkpoint.fieldAction).set(null, value);
+			}
+			
+			catch(ReflectiveOperationException e) {
+				continue;
+			}
+			
+			checkpoint.fieldAction.setApplied(true);
+			checkpoint.expressionActions.forEach( expressionAction -> expressionAction.setApplied(true));
+			restoredFields++;
+		}
+	}
+	
+	/**
+	 * Method to get the static field a field's value lives in.
+	 * 
+	 * @param javaField -- the field.
+	 * @return Field -- the static field of its snippet.
+	 * @throws ReflectiveOperationException
+	 */
+	private static Field getSnippetField(JavaField javaField) throws ReflectiveOperationException {
+		return JavaInterpreterCompiler.getInstance().getSessionClassLoader().loadClass(javaField.getSnippetClassName()).getField(javaField.getName());
+	}
+	
+	/**
+	 * Object input stream that finds classes through the session class loader, so the values of the user's own types can be read.
+	 */
+	private static class SessionObjectInputStream extends ObjectInputStream {
+		
+		/**
+		 * Constructor to pass in the serialized bytes.
+		 * 
+		 * @param serializedBytes -- the bytes.
+		 * @throws IOException
+		 */
+		private SessionObjectInputStream(byte[] serializedBytes) throws IOException {
+			super(new ByteArrayInputStream(serializedBytes));
+		}
+		
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass streamClass) throws IOException, ClassNotFoundException {
+			
+			try {
+				return Class.forName(streamClass.getName(), false, JavaInterpreterCompiler.getInstance().getSessionClassLoader());
+			}
+			
+			// Primitives, for one.
+			catch(ClassNotFoundException e) {
+				return super.resolveClass(streamClass);
+			}
 		}
 	}
 	
@@ -371,6 +1150,9 @@ public class JavaInterpreterMaps {
 	 */
 	public void saveBySerialize(String serializeFolder) {
 		
+		// Capture the live values first, or whatever ran since the last save (a loop, for one) is lost.
+		captureCheckpoint();
+		
 		// The root file name.
 		String filePrefix;
 		
@@ -384,37 +1166,57 @@ public class JavaInterpreterMaps {
 			throw new RuntimeException("Failed trying to create file!", e);
 		}
 		
-		// The files.
-		String fieldFile = filePrefix + File.separator + "fields.ser";
-		String methodFile = filePrefix + File.separator + "methods.ser";	
-		String expressionFile = filePrefix + File.separator + "exprs.ser";
-		String classFile = filePrefix + File.separator + "classes.ser";
-		String enumFile = filePrefix + File.separator + "enums.ser";
-		String importFile = filePrefix + File.separator + "imports.ser";
-		String exceptionFile = filePrefix + File.separator + "exceptions.ser";
+		// Serialize all the maps into one file. They share actions (an expression depends on its field, for example), and
+		// only the one stream keeps them shared when they're read back. The checkpoint shares them too.
+		// The symbol table goes out as a map for each kind, the way it always has.
+		Map<String, List<JavaAction>> expressions = new LinkedHashMap<String, List<JavaAction>>();
+		
+		for(Map.Entry<String, JavaSymbol> symbol : symbols.entrySet()) {
+			
+			if(symbol.getValue().contains(ActionType.EXPRESSION)) {
+				expressions.put(symbol.getKey(), new LinkedList<JavaAction>(symbol.getValue().get(ActionType.EXPRESSION)));
+			}
+		}
+		
+		serialize(Arrays.<Map<String, ?>>asList(getDeclarations(ActionType.FIELD), getDeclarations(ActionType.METHOD), expressions, getDeclarations(ActionType.CLASS), 
+				getDeclarations(ActionType.ENUM), imports, exceptions, checkpoints, Collections.singletonMap(CHECKPOINT_VALUES, checkpointValues)), filePrefix + File.separator + SESSION_FILE);
+	}
+	
+	/**
+	 * Method to get the field, method, class or enum declarations out of the symbol table, by name.
+	 * 
+	 * @param declarationType -- the action type.
+	 * @return Map -- the declarations.
+	 */
+	private Map<String, JavaAction> getDeclarations(ActionType declarationType) {
+		Map<String, JavaAction> declarations = new LinkedHashMap<String, JavaAction>();
+		
+		for(Map.Entry<String, JavaSymbol> symbol : symbols.entrySet()) {
+			
+			if(symbol.getValue().contains(declarationType)) {
+				declarations.put(symbol.getKey(), symbol.getValue().getAction(declarationType));
+			}
+		}
 		
-		// Serialize all the maps.
-		serialize(fields, fieldFile);
-		serialize(methods, methodFile);
-		serialize(expressions, expressionFile);
-		serialize(classes, classFile);
-		serialize(enums, enumFile);
-		serialize(imports, importFile);
-		serialize(exceptions, exceptionFile);
+		return declarations;
 	}
 	
 	/**
-	 * Method to serialize a given map with a given file name.
+	 * Method to serialize the given maps with a given file name.
 	 * 
-	 * @param mapToSerialize -- the map.
+	 * @param mapsToSerialize -- the maps, in order.
 	 * @param serializeFileName -- the serialize name.
 	 */
-	private void serialize(Map mapToSerialize, String serializeFileName) {
+	private void serialize(List<Map<String, ?>> mapsToSerialize, String serializeFileName) {
 		
 		// Write it to a file.
 		try {
 			ObjectOutputStream objectOutput = new ObjectOutputStream(new FileOutputStream(serializeFileName));
-			objectOutput.writeObject(mapToSerialize);
+			
+			for(Map<String, ?> mapToSerialize : mapsToSerialize) {
+				objectOutput.writeObject(mapToSerialize);
+			}
+			
 			objectOutput.close();
 		}
 
@@ -449,50 +1251,95 @@ public class JavaInterpreterMaps {
 			throw new RuntimeException("Failed deserializing!", e);
 		}
 		
-		// The Files.
-		String fieldFile = fullDirectory + File.separator + "fields.ser";
-		String methodFile = fullDirectory + File.separator + "methods.ser";	
-		String expressionFile = fullDirectory + File.separator + "exprs.ser";
-		String classFile = fullDirectory + File.separator + "classes.ser";
-		String enumFile = fullDirectory + File.separator + "enums.ser";
-		String importFile = fullDirectory + File.separator + "imports.ser";
-		String exceptionFile = fullDirectory + File.separator + "exceptions.ser";
+		// The loaded actions get ids in a table of their own, so the ones from before can go.
+		JavaAction.resetActionIds();
+		
+		// Read all the maps back, in the same order they were written.
+		List<Map<?, ?>> deserializedMaps = deserialize(fullDirectory + File.separator + SESSION_FILE, 9);
 		
 		// Now set the maps to what we deserialized.
-		this.fields = deserialize(fieldFile);
-		this.methods = deserialize(methodFile);
-		this.expressions = deserialize(expressionFile);
-		this.classes = deserialize(classFile);
-		this.enums = deserialize(enumFile);
-		this.imports = deserialize(importFile);
-		this.exceptions = deserialize(exceptionFile);
+		this.symbols = new HashMap<String, JavaSymbol>();
+		
+		for(int mapIndex = 0; mapIndex < 5; mapIndex++) {
+			
+			for(Object deserializedEntries : deserializedMaps.get(mapIndex).values()) {
+				
+				// The expressions come as a list for each variable.
+				for(Object deserializedAction : deserializedEntries instanceof List ? (List<?>) deserializedEntries : Collections.singletonList(deserializedEntries)) {
+					JavaAction javaAction = (JavaAction) deserializedAction;
+					getSymbol(javaAction.getName()).put(javaAction);
+				}
+			}
+		}
+		
+		this.imports = getEntries(deserializedMaps.get(5), JavaAction.class);
+		this.exceptions = getEntries(deserializedMaps.get(6), JavaAction.class);
+		
+		// All of the actions are new, so the graph and the index start over.
+		JavaDependencyGraph.getInstance().clear();
+		symbols.values().forEach( symbol -> symbol.getAll().forEach(JavaDependencyGraph.getInstance()::add) );
+		methodsByDependency.clear();
+		getDeclarations(ActionType.METHOD).values().forEach(this::indexMethod);
+		
+		// Saves from before checkpoints don't have one, and saves from before their values shared one stream can't be restored.
+		boolean hasCheckpoint = deserializedMaps.size() > 8;
+		this.checkpoints = hasCheckpoint ? getEntries(deserializedMaps.get(7), FieldCheckpoint.class) : new LinkedHashMap<String, FieldCheckpoint>();
+		this.checkpointValues = hasCheckpoint ? (byte[]) deserializedMaps.get(8).get(CHECKPOINT_VALUES) : new byte[0];
+		restoreCheckpoint();
 		
 		// If we made it here, we're good.
 		return true;
 	}
 	
 	/**
-	 * Method to serialize a given map with a given file name.
+	 * Method to deserialize the maps from a given file name.
 	 *
 	 * @param serializeFileName -- the serialize name.
+	 * @param mapCount -- the most maps in the file.
+	 * @return List -- the maps, in the order they were written.
 	 */
-	private Map deserialize(String serializeFileName) {
+	private List<Map<?, ?>> deserialize(String serializeFileName, int mapCount) {
 		
 		// Read it from a file.
-		try {
-			FileInputStream mapFile = new FileInputStream(serializeFileName);
-			ObjectInputStream theInputStream = new ObjectInputStream(mapFile);
+		try(ObjectInputStream theInputStream = new ObjectInputStream(new FileInputStream(serializeFileName))) {
+			List<Map<?, ?>> deserializedMaps = new ArrayList<Map<?, ?>>();
 			
-			// Read the input stream and map it to a map.
-			return (Map) theInputStream.readObject();
+			// Read the input stream and map each one to a map.
+			for(int mapIndex = 0; mapIndex < mapCount; mapIndex++) {
+				
+				// Older saves can have fewer maps.
+				try {
+					deserializedMaps.add((Map<?, ?>) theInputStream.readObject());
+				}
+				
+				catch(EOFException e) {
+					break;
+				}
+			}
+			
+			return deserializedMaps;
 		}
 
 		// Re-throw if we fail.
 		catch(Exception e) {
-			throw new RuntimeException("Failed writing serialization! Filename : " + serializeFileName, e);
+			throw new RuntimeException("Failed reading serialization! Filename : " + serializeFileName, e);
 		}
 	}
 	
+	/**
+	 * Method to get a deserialized map back with the types it was written with, checking each entry as it's copied over.
+	 * 
+	 * @param deserializedMap -- the map.
+	 * @param valueType -- the type of the values.
+	 * @return Map -- the same entries, in the same order.
+	 */
+	private static <V> Map<String, V> getEntries(Map<?, ?> deserializedMap, Class<V> valueType) {
+		Map<String, V> entries = new LinkedHashMap<String, V>();
+		deserializedMap.forEach( (key, value) -> entries.put((String) key, valueType.cast(value)) );
+		
+		return entries;
+	}
+	
 	/**
 	 * Method to get the value of a given variable.
 	 * 
@@ -512,7 +1359,7 @@ public class JavaInterpreterMaps {
 			
 			// If we have expressions, these will be most recent.
 			if(containsEntry(variableName, ActionType.EXPRESSION)) {
-				List<JavaAction> theActualExpressions = expressions.get(variableName);
+				List<JavaAction> theActualExpressions = getEntry(variableName, ActionType.EXPRESSION);
 				
 				// Get the last one because we know it's a linked list.
 				theAction = (JavaExpression) theActualExpressions.get(theActualExpressions.size() - 1);
@@ -520,7 +1367,7 @@ public class JavaInterpreterMaps {
 			
 			// Otherwise, just get the value.
 			else {
-				theAction = fields.get(variableName);
+				theAction = getEntry(variableName, ActionType.FIELD).get(0);
 			}
 		}
 		
@@ -0,0 +1,754 @@
+package com.interpret;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import com.actions.ActionType;
+import com.antlr.Java8Lexer;
+import com.antlr.Java8Parser;
+
+/**
+ * Class to parse the input of the user. The generated parser is slow with its default, full LL prediction, so each statement is first
+ * parsed with SLL prediction, which is much cheaper, and a parse that gives up at the first error. Only input that fails that way is
+ * parsed again with full LL prediction and the usual error recovery, so anything that parsed before still parses the same way. Use
+ * <code>-Dinterpreter.parse.mode=ll</code> to skip the first stage.
+ * 
+ * Before any of that, the first few tokens usually say what kind of statement it is, so only that rule is parsed rather than all of
+ * a compilation unit:
+ * 
+ * <pre>
+ * import java.util.List;          -->   importDeclaration
+ * catch(IOException e) { }        -->   catchClause
+ * int x = 5;  List&lt;T&gt; m() { }     -->   classBodyDeclaration (a type, then a name)
+ * &lt;T&gt; T m()  Point(int x) { }     -->   classBodyDeclaration (a generic method, a constructor)
+ * x = 5;  m(x);  for(...) { }     -->   blockStatements
+ * </pre>
+ * 
+ * That rule is tried with SLL and then LL, since SLL can't tell some statements apart either way. Anything it can't parse all of is
+ * a miss, and goes through the compilation unit like before. Use <code>-Dinterpreter.parse.dispatch=false</code>
+ * to always parse a compilation unit.
+ * 
+ * The parser is warmed up on its own thread when the interpreter starts (see {@link #warmUp()}), if there's more than one processor
+ * for it to run on. Use <code>-Dinterpreter.parse.warmup=false</code> to start cold, or <code>true</code> to warm up anyway. Nothing
+ * the user types is written anywhere unless <code>-Dinterpreter.parse.warmup.file</code> names a file to save the slow statements to,
+ * for the next warm-up.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterParser {
+
+	/**
+	 * The instance.
+	 */
+	private static final JavaInterpreterParser INSTANCE = new JavaInterpreterParser();
+
+	/**
+	 * Is the SLL stage tried first?
+	 */
+	private boolean twoStage = !"ll".equalsIgnoreCase(System.getProperty("interpreter.parse.mode", "two-stage"));
+
+	/**
+	 * Is the rule picked from the first tokens tried first?
+	 */
+	private boolean dispatch = Boolean.parseBoolean(System.getProperty("interpreter.parse.dispatch", "true"));
+
+	/**
+	 * Is the parser warmed up when the interpreter starts? Not by default with only one processor, since the warm-up would take its
+	 * time from the user's own first statements.
+	 */
+	private boolean warmUp = Boolean.parseBoolean(System.getProperty("interpreter.parse.warmup", String.valueOf(Runtime.getRuntime().availableProcessors() > 1)));
+
+	/**
+	 * The file the statements for the next warm-up are saved to, one to a line, NULL to not save them.
+	 */
+	private File warmUpFile = System.getProperty("interpreter.parse.warmup.file") == null ? null : new File(System.getProperty("interpreter.parse.warmup.file"));
+
+	/**
+	 * The statements that were slow to parse, this session or the ones before it, oldest first. These are what the next warm-up parses,
+	 * along with {@link #WARM_UP_STATEMENTS}.
+	 */
+	private Set<String> slowStatements = new LinkedHashSet<String>();
+
+	/**
+	 * The number of statements the warm-up parsed.
+	 */
+	private long warmUpParses = 0;
+
+	/**
+	 * How long the warm-up took, in nanoseconds.
+	 */
+	private long warmUpTime = 0;
+
+	/**
+	 * A statement that takes longer than this to parse, in nanoseconds, was missing from the DFA, and is worth parsing in the next warm-up.
+	 */
+	private static final long SLOW_PARSE_TIME = 1000000;
+
+	/**
+	 * The most slow statements saved for the next warm-up. The oldest go first.
+	 */
+	private static final int MAX_SLOW_STATEMENTS = 200;
+
+	/**
+	 * Statements of every kind, for the warm-up to parse even with nothing saved. Each one fills in the DFA for the decisions its kind
+	 * of statement goes through.
+	 */
+	private static final String[] WARM_UP_STATEMENTS = {
+		"int x = 5;",
+		"String s = \"a\" + x;",
+		"double[] values = new double[] { 1.0, 2.5 };",
+		"java.util.List<String> names = new java.util.ArrayList<String>();",
+		"Map<String, List<Integer>> m = new HashMap<>();",
+		"public static final long y = 3L;",
+		"int fib(int n) { if(n < 2) { return n; } return fib(n - 1) + fib(n - 2); }",
+		"void hello() { System.out.println(\"hi\"); }",
+		"List<String> top(int count) { return names.subList(0, count); }",
+		"x = x * 2 + 1;",
+		"x += arr[0] << 2;",
+		"++x;",
+		"this.x = 3;",
+		"System.out.println(names.size() + fib(x));",
+		"names.add(\"a\");",
+		"new StringBuilder(\"a\").append(x).toString();",
+		"class P { int v = 3; P(int v) { this.v = v; } }",
+		"enum Color { RED, GREEN }",
+		"import java.util.List;",
+		"import static java.lang.Math.*;",
+		"for(int i = 0; i < 3; i++) { x += i; }",
+		"for(String name : names) { System.out.println(name); }",
+		"if(x > 5) { System.out.println(x); } else { x = 0; }",
+		"while(x < 10) { x++; }",
+		"do { x--; } while(x > 0);",
+		"try { x = 1 / x; } catch(ArithmeticException e) { x = 0; }",
+		"catch(IOException e) { }",
+		"String t = x > 2 ? \"a\" : \"b\";",
+		"Runnable r = () -> System.out.println(x);"
+	};
+
+	/**
+	 * The number of statements parsed by the rule picked for them.
+	 */
+	private long dispatchedParses = 0;
+
+	/**
+	 * How long those took, in nanoseconds.
+	 */
+	private long dispatchedTime = 0;
+
+	/**
+	 * The number of statements parsed, and how long they took in nanoseconds, by the type of action they turned out to be.
+	 */
+	private Map<ActionType, long[]> parsesByActionType = new EnumMap<ActionType, long[]>(ActionType.class);
+
+	/**
+	 * The number of statements the rule picked for them couldn't parse, with SLL or LL, so the compilation unit had to.
+	 */
+	private long dispatchMisses = 0;
+
+	/**
+	 * The number of statements the SLL stage parsed.
+	 */
+	private long sllParses = 0;
+
+	/**
+	 * How long the SLL stage took on those, in nanoseconds.
+	 */
+	private long sllTime = 0;
+
+	/**
+	 * The number of statements that were parsed with full LL prediction.
+	 */
+	private long llParses = 0;
+
+	/**
+	 * How long those took, in nanoseconds, along with the SLL stage that failed first.
+	 */
+	private long llTime = 0;
+
+	/**
+	 * No-op private constructor.
+	 */
+	private JavaInterpreterParser() {
+		;
+	}
+
+	/**
+	 * Get the singleton instance.
+	 *
+	 * @return JavaInterpreterParser -- the instance.
+	 */
+	public static JavaInterpreterParser getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Method to parse the input, once. The listeners all walk this same tree.
+	 *
+	 * @param rawInput -- the raw input.
+	 * @return ParserRuleContext -- the parse tree.
+	 */
+	public synchronized ParserRuleContext parse(String rawInput) {
+		return parse(rawInput, true);
+	}
+
+	/**
+	 * Method to parse the input. Any number of threads can parse at once, since the generated parser guards the DFA it shares, but only
+	 * the one holding the lock can keep statistics.
+	 *
+	 * @param rawInput -- the raw input.
+	 * @param keepStatistics -- TRUE to count it and remember it for the next warm-up, FALSE if it's the warm-up itself.
+	 * @return ParserRuleContext -- the parse tree.
+	 */
+	private ParserRuleContext parse(String rawInput, boolean keepStatistics) {
+		long startTime = System.nanoTime();
+
+		// Put it into a lexer, and make the parser.
+		Java8Lexer java8Lexer = new Java8Lexer(new ANTLRInputStream(rawInput));
+		CommonTokenStream tokenStream = new CommonTokenStream(java8Lexer);
+		Java8Parser parser = new Java8Parser(tokenStream);
+
+		// Make the parser and lexer be quiet.
+		parser.removeErrorListeners();
+		java8Lexer.removeErrorListeners();
+
+		// Just the rule the first tokens point to, if they do.
+		StartRule startRule = dispatch ? getStartRule(tokenStream) : null;
+
+		if(startRule != null) {
+
+			// SLL first, if it's on.
+			ParserRuleContext startContext = twoStage ? parseStartRule(parser, tokenStream, startRule, PredictionMode.SLL) : null;
+
+			if(startContext != null) {
+
+				if(keepStatistics) {
+					dispatchedParses++;
+					dispatchedTime += System.nanoTime() - startTime;
+					rememberIfSlow(rawInput, System.nanoTime() - startTime);
+				}
+
+				return startContext;
+			}
+
+			// SLL can't tell some statements apart, so give the same rule full LL before deciding it was the wrong one.
+			startContext = parseStartRule(parser, tokenStream, startRule, PredictionMode.LL);
+
+			if(startContext != null) {
+
+				if(keepStatistics) {
+					llParses++;
+					llTime += System.nanoTime() - startTime;
+					rememberIfSlow(rawInput, System.nanoTime() - startTime);
+				}
+
+				return startContext;
+			}
+
+			// A miss, or an error. Either way the compilation unit decides, like it did before there was a start rule.
+			if(keepStatistics) {
+				dispatchMisses++;
+			}
+		}
+
+		// Try the fast stage first.
+		if(twoStage) {
+			parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+			parser.setErrorHandler(new BailErrorStrategy());
+
+			try {
+				ParserRuleContext compilationUnit = parser.compilationUnit();
+
+				if(keepStatistics) {
+					sllParses++;
+					sllTime += System.nanoTime() - startTime;
+					rememberIfSlow(rawInput, System.nanoTime() - startTime);
+				}
+
+				return compilationUnit;
+			}
+
+			// It might be a real error, or SLL just couldn't tell. Either way, start over.
+			catch(ParseCancellationException e) {
+				parser.reset();
+			}
+		}
+
+		// Full LL, recovering from errors the way it always has.
+		parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+		parser.setErrorHandler(new DefaultErrorStrategy());
+
+		ParserRuleContext compilationUnit = parser.compilationUnit();
+
+		if(keepStatistics) {
+			llParses++;
+			llTime += System.nanoTime() - startTime;
+
+			// Statements with errors would only teach the warm-up how to recover from them.
+			if(parser.getNumberOfSyntaxErrors() == 0) {
+				rememberIfSlow(rawInput, System.nanoTime() - startTime);
+			}
+		}
+
+		return compilationUnit;
+	}
+
+	/**
+	 * Method to parse just the rule the first tokens point to, giving up at the first error.
+	 *
+	 * @param parser -- the parser.
+	 * @param tokenStream -- the tokens.
+	 * @param startRule -- the rule.
+	 * @param predictionMode -- SLL or LL.
+	 * @return ParserRuleContext -- the parse tree, NULL if the rule couldn't parse all of the input. The parser is reset for the next try.
+	 */
+	private static ParserRuleContext parseStartRule(Java8Parser parser, CommonTokenStream tokenStream, StartRule startRule, PredictionMode predictionMode) {
+		parser.getInterpreter().setPredictionMode(predictionMode);
+		parser.setErrorHandler(new BailErrorStrategy());
+
+		try {
+			ParserRuleContext startContext = startRule.parse(parser);
+
+			// It has to have taken all of the input, or it was the wrong rule.
+			if(tokenStream.LA(1) == Token.EOF) {
+				return startContext;
+			}
+		}
+
+		catch(ParseCancellationException e) {
+			;
+		}
+
+		parser.reset();
+		return null;
+	}
+
+	/**
+	 * Method to tell the parser what a statement turned out to be, and how long it took to parse.
+	 *
+	 * @param actionType -- the type of action.
+	 * @param parseTime -- how long it took, in nanoseconds.
+	 */
+	public synchronized void statementParsed(ActionType actionType, long parseTime) {
+		long[] parses = parsesByActionType.computeIfAbsent(actionType, newActionType -> new long[2]);
+
+		parses[0]++;
+		parses[1] += parseTime;
+	}
+
+	/**
+	 * Method to start warming up the parser on its own thread. The generated parser starts every process with an empty DFA, and builds
+	 * it as it goes, so the first statements of each kind are many times slower than the ones after. The warm-up parses statements of
+	 * every kind, and the ones that were slow to parse in earlier sessions, so the user's first statements find the DFA already built.
+	 * 
+	 * The DFA itself can't be saved, since its states point into the ATN and the prediction contexts of this process. Instead, if there's
+	 * a warm-up file, the statements that were slow to parse are saved to it when the interpreter exits, and parsed again by the next
+	 * warm-up.
+	 * 
+	 * The thread runs at the lowest priority, and yields after each statement, so the user's statements and the compiler come first.
+	 */
+	public void warmUp() {
+
+		if(!warmUp) {
+			return;
+		}
+
+		Thread warmUpThread = new Thread(this::runWarmUp, "parser-warm-up");
+		warmUpThread.setDaemon(true);
+		warmUpThread.setPriority(Thread.MIN_PRIORITY);
+		warmUpThread.start();
+
+		// Save what was slow for the next one, however the interpreter exits.
+		if(warmUpFile != null) {
+			Runtime.getRuntime().addShutdownHook(new Thread(this::saveSlowStatements, "parser-warm-up-save"));
+		}
+	}
+
+	/**
+	 * Method to parse the warm-up statements, without the lock, so the user doesn't wait on any of them.
+	 */
+	private void runWarmUp() {
+		long startTime = System.nanoTime();
+
+		// What was slow before, then everything else.
+		List<String> warmUpStatements = loadSlowStatements();
+		warmUpStatements.addAll(Arrays.asList(WARM_UP_STATEMENTS));
+
+		for(String warmUpStatement : warmUpStatements) {
+
+			// Nothing the warm-up parses can stop the interpreter.
+			try {
+				parse(warmUpStatement, false);
+			}
+
+			catch(RuntimeException e) {
+				;
+			}
+
+			Thread.yield();
+		}
+
+		synchronized(this) {
+			warmUpParses = warmUpStatements.size();
+			warmUpTime = System.nanoTime() - startTime;
+		}
+	}
+
+	/**
+	 * Method to remember a statement for the next warm-up, if it was slow to parse. A statement that's remembered again moves to the end,
+	 * so the oldest are the first to go.
+	 *
+	 * @param rawInput -- the raw input.
+	 * @param parseTime -- how long it took, in nanoseconds.
+	 */
+	private void rememberIfSlow(String rawInput, long parseTime) {
+
+		if(!warmUp || warmUpFile == null || parseTime < SLOW_PARSE_TIME) {
+			return;
+		}
+
+		slowStatements.remove(rawInput);
+		slowStatements.add(rawInput);
+
+		if(slowStatements.size() > MAX_SLOW_STATEMENTS) {
+			slowStatements.remove(slowStatements.iterator().next());
+		}
+	}
+
+	/**
+	 * Method to load the statements that were slow in earlier sessions. They're kept with the ones from this session, so they're saved
+	 * again.
+	 *
+	 * @return List -- the statements, empty if none were saved.
+	 */
+	private List<String> loadSlowStatements() {
+		List<String> savedStatements = new ArrayList<String>();
+
+		if(warmUpFile != null && warmUpFile.isFile()) {
+
+			// It's only text, a line to a statement.
+			try {
+				Files.readAllLines(warmUpFile.toPath(), StandardCharsets.UTF_8).forEach(savedLine -> savedStatements.add(unescapeLine(savedLine)));
+			}
+
+			// It's only a warm-up, start without them.
+			catch(IOException e) {
+				;
+			}
+		}
+
+		synchronized(this) {
+			Set<String> sessionStatements = slowStatements;
+
+			slowStatements = new LinkedHashSet<String>(savedStatements);
+			sessionStatements.forEach(sessionStatement -> rememberIfSlow(sessionStatement, SLOW_PARSE_TIME));
+		}
+
+		return savedStatements;
+	}
+
+	/**
+	 * Method to save the slow statements for the next warm-up.
+	 */
+	private synchronized void saveSlowStatements() {
+
+		if(slowStatements.isEmpty()) {
+			return;
+		}
+
+		warmUpFile.getAbsoluteFile().getParentFile().mkdirs();
+
+		// A line to a statement, even the ones that took more than one line to type.
+		List<String> savedLines = new ArrayList<String>();
+		slowStatements.forEach(slowStatement -> savedLines.add(escapeLine(slowStatement)));
+
+		try {
+			Files.write(warmUpFile.toPath(), savedLines, StandardCharsets.UTF_8);
+		}
+
+		// The next session just starts a little colder.
+		catch(IOException e) {
+			System.err.println("Couldn't save the parser warm-up to " + warmUpFile + " : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Method to put a statement on one line, escaping its line breaks and backslashes.
+	 *
+	 * @param statement -- the statement.
+	 * @return String -- the line.
+	 */
+	private static String escapeLine(String statement) {
+		return statement.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+	}
+
+	/**
+	 * Method to get a statement back from its line, the other way from {@link #escapeLine(String)}.
+	 *
+	 * @param savedLine -- the line.
+	 * @return String -- the statement.
+	 */
+	private static String unescapeLine(String savedLine) {
+		StringBuilder statement = new StringBuilder(savedLine.length());
+
+		for(int charIndex = 0; charIndex < savedLine.length(); charIndex++) {
+			char thisChar = savedLine.charAt(charIndex);
+
+			// Only what escapeLine escaped.
+			if(thisChar == '\\' && charIndex + 1 < savedLine.length()) {
+				char escapedChar = savedLine.charAt(++charIndex);
+				statement.append(escapedChar == 'n' ? '\n' : escapedChar == 'r' ? '\r' : escapedChar);
+			}
+
+			else {
+				statement.append(thisChar);
+			}
+		}
+
+		return statement.toString();
+	}
+
+	/**
+	 * Method to get the statistics of the parsing, to show the user.
+	 *
+	 * @return String -- the statistics.
+	 */
+	public synchronized String getStatistics() {
+		long statementsParsed = dispatchedParses + sllParses + llParses;
+
+		StringBuilder statistics = new StringBuilder("Parser (" + (dispatch ? "start rule, then " : "") + (twoStage ? "SLL then LL" : "LL") + "): ")
+				.append(statementsParsed).append(" statements parsed, ")
+				.append(dispatchedParses).append(" by their own start rule (").append(getAverage(dispatchedTime, dispatchedParses)).append(" us each), ")
+				.append(sllParses).append(" by SLL (").append(getAverage(sllTime, sllParses)).append(" us each), ")
+				.append(llParses).append(" by LL (").append(getAverage(llTime, llParses)).append(" us each), ")
+				.append(statementsParsed == 0 ? 0 : (dispatchedParses + sllParses) * 100 / statementsParsed).append("% in a fast stage")
+				.append(dispatch ? ", " + dispatchMisses + " start rule misses" : "");
+
+		// The warm-up, if it's done.
+		if(warmUp) {
+			statistics.append("\nWarm-up: ").append(warmUpTime == 0 ? "still running" : warmUpParses + " statements in " + warmUpTime / 1000000 + " ms");
+
+			if(warmUpFile != null) {
+				statistics.append(", ").append(slowStatements.size()).append(" slow statements to save to ").append(warmUpFile);
+			}
+		}
+
+		// And by what they turned out to be.
+		for(Map.Entry<ActionType, long[]> parses : parsesByActionType.entrySet()) {
+			statistics.append("\n   ").append(parses.getKey()).append(": ").append(parses.getValue()[0]).append(" parsed, ")
+					.append(getAverage(parses.getValue()[1], parses.getValue()[0])).append(" us each");
+		}
+
+		return statistics.toString();
+	}
+
+	/**
+	 * Method to pick the rule to parse from the first tokens, the same one the compilation unit would have ended up in.
+	 *
+	 * @param tokenStream -- the tokens.
+	 * @return StartRule -- the rule, NULL if it can't tell.
+	 */
+	private static StartRule getStartRule(CommonTokenStream tokenStream) {
+
+		switch(tokenStream.LA(1)) {
+
+			case Java8Lexer.IMPORT: {
+				return StartRule.IMPORT_DECLARATION;
+			}
+
+			case Java8Lexer.CATCH: {
+				return StartRule.CATCH_CLAUSE;
+			}
+
+			// Only ever a statement.
+			case Java8Lexer.IF: case Java8Lexer.FOR: case Java8Lexer.WHILE: case Java8Lexer.DO: case Java8Lexer.SWITCH: case Java8Lexer.TRY:
+			case Java8Lexer.RETURN: case Java8Lexer.THROW: case Java8Lexer.BREAK: case Java8Lexer.CONTINUE: case Java8Lexer.ASSERT:
+			case Java8Lexer.NEW: case Java8Lexer.THIS: case Java8Lexer.SUPER: case Java8Lexer.LPAREN: case Java8Lexer.INC: case Java8Lexer.DEC:
+			case Java8Lexer.IntegerLiteral: case Java8Lexer.FloatingPointLiteral: case Java8Lexer.BooleanLiteral: case Java8Lexer.CharacterLiteral:
+			case Java8Lexer.StringLiteral: case Java8Lexer.NullLiteral: {
+				return StartRule.BLOCK_STATEMENTS;
+			}
+
+			// Only ever a member.
+			case Java8Lexer.PUBLIC: case Java8Lexer.PROTECTED: case Java8Lexer.PRIVATE: case Java8Lexer.STATIC: case Java8Lexer.FINAL:
+			case Java8Lexer.ABSTRACT: case Java8Lexer.NATIVE: case Java8Lexer.TRANSIENT: case Java8Lexer.VOLATILE: case Java8Lexer.STRICTFP:
+			case Java8Lexer.CLASS: case Java8Lexer.ENUM: case Java8Lexer.INTERFACE: case Java8Lexer.VOID: case Java8Lexer.AT:
+			case Java8Lexer.BOOLEAN: case Java8Lexer.BYTE: case Java8Lexer.SHORT: case Java8Lexer.INT: case Java8Lexer.LONG: case Java8Lexer.CHAR:
+			case Java8Lexer.FLOAT: case Java8Lexer.DOUBLE: case Java8Lexer.LT: {
+				return StartRule.CLASS_BODY_DECLARATION;
+			}
+
+			// A name is a member if it's a type followed by another name, or a constructor, and a statement otherwise.
+			case Java8Lexer.Identifier: {
+				return isTypeThenName(tokenStream) || isConstructor(tokenStream) ? StartRule.CLASS_BODY_DECLARATION : StartRule.BLOCK_STATEMENTS;
+			}
+
+			default: {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Method to check if the tokens start with a type and then a name, like <code>java.util.List&lt;String&gt;[] names</code>.
+	 *
+	 * @param tokenStream -- the tokens.
+	 * @return TRUE if they do, FALSE if not.
+	 */
+	private static boolean isTypeThenName(CommonTokenStream tokenStream) {
+		int tokenIndex = 1;
+
+		// The qualified name.
+		while(tokenStream.LA(tokenIndex) == Java8Lexer.Identifier && tokenStream.LA(tokenIndex + 1) == Java8Lexer.DOT) {
+			tokenIndex += 2;
+		}
+
+		if(tokenStream.LA(tokenIndex++) != Java8Lexer.Identifier) {
+			return false;
+		}
+
+		// The type arguments, which can nest.
+		if(tokenStream.LA(tokenIndex) == Java8Lexer.LT) {
+
+			for(int depth = 0; depth > 0 || tokenStream.LA(tokenIndex) == Java8Lexer.LT; tokenIndex++) {
+
+				switch(tokenStream.LA(tokenIndex)) {
+
+					case Java8Lexer.LT: {
+						depth++;
+						break;
+					}
+
+					case Java8Lexer.GT: {
+						depth--;
+						break;
+					}
+
+					case Java8Lexer.Identifier: case Java8Lexer.DOT: case Java8Lexer.COMMA: case Java8Lexer.QUESTION: case Java8Lexer.EXTENDS:
+					case Java8Lexer.SUPER: case Java8Lexer.LBRACK: case Java8Lexer.RBRACK: case Java8Lexer.BOOLEAN: case Java8Lexer.BYTE:
+					case Java8Lexer.SHORT: case Java8Lexer.INT: case Java8Lexer.LONG: case Java8Lexer.CHAR: case Java8Lexer.FLOAT: case Java8Lexer.DOUBLE: {
+						break;
+					}
+
+					default: {
+						return false;
+					}
+				}
+			}
+		}
+
+		// The array dimensions.
+		while(tokenStream.LA(tokenIndex) == Java8Lexer.LBRACK && tokenStream.LA(tokenIndex + 1) == Java8Lexer.RBRACK) {
+			tokenIndex += 2;
+		}
+
+		return tokenStream.LA(tokenIndex) == Java8Lexer.Identifier;
+	}
+
+	/**
+	 * Method to check if the tokens start with a constructor, like <code>Point(int x) throws Exception {</code>. A call is followed by
+	 * a semicolon or more of an expression, never a brace or a throws.
+	 *
+	 * @param tokenStream -- the tokens.
+	 * @return TRUE if they do, FALSE if not.
+	 */
+	private static boolean isConstructor(CommonTokenStream tokenStream) {
+
+		if(tokenStream.LA(2) != Java8Lexer.LPAREN) {
+			return false;
+		}
+
+		// Past the parameters, which can have parentheses of their own in annotations.
+		int tokenIndex = 3;
+
+		for(int depth = 1; depth > 0; tokenIndex++) {
+
+			switch(tokenStream.LA(tokenIndex)) {
+
+				case Java8Lexer.LPAREN: {
+					depth++;
+					break;
+				}
+
+				case Java8Lexer.RPAREN: {
+					depth--;
+					break;
+				}
+
+				case Token.EOF: {
+					return false;
+				}
+
+				default: {
+					break;
+				}
+			}
+		}
+
+		return tokenStream.LA(tokenIndex) == Java8Lexer.LBRACE || tokenStream.LA(tokenIndex) == Java8Lexer.THROWS;
+	}
+
+	/**
+	 * The rules a statement can be parsed from, rather than the whole compilation unit.
+	 */
+	private enum StartRule {
+
+		BLOCK_STATEMENTS, CLASS_BODY_DECLARATION, IMPORT_DECLARATION, CATCH_CLAUSE;
+
+		/**
+		 * Method to parse the rule.
+		 *
+		 * @param parser -- the parser.
+		 * @return ParserRuleContext -- the parse tree.
+		 */
+		private ParserRuleContext parse(Java8Parser parser) {
+
+			switch(this) {
+
+				case CLASS_BODY_DECLARATION: {
+					return parser.classBodyDeclaration();
+				}
+
+				case IMPORT_DECLARATION: {
+					return parser.importDeclaration();
+				}
+
+				case CATCH_CLAUSE: {
+					return parser.catchClause();
+				}
+
+				default: {
+					return parser.blockStatements();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method to get an average time in microseconds.
+	 *
+	 * @param totalTime -- the total time, in nanoseconds.
+	 * @param count -- how many there were.
+	 * @return long -- the average, in microseconds.
+	 */
+	private static long getAverage(long totalTime, long count) {
+		return count == 0 ? 0 : totalTime / count / 1000;
+	}
+}
@@ -0,0 +1,243 @@
+package com.interpret;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.actions.ActionType;
+import com.actions.JavaAction;
+
+/**
+ * Class that holds everything the session knows by one name -- a field, a method, a class and an enum can all share a name, and a field
+ * has the expressions that assigned it. Which of those there are is kept as a bitmask of the action types, so checking for one is a
+ * bit test, and all of them come back from the one lookup in {@link JavaInterpreterMaps}.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaSymbol {
+
+	/**
+	 * The action types there are for this name, one bit for each, by ordinal.
+	 */
+	private int kinds = 0;
+
+	/**
+	 * The field, NULL if there isn't one.
+	 */
+	private JavaAction fieldAction;
+
+	/**
+	 * The method, NULL if there isn't one.
+	 */
+	private JavaAction methodAction;
+
+	/**
+	 * The expressions, in the order they ran, NULL if there aren't any.
+	 */
+	private List<JavaAction> expressionActions;
+
+	/**
+	 * The class, NULL if there isn't one.
+	 */
+	private JavaAction classAction;
+
+	/**
+	 * The enum, NULL if there isn't one.
+	 */
+	private JavaAction enumAction;
+
+	/**
+	 * Method to check if there's an action of a given type for this name.
+	 *
+	 * @param actionType -- the action type.
+	 * @return TRUE if there is, FALSE if not.
+	 */
+	public boolean contains(ActionType actionType) {
+		return (kinds & getBit(actionType)) != 0;
+	}
+
+	/**
+	 * Method to get the actions of a given type for this name.
+	 *
+	 * @param actionType -- the action type.
+	 * @return List -- the actions, empty if there aren't any.
+	 */
+	public List<JavaAction> get(ActionType actionType) {
+
+		switch(actionType) {
+
+			case FIELD: {
+				return toList(fieldAction);
+			}
+
+			case METHOD: {
+				return toList(methodAction);
+			}
+
+			case EXPRESSION: {
+				return expressionActions == null ? Collections.emptyList() : expressionActions;
+			}
+
+			case CLASS: {
+				return toList(classAction);
+			}
+
+			case ENUM: {
+				return toList(enumAction);
+			}
+
+			default: {
+				return Collections.emptyList();
+			}
+		}
+	}
+
+	/**
+	 * Method to get the one action of a given type for this name. Expressions have more than one, so use {@link #get(ActionType)}.
+	 *
+	 * @param actionType -- the field, method, class or enum type.
+	 * @return JavaAction -- the action, NULL if there isn't one.
+	 */
+	public JavaAction getAction(ActionType actionType) {
+		List<JavaAction> actions = get(actionType);
+		return actions.isEmpty() ? null : actions.get(0);
+	}
+
+	/**
+	 * Method to get every action for this name, in the order of the action types.
+	 *
+	 * @return List -- the actions.
+	 */
+	public List<JavaAction> getAll() {
+		List<JavaAction> allActions = new ArrayList<JavaAction>();
+
+		addIfPresent(allActions, fieldAction);
+		addIfPresent(allActions, methodAction);
+
+		if(expressionActions != null) {
+			allActions.addAll(expressionActions);
+		}
+
+		addIfPresent(allActions, classAction);
+		addIfPresent(allActions, enumAction);
+
+		return allActions;
+	}
+
+	/**
+	 * Method to put an action in for this name. A field, method, class or enum replaces the old one, and an expression goes on the end.
+	 *
+	 * @param javaAction -- the action.
+	 * @return JavaAction -- the action it replaced, NULL if none.
+	 */
+	public JavaAction put(JavaAction javaAction) {
+		JavaAction replacedAction = null;
+
+		switch(javaAction.getActionType()) {
+
+			case FIELD: {
+				replacedAction = fieldAction;
+				fieldAction = javaAction;
+				break;
+			}
+
+			case METHOD: {
+				replacedAction = methodAction;
+				methodAction = javaAction;
+				break;
+			}
+
+			case EXPRESSION: {
+
+				if(expressionActions == null) {
+					expressionActions = new LinkedList<JavaAction>();
+				}
+
+				expressionActions.add(javaAction);
+				break;
+			}
+
+			case CLASS: {
+				replacedAction = classAction;
+				classAction = javaAction;
+				break;
+			}
+
+			case ENUM: {
+				replacedAction = enumAction;
+				enumAction = javaAction;
+				break;
+			}
+
+			default: {
+				throw new IllegalArgumentException("No symbol for action type " + javaAction.getActionType());
+			}
+		}
+
+		kinds |= getBit(javaAction.getActionType());
+		return replacedAction;
+	}
+
+	/**
+	 * Method to get the expressions for this name to change them in place, making the list if there isn't one yet.
+	 *
+	 * @return List -- the expressions, in the order they ran.
+	 */
+	public List<JavaAction> getExpressions() {
+
+		if(expressionActions == null) {
+			expressionActions = new LinkedList<JavaAction>();
+		}
+
+		return expressionActions;
+	}
+
+	/**
+	 * Method to forget the expressions for this name, when its field is declared again.
+	 */
+	public void removeExpressions() {
+		expressionActions = null;
+		kinds &= ~getBit(ActionType.EXPRESSION);
+	}
+
+	/**
+	 * Method to set the expressions bit from the list, after it was changed in place.
+	 */
+	public void updateExpressions() {
+		kinds = expressionActions == null || expressionActions.isEmpty() ? kinds & ~getBit(ActionType.EXPRESSION) : kinds | getBit(ActionType.EXPRESSION);
+	}
+
+	/**
+	 * Method to get the bit of an action type.
+	 *
+	 * @param actionType -- the action type.
+	 * @return int -- the bit.
+	 */
+	private static int getBit(ActionType actionType) {
+		return 1 << actionType.ordinal();
+	}
+
+	/**
+	 * Method to turn an action that might not be there into a list.
+	 *
+	 * @param javaAction -- the action, or NULL.
+	 * @return List -- the action by itself, or empty.
+	 */
+	private static List<JavaAction> toList(JavaAction javaAction) {
+		return javaAction == null ? Collections.emptyList() : Collections.singletonList(javaAction);
+	}
+
+	/**
+	 * Method to add an action to a list if it's there.
+	 *
+	 * @param actions -- the list.
+	 * @param javaAction -- the action, or NULL.
+	 */
+	private static void addIfPresent(List<JavaAction> actions, JavaAction javaAction) {
+
+		if(javaAction != null) {
+			actions.add(javaAction);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.interpret.evaluator;
+
+/**
+ * Enum for the ways a statement can be run. The default comes from the <code>interpreter.engine</code> system property, and it can be
+ * changed for the session with <code>engine(...)</code>.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public enum ExecutionEngine {
+
+	/**
+	 * Interpret each statement the interpreter can handle, and compile the rest. This is decided statement by statement.
+	 */
+	AUTO,
+
+	/**
+	 * Compile every statement.
+	 */
+	COMPILER,
+
+	/**
+	 * Interpret every statement the interpreter can handle, and keep count of why the others had to be compiled instead, to show
+	 * in <code>stats()</code>.
+	 */
+	INTERPRETER;
+
+	/**
+	 * The system property that picks the engine to start with.
+	 */
+	public static final String ENGINE_PROPERTY = "interpreter.engine";
+
+	/**
+	 * Method to get the engine by its name, ignoring case.
+	 *
+	 * @param engineName -- the name, like <code>compiler</code>.
+	 * @return {@link ExecutionEngine} -- the engine, NULL if there isn't one by that name.
+	 */
+	public static ExecutionEngine fromName(String engineName) {
+
+		for(ExecutionEngine engine : values()) {
+
+			if(engine.name().equalsIgnoreCase(engineName.trim())) {
+				return engine;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method to get the engine to start the session with, from the system property. Defaults to {@link #AUTO}.
+	 *
+	 * @return {@link ExecutionEngine} -- the engine.
+	 */
+	public static ExecutionEngine getDefault() {
+		ExecutionEngine engine = fromName(System.getProperty(ENGINE_PROPERTY, AUTO.name()));
+
+		// Tell the user if the property doesn't make sense.
+		if(engine == null) {
+			System.err.println("Unknown " + ENGINE_PROPERTY + " " + System.getProperty(ENGINE_PROPERTY) + ", using " + AUTO.name().toLowerCase());
+			return AUTO;
+		}
+
+		return engine;
+	}
+}
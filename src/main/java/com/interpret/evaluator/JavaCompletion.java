@@ -0,0 +1,138 @@
+package com.interpret.evaluator;
+
+/**
+ * Class for how a statement finished -- normally, or by a break, continue or return. Only a return carries a value, and only a
+ * labeled break or continue carries a label, so the rest are shared.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaCompletion {
+
+	/**
+	 * The ways a statement can finish.
+	 */
+	enum Kind {
+		NORMAL, BREAK, CONTINUE, RETURN;
+	}
+
+	/**
+	 * The statement ran to the end.
+	 */
+	static final JavaCompletion NORMAL = new JavaCompletion(Kind.NORMAL, null);
+
+	/**
+	 * The statement broke out of the loop.
+	 */
+	static final JavaCompletion BREAK = new JavaCompletion(Kind.BREAK, null);
+
+	/**
+	 * The statement went on to the next time around the loop.
+	 */
+	static final JavaCompletion CONTINUE = new JavaCompletion(Kind.CONTINUE, null);
+
+	/**
+	 * How it finished.
+	 */
+	private final Kind kind;
+
+	/**
+	 * The value returned, if it was a return.
+	 */
+	private final Object value;
+
+	/**
+	 * The label a break or continue goes to, NULL for the innermost loop.
+	 */
+	private final String label;
+
+	/**
+	 * Private constructor, use the constants or {@link #returning(Object)}.
+	 *
+	 * @param kind -- how it finished.
+	 * @param value -- the value returned.
+	 */
+	private JavaCompletion(Kind kind, Object value) {
+		this(kind, value, null);
+	}
+
+	/**
+	 * Private constructor, use {@link #breaking(String)} or {@link #continuing(String)}.
+	 *
+	 * @param kind -- how it finished.
+	 * @param value -- the value returned.
+	 * @param label -- the label it goes to.
+	 */
+	private JavaCompletion(Kind kind, Object value, String label) {
+		this.kind = kind;
+		this.value = value;
+		this.label = label;
+	}
+
+	/**
+	 * Method to get the completion for a return.
+	 *
+	 * @param value -- the value returned, NULL for a void return.
+	 * @return {@link JavaCompletion} -- the completion.
+	 */
+	static JavaCompletion returning(Object value) {
+		return new JavaCompletion(Kind.RETURN, value);
+	}
+
+	/**
+	 * Method to get the completion for a labeled break.
+	 *
+	 * @param label -- the label of the statement it breaks out of.
+	 * @return {@link JavaCompletion} -- the completion.
+	 */
+	static JavaCompletion breaking(String label) {
+		return new JavaCompletion(Kind.BREAK, null, label);
+	}
+
+	/**
+	 * Method to get the completion for a labeled continue.
+	 *
+	 * @param label -- the label of the loop it continues.
+	 * @return {@link JavaCompletion} -- the completion.
+	 */
+	static JavaCompletion continuing(String label) {
+		return new JavaCompletion(Kind.CONTINUE, null, label);
+	}
+
+	/**
+	 * Getter for how it finished.
+	 *
+	 * @return {@link Kind} -- how it finished.
+	 */
+	Kind getKind() {
+		return this.kind;
+	}
+
+	/**
+	 * Getter for the value returned.
+	 *
+	 * @return Object -- the value.
+	 */
+	Object getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Getter for the label a break or continue goes to.
+	 *
+	 * @return String -- the label, NULL for the innermost loop.
+	 */
+	String getLabel() {
+		return this.label;
+	}
+
+	/**
+	 * Return if this is for a loop with the given label, or with none. A break or continue without a label is for the innermost loop,
+	 * and one with a label goes on out until it gets to its statement.
+	 *
+	 * @param loopLabel -- the label of the loop, NULL if it doesn't have one.
+	 * @return TRUE if it's for the loop, FALSE if it goes on out.
+	 */
+	boolean isFor(String loopLabel) {
+		return this.label == null || this.label.equals(loopLabel);
+	}
+}
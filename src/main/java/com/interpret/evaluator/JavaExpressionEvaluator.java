@@ -0,0 +1,647 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Field;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+
+import com.actions.JavaAction;
+import com.actions.JavaDanglingExpression;
+import com.actions.JavaIdentifier;
+import com.antlr.Java8Parser.AdditiveExpressionContext;
+import com.antlr.Java8Parser.AndExpressionContext;
+import com.antlr.Java8Parser.AssignmentExpressionContext;
+import com.antlr.Java8Parser.CastExpressionContext;
+import com.antlr.Java8Parser.ConditionalAndExpressionContext;
+import com.antlr.Java8Parser.ConditionalExpressionContext;
+import com.antlr.Java8Parser.ConditionalOrExpressionContext;
+import com.antlr.Java8Parser.EqualityExpressionContext;
+import com.antlr.Java8Parser.ExclusiveOrExpressionContext;
+import com.antlr.Java8Parser.ExpressionContext;
+import com.antlr.Java8Parser.ExpressionNameContext;
+import com.antlr.Java8Parser.ExpressionStatementContext;
+import com.antlr.Java8Parser.InclusiveOrExpressionContext;
+import com.antlr.Java8Parser.LiteralContext;
+import com.antlr.Java8Parser.MultiplicativeExpressionContext;
+import com.antlr.Java8Parser.PostfixExpressionContext;
+import com.antlr.Java8Parser.PrimaryContext;
+import com.antlr.Java8Parser.PrimaryNoNewArray_lfno_primaryContext;
+import com.antlr.Java8Parser.RelationalExpressionContext;
+import com.antlr.Java8Parser.ShiftExpressionContext;
+import com.antlr.Java8Parser.UnaryExpressionContext;
+import com.antlr.Java8Parser.UnaryExpressionNotPlusMinusContext;
+import com.javasource.InterpreterSuperClass;
+
+/**
+ * Class that evaluates simple expressions straight off of the parse tree, without going through the compiler. This covers literals,
+ * arithmetic, comparisons, string concatenation and reads of primitive and String fields, for example:
+ *
+ * <pre>
+ * x + 1;
+ * 3 * 4.5;
+ * "total: " + (x * 2);
+ * x &gt; 5 &amp;&amp; y != 0;
+ * </pre>
+ *
+ * Values are kept as their boxed types, and every operation follows the Java rules for promotion. Anything it can't be sure about
+ * -- a method call, a division by zero, a field that hasn't been set up yet -- throws an {@link UnsupportedEvaluationException}, and
+ * the statement goes through the compiler like it always has.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaExpressionEvaluator {
+
+	/**
+	 * The instance.
+	 */
+	private static final JavaExpressionEvaluator INSTANCE = new JavaExpressionEvaluator();
+
+	/**
+	 * The statements we answered.
+	 */
+	private long evaluated = 0;
+
+	/**
+	 * The statements we handed to the compiler.
+	 */
+	private long fallbacks = 0;
+
+	/**
+	 * No-op private constructor.
+	 */
+	private JavaExpressionEvaluator() {
+		;
+	}
+
+	/**
+	 * Get the singleton instance.
+	 *
+	 * @return JavaExpressionEvaluator -- the instance.
+	 */
+	public static JavaExpressionEvaluator getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Method to try and evaluate an action without the compiler.
+	 *
+	 * @param javaAction -- the action.
+	 * @return String -- the result to show the user, NULL if the action needs the compiler.
+	 */
+	public String evaluate(JavaAction javaAction) {
+
+		try {
+
+			// A dangling expression, like x + 1.
+			if(javaAction instanceof JavaDanglingExpression && javaAction.getParseTree() instanceof ExpressionStatementContext
+					&& ((ExpressionStatementContext) javaAction.getParseTree()).statementExpression().expression() != null) {
+				Object value = evaluateExpression(((ExpressionStatementContext) javaAction.getParseTree()).statementExpression().expression(), true);
+				evaluated++;
+				return InterpreterSuperClass.VALUE_RESULT + value;
+			}
+
+			// An identifier by itself, like x.
+			if(javaAction instanceof JavaIdentifier) {
+				String identifierName = ((JavaIdentifier) javaAction).getIdentifierName();
+				Object value = getFieldValue(identifierName);
+				evaluated++;
+				return InterpreterSuperClass.VALUE_RESULT + identifierName + " = " + value;
+			}
+		}
+
+		// We couldn't be sure, so let the compiler do it.
+		catch(UnsupportedEvaluationException e) {
+			fallbacks++;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method to get the statistics of the evaluator, to show the user.
+	 *
+	 * @return String -- the statistics.
+	 */
+	public String getStatistics() {
+		return "Evaluator: " + evaluated + " evaluated without compiling, " + fallbacks + " handed to the compiler";
+	}
+
+	/**
+	 * Method to evaluate an expression. When we're not live, we're only evaluating to check the types of a branch that Java wouldn't
+	 * run (the right side of a short circuit, say), so anything that would throw gives back a placeholder of the right type instead.
+	 *
+	 * @param expressionContext -- the expression.
+	 * @param live -- TRUE if the value will be used, FALSE if we're only checking it.
+	 * @return Object -- the value, boxed.
+	 */
+	protected Object evaluateExpression(ParserRuleContext expressionContext, boolean live) {
+
+		// The top of an expression. No lambdas or assignments.
+		if(expressionContext instanceof ExpressionContext) {
+			return evaluateExpression(required(((ExpressionContext) expressionContext).assignmentExpression()), live);
+		}
+
+		else if(expressionContext instanceof AssignmentExpressionContext) {
+			return evaluateExpression(required(((AssignmentExpressionContext) expressionContext).conditionalExpression()), live);
+		}
+
+		// The ternary.
+		else if(expressionContext instanceof ConditionalExpressionContext) {
+			ConditionalExpressionContext conditional = (ConditionalExpressionContext) expressionContext;
+
+			if(conditional.expression() == null) {
+				return evaluateExpression(conditional.conditionalOrExpression(), live);
+			}
+
+			boolean condition = getBoolean(evaluateExpression(conditional.conditionalOrExpression(), live));
+
+			// Both sides decide the type, but only one of them runs.
+			Object trueValue = evaluateExpression(conditional.expression(), live && condition);
+			Object falseValue = evaluateExpression(conditional.conditionalExpression(), live && !condition);
+
+			return conditional(condition, trueValue, falseValue);
+		}
+
+		// The short circuits.
+		else if(expressionContext instanceof ConditionalOrExpressionContext) {
+			ConditionalOrExpressionContext conditionalOr = (ConditionalOrExpressionContext) expressionContext;
+
+			if(conditionalOr.conditionalOrExpression() == null) {
+				return evaluateExpression(conditionalOr.conditionalAndExpression(), live);
+			}
+
+			boolean left = getBoolean(evaluateExpression(conditionalOr.conditionalOrExpression(), live));
+			boolean right = getBoolean(evaluateExpression(conditionalOr.conditionalAndExpression(), live && !left));
+
+			return left || right;
+		}
+
+		else if(expressionContext instanceof ConditionalAndExpressionContext) {
+			ConditionalAndExpressionContext conditionalAnd = (ConditionalAndExpressionContext) expressionContext;
+
+			if(conditionalAnd.conditionalAndExpression() == null) {
+				return evaluateExpression(conditionalAnd.inclusiveOrExpression(), live);
+			}
+
+			boolean left = getBoolean(evaluateExpression(conditionalAnd.conditionalAndExpression(), live));
+			boolean right = getBoolean(evaluateExpression(conditionalAnd.inclusiveOrExpression(), live && left));
+
+			return left && right;
+		}
+
+		// The bitwise and logical operators.
+		else if(expressionContext instanceof InclusiveOrExpressionContext) {
+			InclusiveOrExpressionContext inclusiveOr = (InclusiveOrExpressionContext) expressionContext;
+
+			if(inclusiveOr.inclusiveOrExpression() == null) {
+				return evaluateExpression(inclusiveOr.exclusiveOrExpression(), live);
+			}
+
+			return bitwise("|", evaluateExpression(inclusiveOr.inclusiveOrExpression(), live), evaluateExpression(inclusiveOr.exclusiveOrExpression(), live));
+		}
+
+		else if(expressionContext instanceof ExclusiveOrExpressionContext) {
+			ExclusiveOrExpressionContext exclusiveOr = (ExclusiveOrExpressionContext) expressionContext;
+
+			if(exclusiveOr.exclusiveOrExpression() == null) {
+				return evaluateExpression(exclusiveOr.andExpression(), live);
+			}
+
+			return bitwise("^", evaluateExpression(exclusiveOr.exclusiveOrExpression(), live), evaluateExpression(exclusiveOr.andExpression(), live));
+		}
+
+		else if(expressionContext instanceof AndExpressionContext) {
+			AndExpressionContext and = (AndExpressionContext) expressionContext;
+
+			if(and.andExpression() == null) {
+				return evaluateExpression(and.equalityExpression(), live);
+			}
+
+			return bitwise("&", evaluateExpression(and.andExpression(), live), evaluateExpression(and.equalityExpression(), live));
+		}
+
+		// The comparisons.
+		else if(expressionContext instanceof EqualityExpressionContext) {
+			EqualityExpressionContext equality = (EqualityExpressionContext) expressionContext;
+
+			if(equality.equalityExpression() == null) {
+				return evaluateExpression(equality.relationalExpression(), live);
+			}
+
+			return compare(equality.getChild(1).getText(), evaluateExpression(equality.equalityExpression(), live), evaluateExpression(equality.relationalExpression(), live));
+		}
+
+		else if(expressionContext instanceof RelationalExpressionContext) {
+			RelationalExpressionContext relational = (RelationalExpressionContext) expressionContext;
+
+			if(relational.relationalExpression() == null) {
+				return evaluateExpression(relational.shiftExpression(), live);
+			}
+
+			// No instanceof.
+			return compare(relational.getChild(1).getText(), evaluateExpression(relational.relationalExpression(), live), evaluateExpression(required(relational.shiftExpression()), live));
+		}
+
+		// The shifts. The grammar splits the operator into single characters, so put it back together.
+		else if(expressionContext instanceof ShiftExpressionContext) {
+			ShiftExpressionContext shift = (ShiftExpressionContext) expressionContext;
+
+			if(shift.shiftExpression() == null) {
+				return evaluateExpression(shift.additiveExpression(), live);
+			}
+
+			StringBuilder operator = new StringBuilder();
+
+			for(int childIndex = 1; childIndex < shift.getChildCount() - 1; childIndex++) {
+				operator.append(shift.getChild(childIndex).getText());
+			}
+
+			return shift(operator.toString(), evaluateExpression(shift.shiftExpression(), live), evaluateExpression(shift.additiveExpression(), live));
+		}
+
+		// The arithmetic.
+		else if(expressionContext instanceof AdditiveExpressionContext) {
+			AdditiveExpressionContext additive = (AdditiveExpressionContext) expressionContext;
+
+			if(additive.additiveExpression() == null) {
+				return evaluateExpression(additive.multiplicativeExpression(), live);
+			}
+
+			return arithmetic(additive.getChild(1).getText(), evaluateExpression(additive.additiveExpression(), live), evaluateExpression(additive.multiplicativeExpression(), live), live);
+		}
+
+		else if(expressionContext instanceof MultiplicativeExpressionContext) {
+			MultiplicativeExpressionContext multiplicative = (MultiplicativeExpressionContext) expressionContext;
+
+			if(multiplicative.multiplicativeExpression() == null) {
+				return evaluateExpression(multiplicative.unaryExpression(), live);
+			}
+
+			return arithmetic(multiplicative.getChild(1).getText(), evaluateExpression(multiplicative.multiplicativeExpression(), live), evaluateExpression(multiplicative.unaryExpression(), live), live);
+		}
+
+		// The unary operators. No increments or decrements.
+		else if(expressionContext instanceof UnaryExpressionContext) {
+			UnaryExpressionContext unary = (UnaryExpressionContext) expressionContext;
+
+			if(unary.unaryExpressionNotPlusMinus() != null) {
+				return evaluateExpression(unary.unaryExpressionNotPlusMinus(), live);
+			}
+
+			return unary(unary.getChild(0).getText(), evaluateExpression(required(unary.unaryExpression()), live));
+		}
+
+		else if(expressionContext instanceof UnaryExpressionNotPlusMinusContext) {
+			UnaryExpressionNotPlusMinusContext unary = (UnaryExpressionNotPlusMinusContext) expressionContext;
+
+			if(unary.postfixExpression() != null) {
+				return evaluateExpression(unary.postfixExpression(), live);
+			}
+
+			else if(unary.castExpression() != null) {
+				return evaluateExpression(unary.castExpression(), live);
+			}
+
+			return unary(unary.getChild(0).getText(), evaluateExpression(unary.unaryExpression(), live));
+		}
+
+		// Only casts to primitives.
+		else if(expressionContext instanceof CastExpressionContext) {
+			CastExpressionContext cast = (CastExpressionContext) expressionContext;
+
+			if(cast.primitiveType() == null || !cast.primitiveType().annotation().isEmpty()) {
+				throw new UnsupportedEvaluationException("cast to " + cast.getChild(1).getText());
+			}
+
+			return cast(cast.primitiveType().getText(), evaluateExpression(cast.unaryExpression(), live));
+		}
+
+		// A name or a primary, with no increments or decrements after it.
+		else if(expressionContext instanceof PostfixExpressionContext) {
+			PostfixExpressionContext postfix = (PostfixExpressionContext) expressionContext;
+
+			if(postfix.getChildCount() != 1) {
+				throw new UnsupportedEvaluationException("postfix " + postfix.getText());
+			}
+
+			return evaluateExpression((ParserRuleContext) postfix.getChild(0), live);
+		}
+
+		// Just a variable. No qualified names.
+		else if(expressionContext instanceof ExpressionNameContext) {
+			ExpressionNameContext expressionName = (ExpressionNameContext) expressionContext;
+
+			if(expressionName.ambiguousName() != null) {
+				throw new UnsupportedEvaluationException("qualified name " + expressionName.getText());
+			}
+
+			return getFieldValue(expressionName.Identifier().getText());
+		}
+
+		// Only literals and parentheses. No field access, array access, method calls and so on.
+		else if(expressionContext instanceof PrimaryContext) {
+			PrimaryContext primary = (PrimaryContext) expressionContext;
+
+			if(primary.getChildCount() != 1 || primary.primaryNoNewArray_lfno_primary() == null) {
+				throw new UnsupportedEvaluationException("primary " + primary.getText());
+			}
+
+			return evaluateExpression(primary.primaryNoNewArray_lfno_primary(), live);
+		}
+
+		else if(expressionContext instanceof PrimaryNoNewArray_lfno_primaryContext) {
+			PrimaryNoNewArray_lfno_primaryContext primary = (PrimaryNoNewArray_lfno_primaryContext) expressionContext;
+
+			if(primary.literal() != null) {
+				return evaluateExpression(primary.literal(), live);
+			}
+
+			else if(primary.expression() != null && primary.getChildCount() == 3) {
+				return evaluateExpression(primary.expression(), live);
+			}
+
+			throw new UnsupportedEvaluationException("primary " + primary.getText());
+		}
+
+		else if(expressionContext instanceof LiteralContext) {
+			return JavaLiterals.getValue((LiteralContext) expressionContext);
+		}
+
+		throw new UnsupportedEvaluationException("expression " + expressionContext.getText());
+	}
+
+	/**
+	 * Method to get the current value of a primitive or String field, straight out of its snippet.
+	 *
+	 * @param fieldName -- the field name.
+	 * @return Object -- the value, boxed.
+	 */
+	protected Object getFieldValue(String fieldName) {
+
+		Field field = JavaNames.getSessionField(fieldName);
+
+		// Now read it.
+		try {
+
+			// Only primitives, and Strings that aren't null. Anything else, we can't be sure how it'll act.
+			Object value = field.get(null);
+
+			if(!field.getType().isPrimitive() && !(String.class.equals(field.getType()) && value != null)) {
+				throw new UnsupportedEvaluationException("field type " + field.getType());
+			}
+
+			return value;
+		}
+
+		catch(ReflectiveOperationException e) {
+			throw new UnsupportedEvaluationException("field " + fieldName + " : " + e);
+		}
+	}
+
+	/**
+	 * Method to make sure a part of the tree is there. If it isn't, it's a form we don't handle.
+	 *
+	 * @param expressionContext -- the part of the tree.
+	 * @return ParserRuleContext -- the same part of the tree.
+	 */
+	private static ParserRuleContext required(ParserRuleContext expressionContext) {
+
+		if(expressionContext == null) {
+			throw new UnsupportedEvaluationException("missing expression");
+		}
+
+		return expressionContext;
+	}
+
+	/**
+	 * Method to work out the value of the ternary. Mixing a byte, short or char with another type depends on whether the other side is
+	 * a constant that fits, so we don't try.
+	 *
+	 * @param condition -- the condition.
+	 * @param trueValue -- the value when it's true.
+	 * @param falseValue -- the value when it's false.
+	 * @return Object -- the value.
+	 */
+	private static Object conditional(boolean condition, Object trueValue, Object falseValue) {
+		Object value = condition ? trueValue : falseValue;
+
+		// Same type on both sides, that's the type.
+		if(trueValue.getClass().equals(falseValue.getClass())) {
+			return value;
+		}
+
+		// Different numbers get promoted.
+		if(isNumeric(trueValue) && isNumeric(falseValue) && !isSmallIntegral(trueValue) && !isSmallIntegral(falseValue)) {
+			return JavaOperators.convert(value, getPromotedType(trueValue, falseValue));
+		}
+
+		throw new UnsupportedEvaluationException("conditional of " + trueValue.getClass() + " and " + falseValue.getClass());
+	}
+
+	/**
+	 * Method to do the arithmetic operators, and string concatenation.
+	 *
+	 * @param operator -- the operator.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @param live -- FALSE if we're only checking the types.
+	 * @return Object -- the value.
+	 */
+	private static Object arithmetic(String operator, Object left, Object right, boolean live) {
+
+		// String concatenation.
+		if("+".equals(operator) && (left instanceof String || right instanceof String)) {
+			return String.valueOf(left) + String.valueOf(right);
+		}
+
+		requireNumeric(left, right);
+		Class<?> promotedType = getPromotedType(left, right);
+
+		// Integer division by zero throws, and the compiled statement has to be the one that throws it.
+		if(("/".equals(operator) || "%".equals(operator)) && JavaOperators.isIntegral(promotedType) && JavaOperators.getLong(right) == 0) {
+
+			if(live) {
+				throw new UnsupportedEvaluationException("division by zero");
+			}
+
+			return JavaOperators.convert(0, promotedType);
+		}
+
+		return JavaOperators.arithmetic(operator, promotedType, left, right);
+	}
+
+	/**
+	 * Method to do the comparison operators. Only numbers and booleans -- <code>==</code> on anything else compares references.
+	 *
+	 * @param operator -- the operator.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Boolean -- the result.
+	 */
+	private static Boolean compare(String operator, Object left, Object right) {
+
+		// Booleans can only be equal or not.
+		if(left instanceof Boolean && right instanceof Boolean && ("==".equals(operator) || "!=".equals(operator))) {
+			return "==".equals(operator) == (getBoolean(left) == getBoolean(right));
+		}
+
+		requireNumeric(left, right);
+		return JavaOperators.compare(operator, getPromotedType(left, right), left, right);
+	}
+
+	/**
+	 * Method to do the bitwise operators, which are logical operators on booleans.
+	 *
+	 * @param operator -- the operator.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Object -- the value.
+	 */
+	private static Object bitwise(String operator, Object left, Object right) {
+
+		if(left instanceof Boolean && right instanceof Boolean) {
+			return JavaOperators.bitwise(operator, boolean.class, left, right);
+		}
+
+		requireIntegral(left);
+		requireIntegral(right);
+
+		return JavaOperators.bitwise(operator, getPromotedType(left, right), left, right);
+	}
+
+	/**
+	 * Method to do the shift operators. The type comes from the left side only.
+	 *
+	 * @param operator -- the operator.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Object -- the value.
+	 */
+	private static Object shift(String operator, Object left, Object right) {
+		requireIntegral(left);
+		requireIntegral(right);
+
+		return JavaOperators.shift(operator, getPromotedType(left, left), left, right);
+	}
+
+	/**
+	 * Method to do the unary operators.
+	 *
+	 * @param operator -- the operator.
+	 * @param operand -- the operand.
+	 * @return Object -- the value.
+	 */
+	private static Object unary(String operator, Object operand) {
+
+		if("!".equals(operator)) {
+			getBoolean(operand);
+			return JavaOperators.unary(operator, boolean.class, operand);
+		}
+
+		requireNumeric(operand, operand);
+
+		if("~".equals(operator)) {
+			requireIntegral(operand);
+		}
+
+		return JavaOperators.unary(operator, getPromotedType(operand, operand), operand);
+	}
+
+	/**
+	 * Method to cast to a primitive type.
+	 *
+	 * @param primitiveType -- the primitive type.
+	 * @param operand -- the value to cast.
+	 * @return Object -- the value.
+	 */
+	private static Object cast(String primitiveType, Object operand) {
+
+		if("boolean".equals(primitiveType)) {
+			getBoolean(operand);
+			return operand;
+		}
+
+		requireNumeric(operand, operand);
+
+		switch(primitiveType) {
+			case "byte": return JavaOperators.convert(operand, byte.class);
+			case "short": return JavaOperators.convert(operand, short.class);
+			case "char": return JavaOperators.convert(operand, char.class);
+			case "int": return JavaOperators.convert(operand, int.class);
+			case "long": return JavaOperators.convert(operand, long.class);
+			case "float": return JavaOperators.convert(operand, float.class);
+			case "double": return JavaOperators.convert(operand, double.class);
+			default: throw new UnsupportedEvaluationException("cast to " + primitiveType);
+		}
+	}
+
+	/**
+	 * Method to get the type two numbers get promoted to -- binary numeric promotion.
+	 *
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Class -- int, long, float or double.
+	 */
+	private static Class<?> getPromotedType(Object left, Object right) {
+		return JavaOperators.getPromotedType(JavaOperators.getPrimitiveTypeOf(left), JavaOperators.getPrimitiveTypeOf(right));
+	}
+
+	/**
+	 * Method to check that both sides are numbers (a char counts).
+	 *
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 */
+	private static void requireNumeric(Object left, Object right) {
+
+		if(!isNumeric(left) || !isNumeric(right)) {
+			throw new UnsupportedEvaluationException("not numeric");
+		}
+	}
+
+	/**
+	 * Method to check that a value is an integral number (a char counts).
+	 *
+	 * @param operand -- the value.
+	 */
+	private static void requireIntegral(Object operand) {
+
+		if(!JavaOperators.isIntegral(JavaOperators.getPrimitiveTypeOf(operand))) {
+			throw new UnsupportedEvaluationException("not integral");
+		}
+	}
+
+	/**
+	 * Return if this value is a number (a char counts).
+	 *
+	 * @param operand -- the value.
+	 * @return TRUE for a number, FALSE for not.
+	 */
+	private static boolean isNumeric(Object operand) {
+		return JavaOperators.isNumeric(JavaOperators.getPrimitiveTypeOf(operand));
+	}
+
+	/**
+	 * Return if this value is a byte, short or char.
+	 *
+	 * @param operand -- the value.
+	 * @return TRUE for a byte, short or char, FALSE for not.
+	 */
+	private static boolean isSmallIntegral(Object operand) {
+		return operand instanceof Byte || operand instanceof Short || operand instanceof Character;
+	}
+
+	/**
+	 * Method to get a value as a boolean.
+	 *
+	 * @param operand -- the value.
+	 * @return boolean -- the value.
+	 */
+	private static boolean getBoolean(Object operand) {
+
+		if(!(operand instanceof Boolean)) {
+			throw new UnsupportedEvaluationException("not boolean");
+		}
+
+		return (Boolean) operand;
+	}
+}
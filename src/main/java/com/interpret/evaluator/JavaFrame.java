@@ -0,0 +1,44 @@
+package com.interpret.evaluator;
+
+/**
+ * Class that holds the local variables while interpreted code runs. Each variable gets its slot when the code is built, see
+ * {@link JavaScope}.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaFrame {
+
+	/**
+	 * The values, boxed, by slot.
+	 */
+	private final Object[] locals;
+
+	/**
+	 * Constructor to make room for the variables.
+	 *
+	 * @param slotCount -- how many slots the code needs.
+	 */
+	JavaFrame(int slotCount) {
+		this.locals = new Object[slotCount];
+	}
+
+	/**
+	 * Method to get a variable.
+	 *
+	 * @param slot -- the slot.
+	 * @return Object -- the value.
+	 */
+	Object get(int slot) {
+		return this.locals[slot];
+	}
+
+	/**
+	 * Method to set a variable.
+	 *
+	 * @param slot -- the slot.
+	 * @param value -- the value.
+	 */
+	void set(int slot, Object value) {
+		this.locals[slot] = value;
+	}
+}
@@ -0,0 +1,178 @@
+package com.interpret.evaluator;
+
+import com.antlr.Java8Parser.LiteralContext;
+
+/**
+ * Class that turns literals into their values, the same way the compiler would. Anything the compiler would reject (an int that's
+ * too big, a float that rounds to nothing) throws an {@link UnsupportedEvaluationException}, so the compiler gets to report it.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaLiterals {
+
+	/**
+	 * Method to get the value of a literal.
+	 *
+	 * @param literal -- the literal.
+	 * @return Object -- the value, boxed.
+	 */
+	public static Object getValue(LiteralContext literal) {
+
+		try {
+
+			if(literal.IntegerLiteral() != null) {
+				return getIntegerValue(literal.getText());
+			}
+
+			else if(literal.FloatingPointLiteral() != null) {
+				return getFloatingPointValue(literal.getText());
+			}
+
+			else if(literal.BooleanLiteral() != null) {
+				return Boolean.valueOf(literal.getText());
+			}
+
+			else if(literal.CharacterLiteral() != null) {
+				String characters = unescape(literal.getText().substring(1, literal.getText().length() - 1));
+
+				if(characters.length() != 1) {
+					throw new UnsupportedEvaluationException("character literal " + literal.getText());
+				}
+
+				return characters.charAt(0);
+			}
+
+			else if(literal.StringLiteral() != null) {
+				return unescape(literal.getText().substring(1, literal.getText().length() - 1));
+			}
+		}
+
+		// Out of range.
+		catch(NumberFormatException e) {
+			throw new UnsupportedEvaluationException("literal " + literal.getText());
+		}
+
+		// No nulls -- we can't tell what type they are.
+		throw new UnsupportedEvaluationException("literal " + literal.getText());
+	}
+
+	/**
+	 * Method to get the value of an integer literal -- decimal, hex, octal or binary, with or without the long suffix.
+	 *
+	 * @param literalText -- the literal.
+	 * @return Object -- an Integer or a Long.
+	 */
+	private static Object getIntegerValue(String literalText) {
+		String digits = literalText.replace("_", "");
+
+		// Long or int?
+		boolean isLong = digits.endsWith("l") || digits.endsWith("L");
+
+		if(isLong) {
+			digits = digits.substring(0, digits.length() - 1);
+		}
+
+		// Figure out the radix.
+		int radix = 10;
+
+		if(digits.startsWith("0x") || digits.startsWith("0X")) {
+			radix = 16;
+			digits = digits.substring(2);
+		}
+
+		else if(digits.startsWith("0b") || digits.startsWith("0B")) {
+			radix = 2;
+			digits = digits.substring(2);
+		}
+
+		else if(digits.startsWith("0") && digits.length() > 1) {
+			radix = 8;
+			digits = digits.substring(1);
+		}
+
+		// Decimal literals have to fit as they are. The others can use every bit, so 0xFFFFFFFF is -1.
+		if(isLong) {
+			return radix == 10 ? Long.parseLong(digits) : Long.parseUnsignedLong(digits, radix);
+		}
+
+		return radix == 10 ? Integer.parseInt(digits) : Integer.parseUnsignedInt(digits, radix);
+	}
+
+	/**
+	 * Method to get the value of a floating point literal, with or without the float or double suffix.
+	 *
+	 * @param literalText -- the literal.
+	 * @return Object -- a Float or a Double.
+	 */
+	private static Object getFloatingPointValue(String literalText) {
+		String digits = literalText.replace("_", "");
+
+		// Both of these take the suffixes, and hex.
+		boolean isFloat = digits.endsWith("f") || digits.endsWith("F");
+		double value = isFloat ? Float.parseFloat(digits) : Double.parseDouble(digits);
+
+		// Too big or too small is a compile error.
+		boolean hex = digits.startsWith("0x") || digits.startsWith("0X");
+		String mantissa = (hex ? digits.substring(2) : digits).split(hex ? "[pP]" : "[eE]")[0];
+
+		if(Double.isInfinite(value) || (value == 0 && mantissa.matches(hex ? ".*[1-9a-fA-F].*" : ".*[1-9].*"))) {
+			throw new UnsupportedEvaluationException("literal out of range " + literalText);
+		}
+
+		return isFloat ? (Object) (float) value : (Object) value;
+	}
+
+	/**
+	 * Method to turn the escape sequences in a character or string literal into the characters they stand for.
+	 *
+	 * @param literalText -- the text between the quotes.
+	 * @return String -- the characters.
+	 */
+	private static String unescape(String literalText) {
+		StringBuilder characters = new StringBuilder();
+
+		for(int charIndex = 0; charIndex < literalText.length(); charIndex++) {
+			char thisChar = literalText.charAt(charIndex);
+
+			if(thisChar != '\\') {
+				characters.append(thisChar);
+				continue;
+			}
+
+			char escapedChar = literalText.charAt(++charIndex);
+
+			switch(escapedChar) {
+				case 'b': characters.append('\b'); break;
+				case 't': characters.append('\t'); break;
+				case 'n': characters.append('\n'); break;
+				case 'f': characters.append('\f'); break;
+				case 'r': characters.append('\r'); break;
+				case '"': characters.append('"'); break;
+				case '\'': characters.append('\''); break;
+				case '\\': characters.append('\\'); break;
+
+				default: {
+
+					// Octal escapes, up to \377.
+					if(escapedChar >= '0' && escapedChar <= '7') {
+						int maxLength = escapedChar <= '3' ? 3 : 2;
+						int endIndex = charIndex;
+
+						while(endIndex < literalText.length() && endIndex - charIndex < maxLength && literalText.charAt(endIndex) >= '0' && literalText.charAt(endIndex) <= '7') {
+							endIndex++;
+						}
+
+						characters.append((char) Integer.parseInt(literalText.substring(charIndex, endIndex), 8));
+						charIndex = endIndex - 1;
+						break;
+					}
+
+					// Unicode escapes and anything else, leave to the compiler.
+					throw new UnsupportedEvaluationException("escape \\" + escapedChar);
+				}
+			}
+		}
+
+		return characters.toString();
+	}
+}
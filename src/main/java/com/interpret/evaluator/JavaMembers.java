@@ -0,0 +1,666 @@
+package com.interpret.evaluator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.javasource.InterpreterSuperClass;
+
+/**
+ * Class that finds the methods, constructors and fields the interpreter calls, the way the compiler would pick them. Overloads are
+ * resolved on the static types of the arguments, in the same three phases:
+ *
+ * <pre>
+ * 1. without boxing or varargs     println(char) for println('a'), not println(Object)
+ * 2. with boxing                   add(Object) for add(5) on a raw List
+ * 3. with varargs                  format(String, Object...)
+ * </pre>
+ *
+ * and then the most specific one wins. Generic methods need inference, so they're left to the compiler, and so is anything
+ * ambiguous. The user's own classes live in the generated package, so their members that aren't private can be used too.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaMembers {
+
+	/**
+	 * Interface for a call to a method or a constructor, once it's been picked.
+	 */
+	interface Invoker {
+
+		/**
+		 * Method to make the call.
+		 *
+		 * @param target -- the object, NULL for a static method or a constructor.
+		 * @param arguments -- the arguments, already converted and packed into an array for varargs.
+		 * @return Object -- what it returned, the new object for a constructor.
+		 * @throws Throwable -- whatever the call threw.
+		 */
+		Object invoke(Object target, Object[] arguments) throws Throwable;
+	}
+
+	/**
+	 * Class for a method or constructor that was picked for a call, with its types as the call sees them.
+	 */
+	static final class Invocation {
+
+		/**
+		 * The method or constructor.
+		 */
+		private final Executable executable;
+
+		/**
+		 * The parameter types, with any type arguments of the receiver put in.
+		 */
+		private final Type[] parameterTypes;
+
+		/**
+		 * Is it called with a variable number of arguments?
+		 */
+		private final boolean varargs;
+
+		/**
+		 * The type of the call.
+		 */
+		private final Type returnType;
+
+		/**
+		 * Constructor for the invocation.
+		 *
+		 * @param executable -- the method or constructor.
+		 * @param parameterTypes -- the parameter types.
+		 * @param varargs -- TRUE if it's called with a variable number of arguments.
+		 * @param returnType -- the type of the call.
+		 */
+		private Invocation(Executable executable, Type[] parameterTypes, boolean varargs, Type returnType) {
+			this.executable = executable;
+			this.parameterTypes = parameterTypes;
+			this.varargs = varargs;
+			this.returnType = returnType;
+		}
+
+		/**
+		 * Getter for the method or constructor.
+		 *
+		 * @return Executable -- the method or constructor.
+		 */
+		Executable getExecutable() {
+			return this.executable;
+		}
+
+		/**
+		 * Getter for the parameter types.
+		 *
+		 * @return Type[] -- the parameter types.
+		 */
+		Type[] getParameterTypes() {
+			return this.parameterTypes;
+		}
+
+		/**
+		 * Return if it's called with a variable number of arguments.
+		 *
+		 * @return TRUE for varargs, FALSE for not.
+		 */
+		boolean isVarargs() {
+			return this.varargs;
+		}
+
+		/**
+		 * Getter for the type of the call.
+		 *
+		 * @return Type -- the return type, or the type being made for a constructor.
+		 */
+		Type getReturnType() {
+			return this.returnType;
+		}
+
+		/**
+		 * Method to get the type an argument has to convert to.
+		 *
+		 * @param argumentIndex -- the argument.
+		 * @return Type -- the parameter type, or the component type for the varargs.
+		 */
+		Type getArgumentType(int argumentIndex) {
+			return getParameterType(this.parameterTypes, this.varargs, argumentIndex);
+		}
+	}
+
+	/**
+	 * No-op private constructor.
+	 */
+	private JavaMembers() {
+		;
+	}
+
+	/**
+	 * Method to pick the method for a call on a type.
+	 *
+	 * @param receiverType -- the static type of the object, or the class for a static call.
+	 * @param methodName -- the method name.
+	 * @param arguments -- the arguments.
+	 * @param scope -- where the call is, for the exceptions it's allowed to throw.
+	 * @return {@link Invocation} -- the method.
+	 */
+	static Invocation findMethod(Type receiverType, String methodName, List<JavaTypedNode> arguments, JavaScope scope) {
+
+		if(!JavaTypes.isReference(receiverType) || JavaTypes.NULL_TYPE.equals(receiverType)) {
+			throw new UnsupportedEvaluationException("method " + methodName + " on " + receiverType.getTypeName());
+		}
+
+		return findInvocation(new ArrayList<Executable>(getMethods(JavaTypes.getErasure(receiverType), methodName)), receiverType, methodName, arguments, scope);
+	}
+
+	/**
+	 * Method to pick one of the user's methods for a call.
+	 *
+	 * @param methods -- the methods by that name.
+	 * @param methodName -- the method name.
+	 * @param arguments -- the arguments.
+	 * @param scope -- where the call is, for the exceptions it's allowed to throw.
+	 * @return {@link Invocation} -- the method.
+	 */
+	static Invocation findMethod(List<Method> methods, String methodName, List<JavaTypedNode> arguments, JavaScope scope) {
+		return findInvocation(new ArrayList<Executable>(methods), methods.isEmpty() ? Object.class : methods.get(0).getDeclaringClass(), methodName, arguments, scope);
+	}
+
+	/**
+	 * Method to pick the constructor for a <code>new</code>.
+	 *
+	 * @param type -- the type being made.
+	 * @param arguments -- the arguments.
+	 * @param scope -- where the call is, for the exceptions it's allowed to throw.
+	 * @return {@link Invocation} -- the constructor.
+	 */
+	static Invocation findConstructor(Type type, List<JavaTypedNode> arguments, JavaScope scope) {
+		Class<?> typeClass = JavaTypes.getErasure(type);
+
+		// Only classes that can be made, without an outer object.
+		if(typeClass.isInterface() || typeClass.isEnum() || typeClass.isArray() || typeClass.isPrimitive() || Modifier.isAbstract(typeClass.getModifiers())
+				|| (typeClass.isMemberClass() && !Modifier.isStatic(typeClass.getModifiers())) || typeClass.isLocalClass() || typeClass.isAnonymousClass()) {
+			throw new UnsupportedEvaluationException("new " + type.getTypeName());
+		}
+
+		List<Executable> constructors = new ArrayList<Executable>();
+
+		for(Constructor<?> constructor : isGenerated(typeClass) ? typeClass.getDeclaredConstructors() : typeClass.getConstructors()) {
+
+			if(!Modifier.isPrivate(constructor.getModifiers()) && !constructor.isSynthetic()) {
+				constructors.add(constructor);
+			}
+		}
+
+		Invocation invocation = findInvocation(constructors, type, "new " + typeClass.getName(), arguments, scope);
+		return new Invocation(invocation.getExecutable(), invocation.getParameterTypes(), invocation.isVarargs(), type);
+	}
+
+	/**
+	 * Method to find a field of a type.
+	 *
+	 * @param type -- the class.
+	 * @param fieldName -- the field name.
+	 * @return Field -- the field, NULL if there isn't one we can get at.
+	 */
+	static Field findField(Class<?> type, String fieldName) {
+
+		// The user's classes, their fields that aren't private. They're declared in the same package as the statement.
+		for(Class<?> fieldClass = type; fieldClass != null && isGenerated(fieldClass); fieldClass = fieldClass.getSuperclass()) {
+
+			for(Field field : fieldClass.getDeclaredFields()) {
+
+				if(field.getName().equals(fieldName) && !Modifier.isPrivate(field.getModifiers()) && !field.isSynthetic()) {
+					field.setAccessible(true);
+					return field;
+				}
+			}
+
+			// Then the rest, from anything it extends or implements that isn't the user's.
+			for(Class<?> superType : fieldClass.getInterfaces()) {
+				Field field = findField(superType, fieldName);
+
+				if(field != null) {
+					return field;
+				}
+			}
+
+			if(fieldClass.getSuperclass() != null && !isGenerated(fieldClass.getSuperclass())) {
+				return findField(fieldClass.getSuperclass(), fieldName);
+			}
+		}
+
+		// Everything else, only the public ones.
+		try {
+			Field field = type.getField(fieldName);
+			return Modifier.isPublic(field.getDeclaringClass().getModifiers()) ? field : null;
+		}
+
+		catch(NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Method to get something that calls a method, whichever way we're allowed to. The public methods of public classes are called
+	 * straight through reflection. A public method declared in a class that isn't public (like the <code>length()</code> of a
+	 * StringBuilder) is looked up through the class it was called on, the same as the compiled code would.
+	 *
+	 * @param method -- the method.
+	 * @param receiverClass -- the class it was called on.
+	 * @return {@link Invoker} -- the call.
+	 */
+	static Invoker getInvoker(Method method, Class<?> receiverClass) {
+
+		if(isGenerated(method.getDeclaringClass())) {
+			method.setAccessible(true);
+		}
+
+		// Straight through reflection.
+		if(isGenerated(method.getDeclaringClass()) || Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+
+			return (target, arguments) -> {
+
+				try {
+					return method.invoke(target, arguments);
+				}
+
+				catch(InvocationTargetException e) {
+					throw e.getCause();
+				}
+			};
+		}
+
+		// Through the class it was called on.
+		try {
+			MethodType methodType = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+			MethodHandle methodHandle = Modifier.isStatic(method.getModifiers())
+											? MethodHandles.publicLookup().findStatic(receiverClass, method.getName(), methodType)
+												: MethodHandles.publicLookup().findVirtual(receiverClass, method.getName(), methodType);
+
+			// Spread the arguments out, with the object first if there is one.
+			MethodHandle spreadHandle = methodHandle.asSpreader(Object[].class, method.getParameterCount() + (Modifier.isStatic(method.getModifiers()) ? 0 : 1)).asType(MethodType.methodType(Object.class, Object[].class));
+
+			return (target, arguments) -> {
+				Object[] handleArguments = arguments;
+
+				if(!Modifier.isStatic(method.getModifiers())) {
+					handleArguments = new Object[arguments.length + 1];
+					handleArguments[0] = JavaVariable.requireNonNull(target);
+					System.arraycopy(arguments, 0, handleArguments, 1, arguments.length);
+				}
+
+				return spreadHandle.invokeExact(handleArguments);
+			};
+		}
+
+		catch(ReflectiveOperationException e) {
+			throw new UnsupportedEvaluationException("method " + method + " not accessible");
+		}
+	}
+
+	/**
+	 * Method to get something that calls a constructor.
+	 *
+	 * @param constructor -- the constructor.
+	 * @return {@link Invoker} -- the call.
+	 */
+	static Invoker getInvoker(Constructor<?> constructor) {
+
+		if(isGenerated(constructor.getDeclaringClass())) {
+			constructor.setAccessible(true);
+		}
+
+		return (target, arguments) -> {
+
+			try {
+				return constructor.newInstance(arguments);
+			}
+
+			catch(InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+	}
+
+	/**
+	 * Return if this class was generated from the user's code, so it's in the same package as the statement.
+	 *
+	 * @param type -- the class.
+	 * @return TRUE if it's the user's, FALSE if not.
+	 */
+	static boolean isGenerated(Class<?> type) {
+		return type.getName().startsWith(InterpreterSuperClass.GENERATED_PACKAGE + ".");
+	}
+
+	/**
+	 * Method to get the methods by a name that can be called on a class. Methods that get overridden only show up once, from the
+	 * most specific class.
+	 *
+	 * @param type -- the class.
+	 * @param methodName -- the method name.
+	 * @return List -- the methods.
+	 */
+	private static List<Method> getMethods(Class<?> type, String methodName) {
+		List<Method> methods = new ArrayList<Method>();
+		Set<String> signatures = new HashSet<String>();
+
+		addMethods(type, methodName, methods, signatures);
+
+		// Interfaces have the methods of Object too.
+		if(type.isInterface()) {
+			addMethods(Object.class, methodName, methods, signatures);
+		}
+
+		return methods;
+	}
+
+	/**
+	 * Recursive method to add the methods by a name from a class and everything it extends.
+	 *
+	 * @param type -- the class.
+	 * @param methodName -- the method name.
+	 * @param methods -- the methods so far.
+	 * @param signatures -- the signatures so far, so overridden methods are left out.
+	 */
+	private static void addMethods(Class<?> type, String methodName, List<Method> methods, Set<String> signatures) {
+
+		// The user's classes, their methods that aren't private, and then up the hierarchy.
+		if(isGenerated(type)) {
+
+			for(Method method : type.getDeclaredMethods()) {
+
+				if(method.getName().equals(methodName) && !Modifier.isPrivate(method.getModifiers()) && !method.isBridge() && !method.isSynthetic() && signatures.add(getSignature(method))) {
+					methods.add(method);
+				}
+			}
+
+			if(type.getSuperclass() != null) {
+				addMethods(type.getSuperclass(), methodName, methods, signatures);
+			}
+
+			for(Class<?> superInterface : type.getInterfaces()) {
+				addMethods(superInterface, methodName, methods, signatures);
+			}
+		}
+
+		// Anything else, the public ones. Those already come with everything they inherit.
+		else {
+
+			for(Method method : type.getMethods()) {
+
+				if(method.getName().equals(methodName) && !method.isBridge() && !method.isSynthetic() && signatures.add(getSignature(method))) {
+					methods.add(method);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method to get the erased signature of a method, to tell when one overrides another.
+	 *
+	 * @param method -- the method.
+	 * @return String -- the signature.
+	 */
+	private static String getSignature(Method method) {
+		return method.getName() + Arrays.toString(method.getParameterTypes());
+	}
+
+	/**
+	 * Method to pick the method or constructor for a call, in the three phases the compiler uses.
+	 *
+	 * @param candidates -- the methods or constructors.
+	 * @param receiverType -- the static type the call is on.
+	 * @param callName -- the name, for the message if there isn't one.
+	 * @param arguments -- the arguments.
+	 * @param scope -- where the call is, for the exceptions it's allowed to throw.
+	 * @return {@link Invocation} -- the method or constructor.
+	 */
+	private static Invocation findInvocation(List<Executable> candidates, Type receiverType, String callName, List<JavaTypedNode> arguments, JavaScope scope) {
+		List<Invocation> potentiallyApplicable = new ArrayList<Invocation>();
+
+		// Only the ones that could take this many arguments. Generic ones need inference.
+		for(Executable candidate : candidates) {
+
+			if(candidate.getParameterCount() == arguments.size() || (candidate.isVarArgs() && arguments.size() >= candidate.getParameterCount() - 1)) {
+
+				if(candidate.getTypeParameters().length > 0) {
+					throw new UnsupportedEvaluationException("generic method " + candidate.getName());
+				}
+
+				potentiallyApplicable.add(new Invocation(candidate, getParameterTypes(candidate, receiverType), false, null));
+			}
+		}
+
+		// Strict, then loose, then varargs.
+		for(int phase = 1; phase <= 3; phase++) {
+			List<Invocation> applicable = new ArrayList<Invocation>();
+
+			for(Invocation candidate : potentiallyApplicable) {
+
+				if(isApplicable(candidate.getParameterTypes(), phase == 3, arguments, phase > 1)) {
+					applicable.add(new Invocation(candidate.getExecutable(), candidate.getParameterTypes(), phase == 3, null));
+				}
+			}
+
+			if(!applicable.isEmpty()) {
+				Invocation invocation = getMostSpecific(applicable, arguments.size(), callName);
+
+				// It can only throw what's allowed to get out.
+				for(Class<?> exceptionType : invocation.getExecutable().getExceptionTypes()) {
+
+					if(!scope.isAllowed(exceptionType)) {
+						throw new UnsupportedEvaluationException("unreported exception " + exceptionType.getName());
+					}
+				}
+
+				return new Invocation(invocation.getExecutable(), invocation.getParameterTypes(), invocation.isVarargs(), getReturnType(invocation, receiverType, arguments));
+			}
+		}
+
+		throw new UnsupportedEvaluationException("no applicable " + callName + " for " + arguments.stream().map( argument -> argument.getType().getTypeName() ).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Method to get the parameter types of a method or constructor, as seen through the type it's called on.
+	 *
+	 * @param executable -- the method or constructor.
+	 * @param receiverType -- the static type the call is on.
+	 * @return Type[] -- the parameter types.
+	 */
+	private static Type[] getParameterTypes(Executable executable, Type receiverType) {
+		Type[] genericParameterTypes = executable.getGenericParameterTypes();
+
+		// Constructors of some classes leave out the parameters the compiler added, so use what's really there.
+		if(genericParameterTypes.length != executable.getParameterCount()) {
+			genericParameterTypes = executable.getParameterTypes();
+		}
+
+		Type[] parameterTypes = new Type[genericParameterTypes.length];
+
+		for(int parameterIndex = 0; parameterIndex < parameterTypes.length; parameterIndex++) {
+			parameterTypes[parameterIndex] = Modifier.isStatic(executable.getModifiers()) ? genericParameterTypes[parameterIndex] : JavaTypes.getMemberType(genericParameterTypes[parameterIndex], receiverType, executable.getDeclaringClass());
+
+			if(JavaTypes.containsTypeVariable(parameterTypes[parameterIndex])) {
+				throw new UnsupportedEvaluationException("generic parameter of " + executable.getName());
+			}
+		}
+
+		return parameterTypes;
+	}
+
+	/**
+	 * Method to get the type of a call. If an argument only fit through an unchecked conversion, the compiler erases it.
+	 *
+	 * @param invocation -- the method or constructor.
+	 * @param receiverType -- the static type the call is on.
+	 * @param arguments -- the arguments.
+	 * @return Type -- the type of the call.
+	 */
+	private static Type getReturnType(Invocation invocation, Type receiverType, List<JavaTypedNode> arguments) {
+
+		if(!(invocation.getExecutable() instanceof Method)) {
+			return null;
+		}
+
+		Method method = (Method) invocation.getExecutable();
+		Type returnType = Modifier.isStatic(method.getModifiers()) ? method.getGenericReturnType() : JavaTypes.getMemberType(method.getGenericReturnType(), receiverType, method.getDeclaringClass());
+
+		for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
+			Type parameterType = invocation.getArgumentType(argumentIndex);
+
+			if(parameterType instanceof ParameterizedType && JavaTypes.isReference(arguments.get(argumentIndex).getType()) && !JavaTypes.NULL_TYPE.equals(arguments.get(argumentIndex).getType())
+					&& JavaTypes.getTypeArguments(arguments.get(argumentIndex).getType(), JavaTypes.getErasure(parameterType)) == null) {
+				returnType = JavaTypes.getErasure(method.getGenericReturnType());
+			}
+		}
+
+		// A wildcard or a type variable left over would need capture.
+		if(JavaTypes.containsTypeVariable(returnType) || returnType instanceof WildcardType) {
+			throw new UnsupportedEvaluationException("return type " + returnType.getTypeName());
+		}
+
+		return returnType;
+	}
+
+	/**
+	 * Method to check if the arguments fit the parameters.
+	 *
+	 * @param parameterTypes -- the parameter types.
+	 * @param varargs -- TRUE to spread the last parameter out over the rest of the arguments.
+	 * @param arguments -- the arguments.
+	 * @param boxing -- TRUE to allow boxing and unboxing.
+	 * @return TRUE if they fit, FALSE if not.
+	 */
+	private static boolean isApplicable(Type[] parameterTypes, boolean varargs, List<JavaTypedNode> arguments, boolean boxing) {
+
+		if(!varargs && parameterTypes.length != arguments.size()) {
+			return false;
+		}
+
+		for(int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++) {
+			Type parameterType = getParameterType(parameterTypes, varargs, argumentIndex);
+
+			if(parameterType == null || !JavaTypes.isAssignable(arguments.get(argumentIndex).getType(), null, parameterType, boxing)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Method to get the parameter type for an argument.
+	 *
+	 * @param parameterTypes -- the parameter types.
+	 * @param varargs -- TRUE if the last parameter is spread out over the rest of the arguments.
+	 * @param argumentIndex -- the argument.
+	 * @return Type -- the type, NULL if there's no parameter for it.
+	 */
+	private static Type getParameterType(Type[] parameterTypes, boolean varargs, int argumentIndex) {
+
+		if(varargs && argumentIndex >= parameterTypes.length - 1) {
+			return JavaTypes.getComponentType(parameterTypes[parameterTypes.length - 1]);
+		}
+
+		return argumentIndex < parameterTypes.length ? parameterTypes[argumentIndex] : null;
+	}
+
+	/**
+	 * Method to pick the most specific of the methods that fit. If two have the same parameters (an abstract method and the one that
+	 * implements it, say), the one with a body wins.
+	 *
+	 * @param applicable -- the methods that fit.
+	 * @param argumentCount -- the number of arguments.
+	 * @param callName -- the name, for the message if it's ambiguous.
+	 * @return {@link Invocation} -- the most specific.
+	 */
+	private static Invocation getMostSpecific(List<Invocation> applicable, int argumentCount, String callName) {
+		List<Invocation> maximal = new ArrayList<Invocation>();
+
+		for(Invocation candidate : applicable) {
+
+			if(applicable.stream().allMatch( other -> isMoreSpecific(candidate, other, argumentCount) )) {
+				maximal.add(candidate);
+			}
+		}
+
+		if(maximal.size() == 1) {
+			return maximal.get(0);
+		}
+
+		// The same parameters all around.
+		if(!maximal.isEmpty() && maximal.stream().allMatch( candidate -> isMoreSpecific(maximal.get(0), candidate, argumentCount) && isMoreSpecific(candidate, maximal.get(0), argumentCount) )) {
+			List<Invocation> concrete = maximal.stream().filter( candidate -> !Modifier.isAbstract(candidate.getExecutable().getModifiers()) ).collect(Collectors.toList());
+
+			if(concrete.size() == 1) {
+				return concrete.get(0);
+			}
+
+			// All abstract. Any will do, as long as one returns the most specific type.
+			else if(concrete.isEmpty()) {
+
+				for(Invocation candidate : maximal) {
+					Type returnType = ((Method) candidate.getExecutable()).getGenericReturnType();
+
+					if(maximal.stream().allMatch( other -> JavaTypes.getErasure(((Method) other.getExecutable()).getGenericReturnType()).isAssignableFrom(JavaTypes.getErasure(returnType)) )) {
+						return candidate;
+					}
+				}
+			}
+		}
+
+		throw new UnsupportedEvaluationException("ambiguous " + callName);
+	}
+
+	/**
+	 * Method to check if one method is at least as specific as another, for these arguments.
+	 *
+	 * @param candidate -- the method.
+	 * @param other -- the method to compare it to.
+	 * @param argumentCount -- the number of arguments.
+	 * @return TRUE if it's at least as specific, FALSE if not.
+	 */
+	private static boolean isMoreSpecific(Invocation candidate, Invocation other, int argumentCount) {
+		int parameterCount = candidate.isVarargs() ? Math.max(argumentCount, Math.max(candidate.getParameterTypes().length, other.getParameterTypes().length)) : argumentCount;
+
+		for(int parameterIndex = 0; parameterIndex < parameterCount; parameterIndex++) {
+			Type candidateType = candidate.getArgumentType(parameterIndex);
+			Type otherType = other.getArgumentType(parameterIndex);
+
+			if(candidateType == null || otherType == null) {
+				return false;
+			}
+
+			else if(candidateType.equals(otherType)) {
+				continue;
+			}
+
+			else if(JavaTypes.isPrimitive(candidateType) && JavaTypes.isPrimitive(otherType)) {
+
+				if(!JavaTypes.isWidening((Class<?>) candidateType, (Class<?>) otherType)) {
+					return false;
+				}
+			}
+
+			else if(!JavaTypes.isReference(candidateType) || !JavaTypes.isReference(otherType) || !JavaTypes.isSubtype(candidateType, otherType)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,351 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.actions.ActionType;
+import com.actions.JavaAction;
+import com.interpret.JavaInterpreterCompiler;
+import com.interpret.JavaInterpreterMaps;
+import com.interpret.evaluator.JavaMembers.Invoker;
+
+/**
+ * Class that keeps track of the user's methods the interpreter is running, and when each of them gets compiled. A method starts
+ * out interpreted, since most are only called a handful of times and compiling costs far more than that. Every call is counted,
+ * and once a method has been called more than the threshold, its snippet is compiled once and every call after that goes straight
+ * to the bytecode:
+ *
+ * <pre>
+ * int square(int x) { return x * x; }                       interpreted
+ * for(int i = 0; i != 5000; i++) { total += square(i); }    compiled on call 1001
+ * </pre>
+ *
+ * A method is also compiled as soon as a compiled statement needs it. The threshold comes from the
+ * <code>interpreter.compile.threshold</code> system property, and <code>tiers()</code> shows where each method is.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public final class JavaMethodTiers {
+
+	/**
+	 * Enum for the ways a method can be running.
+	 */
+	public enum Tier {
+
+		/**
+		 * Walked by the interpreter.
+		 */
+		INTERPRETED,
+
+		/**
+		 * Compiled into its snippet.
+		 */
+		COMPILED;
+	}
+
+	/**
+	 * The system property for how many calls a method gets before it's compiled.
+	 */
+	public static final String THRESHOLD_PROPERTY = "interpreter.compile.threshold";
+
+	/**
+	 * The number of calls a method gets before it's compiled, if the property isn't set.
+	 */
+	private static final int DEFAULT_THRESHOLD = 1000;
+
+	/**
+	 * The instance.
+	 */
+	private static final JavaMethodTiers INSTANCE = new JavaMethodTiers();
+
+	/**
+	 * Class for one of the user's methods that started out interpreted.
+	 */
+	static final class TieredMethod {
+
+		/**
+		 * The method declaration.
+		 */
+		private final JavaAction methodAction;
+
+		/**
+		 * The types of the parameters.
+		 */
+		private final Type[] parameterTypes;
+
+		/**
+		 * The return type.
+		 */
+		private final Type returnType;
+
+		/**
+		 * The body, set once it's built. It can call the method itself, so it comes after.
+		 */
+		private JavaStatementNode body;
+
+		/**
+		 * The number of slots the body needs.
+		 */
+		private int slotCount;
+
+		/**
+		 * Where it's running.
+		 */
+		private Tier tier = Tier.INTERPRETED;
+
+		/**
+		 * The number of times it's been called by interpreted code.
+		 */
+		private long invocations = 0;
+
+		/**
+		 * The call it was compiled at, if it was.
+		 */
+		private long compiledAt = 0;
+
+		/**
+		 * Did compiling it fail? Then it stays interpreted.
+		 */
+		private boolean compileFailed = false;
+
+		/**
+		 * The compiled method, once it's compiled.
+		 */
+		private Invoker compiledInvoker;
+
+		/**
+		 * Constructor for the method. The parameters take the first slots of the frame, in order.
+		 *
+		 * @param methodAction -- the method declaration.
+		 * @param parameterTypes -- the types of the parameters.
+		 * @param returnType -- the return type.
+		 */
+		TieredMethod(JavaAction methodAction, Type[] parameterTypes, Type returnType) {
+			this.methodAction = methodAction;
+			this.parameterTypes = parameterTypes;
+			this.returnType = returnType;
+		}
+
+		/**
+		 * Getter for the method name.
+		 *
+		 * @return String -- the method name.
+		 */
+		String getName() {
+			return this.methodAction.getName();
+		}
+
+		/**
+		 * Getter for the types of the parameters.
+		 *
+		 * @return Type[] -- the parameter types.
+		 */
+		Type[] getParameterTypes() {
+			return this.parameterTypes;
+		}
+
+		/**
+		 * Getter for the return type.
+		 *
+		 * @return Type -- the return type.
+		 */
+		Type getReturnType() {
+			return this.returnType;
+		}
+
+		/**
+		 * Getter for where it's running. A method a compiled statement needed is already compiled, even if it hasn't been called
+		 * since.
+		 *
+		 * @return {@link Tier} -- the tier.
+		 */
+		Tier getTier() {
+			return Tier.INTERPRETED.equals(tier) && JavaInterpreterCompiler.getInstance().isLoaded(methodAction.getSnippetClassName()) ? Tier.COMPILED : tier;
+		}
+
+		/**
+		 * Method to set the body, once it's built.
+		 *
+		 * @param body -- the body.
+		 * @param slotCount -- the number of slots it needs.
+		 */
+		void setBody(JavaStatementNode body, int slotCount) {
+			this.body = body;
+			this.slotCount = slotCount;
+		}
+
+		/**
+		 * Method to call the method, whichever tier it's in. This is where it gets compiled, once it's called enough or the compiler
+		 * has already had to compile it for a statement.
+		 *
+		 * @param arguments -- the arguments, already converted to the parameter types.
+		 * @return Object -- what it returned, NULL for void.
+		 * @throws Throwable whatever it threw.
+		 */
+		Object invoke(Object[] arguments) throws Throwable {
+			invocations++;
+
+			if(Tier.INTERPRETED.equals(tier) && !compileFailed && (invocations > INSTANCE.threshold || Tier.COMPILED.equals(getTier()))) {
+				compile();
+			}
+
+			if(Tier.COMPILED.equals(tier)) {
+				return compiledInvoker.invoke(null, arguments);
+			}
+
+			// The parameters come first.
+			JavaFrame frame = new JavaFrame(slotCount);
+
+			for(int argumentIndex = 0; argumentIndex < arguments.length; argumentIndex++) {
+				frame.set(argumentIndex, arguments[argumentIndex]);
+			}
+
+			return body.execute(frame).getValue();
+		}
+
+		/**
+		 * Method to compile the method's snippet, if it isn't already, and switch the calls over to it.
+		 */
+		private void compile() {
+
+			if(!JavaInterpreterCompiler.getInstance().compileMember(methodAction)) {
+				System.err.println("Could not compile " + getName() + ", it stays interpreted.");
+				compileFailed = true;
+				return;
+			}
+
+			try {
+				Class<?> snippetClass = JavaInterpreterCompiler.getInstance().getSessionClassLoader().loadClass(methodAction.getSnippetClassName());
+
+				for(Method method : snippetClass.getMethods()) {
+
+					if(method.getName().equals(getName()) && Modifier.isStatic(method.getModifiers())) {
+						compiledInvoker = JavaMembers.getInvoker(method, snippetClass);
+						compiledAt = invocations;
+						tier = Tier.COMPILED;
+						return;
+					}
+				}
+
+				compileFailed = true;
+			}
+
+			catch(ClassNotFoundException | UnsupportedEvaluationException e) {
+				System.err.println("Could not load " + getName() + ", it stays interpreted. " + e);
+				compileFailed = true;
+			}
+		}
+	}
+
+	/**
+	 * The methods, by name. A new declaration replaces the old one, the same as the maps.
+	 */
+	private final Map<String, TieredMethod> methods = new LinkedHashMap<String, TieredMethod>();
+
+	/**
+	 * The number of calls a method gets before it's compiled.
+	 */
+	private int threshold = Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD);
+
+	/**
+	 * No-op private constructor.
+	 */
+	private JavaMethodTiers() {
+		;
+	}
+
+	/**
+	 * Get the singleton instance.
+	 *
+	 * @return JavaMethodTiers -- the instance.
+	 */
+	public static JavaMethodTiers getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Getter for the number of calls a method gets before it's compiled.
+	 *
+	 * @return int -- the threshold.
+	 */
+	public int getThreshold() {
+		return this.threshold;
+	}
+
+	/**
+	 * Setter for the number of calls a method gets before it's compiled.
+	 *
+	 * @param threshold -- the threshold.
+	 */
+	public void setThreshold(int threshold) {
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Method to get where each of the user's current methods is running, to show the user.
+	 *
+	 * @return String -- the tiers, one method to a line.
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder("Methods compile after " + threshold + " interpreted calls.");
+
+		for(TieredMethod tieredMethod : methods.values()) {
+			List<JavaAction> currentMethods = JavaInterpreterMaps.getInstance().getEntry(tieredMethod.getName(), ActionType.METHOD);
+
+			// Only the ones that haven't been declared over.
+			if(currentMethods.isEmpty() || currentMethods.get(0) != tieredMethod.methodAction) {
+				continue;
+			}
+
+			summary.append("\n\t").append(tieredMethod.getName()).append(" : ").append(tieredMethod.getTier().name().toLowerCase()).append(", ").append(tieredMethod.invocations).append(" calls");
+
+			// Why it was compiled.
+			if(tieredMethod.compiledAt > INSTANCE.threshold) {
+				summary.append(" (compiled at call ").append(tieredMethod.compiledAt).append(")");
+			}
+
+			else if(Tier.COMPILED.equals(tieredMethod.getTier())) {
+				summary.append(" (compiled for a compiled statement)");
+			}
+		}
+
+		return summary.toString();
+	}
+
+	/**
+	 * Method to add a method the interpreter is going to run.
+	 *
+	 * @param tieredMethod -- the method.
+	 */
+	void put(TieredMethod tieredMethod) {
+		methods.put(tieredMethod.getName(), tieredMethod);
+	}
+
+	/**
+	 * Method to stop interpreting a method, after a field it uses has been declared again. Its body was built against the old field,
+	 * so from then on it's compiled against the new one the next time it's called.
+	 *
+	 * @param methodAction -- the method declaration.
+	 */
+	public void remove(JavaAction methodAction) {
+
+		if(get(methodAction) != null) {
+			methods.remove(methodAction.getName());
+		}
+	}
+
+	/**
+	 * Method to get the interpreted method for a declaration.
+	 *
+	 * @param methodAction -- the method declaration.
+	 * @return {@link TieredMethod} -- the method, NULL if the interpreter isn't running this declaration.
+	 */
+	TieredMethod get(JavaAction methodAction) {
+		TieredMethod tieredMethod = methodAction != null ? methods.get(methodAction.getName()) : null;
+		return tieredMethod != null && tieredMethod.methodAction == methodAction ? tieredMethod : null;
+	}
+}
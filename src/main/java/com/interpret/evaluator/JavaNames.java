@@ -0,0 +1,641 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.actions.ActionType;
+import com.actions.JavaAction;
+import com.interpret.JavaInterpreterCompiler;
+import com.interpret.JavaInterpreterMaps;
+import com.javasource.InterpreterSnippetClass;
+import com.javasource.InterpreterSuperClass;
+
+/**
+ * Class that looks names up the way the compiled statement would see them. A statement class imports <code>java.util.*</code>,
+ * <code>java.math.*</code>, <code>java.io.*</code> and the user's imports, and static imports the snippets of the fields, methods,
+ * classes and enums it uses, so a simple name is found in this order:
+ *
+ * <pre>
+ * the members the statement class inherits    (VALUE_RESULT, result(), toString() ...)  -- left to the compiler
+ * the user's fields, methods, classes and enums
+ * single type imports                         (import java.awt.List;)
+ * on demand imports                           (java.lang, java.util, java.math, java.io, import java.awt.*;)
+ * </pre>
+ *
+ * A name the compiler would call ambiguous, or that a static import might bring in, throws an {@link UnsupportedEvaluationException}.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaNames {
+
+	/**
+	 * The packages every statement imports on demand. java.lang comes for free.
+	 */
+	private static final List<String> DEFAULT_PACKAGES = Arrays.asList("java.lang", "java.util", "java.math", "java.io");
+
+	/**
+	 * The names of the primitive types.
+	 */
+	private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<String, Class<?>>() {{
+		put("boolean", boolean.class);
+		put("byte", byte.class);
+		put("short", short.class);
+		put("char", char.class);
+		put("int", int.class);
+		put("long", long.class);
+		put("float", float.class);
+		put("double", double.class);
+	}};
+
+	/**
+	 * The names the statement class gets from {@link InterpreterSuperClass} and Object. These hide anything the user declares.
+	 */
+	private static final Set<String> INHERITED_NAMES = new HashSet<String>();
+
+	static {
+		for(Class<?> inheritedClass : Arrays.<Class<?>>asList(InterpreterSuperClass.class, Object.class)) {
+			Arrays.stream(inheritedClass.getDeclaredFields()).filter( field -> !Modifier.isPrivate(field.getModifiers()) ).forEach( field -> INHERITED_NAMES.add(field.getName()) );
+			Arrays.stream(inheritedClass.getDeclaredMethods()).filter( method -> !Modifier.isPrivate(method.getModifiers()) ).forEach( method -> INHERITED_NAMES.add(method.getName()) );
+			Arrays.stream(inheritedClass.getDeclaredClasses()).filter( memberClass -> !Modifier.isPrivate(memberClass.getModifiers()) ).forEach( memberClass -> INHERITED_NAMES.add(memberClass.getSimpleName()) );
+		}
+	}
+
+	/**
+	 * The simple type names we've resolved through the imports, and the imports they were resolved against.
+	 */
+	private static final Map<String, Class<?>> IMPORTED_TYPES = new HashMap<String, Class<?>>();
+
+	/**
+	 * The imports {@link #IMPORTED_TYPES} goes with.
+	 */
+	private static String importedTypesSignature = "";
+
+	/**
+	 * The fields, methods, classes and enums the statement uses, by type and name. Only these get static imported.
+	 */
+	private final Map<ActionType, Set<String>> members = new HashMap<ActionType, Set<String>>();
+
+	/**
+	 * The single type imports, by simple name.
+	 */
+	private final Map<String, String> singleTypeImports = new HashMap<String, String>();
+
+	/**
+	 * The packages (or classes) imported on demand.
+	 */
+	private final List<String> onDemandImports = new ArrayList<String>(DEFAULT_PACKAGES);
+
+	/**
+	 * Are there any static imports?
+	 */
+	private boolean staticImports = false;
+
+	/**
+	 * Constructor for the names a statement can see.
+	 *
+	 * @param javaAction -- the statement.
+	 */
+	JavaNames(JavaAction javaAction) {
+
+		// The members it uses.
+		for(JavaAction dependentAction : javaAction.getDependentActions()) {
+
+			if(InterpreterSnippetClass.isMember(dependentAction)) {
+				members.computeIfAbsent(dependentAction.getActionType(), actionType -> new HashSet<String>()).add(dependentAction.getName());
+			}
+		}
+
+		// The imports.
+		StringBuilder importSignature = new StringBuilder();
+
+		for(JavaAction importAction : JavaInterpreterMaps.getInstance().getImports()) {
+			String importName = importAction.getName().trim();
+			importSignature.append(importName).append(";");
+
+			if(importName.startsWith("static ")) {
+				staticImports = true;
+			}
+
+			else if(importName.endsWith(".*")) {
+				onDemandImports.add(importName.substring(0, importName.length() - 2).trim());
+			}
+
+			else {
+				singleTypeImports.put(importName.substring(importName.lastIndexOf('.') + 1).trim(), importName);
+			}
+		}
+
+		// Anything we resolved before might mean something else now.
+		synchronized(IMPORTED_TYPES) {
+
+			if(!importedTypesSignature.equals(importSignature.toString())) {
+				IMPORTED_TYPES.clear();
+				importedTypesSignature = importSignature.toString();
+			}
+		}
+	}
+
+	/**
+	 * Method to check that a simple name means what we think it does. Names the statement class inherits hide the user's, and with a
+	 * static import around, any name could be something it brought in.
+	 *
+	 * @param simpleName -- the name.
+	 */
+	void checkSimpleName(String simpleName) {
+
+		if(INHERITED_NAMES.contains(simpleName)) {
+			throw new UnsupportedEvaluationException("inherited name " + simpleName);
+		}
+
+		else if(staticImports) {
+			throw new UnsupportedEvaluationException("name " + simpleName + " with static imports");
+		}
+	}
+
+	/**
+	 * Method to get the field of a user variable, if the statement uses one by this name.
+	 *
+	 * @param fieldName -- the name.
+	 * @return Field -- the field, NULL if there isn't one.
+	 */
+	Field findField(String fieldName) {
+
+		if(!members.getOrDefault(ActionType.FIELD, new HashSet<String>()).contains(fieldName)) {
+			return null;
+		}
+
+		return getSessionField(fieldName);
+	}
+
+	/**
+	 * Method to get the declaration of a user method, if the statement uses one by this name.
+	 *
+	 * @param methodName -- the name.
+	 * @return {@link JavaAction} -- the declaration, NULL if there isn't one.
+	 */
+	JavaAction findMethodAction(String methodName) {
+
+		if(!members.getOrDefault(ActionType.METHOD, new HashSet<String>()).contains(methodName)) {
+			return null;
+		}
+
+		return JavaInterpreterMaps.getInstance().getEntry(methodName, ActionType.METHOD).get(0);
+	}
+
+	/**
+	 * Method to get the methods of a user method, if the statement uses one by this name.
+	 *
+	 * @param methodName -- the name.
+	 * @return List -- the methods, NULL if there aren't any.
+	 */
+	List<Method> findMethods(String methodName) {
+		JavaAction methodAction = findMethodAction(methodName);
+
+		if(methodAction == null) {
+			return null;
+		}
+
+		// It has to be loaded, with everything it uses.
+		List<Method> methods = new ArrayList<Method>();
+
+		for(Method method : loadSnippet(methodAction).getMethods()) {
+
+			if(method.getName().equals(methodName) && Modifier.isStatic(method.getModifiers())) {
+				methods.add(method);
+			}
+		}
+
+		return methods;
+	}
+
+	/**
+	 * Method to resolve a type name -- simple, qualified or a member class, like <code>Map.Entry</code>.
+	 *
+	 * @param nameParts -- the name, split on the dots.
+	 * @return Class -- the class, NULL if it isn't a type.
+	 */
+	Class<?> findType(List<String> nameParts) {
+
+		// A simple name.
+		Class<?> simpleType = findSimpleType(nameParts.get(0));
+
+		if(simpleType != null) {
+			return findMemberType(simpleType, nameParts.subList(1, nameParts.size()));
+		}
+
+		// A package, then a class, then any member classes.
+		for(int packageLength = 1; packageLength < nameParts.size(); packageLength++) {
+			Class<?> topLevelType = loadClass(String.join(".", nameParts.subList(0, packageLength + 1)));
+
+			if(topLevelType != null) {
+				return findMemberType(topLevelType, nameParts.subList(packageLength + 1, nameParts.size()));
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method to resolve a simple type name.
+	 *
+	 * @param simpleName -- the name.
+	 * @return Class -- the class, NULL if it isn't a type.
+	 */
+	Class<?> findSimpleType(String simpleName) {
+		checkSimpleName(simpleName);
+
+		// The user's classes and enums.
+		for(ActionType memberType : Arrays.asList(ActionType.CLASS, ActionType.ENUM)) {
+
+			if(members.getOrDefault(memberType, new HashSet<String>()).contains(simpleName)) {
+				JavaAction typeAction = JavaInterpreterMaps.getInstance().getEntry(simpleName, memberType).get(0);
+				return findMemberType(loadSnippet(typeAction), Arrays.asList(simpleName));
+			}
+		}
+
+		// The imports.
+		synchronized(IMPORTED_TYPES) {
+
+			if(IMPORTED_TYPES.containsKey(simpleName)) {
+				return IMPORTED_TYPES.get(simpleName);
+			}
+		}
+
+		Class<?> importedType = null;
+
+		if(singleTypeImports.containsKey(simpleName)) {
+			importedType = findType(Arrays.asList(singleTypeImports.get(simpleName).split("\\.")));
+		}
+
+		else {
+
+			// More than one package having it is ambiguous.
+			for(String onDemandImport : onDemandImports) {
+				Class<?> onDemandType = findType(Arrays.asList((onDemandImport + "." + simpleName).split("\\.")), onDemandImport);
+
+				if(onDemandType != null && importedType != null && !onDemandType.equals(importedType)) {
+					throw new UnsupportedEvaluationException("ambiguous type " + simpleName);
+				}
+
+				importedType = onDemandType != null ? onDemandType : importedType;
+			}
+		}
+
+		// Only remember what we found. A jar added later could still bring in one we didn't.
+		if(importedType != null) {
+
+			synchronized(IMPORTED_TYPES) {
+				IMPORTED_TYPES.put(simpleName, importedType);
+			}
+		}
+
+		return importedType;
+	}
+
+	/**
+	 * Method to resolve a type imported on demand. The import is either a package or a class, whose member classes come in.
+	 *
+	 * @param nameParts -- the whole name, split on the dots.
+	 * @param onDemandImport -- the import, without the <code>.*</code>.
+	 * @return Class -- the class, NULL if there isn't one.
+	 */
+	private Class<?> findType(List<String> nameParts, String onDemandImport) {
+
+		// A package.
+		Class<?> packageType = loadClass(String.join(".", nameParts));
+
+		if(packageType != null) {
+			return packageType;
+		}
+
+		// A class, if it's something like java.util.Map.*.
+		List<String> importParts = Arrays.asList(onDemandImport.split("\\."));
+
+		for(int packageLength = 1; packageLength < importParts.size(); packageLength++) {
+			Class<?> topLevelType = loadClass(String.join(".", importParts.subList(0, packageLength + 1)));
+
+			if(topLevelType != null) {
+				return findMemberType(topLevelType, nameParts.subList(packageLength + 1, nameParts.size()));
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method to find the member classes of a class, like the <code>Entry</code> of <code>Map.Entry</code>.
+	 *
+	 * @param outerType -- the class.
+	 * @param memberNames -- the member class names, outermost first.
+	 * @return Class -- the member class, NULL if there isn't one.
+	 */
+	private static Class<?> findMemberType(Class<?> outerType, List<String> memberNames) {
+		Class<?> memberType = outerType;
+
+		for(String memberName : memberNames) {
+			Class<?> outer = memberType;
+			memberType = null;
+
+			// The compiler only lets us at the ones that aren't private.
+			for(Class<?> candidate : outer.getClasses()) {
+
+				if(candidate.getSimpleName().equals(memberName)) {
+					memberType = candidate;
+				}
+			}
+
+			if(memberType == null) {
+				return null;
+			}
+		}
+
+		return memberType;
+	}
+
+	/**
+	 * Method to turn the text of a type into the type, type arguments and all. This takes the text straight off of the parse tree,
+	 * so there are no spaces, like <code>Map&lt;String,List&lt;?extendsNumber&gt;&gt;[]</code>.
+	 *
+	 * @param typeText -- the text of the type.
+	 * @return Type -- the type.
+	 */
+	Type parseType(String typeText) {
+
+		// No annotations.
+		if(typeText.contains("@")) {
+			throw new UnsupportedEvaluationException("annotated type " + typeText);
+		}
+
+		int[] position = new int[1];
+		Type type = parseType(typeText, position);
+
+		if(position[0] != typeText.length()) {
+			throw new UnsupportedEvaluationException("type " + typeText);
+		}
+
+		return type;
+	}
+
+	/**
+	 * Method to parse a type, from a position in the text. The position is moved along past it.
+	 *
+	 * @param typeText -- the text.
+	 * @param position -- the position, in an array so it can be moved.
+	 * @return Type -- the type.
+	 */
+	private Type parseType(String typeText, int[] position) {
+		Type type;
+
+		// A primitive.
+		String firstName = parseIdentifier(typeText, position);
+
+		if(PRIMITIVE_TYPES.containsKey(firstName)) {
+			type = PRIMITIVE_TYPES.get(firstName);
+		}
+
+		// A class, with any type arguments on the end. Type arguments on an outer class would mean an inner class.
+		else {
+			List<String> nameParts = new ArrayList<String>(Arrays.asList(firstName));
+
+			while(position[0] < typeText.length() && typeText.charAt(position[0]) == '.') {
+				position[0]++;
+				nameParts.add(parseIdentifier(typeText, position));
+			}
+
+			Class<?> rawType = findType(nameParts);
+
+			if(rawType == null) {
+				throw new UnsupportedEvaluationException("unknown type " + String.join(".", nameParts));
+			}
+
+			type = rawType;
+
+			if(position[0] < typeText.length() && typeText.charAt(position[0]) == '<') {
+				type = parseTypeArguments(rawType, typeText, position);
+			}
+		}
+
+		// Any dimensions.
+		while(typeText.startsWith("[]", position[0])) {
+			position[0] += 2;
+			type = JavaTypes.getArrayType(type);
+		}
+
+		return type;
+	}
+
+	/**
+	 * Method to parse the type arguments of a generic class, from the <code>&lt;</code> on.
+	 *
+	 * @param rawType -- the generic class.
+	 * @param typeText -- the text.
+	 * @param position -- the position of the <code>&lt;</code>.
+	 * @return Type -- the parameterized type.
+	 */
+	private Type parseTypeArguments(Class<?> rawType, String typeText, int[] position) {
+		List<Type> typeArguments = new ArrayList<Type>();
+
+		do {
+			position[0]++;
+			typeArguments.add(parseTypeArgument(typeText, position));
+		}
+		while(position[0] < typeText.length() && typeText.charAt(position[0]) == ',');
+
+		if(position[0] >= typeText.length() || typeText.charAt(position[0]) != '>') {
+			throw new UnsupportedEvaluationException("type " + typeText);
+		}
+
+		position[0]++;
+
+		// The right number of them, and inside the bounds.
+		TypeVariable<?>[] typeParameters = rawType.getTypeParameters();
+
+		if(typeParameters.length != typeArguments.size()) {
+			throw new UnsupportedEvaluationException("type arguments of " + typeText);
+		}
+
+		Type parameterizedType = JavaTypes.getParameterizedType(rawType, typeArguments.toArray(new Type[typeArguments.size()]));
+		Map<TypeVariable<?>, Type> typeArgumentMap = JavaTypes.getTypeArguments(parameterizedType, rawType);
+
+		for(int parameterIndex = 0; parameterIndex < typeParameters.length; parameterIndex++) {
+
+			if(typeArguments.get(parameterIndex) instanceof Class || typeArguments.get(parameterIndex) instanceof ParameterizedType) {
+
+				for(Type bound : typeParameters[parameterIndex].getBounds()) {
+
+					if(!JavaTypes.isSubtype(typeArguments.get(parameterIndex), JavaTypes.substitute(bound, typeArgumentMap))) {
+						throw new UnsupportedEvaluationException("type argument out of bounds " + typeText);
+					}
+				}
+			}
+		}
+
+		return parameterizedType;
+	}
+
+	/**
+	 * Method to parse one type argument -- a reference type or a wildcard.
+	 *
+	 * @param typeText -- the text.
+	 * @param position -- the position of the argument.
+	 * @return Type -- the type argument.
+	 */
+	private Type parseTypeArgument(String typeText, int[] position) {
+
+		// A wildcard.
+		if(typeText.startsWith("?", position[0])) {
+			position[0]++;
+
+			if(typeText.startsWith("extends", position[0])) {
+				position[0] += "extends".length();
+				return JavaTypes.getWildcardType(new Type[] { parseReferenceType(typeText, position) }, new Type[0]);
+			}
+
+			else if(typeText.startsWith("super", position[0])) {
+				position[0] += "super".length();
+				return JavaTypes.getWildcardType(new Type[0], new Type[] { parseReferenceType(typeText, position) });
+			}
+
+			return JavaTypes.getWildcardType(new Type[0], new Type[0]);
+		}
+
+		return parseReferenceType(typeText, position);
+	}
+
+	/**
+	 * Method to parse a type that has to be a reference type.
+	 *
+	 * @param typeText -- the text.
+	 * @param position -- the position of the type.
+	 * @return Type -- the type.
+	 */
+	private Type parseReferenceType(String typeText, int[] position) {
+		Type type = parseType(typeText, position);
+
+		if(!JavaTypes.isReference(type)) {
+			throw new UnsupportedEvaluationException("primitive type argument " + typeText);
+		}
+
+		return type;
+	}
+
+	/**
+	 * Method to parse an identifier.
+	 *
+	 * @param typeText -- the text.
+	 * @param position -- the position of the identifier.
+	 * @return String -- the identifier.
+	 */
+	private static String parseIdentifier(String typeText, int[] position) {
+		int start = position[0];
+
+		while(position[0] < typeText.length() && Character.isJavaIdentifierPart(typeText.charAt(position[0]))) {
+			position[0]++;
+		}
+
+		if(start == position[0] || !Character.isJavaIdentifierStart(typeText.charAt(start))) {
+			throw new UnsupportedEvaluationException("type " + typeText);
+		}
+
+		return typeText.substring(start, position[0]);
+	}
+
+	/**
+	 * Method to get the primitive type with this name.
+	 *
+	 * @param typeName -- the name, like <code>int</code>.
+	 * @return Class -- the primitive type, NULL if it isn't one.
+	 */
+	static Class<?> getPrimitiveType(String typeName) {
+		return PRIMITIVE_TYPES.get(typeName);
+	}
+
+	/**
+	 * Method to get the field of a user variable out of its snippet, making sure it's been set up. This is the same field the compiled
+	 * statements static import.
+	 *
+	 * @param fieldName -- the field name.
+	 * @return Field -- the field.
+	 */
+	static Field getSessionField(String fieldName) {
+
+		// It has to be a field we know about.
+		if(!JavaInterpreterMaps.getInstance().containsEntry(fieldName, ActionType.FIELD)) {
+			throw new UnsupportedEvaluationException("unknown name " + fieldName);
+		}
+
+		JavaAction fieldAction = JavaInterpreterMaps.getInstance().getEntry(fieldName, ActionType.FIELD).get(0);
+
+		// If anything about it still needs to run (say, after a load), the value isn't there yet.
+		if(!fieldAction.isApplied()) {
+			throw new UnsupportedEvaluationException("field not set up " + fieldName);
+		}
+
+		for(JavaAction expressionAction : JavaInterpreterMaps.getInstance().getEntry(fieldName, ActionType.EXPRESSION)) {
+
+			if(!expressionAction.isApplied()) {
+				throw new UnsupportedEvaluationException("field not set up " + fieldName);
+			}
+		}
+
+		try {
+			return loadSnippet(fieldAction).getField(fieldName);
+		}
+
+		catch(NoSuchFieldException e) {
+			throw new UnsupportedEvaluationException("field " + fieldName + " : " + e);
+		}
+	}
+
+	/**
+	 * Method to load the snippet class of a user field, method, class or enum.
+	 *
+	 * @param memberAction -- the member.
+	 * @return Class -- the snippet class.
+	 */
+	private static Class<?> loadSnippet(JavaAction memberAction) {
+
+		if(!memberAction.isApplied() || memberAction.getSnippetClassName() == null) {
+			throw new UnsupportedEvaluationException("not set up " + memberAction.getName());
+		}
+
+		try {
+			return JavaInterpreterCompiler.getInstance().getSessionClassLoader().loadClass(memberAction.getSnippetClassName());
+		}
+
+		catch(ClassNotFoundException e) {
+			throw new UnsupportedEvaluationException("snippet not loaded " + memberAction.getName());
+		}
+	}
+
+	/**
+	 * Method to load a class by its qualified name, without initializing it. Member classes are looked up separately.
+	 *
+	 * @param className -- the class name.
+	 * @return Class -- the class, NULL if there isn't one.
+	 */
+	private static Class<?> loadClass(String className) {
+
+		try {
+			Class<?> loadedClass = Class.forName(className, false, JavaInterpreterCompiler.getInstance().getSessionClassLoader());
+
+			// A class we can't get at from the statement's package is a compile error.
+			return Modifier.isPublic(loadedClass.getModifiers()) || loadedClass.getName().startsWith(InterpreterSuperClass.GENERATED_PACKAGE + ".") ? loadedClass : null;
+		}
+
+		catch(ClassNotFoundException | LinkageError e) {
+			return null;
+		}
+	}
+}
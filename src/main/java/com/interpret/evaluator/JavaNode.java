@@ -0,0 +1,18 @@
+package com.interpret.evaluator;
+
+/**
+ * Interface for an expression the interpreter has built, ready to run. Values are always boxed.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+interface JavaNode {
+
+	/**
+	 * Method to run the expression.
+	 *
+	 * @param frame -- the local variables.
+	 * @return Object -- the value, NULL for a void method call.
+	 * @throws Throwable -- anything the code throws, the same as it would if it were compiled.
+	 */
+	Object execute(JavaFrame frame) throws Throwable;
+}
@@ -0,0 +1,409 @@
+package com.interpret.evaluator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class that holds the Java operators, for the evaluator and the interpreter to share. Values are always boxed, and the type an
+ * operator works in is passed in as a primitive class -- worked out by the caller, either from the values themselves or from the
+ * static types.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+class JavaOperators {
+
+	/**
+	 * The primitive type of each of the wrapper types.
+	 */
+	private static final Map<Class<?>, Class<?>> PRIMITIVE_TYPES = new HashMap<Class<?>, Class<?>>() {{
+		put(Boolean.class, boolean.class);
+		put(Byte.class, byte.class);
+		put(Short.class, short.class);
+		put(Character.class, char.class);
+		put(Integer.class, int.class);
+		put(Long.class, long.class);
+		put(Float.class, float.class);
+		put(Double.class, double.class);
+	}};
+
+	/**
+	 * Method to get the primitive type for a wrapper type, or a primitive type itself.
+	 *
+	 * @param type -- the type.
+	 * @return Class -- the primitive type, NULL if it isn't a primitive or a wrapper.
+	 */
+	static Class<?> getPrimitiveType(Class<?> type) {
+
+		if(type == null) {
+			return null;
+		}
+
+		return type.isPrimitive() && !void.class.equals(type) ? type : PRIMITIVE_TYPES.get(type);
+	}
+
+	/**
+	 * Method to get the primitive type of a boxed value.
+	 *
+	 * @param value -- the value.
+	 * @return Class -- the primitive type, NULL if it isn't a boxed primitive.
+	 */
+	static Class<?> getPrimitiveTypeOf(Object value) {
+		return value == null ? null : PRIMITIVE_TYPES.get(value.getClass());
+	}
+
+	/**
+	 * Return if this primitive type is a number (a char counts).
+	 *
+	 * @param primitiveType -- the primitive type.
+	 * @return TRUE for a number, FALSE for not.
+	 */
+	static boolean isNumeric(Class<?> primitiveType) {
+		return primitiveType != null && !boolean.class.equals(primitiveType);
+	}
+
+	/**
+	 * Return if this primitive type is an integral number (a char counts).
+	 *
+	 * @param primitiveType -- the primitive type.
+	 * @return TRUE for an integral number, FALSE for not.
+	 */
+	static boolean isIntegral(Class<?> primitiveType) {
+		return isNumeric(primitiveType) && !float.class.equals(primitiveType) && !double.class.equals(primitiveType);
+	}
+
+	/**
+	 * Method to get the type one number gets promoted to -- unary numeric promotion.
+	 *
+	 * @param primitiveType -- the primitive type.
+	 * @return Class -- int, long, float or double.
+	 */
+	static Class<?> getPromotedType(Class<?> primitiveType) {
+		return getPromotedType(primitiveType, primitiveType);
+	}
+
+	/**
+	 * Method to get the type two numbers get promoted to -- binary numeric promotion.
+	 *
+	 * @param left -- the primitive type of the left side.
+	 * @param right -- the primitive type of the right side.
+	 * @return Class -- int, long, float or double.
+	 */
+	static Class<?> getPromotedType(Class<?> left, Class<?> right) {
+
+		if(double.class.equals(left) || double.class.equals(right)) {
+			return double.class;
+		}
+
+		else if(float.class.equals(left) || float.class.equals(right)) {
+			return float.class;
+		}
+
+		else if(long.class.equals(left) || long.class.equals(right)) {
+			return long.class;
+		}
+
+		return int.class;
+	}
+
+	/**
+	 * Method to do the arithmetic operators on numbers. Integer division by zero throws, the same as Java.
+	 *
+	 * @param operator -- the operator.
+	 * @param promotedType -- int, long, float or double.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Object -- the value.
+	 */
+	static Object arithmetic(String operator, Class<?> promotedType, Object left, Object right) {
+
+		if(double.class.equals(promotedType)) {
+			double leftValue = getDouble(left);
+			double rightValue = getDouble(right);
+
+			switch(operator) {
+				case "+": return leftValue + rightValue;
+				case "-": return leftValue - rightValue;
+				case "*": return leftValue * rightValue;
+				case "/": return leftValue / rightValue;
+				default: return leftValue % rightValue;
+			}
+		}
+
+		else if(float.class.equals(promotedType)) {
+			float leftValue = getFloat(left);
+			float rightValue = getFloat(right);
+
+			switch(operator) {
+				case "+": return leftValue + rightValue;
+				case "-": return leftValue - rightValue;
+				case "*": return leftValue * rightValue;
+				case "/": return leftValue / rightValue;
+				default: return leftValue % rightValue;
+			}
+		}
+
+		else if(long.class.equals(promotedType)) {
+			long leftValue = getLong(left);
+			long rightValue = getLong(right);
+
+			switch(operator) {
+				case "+": return leftValue + rightValue;
+				case "-": return leftValue - rightValue;
+				case "*": return leftValue * rightValue;
+				case "/": return leftValue / rightValue;
+				default: return leftValue % rightValue;
+			}
+		}
+
+		int leftValue = getInt(left);
+		int rightValue = getInt(right);
+
+		switch(operator) {
+			case "+": return leftValue + rightValue;
+			case "-": return leftValue - rightValue;
+			case "*": return leftValue * rightValue;
+			case "/": return leftValue / rightValue;
+			default: return leftValue % rightValue;
+		}
+	}
+
+	/**
+	 * Method to do the comparison operators on numbers.
+	 *
+	 * @param operator -- the operator.
+	 * @param promotedType -- int, long, float or double.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Boolean -- the result.
+	 */
+	static Boolean compare(String operator, Class<?> promotedType, Object left, Object right) {
+
+		// Compare as doubles and floats, so NaN acts the way it should.
+		if(double.class.equals(promotedType) || float.class.equals(promotedType)) {
+			double leftValue = double.class.equals(promotedType) ? getDouble(left) : getFloat(left);
+			double rightValue = double.class.equals(promotedType) ? getDouble(right) : getFloat(right);
+
+			switch(operator) {
+				case "==": return leftValue == rightValue;
+				case "!=": return leftValue != rightValue;
+				case "<": return leftValue < rightValue;
+				case ">": return leftValue > rightValue;
+				case "<=": return leftValue <= rightValue;
+				default: return leftValue >= rightValue;
+			}
+		}
+
+		long leftValue = getLong(left);
+		long rightValue = getLong(right);
+
+		switch(operator) {
+			case "==": return leftValue == rightValue;
+			case "!=": return leftValue != rightValue;
+			case "<": return leftValue < rightValue;
+			case ">": return leftValue > rightValue;
+			case "<=": return leftValue <= rightValue;
+			default: return leftValue >= rightValue;
+		}
+	}
+
+	/**
+	 * Method to do the bitwise operators, which are logical operators on booleans.
+	 *
+	 * @param operator -- the operator.
+	 * @param promotedType -- boolean, int or long.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Object -- the value.
+	 */
+	static Object bitwise(String operator, Class<?> promotedType, Object left, Object right) {
+
+		if(boolean.class.equals(promotedType)) {
+			boolean leftValue = (Boolean) left;
+			boolean rightValue = (Boolean) right;
+
+			switch(operator) {
+				case "&": return leftValue & rightValue;
+				case "|": return leftValue | rightValue;
+				default: return leftValue ^ rightValue;
+			}
+		}
+
+		else if(long.class.equals(promotedType)) {
+			long leftValue = getLong(left);
+			long rightValue = getLong(right);
+
+			switch(operator) {
+				case "&": return leftValue & rightValue;
+				case "|": return leftValue | rightValue;
+				default: return leftValue ^ rightValue;
+			}
+		}
+
+		int leftValue = getInt(left);
+		int rightValue = getInt(right);
+
+		switch(operator) {
+			case "&": return leftValue & rightValue;
+			case "|": return leftValue | rightValue;
+			default: return leftValue ^ rightValue;
+		}
+	}
+
+	/**
+	 * Method to do the shift operators. The type comes from the left side only.
+	 *
+	 * @param operator -- the operator.
+	 * @param promotedType -- int or long, the promoted type of the left side.
+	 * @param left -- the left side.
+	 * @param right -- the right side.
+	 * @return Object -- the value.
+	 */
+	static Object shift(String operator, Class<?> promotedType, Object left, Object right) {
+		int distance = (int) getLong(right);
+
+		if(long.class.equals(promotedType)) {
+			long leftValue = getLong(left);
+
+			switch(operator) {
+				case "<<": return leftValue << distance;
+				case ">>": return leftValue >> distance;
+				default: return leftValue >>> distance;
+			}
+		}
+
+		int leftValue = getInt(left);
+
+		switch(operator) {
+			case "<<": return leftValue << distance;
+			case ">>": return leftValue >> distance;
+			default: return leftValue >>> distance;
+		}
+	}
+
+	/**
+	 * Method to do the unary operators. Plus just promotes.
+	 *
+	 * @param operator -- the operator.
+	 * @param promotedType -- boolean for <code>!</code>, otherwise int, long, float or double.
+	 * @param operand -- the operand.
+	 * @return Object -- the value.
+	 */
+	static Object unary(String operator, Class<?> promotedType, Object operand) {
+
+		switch(operator) {
+
+			case "!": {
+				return !(Boolean) operand;
+			}
+
+			case "~": {
+				return long.class.equals(promotedType) ? (Object) ~getLong(operand) : (Object) ~getInt(operand);
+			}
+
+			case "+": {
+				return convert(operand, promotedType);
+			}
+
+			default: {
+
+				if(double.class.equals(promotedType)) {
+					return -getDouble(operand);
+				}
+
+				else if(float.class.equals(promotedType)) {
+					return -getFloat(operand);
+				}
+
+				else if(long.class.equals(promotedType)) {
+					return -getLong(operand);
+				}
+
+				return -getInt(operand);
+			}
+		}
+	}
+
+	/**
+	 * Method to convert a number to another primitive type, the way a cast would. Narrowing from a floating point goes through int
+	 * (or long), the same as Java does.
+	 *
+	 * @param operand -- the value.
+	 * @param primitiveType -- the primitive type to convert to.
+	 * @return Object -- the converted value.
+	 */
+	static Object convert(Object operand, Class<?> primitiveType) {
+
+		// Booleans don't convert.
+		if(boolean.class.equals(primitiveType)) {
+			return operand;
+		}
+
+		boolean floatingPoint = operand instanceof Double || operand instanceof Float;
+
+		if(byte.class.equals(primitiveType)) {
+			return floatingPoint ? (byte) (int) getDouble(operand) : (byte) getLong(operand);
+		}
+
+		else if(short.class.equals(primitiveType)) {
+			return floatingPoint ? (short) (int) getDouble(operand) : (short) getLong(operand);
+		}
+
+		else if(char.class.equals(primitiveType)) {
+			return floatingPoint ? (char) (int) getDouble(operand) : (char) getLong(operand);
+		}
+
+		else if(int.class.equals(primitiveType)) {
+			return floatingPoint ? (int) getDouble(operand) : (int) getLong(operand);
+		}
+
+		else if(long.class.equals(primitiveType)) {
+			return floatingPoint ? (long) getDouble(operand) : getLong(operand);
+		}
+
+		else if(float.class.equals(primitiveType)) {
+			return operand instanceof Double ? (float) getDouble(operand) : getFloat(operand);
+		}
+
+		return getDouble(operand);
+	}
+
+	/**
+	 * Method to get a number as an int.
+	 *
+	 * @param operand -- the value.
+	 * @return int -- the value.
+	 */
+	static int getInt(Object operand) {
+		return operand instanceof Character ? (Character) operand : ((Number) operand).intValue();
+	}
+
+	/**
+	 * Method to get a number as a long.
+	 *
+	 * @param operand -- the value.
+	 * @return long -- the value.
+	 */
+	static long getLong(Object operand) {
+		return operand instanceof Character ? (Character) operand : ((Number) operand).longValue();
+	}
+
+	/**
+	 * Method to get a number as a float.
+	 *
+	 * @param operand -- the value.
+	 * @return float -- the value.
+	 */
+	static float getFloat(Object operand) {
+		return operand instanceof Character ? (Character) operand : ((Number) operand).floatValue();
+	}
+
+	/**
+	 * Method to get a number as a double.
+	 *
+	 * @param operand -- the value.
+	 * @return double -- the value.
+	 */
+	static double getDouble(Object operand) {
+		return operand instanceof Character ? (Character) operand : ((Number) operand).doubleValue();
+	}
+}
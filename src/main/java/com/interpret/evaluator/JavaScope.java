@@ -0,0 +1,368 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that tracks the local variables while the interpreter builds code, one scope per block. Every variable gets its own slot in
+ * the {@link JavaFrame}, and the slots are counted across all the scopes so the frame can be made big enough up front. It also keeps
+ * what the compiler would check about where we are -- whether there's a loop or a label to break out of, what a return has to return,
+ * and which checked exceptions are allowed to get out.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaScope {
+
+	/**
+	 * Class for a local variable.
+	 */
+	static final class Local {
+
+		/**
+		 * The static type.
+		 */
+		private final Type type;
+
+		/**
+		 * The slot in the frame.
+		 */
+		private final int slot;
+
+		/**
+		 * Was it declared final?
+		 */
+		private final boolean isFinal;
+
+		/**
+		 * The value, if it's a final variable set to a constant.
+		 */
+		private Object constantValue;
+
+		/**
+		 * Has it been given its value yet? It can't be used in its own initializer.
+		 */
+		private boolean initialized;
+
+		/**
+		 * Constructor for the variable.
+		 *
+		 * @param type -- the static type.
+		 * @param slot -- the slot.
+		 * @param isFinal -- TRUE if it's final.
+		 */
+		private Local(Type type, int slot, boolean isFinal) {
+			this.type = type;
+			this.slot = slot;
+			this.isFinal = isFinal;
+		}
+
+		/**
+		 * Getter for the static type.
+		 *
+		 * @return Type -- the static type.
+		 */
+		Type getType() {
+			return this.type;
+		}
+
+		/**
+		 * Getter for the slot.
+		 *
+		 * @return int -- the slot in the frame.
+		 */
+		int getSlot() {
+			return this.slot;
+		}
+
+		/**
+		 * Return if it was declared final.
+		 *
+		 * @return TRUE if it's final, FALSE if not.
+		 */
+		boolean isFinal() {
+			return this.isFinal;
+		}
+
+		/**
+		 * Getter for the constant value.
+		 *
+		 * @return Object -- the value, NULL if it isn't a constant.
+		 */
+		Object getConstantValue() {
+			return this.constantValue;
+		}
+
+		/**
+		 * Return if it has been given its value yet.
+		 *
+		 * @return TRUE if it has, FALSE if not.
+		 */
+		boolean isInitialized() {
+			return this.initialized;
+		}
+
+		/**
+		 * Method to say the variable has its value, and what it is if it's a constant.
+		 *
+		 * @param constantValue -- the value of a final variable set to a constant, NULL otherwise.
+		 */
+		void initialize(Object constantValue) {
+			this.initialized = true;
+			this.constantValue = this.isFinal ? constantValue : null;
+		}
+	}
+
+	/**
+	 * The enclosing scope, NULL for the outermost one.
+	 */
+	private final JavaScope parent;
+
+	/**
+	 * The variables declared right in this scope.
+	 */
+	private final Map<String, Local> locals = new HashMap<String, Local>();
+
+	/**
+	 * The number of slots used, shared by all the scopes.
+	 */
+	private final int[] slotCount;
+
+	/**
+	 * Is this the body of a loop?
+	 */
+	private final boolean loop;
+
+	/**
+	 * The label on the statement this is the scope of, NULL if there isn't one.
+	 */
+	private final String label;
+
+	/**
+	 * Has anything broken out of this loop, or this labeled statement?
+	 */
+	private boolean broken;
+
+	/**
+	 * Has anything continued this loop?
+	 */
+	private boolean continued;
+
+	/**
+	 * The type a return has to return, <code>void</code> for none, NULL if there can't be a return.
+	 */
+	private final Type returnType;
+
+	/**
+	 * The checked exceptions that are allowed to get out.
+	 */
+	private final List<Class<?>> allowedExceptions;
+
+	/**
+	 * Constructor for the outermost scope.
+	 *
+	 * @param returnType -- the type a return has to return, <code>void</code> for none, NULL if there can't be a return.
+	 * @param allowedExceptions -- the checked exceptions that are allowed to get out.
+	 */
+	JavaScope(Type returnType, List<Class<?>> allowedExceptions) {
+		this(null, new int[1], false, null, returnType, allowedExceptions);
+	}
+
+	/**
+	 * Constructor for any scope.
+	 *
+	 * @param parent -- the enclosing scope.
+	 * @param slotCount -- the shared slot count.
+	 * @param loop -- TRUE if this is the body of a loop.
+	 * @param label -- the label on the statement, NULL if there isn't one.
+	 * @param returnType -- the type a return has to return.
+	 * @param allowedExceptions -- the checked exceptions that are allowed to get out.
+	 */
+	private JavaScope(JavaScope parent, int[] slotCount, boolean loop, String label, Type returnType, List<Class<?>> allowedExceptions) {
+		this.parent = parent;
+		this.slotCount = slotCount;
+		this.loop = loop;
+		this.label = label;
+		this.returnType = returnType;
+		this.allowedExceptions = Collections.unmodifiableList(allowedExceptions);
+	}
+
+	/**
+	 * Method to make the scope for a nested block.
+	 *
+	 * @return {@link JavaScope} -- the new scope.
+	 */
+	JavaScope child() {
+		return new JavaScope(this, this.slotCount, false, null, this.returnType, this.allowedExceptions);
+	}
+
+	/**
+	 * Method to make the scope for the body of a loop.
+	 *
+	 * @param label -- the label on the loop, NULL if it doesn't have one.
+	 * @return {@link JavaScope} -- the new scope.
+	 */
+	JavaScope loopChild(String label) {
+		return new JavaScope(this, this.slotCount, true, label, this.returnType, this.allowedExceptions);
+	}
+
+	/**
+	 * Method to make the scope for a labeled statement that isn't a loop, which only a break can go to.
+	 *
+	 * @param label -- the label.
+	 * @return {@link JavaScope} -- the new scope.
+	 */
+	JavaScope labeledChild(String label) {
+		return new JavaScope(this, this.slotCount, false, label, this.returnType, this.allowedExceptions);
+	}
+
+	/**
+	 * Method to declare a local variable. Java doesn't let a local hide another one, so that's left to the compiler to report.
+	 *
+	 * @param name -- the name.
+	 * @param type -- the static type.
+	 * @param isFinal -- TRUE if it's final.
+	 * @return {@link Local} -- the variable.
+	 */
+	Local declare(String name, Type type, boolean isFinal) {
+
+		if(find(name) != null) {
+			throw new UnsupportedEvaluationException("variable " + name + " is already defined");
+		}
+
+		Local local = new Local(type, this.slotCount[0]++, isFinal);
+		this.locals.put(name, local);
+
+		return local;
+	}
+
+	/**
+	 * Method to find a local variable, in this scope or any enclosing one.
+	 *
+	 * @param name -- the name.
+	 * @return {@link Local} -- the variable, NULL if there isn't one.
+	 */
+	Local find(String name) {
+
+		for(JavaScope scope = this; scope != null; scope = scope.parent) {
+
+			if(scope.locals.containsKey(name)) {
+				return scope.locals.get(name);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method to find the innermost loop.
+	 *
+	 * @return {@link JavaScope} -- the scope of the loop body, NULL if we're not in a loop.
+	 */
+	JavaScope getLoop() {
+
+		for(JavaScope scope = this; scope != null; scope = scope.parent) {
+
+			if(scope.loop) {
+				return scope;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method to find the statement with a label.
+	 *
+	 * @param label -- the label.
+	 * @return {@link JavaScope} -- the scope of the labeled statement, NULL if we're not in one.
+	 */
+	JavaScope getLabeled(String label) {
+
+		for(JavaScope scope = this; scope != null; scope = scope.parent) {
+
+			if(label.equals(scope.label)) {
+				return scope;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Return if this is the body of a loop.
+	 *
+	 * @return TRUE if it is, FALSE if not.
+	 */
+	boolean isLoop() {
+		return this.loop;
+	}
+
+	/**
+	 * Method to say something breaks out of this loop, or this labeled statement.
+	 */
+	void markBroken() {
+		this.broken = true;
+	}
+
+	/**
+	 * Return if anything breaks out of this loop, or this labeled statement.
+	 *
+	 * @return TRUE if something does, FALSE if not.
+	 */
+	boolean isBroken() {
+		return this.broken;
+	}
+
+	/**
+	 * Method to say something continues this loop.
+	 */
+	void markContinued() {
+		this.continued = true;
+	}
+
+	/**
+	 * Return if anything continues this loop. A do loop can still get to its condition that way.
+	 *
+	 * @return TRUE if something does, FALSE if not.
+	 */
+	boolean isContinued() {
+		return this.continued;
+	}
+
+	/**
+	 * Getter for the number of slots the frame needs.
+	 *
+	 * @return int -- the slot count.
+	 */
+	int getSlotCount() {
+		return this.slotCount[0];
+	}
+
+	/**
+	 * Getter for the type a return has to return.
+	 *
+	 * @return Type -- the type, <code>void</code> for none, NULL if there can't be a return.
+	 */
+	Type getReturnType() {
+		return this.returnType;
+	}
+
+	/**
+	 * Method to check if a checked exception is allowed to get out.
+	 *
+	 * @param exceptionType -- the exception type.
+	 * @return TRUE if it's allowed (or isn't checked), FALSE if not.
+	 */
+	boolean isAllowed(Class<?> exceptionType) {
+
+		// Unchecked exceptions are always allowed.
+		if(RuntimeException.class.isAssignableFrom(exceptionType) || Error.class.isAssignableFrom(exceptionType)) {
+			return true;
+		}
+
+		return this.allowedExceptions.stream().anyMatch( allowedException -> allowedException.isAssignableFrom(exceptionType) );
+	}
+}
@@ -0,0 +1,18 @@
+package com.interpret.evaluator;
+
+/**
+ * Interface for a statement the interpreter has built, ready to run.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+interface JavaStatementNode {
+
+	/**
+	 * Method to run the statement.
+	 *
+	 * @param frame -- the local variables.
+	 * @return {@link JavaCompletion} -- how the statement finished.
+	 * @throws Throwable -- anything the code throws, the same as it would if it were compiled.
+	 */
+	JavaCompletion execute(JavaFrame frame) throws Throwable;
+}
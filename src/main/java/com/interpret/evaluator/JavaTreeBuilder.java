@@ -0,0 +1,2552 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import com.actions.JavaAction;
+import com.antlr.Java8Parser;
+import com.antlr.Java8Parser.AnnotationContext;
+import com.antlr.Java8Parser.ArgumentListContext;
+import com.antlr.Java8Parser.ArrayCreationExpressionContext;
+import com.antlr.Java8Parser.ArrayInitializerContext;
+import com.antlr.Java8Parser.AssignmentContext;
+import com.antlr.Java8Parser.BlockContext;
+import com.antlr.Java8Parser.BlockStatementContext;
+import com.antlr.Java8Parser.CastExpressionContext;
+import com.antlr.Java8Parser.ClassBodyContext;
+import com.antlr.Java8Parser.DimExprContext;
+import com.antlr.Java8Parser.DimsContext;
+import com.antlr.Java8Parser.ExceptionTypeContext;
+import com.antlr.Java8Parser.ExpressionContext;
+import com.antlr.Java8Parser.ExpressionNameContext;
+import com.antlr.Java8Parser.ExpressionStatementContext;
+import com.antlr.Java8Parser.ForInitContext;
+import com.antlr.Java8Parser.ForUpdateContext;
+import com.antlr.Java8Parser.FormalParameterContext;
+import com.antlr.Java8Parser.FormalParameterListContext;
+import com.antlr.Java8Parser.LiteralContext;
+import com.antlr.Java8Parser.LocalVariableDeclarationContext;
+import com.antlr.Java8Parser.LocalVariableDeclarationStatementContext;
+import com.antlr.Java8Parser.MethodDeclarationContext;
+import com.antlr.Java8Parser.MethodDeclaratorContext;
+import com.antlr.Java8Parser.MethodHeaderContext;
+import com.antlr.Java8Parser.MethodModifierContext;
+import com.antlr.Java8Parser.MethodNameContext;
+import com.antlr.Java8Parser.RelationalExpressionContext;
+import com.antlr.Java8Parser.ReturnStatementContext;
+import com.antlr.Java8Parser.StatementExpressionContext;
+import com.antlr.Java8Parser.TypeArgumentsContext;
+import com.antlr.Java8Parser.TypeArgumentsOrDiamondContext;
+import com.antlr.Java8Parser.TypeNameContext;
+import com.antlr.Java8Parser.UnannTypeContext;
+import com.antlr.Java8Parser.VariableDeclaratorContext;
+import com.antlr.Java8Parser.VariableDeclaratorIdContext;
+import com.antlr.Java8Parser.VariableInitializerContext;
+import com.antlr.Java8Parser.VariableModifierContext;
+import com.interpret.evaluator.JavaMembers.Invocation;
+import com.interpret.evaluator.JavaMembers.Invoker;
+import com.interpret.evaluator.JavaMethodTiers.TieredMethod;
+import com.interpret.evaluator.JavaScope.Local;
+
+/**
+ * Class that builds the tree the interpreter runs, straight off of the parse tree. Every name, member and operator is worked out
+ * here, once, from the same static types the compiler would use -- so a loop that runs a million times never looks anything up
+ * again:
+ *
+ * <pre>
+ * for(int i = 0; i &lt; 10; i++) { total += i; }     a slot for i, an int comparison, an int addition
+ * list.add(5);                                       List.add(Object), with 5 boxed to an Integer
+ * </pre>
+ *
+ * Anything the compiler would reject, or that needs more than this knows about (generic methods, lambdas, inner classes, try and
+ * switch), throws an {@link UnsupportedEvaluationException}, and the statement gets compiled instead.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaTreeBuilder {
+
+	/**
+	 * Interface for a binary operator, once the types it works on are known.
+	 */
+	private interface Operator {
+
+		/**
+		 * Method to apply the operator.
+		 *
+		 * @param left -- the left side.
+		 * @param right -- the right side.
+		 * @return Object -- the value.
+		 * @throws Throwable
+		 */
+		Object apply(Object left, Object right) throws Throwable;
+	}
+
+	/**
+	 * Class for a binary operator and the type it gives back.
+	 */
+	private static final class TypedOperator {
+
+		/**
+		 * The operator.
+		 */
+		private final Operator operator;
+
+		/**
+		 * The type of the value.
+		 */
+		private final Type type;
+
+		/**
+		 * Constructor for the operator.
+		 *
+		 * @param operator -- the operator.
+		 * @param type -- the type of the value.
+		 */
+		private TypedOperator(Operator operator, Type type) {
+			this.operator = operator;
+			this.type = type;
+		}
+	}
+
+	/**
+	 * Class for what a name turned out to mean -- a variable, a type or a package. Only one of them is set.
+	 */
+	private static final class Meaning {
+
+		/**
+		 * The variable.
+		 */
+		private JavaVariable variable;
+
+		/**
+		 * The value of the variable, if it's a constant.
+		 */
+		private Object constantValue;
+
+		/**
+		 * The type.
+		 */
+		private Class<?> type;
+
+		/**
+		 * The package.
+		 */
+		private String packageName;
+	}
+
+	/**
+	 * The names the statement can see.
+	 */
+	private final JavaNames names;
+
+	/**
+	 * Can the next statement be reached? After a statement is built, this says whether it can complete normally.
+	 */
+	private boolean reachable = true;
+
+	/**
+	 * The method being built, if it is one, so that it can call itself.
+	 */
+	private TieredMethod declaringMethod;
+
+	/**
+	 * The label on the loop that's about to be built, if it has one.
+	 */
+	private String loopLabel;
+
+	/**
+	 * Constructor for the builder.
+	 *
+	 * @param names -- the names the statement can see.
+	 */
+	JavaTreeBuilder(JavaNames names) {
+		this.names = names;
+	}
+
+	/**
+	 * Return if the last statement built can complete normally. The compiler won't take code after one that can't.
+	 *
+	 * @return TRUE if it can, FALSE if not.
+	 */
+	boolean isReachable() {
+		return this.reachable;
+	}
+
+	/**
+	 * Method to build a statement -- a block, a local variable declaration, an if, a loop, a statement expression, and so on.
+	 *
+	 * @param statementContext -- the statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the statement.
+	 */
+	JavaStatementNode buildStatement(ParserRuleContext statementContext, JavaScope scope) {
+		ParserRuleContext context = unwrap(statementContext);
+
+		// Java won't compile a statement that can never run.
+		if(!reachable) {
+			throw new UnsupportedEvaluationException("unreachable statement " + statementContext.getText());
+		}
+
+		switch(context.getRuleIndex()) {
+
+			case Java8Parser.RULE_block: {
+				return buildBlock((BlockContext) context, scope);
+			}
+
+			case Java8Parser.RULE_localVariableDeclarationStatement: {
+				return buildLocalVariables(((LocalVariableDeclarationStatementContext) context).localVariableDeclaration(), scope);
+			}
+
+			case Java8Parser.RULE_emptyStatement: {
+				return frame -> JavaCompletion.NORMAL;
+			}
+
+			case Java8Parser.RULE_expressionStatement: {
+				JavaNode expression = buildStatementExpression(((ExpressionStatementContext) context).statementExpression(), scope).getNode();
+
+				return frame -> {
+					expression.execute(frame);
+					return JavaCompletion.NORMAL;
+				};
+			}
+
+			case Java8Parser.RULE_ifThenStatement:
+			case Java8Parser.RULE_ifThenElseStatement:
+			case Java8Parser.RULE_ifThenElseStatementNoShortIf: {
+				return buildIf(context, scope);
+			}
+
+			case Java8Parser.RULE_whileStatement:
+			case Java8Parser.RULE_whileStatementNoShortIf: {
+				return buildWhile(context, scope);
+			}
+
+			case Java8Parser.RULE_doStatement: {
+				return buildDo(context, scope);
+			}
+
+			case Java8Parser.RULE_basicForStatement:
+			case Java8Parser.RULE_basicForStatementNoShortIf: {
+				return buildFor(context, scope);
+			}
+
+			case Java8Parser.RULE_enhancedForStatement:
+			case Java8Parser.RULE_enhancedForStatementNoShortIf: {
+				return buildEnhancedFor(context, scope);
+			}
+
+			case Java8Parser.RULE_breakStatement:
+			case Java8Parser.RULE_continueStatement: {
+				return buildJump(context, scope);
+			}
+
+			case Java8Parser.RULE_returnStatement: {
+				return buildReturn((ReturnStatementContext) context, scope);
+			}
+
+			case Java8Parser.RULE_throwStatement: {
+				return buildThrow(context, scope);
+			}
+
+			case Java8Parser.RULE_labeledStatement:
+			case Java8Parser.RULE_labeledStatementNoShortIf: {
+				return buildLabeled(context, scope);
+			}
+
+			// Switch, try, synchronized, assert and local classes.
+			default: {
+				throw new UnsupportedEvaluationException("statement " + context.getText());
+			}
+		}
+	}
+
+	/**
+	 * Method to build a statement expression -- an assignment, an increment or decrement, a method call or a <code>new</code>. Any
+	 * other expression isn't a statement.
+	 *
+	 * @param statementExpression -- the statement expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	JavaTypedNode buildStatementExpression(StatementExpressionContext statementExpression, JavaScope scope) {
+
+		if(!isStatementExpression(statementExpression)) {
+			throw new UnsupportedEvaluationException("not a statement " + statementExpression.getText());
+		}
+
+		return buildExpression(statementExpression, scope);
+	}
+
+	/**
+	 * Method to build an expression.
+	 *
+	 * @param expressionContext -- the expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	JavaTypedNode buildExpression(ParserRuleContext expressionContext, JavaScope scope) {
+		return build(expressionContext, null, scope);
+	}
+
+	/**
+	 * Method to build an expression whose value is going into a variable of a known type, so that a <code>new</code> with a diamond
+	 * can get its type arguments from it.
+	 *
+	 * @param expressionContext -- the expression.
+	 * @param scope -- the local variables.
+	 * @param targetType -- the type the value is going into.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	JavaTypedNode buildExpression(ParserRuleContext expressionContext, JavaScope scope, Type targetType) {
+		ParserRuleContext context = unwrap(expressionContext);
+
+		if(context.getRuleIndex() == Java8Parser.RULE_classInstanceCreationExpression || context.getRuleIndex() == Java8Parser.RULE_classInstanceCreationExpression_lfno_primary) {
+			return buildCreation(context, targetType, scope);
+		}
+
+		return build(context, null, scope);
+	}
+
+	/**
+	 * Method to build the value of a name, like <code>x</code> or <code>point.x</code>.
+	 *
+	 * @param name -- the name.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the value.
+	 */
+	JavaTypedNode buildName(String name, JavaScope scope) {
+		return valueOf(resolveName(name, scope), name);
+	}
+
+	/**
+	 * Method to build one of the user's methods, so the interpreter can run it until it's called enough to compile. Only plain
+	 * methods -- no type parameters, varargs, annotations, or anything synchronized, native or abstract.
+	 *
+	 * @param methodDeclaration -- the method declaration.
+	 * @param methodAction -- the action it came from.
+	 * @return {@link TieredMethod} -- the method.
+	 */
+	TieredMethod buildMethod(MethodDeclarationContext methodDeclaration, JavaAction methodAction) {
+		MethodHeaderContext methodHeader = methodDeclaration.methodHeader();
+		MethodDeclaratorContext methodDeclarator = methodHeader.methodDeclarator();
+
+		for(MethodModifierContext methodModifier : methodDeclaration.methodModifier()) {
+
+			if(methodModifier.annotation() != null || Arrays.asList("abstract", "synchronized", "native").contains(methodModifier.getText())) {
+				throw new UnsupportedEvaluationException("method modifier " + methodModifier.getText());
+			}
+		}
+
+		if(methodHeader.typeParameters() != null || methodDeclarator.dims() != null || methodDeclaration.methodBody().block() == null) {
+			throw new UnsupportedEvaluationException("method " + methodDeclarator.Identifier().getText());
+		}
+
+		Type returnType = methodHeader.result().unannType() != null ? names.parseType(methodHeader.result().unannType().getText()) : void.class;
+
+		// The checked exceptions it can throw.
+		List<Class<?>> allowedExceptions = new ArrayList<Class<?>>();
+
+		if(methodHeader.throws_() != null) {
+
+			for(ExceptionTypeContext exceptionType : methodHeader.throws_().exceptionTypeList().exceptionType()) {
+				Type thrownType = names.parseType(exceptionType.getText());
+
+				if(!(thrownType instanceof Class) || !Throwable.class.isAssignableFrom((Class<?>) thrownType)) {
+					throw new UnsupportedEvaluationException("throws " + exceptionType.getText());
+				}
+
+				allowedExceptions.add((Class<?>) thrownType);
+			}
+		}
+
+		// The parameters take the first slots.
+		JavaScope scope = new JavaScope(returnType, allowedExceptions);
+		List<Type> parameterTypes = new ArrayList<Type>();
+		FormalParameterListContext formalParameterList = methodDeclarator.formalParameterList();
+
+		if(formalParameterList != null) {
+			List<FormalParameterContext> formalParameters = new ArrayList<FormalParameterContext>();
+
+			if(formalParameterList.formalParameters() != null && formalParameterList.formalParameters().receiverParameter() != null) {
+				throw new UnsupportedEvaluationException("receiver parameter " + formalParameterList.getText());
+			}
+
+			else if(formalParameterList.formalParameters() != null) {
+				formalParameters.addAll(formalParameterList.formalParameters().formalParameter());
+			}
+
+			if(formalParameterList.lastFormalParameter().formalParameter() == null) {
+				throw new UnsupportedEvaluationException("varargs " + formalParameterList.getText());
+			}
+
+			formalParameters.add(formalParameterList.lastFormalParameter().formalParameter());
+
+			for(FormalParameterContext formalParameter : formalParameters) {
+				Type parameterType = addDimensions(names.parseType(formalParameter.unannType().getText()), formalParameter.variableDeclaratorId().dims());
+
+				scope.declare(formalParameter.variableDeclaratorId().Identifier().getText(), parameterType, isFinal(formalParameter.variableModifier())).initialize(null);
+				parameterTypes.add(parameterType);
+			}
+		}
+
+		// The body, which has to return if the method does.
+		TieredMethod tieredMethod = new TieredMethod(methodAction, parameterTypes.toArray(new Type[parameterTypes.size()]), returnType);
+		declaringMethod = tieredMethod;
+		reachable = true;
+
+		JavaStatementNode body = buildStatement(methodDeclaration.methodBody().block(), scope);
+
+		if(reachable && !JavaTypes.isVoid(returnType)) {
+			throw new UnsupportedEvaluationException("missing return statement");
+		}
+
+		tieredMethod.setBody(body, scope.getSlotCount());
+		return tieredMethod;
+	}
+
+	/**
+	 * Method to build a block, with its own scope.
+	 *
+	 * @param block -- the block.
+	 * @param scope -- the enclosing scope.
+	 * @return {@link JavaStatementNode} -- the block.
+	 */
+	private JavaStatementNode buildBlock(BlockContext block, JavaScope scope) {
+		JavaScope blockScope = scope.child();
+		List<JavaStatementNode> statements = new ArrayList<JavaStatementNode>();
+
+		if(block.blockStatements() != null) {
+
+			for(BlockStatementContext blockStatement : block.blockStatements().blockStatement()) {
+				statements.add(buildStatement(blockStatement, blockScope));
+			}
+		}
+
+		JavaStatementNode[] statementNodes = statements.toArray(new JavaStatementNode[statements.size()]);
+
+		return frame -> {
+
+			// Anything but a normal completion ends the block.
+			for(JavaStatementNode statement : statementNodes) {
+				JavaCompletion completion = statement.execute(frame);
+
+				if(completion.getKind() != JavaCompletion.Kind.NORMAL) {
+					return completion;
+				}
+			}
+
+			return JavaCompletion.NORMAL;
+		};
+	}
+
+	/**
+	 * Method to build a local variable declaration. Every variable has to be given a value, so there's no need to track whether
+	 * it's been assigned yet.
+	 *
+	 * @param declaration -- the declaration.
+	 * @param scope -- the scope to declare them in.
+	 * @return {@link JavaStatementNode} -- the declaration.
+	 */
+	private JavaStatementNode buildLocalVariables(LocalVariableDeclarationContext declaration, JavaScope scope) {
+		boolean isFinal = isFinal(declaration.variableModifier());
+		Type baseType = names.parseType(declaration.unannType().getText());
+
+		List<JavaNode> initializers = new ArrayList<JavaNode>();
+		List<Integer> slots = new ArrayList<Integer>();
+
+		for(VariableDeclaratorContext declarator : declaration.variableDeclaratorList().variableDeclarator()) {
+			String variableName = declarator.variableDeclaratorId().Identifier().getText();
+			Type variableType = addDimensions(baseType, declarator.variableDeclaratorId().dims());
+
+			if(declarator.variableInitializer() == null) {
+				throw new UnsupportedEvaluationException("variable " + variableName + " without a value");
+			}
+
+			// It's in scope in its own initializer, just not usable yet.
+			Local local = scope.declare(variableName, variableType, isFinal);
+			JavaTypedNode initializer = buildInitializer(declarator.variableInitializer(), variableType, scope);
+			local.initialize(initializer.getConstantValue());
+
+			initializers.add(initializer.getNode());
+			slots.add(local.getSlot());
+		}
+
+		return frame -> {
+
+			for(int variableIndex = 0; variableIndex < initializers.size(); variableIndex++) {
+				frame.set(slots.get(variableIndex), initializers.get(variableIndex).execute(frame));
+			}
+
+			return JavaCompletion.NORMAL;
+		};
+	}
+
+	/**
+	 * Method to build an if, with or without an else.
+	 *
+	 * @param ifContext -- the if statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the if.
+	 */
+	private JavaStatementNode buildIf(ParserRuleContext ifContext, JavaScope scope) {
+		JavaNode condition = buildCondition(ifContext.getRuleContext(ExpressionContext.class, 0), scope).getNode();
+		JavaStatementNode thenStatement = buildStatement((ParserRuleContext) ifContext.getChild(4), scope);
+
+		// An if without an else can always complete normally.
+		if(ifContext.getChildCount() < 7) {
+			reachable = true;
+			return frame -> (Boolean) condition.execute(frame) ? thenStatement.execute(frame) : JavaCompletion.NORMAL;
+		}
+
+		boolean thenCompletes = reachable;
+		reachable = true;
+
+		JavaStatementNode elseStatement = buildStatement((ParserRuleContext) ifContext.getChild(6), scope);
+		reachable = reachable || thenCompletes;
+
+		return frame -> (Boolean) condition.execute(frame) ? thenStatement.execute(frame) : elseStatement.execute(frame);
+	}
+
+	/**
+	 * Method to build a while loop.
+	 *
+	 * @param whileContext -- the while statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the loop.
+	 */
+	private JavaStatementNode buildWhile(ParserRuleContext whileContext, JavaScope scope) {
+		String label = takeLoopLabel();
+		JavaTypedNode condition = buildCondition(whileContext.getRuleContext(ExpressionContext.class, 0), scope);
+
+		if(Boolean.FALSE.equals(condition.getConstantValue())) {
+			throw new UnsupportedEvaluationException("unreachable loop body " + whileContext.getText());
+		}
+
+		JavaScope loopScope = scope.loopChild(label);
+		JavaStatementNode body = buildStatement((ParserRuleContext) whileContext.getChild(4), loopScope);
+
+		// A loop that can only end with a break needs one.
+		reachable = !Boolean.TRUE.equals(condition.getConstantValue()) || loopScope.isBroken();
+
+		JavaNode conditionNode = condition.getNode();
+
+		return frame -> {
+
+			while((Boolean) conditionNode.execute(frame)) {
+				JavaCompletion completion = body.execute(frame);
+
+				// A labeled break or continue for a statement further out goes on out.
+				if(!completion.isFor(label)) {
+					return completion;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.BREAK) {
+					break;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.RETURN) {
+					return completion;
+				}
+			}
+
+			return JavaCompletion.NORMAL;
+		};
+	}
+
+	/**
+	 * Method to build a do loop.
+	 *
+	 * @param doContext -- the do statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the loop.
+	 */
+	private JavaStatementNode buildDo(ParserRuleContext doContext, JavaScope scope) {
+		String label = takeLoopLabel();
+		JavaScope loopScope = scope.loopChild(label);
+		JavaStatementNode body = buildStatement((ParserRuleContext) doContext.getChild(1), loopScope);
+
+		// The condition is only checked if the body gets to the end, or continues.
+		boolean conditionReached = reachable || loopScope.isContinued();
+		reachable = true;
+
+		JavaTypedNode condition = buildCondition(doContext.getRuleContext(ExpressionContext.class, 0), scope);
+		reachable = (conditionReached && !Boolean.TRUE.equals(condition.getConstantValue())) || loopScope.isBroken();
+
+		JavaNode conditionNode = condition.getNode();
+
+		return frame -> {
+
+			do {
+				JavaCompletion completion = body.execute(frame);
+
+				// A labeled break or continue for a statement further out goes on out.
+				if(!completion.isFor(label)) {
+					return completion;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.BREAK) {
+					break;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.RETURN) {
+					return completion;
+				}
+			}
+			while((Boolean) conditionNode.execute(frame));
+
+			return JavaCompletion.NORMAL;
+		};
+	}
+
+	/**
+	 * Method to build a basic for loop. The variables it declares are scoped to the loop.
+	 *
+	 * @param forContext -- the for statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the loop.
+	 */
+	private JavaStatementNode buildFor(ParserRuleContext forContext, JavaScope scope) {
+		String label = takeLoopLabel();
+		JavaScope forScope = scope.child();
+
+		// The initialization, either variables or statement expressions.
+		List<JavaNode> initializers = new ArrayList<JavaNode>();
+		ForInitContext forInit = forContext.getRuleContext(ForInitContext.class, 0);
+
+		if(forInit != null && forInit.localVariableDeclaration() != null) {
+			JavaStatementNode declaration = buildLocalVariables(forInit.localVariableDeclaration(), forScope);
+			initializers.add(frame -> declaration.execute(frame));
+		}
+
+		else if(forInit != null) {
+			forInit.statementExpressionList().statementExpression().forEach( statementExpression -> initializers.add(buildStatementExpression(statementExpression, forScope).getNode()) );
+		}
+
+		// No condition is the same as true.
+		ExpressionContext conditionContext = forContext.getRuleContext(ExpressionContext.class, 0);
+		JavaTypedNode condition = conditionContext != null ? buildCondition(conditionContext, forScope) : JavaTypedNode.constant(true, boolean.class);
+
+		if(Boolean.FALSE.equals(condition.getConstantValue())) {
+			throw new UnsupportedEvaluationException("unreachable loop body " + forContext.getText());
+		}
+
+		JavaScope loopScope = forScope.loopChild(label);
+		JavaStatementNode body = buildStatement((ParserRuleContext) forContext.getChild(forContext.getChildCount() - 1), loopScope);
+
+		// The updates.
+		reachable = true;
+
+		List<JavaNode> updates = new ArrayList<JavaNode>();
+		ForUpdateContext forUpdate = forContext.getRuleContext(ForUpdateContext.class, 0);
+
+		if(forUpdate != null) {
+			forUpdate.statementExpressionList().statementExpression().forEach( statementExpression -> updates.add(buildStatementExpression(statementExpression, forScope).getNode()) );
+		}
+
+		reachable = !Boolean.TRUE.equals(condition.getConstantValue()) || loopScope.isBroken();
+
+		JavaNode conditionNode = condition.getNode();
+		JavaNode[] initializerNodes = initializers.toArray(new JavaNode[initializers.size()]);
+		JavaNode[] updateNodes = updates.toArray(new JavaNode[updates.size()]);
+
+		return frame -> {
+
+			for(JavaNode initializer : initializerNodes) {
+				initializer.execute(frame);
+			}
+
+			while((Boolean) conditionNode.execute(frame)) {
+				JavaCompletion completion = body.execute(frame);
+
+				// A labeled break or continue for a statement further out goes on out.
+				if(!completion.isFor(label)) {
+					return completion;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.BREAK) {
+					break;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.RETURN) {
+					return completion;
+				}
+
+				for(JavaNode update : updateNodes) {
+					update.execute(frame);
+				}
+			}
+
+			return JavaCompletion.NORMAL;
+		};
+	}
+
+	/**
+	 * Method to build an enhanced for loop, over an array or an Iterable.
+	 *
+	 * @param forContext -- the for statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the loop.
+	 */
+	private JavaStatementNode buildEnhancedFor(ParserRuleContext forContext, JavaScope scope) {
+		String label = takeLoopLabel();
+		VariableDeclaratorIdContext variableId = forContext.getRuleContext(VariableDeclaratorIdContext.class, 0);
+		Type variableType = addDimensions(names.parseType(forContext.getRuleContext(UnannTypeContext.class, 0).getText()), variableId.dims());
+
+		JavaTypedNode iterable = buildExpression(forContext.getRuleContext(ExpressionContext.class, 0), scope);
+		requireValue(iterable);
+
+		// What it goes over.
+		boolean isArray = JavaTypes.isArray(iterable.getType());
+		Type elementType = isArray ? JavaTypes.getComponentType(iterable.getType()) : getIterableType(iterable.getType());
+
+		if(!JavaTypes.isAssignable(elementType, null, variableType, true)) {
+			throw new UnsupportedEvaluationException("incompatible types " + elementType.getTypeName() + " to " + variableType.getTypeName());
+		}
+
+		// The variable is scoped to the loop.
+		JavaScope forScope = scope.child();
+		Local local = forScope.declare(variableId.Identifier().getText(), variableType, isFinal(forContext.getRuleContexts(VariableModifierContext.class)));
+		local.initialize(null);
+
+		JavaScope loopScope = forScope.loopChild(label);
+		JavaStatementNode body = buildStatement((ParserRuleContext) forContext.getChild(forContext.getChildCount() - 1), loopScope);
+
+		// It always runs out eventually.
+		reachable = true;
+
+		JavaNode iterableNode = iterable.getNode();
+		UnaryOperator<Object> conversion = JavaTypes.getConversion(elementType, variableType);
+		int slot = local.getSlot();
+
+		if(isArray) {
+
+			return frame -> {
+				Object array = JavaVariable.requireNonNull(iterableNode.execute(frame));
+				int length = Array.getLength(array);
+
+				for(int elementIndex = 0; elementIndex < length; elementIndex++) {
+					frame.set(slot, conversion.apply(Array.get(array, elementIndex)));
+					JavaCompletion completion = body.execute(frame);
+
+					// A labeled break or continue for a statement further out goes on out.
+					if(!completion.isFor(label)) {
+						return completion;
+					}
+
+					else if(completion.getKind() == JavaCompletion.Kind.BREAK) {
+						break;
+					}
+
+					else if(completion.getKind() == JavaCompletion.Kind.RETURN) {
+						return completion;
+					}
+				}
+
+				return JavaCompletion.NORMAL;
+			};
+		}
+
+		return frame -> {
+			Iterator<?> iterator = ((Iterable<?>) JavaVariable.requireNonNull(iterableNode.execute(frame))).iterator();
+
+			while(iterator.hasNext()) {
+				frame.set(slot, conversion.apply(iterator.next()));
+				JavaCompletion completion = body.execute(frame);
+
+				// A labeled break or continue for a statement further out goes on out.
+				if(!completion.isFor(label)) {
+					return completion;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.BREAK) {
+					break;
+				}
+
+				else if(completion.getKind() == JavaCompletion.Kind.RETURN) {
+					return completion;
+				}
+			}
+
+			return JavaCompletion.NORMAL;
+		};
+	}
+
+	/**
+	 * Method to build a break or a continue, for the innermost loop or the statement with its label.
+	 *
+	 * @param jumpContext -- the break or continue statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the jump.
+	 */
+	private JavaStatementNode buildJump(ParserRuleContext jumpContext, JavaScope scope) {
+		boolean isBreak = jumpContext.getRuleIndex() == Java8Parser.RULE_breakStatement;
+		String label = jumpContext.getToken(Java8Parser.Identifier, 0) != null ? jumpContext.getToken(Java8Parser.Identifier, 0).getText() : null;
+		JavaScope targetScope = label != null ? scope.getLabeled(label) : scope.getLoop();
+
+		// Only a loop can be continued.
+		if(targetScope == null || (!isBreak && !targetScope.isLoop())) {
+			throw new UnsupportedEvaluationException("jump " + jumpContext.getText());
+		}
+
+		reachable = false;
+
+		if(isBreak) {
+			JavaCompletion completion = label != null ? JavaCompletion.breaking(label) : JavaCompletion.BREAK;
+			targetScope.markBroken();
+			return frame -> completion;
+		}
+
+		JavaCompletion completion = label != null ? JavaCompletion.continuing(label) : JavaCompletion.CONTINUE;
+		targetScope.markContinued();
+		return frame -> completion;
+	}
+
+	/**
+	 * Method to build a labeled statement. A loop keeps the label itself, so that a continue can find it, and anything else can only
+	 * be broken out of.
+	 *
+	 * @param labeledContext -- the labeled statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the statement.
+	 */
+	private JavaStatementNode buildLabeled(ParserRuleContext labeledContext, JavaScope scope) {
+		String label = labeledContext.getToken(Java8Parser.Identifier, 0).getText();
+		ParserRuleContext labeledStatement = (ParserRuleContext) labeledContext.getChild(2);
+
+		// Java won't take the same label inside itself.
+		if(scope.getLabeled(label) != null) {
+			throw new UnsupportedEvaluationException("label " + label + " is already in use");
+		}
+
+		switch(unwrap(labeledStatement).getRuleIndex()) {
+
+			case Java8Parser.RULE_whileStatement:
+			case Java8Parser.RULE_whileStatementNoShortIf:
+			case Java8Parser.RULE_doStatement:
+			case Java8Parser.RULE_basicForStatement:
+			case Java8Parser.RULE_basicForStatementNoShortIf:
+			case Java8Parser.RULE_enhancedForStatement:
+			case Java8Parser.RULE_enhancedForStatementNoShortIf: {
+				loopLabel = label;
+				return buildStatement(labeledStatement, scope);
+			}
+
+			default: {
+				JavaScope labeledScope = scope.labeledChild(label);
+				JavaStatementNode statement = buildStatement(labeledStatement, labeledScope);
+
+				// Breaking out of it gets to the next statement too.
+				reachable = reachable || labeledScope.isBroken();
+
+				return frame -> {
+					JavaCompletion completion = statement.execute(frame);
+					return completion.getKind() == JavaCompletion.Kind.BREAK && label.equals(completion.getLabel()) ? JavaCompletion.NORMAL : completion;
+				};
+			}
+		}
+	}
+
+	/**
+	 * Method to get the label for the loop being built, if it has one, so that loops inside it don't get it too.
+	 *
+	 * @return String -- the label, NULL if it doesn't have one.
+	 */
+	private String takeLoopLabel() {
+		String label = this.loopLabel;
+		this.loopLabel = null;
+
+		return label;
+	}
+
+	/**
+	 * Method to build a return. The statements themselves can't return, but the bodies of methods can.
+	 *
+	 * @param returnContext -- the return statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the return.
+	 */
+	private JavaStatementNode buildReturn(ReturnStatementContext returnContext, JavaScope scope) {
+		Type returnType = scope.getReturnType();
+
+		if(returnType == null || JavaTypes.isVoid(returnType) != (returnContext.expression() == null)) {
+			throw new UnsupportedEvaluationException("return " + returnContext.getText());
+		}
+
+		reachable = false;
+
+		if(returnContext.expression() == null) {
+			return frame -> JavaCompletion.returning(null);
+		}
+
+		JavaNode value = assign(buildExpression(returnContext.expression(), scope, returnType), returnType).getNode();
+		return frame -> JavaCompletion.returning(value.execute(frame));
+	}
+
+	/**
+	 * Method to build a throw. Checked exceptions have to be allowed out.
+	 *
+	 * @param throwContext -- the throw statement.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaStatementNode} -- the throw.
+	 */
+	private JavaStatementNode buildThrow(ParserRuleContext throwContext, JavaScope scope) {
+		JavaTypedNode thrown = buildExpression(throwContext.getRuleContext(ExpressionContext.class, 0), scope);
+
+		if(!JavaTypes.NULL_TYPE.equals(thrown.getType()) && !(JavaTypes.isSubtype(thrown.getType(), Throwable.class) && scope.isAllowed(JavaTypes.getErasure(thrown.getType())))) {
+			throw new UnsupportedEvaluationException("throw " + thrown.getType().getTypeName());
+		}
+
+		reachable = false;
+
+		JavaNode thrownNode = thrown.getNode();
+
+		return frame -> {
+			throw (Throwable) JavaVariable.requireNonNull(thrownNode.execute(frame));
+		};
+	}
+
+	/**
+	 * Method to build an expression, or a suffix on a primary expression.
+	 *
+	 * @param expressionContext -- the expression.
+	 * @param prefix -- the primary expression a suffix goes on, NULL for anything else.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode build(ParserRuleContext expressionContext, JavaTypedNode prefix, JavaScope scope) {
+		ParserRuleContext context = unwrap(expressionContext);
+
+		switch(context.getRuleIndex()) {
+
+			case Java8Parser.RULE_literal: {
+				return buildLiteral((LiteralContext) context);
+			}
+
+			case Java8Parser.RULE_expressionName: {
+				return buildName(context.getText(), scope);
+			}
+
+			case Java8Parser.RULE_assignment: {
+				return buildAssignment((AssignmentContext) context, scope);
+			}
+
+			case Java8Parser.RULE_conditionalExpression: {
+				return buildConditional(context, scope);
+			}
+
+			case Java8Parser.RULE_conditionalOrExpression:
+			case Java8Parser.RULE_conditionalAndExpression: {
+				return buildShortCircuit(context, scope);
+			}
+
+			case Java8Parser.RULE_relationalExpression: {
+
+				if(((RelationalExpressionContext) context).referenceType() != null) {
+					return buildInstanceof((RelationalExpressionContext) context, scope);
+				}
+
+				return buildBinary(context, scope);
+			}
+
+			case Java8Parser.RULE_inclusiveOrExpression:
+			case Java8Parser.RULE_exclusiveOrExpression:
+			case Java8Parser.RULE_andExpression:
+			case Java8Parser.RULE_equalityExpression:
+			case Java8Parser.RULE_shiftExpression:
+			case Java8Parser.RULE_additiveExpression:
+			case Java8Parser.RULE_multiplicativeExpression: {
+				return buildBinary(context, scope);
+			}
+
+			case Java8Parser.RULE_unaryExpression:
+			case Java8Parser.RULE_unaryExpressionNotPlusMinus: {
+				return buildUnary(context, scope);
+			}
+
+			case Java8Parser.RULE_preIncrementExpression:
+			case Java8Parser.RULE_preDecrementExpression: {
+				return buildIncrement((ParserRuleContext) context.getChild(1), context.getChild(0).getText(), true, scope);
+			}
+
+			case Java8Parser.RULE_postIncrementExpression:
+			case Java8Parser.RULE_postDecrementExpression: {
+				return buildIncrement((ParserRuleContext) context.getChild(0), context.getChild(1).getText(), false, scope);
+			}
+
+			case Java8Parser.RULE_postfixExpression: {
+
+				// Only one, an increment doesn't give back a variable.
+				if(context.getChildCount() != 2) {
+					throw new UnsupportedEvaluationException("expression " + context.getText());
+				}
+
+				return buildIncrement((ParserRuleContext) context.getChild(0), context.getChild(1).getText(), false, scope);
+			}
+
+			case Java8Parser.RULE_castExpression: {
+				return buildCast((CastExpressionContext) context, scope);
+			}
+
+			case Java8Parser.RULE_primary: {
+				JavaTypedNode primary = build((ParserRuleContext) context.getChild(0), null, scope);
+
+				// Each suffix goes on what came before it.
+				for(int childIndex = 1; childIndex < context.getChildCount(); childIndex++) {
+					primary = build((ParserRuleContext) context.getChild(childIndex), primary, scope);
+				}
+
+				return primary;
+			}
+
+			case Java8Parser.RULE_primaryNoNewArray:
+			case Java8Parser.RULE_primaryNoNewArray_lfno_arrayAccess:
+			case Java8Parser.RULE_primaryNoNewArray_lfno_primary:
+			case Java8Parser.RULE_primaryNoNewArray_lfno_primary_lfno_arrayAccess_lfno_primary: {
+				return buildPrimaryNoNewArray(context, scope);
+			}
+
+			case Java8Parser.RULE_classInstanceCreationExpression:
+			case Java8Parser.RULE_classInstanceCreationExpression_lfno_primary:
+			case Java8Parser.RULE_classInstanceCreationExpression_lf_primary: {
+				return buildCreation(context, null, scope);
+			}
+
+			case Java8Parser.RULE_fieldAccess:
+			case Java8Parser.RULE_fieldAccess_lf_primary:
+			case Java8Parser.RULE_fieldAccess_lfno_primary:
+			case Java8Parser.RULE_arrayAccess:
+			case Java8Parser.RULE_arrayAccess_lf_primary:
+			case Java8Parser.RULE_arrayAccess_lfno_primary: {
+				return valueOf(buildVariable(context, prefix, scope));
+			}
+
+			case Java8Parser.RULE_methodInvocation:
+			case Java8Parser.RULE_methodInvocation_lf_primary:
+			case Java8Parser.RULE_methodInvocation_lfno_primary: {
+				return buildMethodInvocation(context, prefix, scope);
+			}
+
+			case Java8Parser.RULE_arrayCreationExpression: {
+				return buildArrayCreation((ArrayCreationExpressionContext) context, scope);
+			}
+
+			// Lambdas, method references, and the rest.
+			default: {
+				throw new UnsupportedEvaluationException("expression " + context.getText());
+			}
+		}
+	}
+
+	/**
+	 * Method to build a literal. String literals are interned, the same as the compiler does.
+	 *
+	 * @param literal -- the literal.
+	 * @return {@link JavaTypedNode} -- the constant.
+	 */
+	private static JavaTypedNode buildLiteral(LiteralContext literal) {
+
+		if(literal.NullLiteral() != null) {
+			return new JavaTypedNode(frame -> null, JavaTypes.NULL_TYPE);
+		}
+
+		Object value = JavaLiterals.getValue(literal);
+
+		if(value instanceof String) {
+			return JavaTypedNode.constant(((String) value).intern(), String.class);
+		}
+
+		return JavaTypedNode.constant(value, JavaOperators.getPrimitiveTypeOf(value));
+	}
+
+	/**
+	 * Method to build the parts of a primary expression that aren't anything else -- parentheses and class literals.
+	 *
+	 * @param context -- the primary expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildPrimaryNoNewArray(ParserRuleContext context, JavaScope scope) {
+
+		// Parentheses.
+		if("(".equals(context.getChild(0).getText())) {
+			return buildExpression((ParserRuleContext) context.getChild(1), scope);
+		}
+
+		// A class literal.
+		else if("class".equals(context.getChild(context.getChildCount() - 1).getText())) {
+			String typeText = context.getText().substring(0, context.getText().length() - ".class".length());
+			Class<?> literalClass = "void".equals(typeText) ? void.class : JavaTypes.getErasure(names.parseType(typeText));
+			Class<?> typeArgument = void.class.equals(literalClass) ? Void.class : literalClass.isPrimitive() ? JavaTypes.getBoxedType(literalClass) : literalClass;
+
+			return new JavaTypedNode(frame -> literalClass, JavaTypes.getParameterizedType(Class.class, typeArgument));
+		}
+
+		// This, which is the statement class.
+		throw new UnsupportedEvaluationException("expression " + context.getText());
+	}
+
+	/**
+	 * Method to build an assignment, simple or compound. A compound assignment works like <code>x = (T) (x op y)</code>, with
+	 * <code>x</code> only worked out once.
+	 *
+	 * @param assignment -- the assignment.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the assignment, whose value is what was assigned.
+	 */
+	private JavaTypedNode buildAssignment(AssignmentContext assignment, JavaScope scope) {
+		JavaVariable variable = requireAssignable(buildVariable(assignment.leftHandSide(), null, scope), assignment);
+		Type variableType = variable.getType();
+		String assignmentOperator = assignment.assignmentOperator().getText();
+
+		// A simple assignment.
+		if("=".equals(assignmentOperator)) {
+			JavaNode value = assign(buildExpression(assignment.expression(), scope, variableType), variableType).getNode();
+
+			return new JavaTypedNode(frame -> {
+				Object location = variable.locate(frame);
+				Object assigned = value.execute(frame);
+
+				variable.set(frame, location, assigned);
+				return assigned;
+			}, variableType);
+		}
+
+		// A compound one.
+		JavaTypedNode value = buildExpression(assignment.expression(), scope);
+		TypedOperator typedOperator = getBinaryOperator(assignmentOperator.substring(0, assignmentOperator.length() - 1), variableType, value.getType());
+		UnaryOperator<Object> conversion;
+
+		// The cast back to the variable's type.
+		if(JavaTypes.isPrimitive(variableType) && JavaTypes.isPrimitive(typedOperator.type) && JavaTypes.isBoolean(variableType) == JavaTypes.isBoolean(typedOperator.type)) {
+			conversion = result -> JavaOperators.convert(result, (Class<?>) variableType);
+		}
+
+		else if(variableType.equals(typedOperator.type) || (JavaTypes.isPrimitive(typedOperator.type) && typedOperator.type.equals(JavaTypes.getUnboxedType(variableType)))) {
+			conversion = UnaryOperator.identity();
+		}
+
+		else {
+			throw new UnsupportedEvaluationException("compound assignment " + assignment.getText());
+		}
+
+		Operator operator = typedOperator.operator;
+		JavaNode valueNode = value.getNode();
+
+		return new JavaTypedNode(frame -> {
+			Object location = variable.locate(frame);
+			Object current = variable.get(frame, location);
+			Object assigned = conversion.apply(operator.apply(current, valueNode.execute(frame)));
+
+			variable.set(frame, location, assigned);
+			return assigned;
+		}, variableType);
+	}
+
+	/**
+	 * Method to build an increment or decrement, before or after.
+	 *
+	 * @param variableContext -- the variable.
+	 * @param incrementOperator -- <code>++</code> or <code>--</code>.
+	 * @param before -- TRUE if the new value is given back, FALSE for the old one.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildIncrement(ParserRuleContext variableContext, String incrementOperator, boolean before, JavaScope scope) {
+		JavaVariable variable = requireAssignable(buildVariable(variableContext, null, scope), variableContext);
+		Class<?> primitiveType = JavaTypes.getUnboxedType(variable.getType());
+
+		if(!JavaOperators.isNumeric(primitiveType)) {
+			throw new UnsupportedEvaluationException("bad operand for " + incrementOperator + " " + variable.getType().getTypeName());
+		}
+
+		String operator = "++".equals(incrementOperator) ? "+" : "-";
+		Class<?> promotedType = JavaOperators.getPromotedType(primitiveType);
+
+		return new JavaTypedNode(frame -> {
+			Object location = variable.locate(frame);
+			Object current = variable.get(frame, location);
+			Object updated = JavaOperators.convert(JavaOperators.arithmetic(operator, promotedType, current, 1), primitiveType);
+
+			variable.set(frame, location, updated);
+			return before ? updated : current;
+		}, variable.getType());
+	}
+
+	/**
+	 * Method to build a conditional, <code>a ? b : c</code>. The type it has follows the compiler's rules for mixing primitives,
+	 * wrappers and nulls.
+	 *
+	 * @param context -- the conditional.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildConditional(ParserRuleContext context, JavaScope scope) {
+		JavaTypedNode condition = buildCondition((ParserRuleContext) context.getChild(0), scope);
+		JavaTypedNode second = buildExpression((ParserRuleContext) context.getChild(2), scope);
+		JavaTypedNode third = buildExpression((ParserRuleContext) context.getChild(4), scope);
+
+		Type type = getConditionalType(second, third);
+		JavaNode conditionNode = condition.getNode();
+		JavaNode secondNode = convert(second, type);
+		JavaNode thirdNode = convert(third, type);
+
+		return fold(new JavaTypedNode(frame -> (Boolean) conditionNode.execute(frame) ? secondNode.execute(frame) : thirdNode.execute(frame), type), condition, second, third);
+	}
+
+	/**
+	 * Method to build <code>&amp;&amp;</code> or <code>||</code>, which only look at the right side if they need to.
+	 *
+	 * @param context -- the expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildShortCircuit(ParserRuleContext context, JavaScope scope) {
+		JavaTypedNode left = buildCondition((ParserRuleContext) context.getChild(0), scope);
+		JavaTypedNode right = buildCondition((ParserRuleContext) context.getChild(2), scope);
+
+		JavaNode leftNode = left.getNode();
+		JavaNode rightNode = right.getNode();
+
+		if("&&".equals(context.getChild(1).getText())) {
+			return fold(new JavaTypedNode(frame -> (Boolean) leftNode.execute(frame) ? rightNode.execute(frame) : Boolean.FALSE, boolean.class), left, right);
+		}
+
+		return fold(new JavaTypedNode(frame -> (Boolean) leftNode.execute(frame) ? Boolean.TRUE : rightNode.execute(frame), boolean.class), left, right);
+	}
+
+	/**
+	 * Method to build a binary operator, picked on the static types of both sides.
+	 *
+	 * @param context -- the expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildBinary(ParserRuleContext context, JavaScope scope) {
+		JavaTypedNode left = buildExpression((ParserRuleContext) context.getChild(0), scope);
+		JavaTypedNode right = buildExpression((ParserRuleContext) context.getChild(context.getChildCount() - 1), scope);
+
+		// Shifts come through as separate tokens, like '<' '<'.
+		StringBuilder operatorText = new StringBuilder();
+
+		for(int childIndex = 1; childIndex < context.getChildCount() - 1; childIndex++) {
+			operatorText.append(context.getChild(childIndex).getText());
+		}
+
+		TypedOperator typedOperator = getBinaryOperator(operatorText.toString(), left.getType(), right.getType());
+		Operator operator = typedOperator.operator;
+		JavaNode leftNode = left.getNode();
+		JavaNode rightNode = right.getNode();
+
+		return fold(new JavaTypedNode(frame -> operator.apply(leftNode.execute(frame), rightNode.execute(frame)), typedOperator.type), left, right);
+	}
+
+	/**
+	 * Method to build a unary operator -- <code>+</code>, <code>-</code>, <code>~</code> or <code>!</code>.
+	 *
+	 * @param context -- the expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildUnary(ParserRuleContext context, JavaScope scope) {
+		String operator = context.getChild(0).getText();
+		JavaTypedNode operand = buildExpression((ParserRuleContext) context.getChild(1), scope);
+		Class<?> primitiveType = JavaTypes.getUnboxedType(operand.getType());
+
+		boolean fits = "!".equals(operator) ? boolean.class.equals(primitiveType) : "~".equals(operator) ? JavaOperators.isIntegral(primitiveType) : JavaOperators.isNumeric(primitiveType);
+
+		if(!fits) {
+			throw new UnsupportedEvaluationException("bad operand for " + operator + " " + operand.getType().getTypeName());
+		}
+
+		Class<?> promotedType = "!".equals(operator) ? boolean.class : JavaOperators.getPromotedType(primitiveType);
+		JavaNode operandNode = operand.getNode();
+
+		return fold(new JavaTypedNode(frame -> JavaOperators.unary(operator, promotedType, JavaVariable.requireNonNull(operandNode.execute(frame))), promotedType), operand);
+	}
+
+	/**
+	 * Method to build a cast, to a primitive or a reference type.
+	 *
+	 * @param cast -- the cast.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildCast(CastExpressionContext cast, JavaScope scope) {
+
+		if(cast.lambdaExpression() != null || !cast.additionalBound().isEmpty()) {
+			throw new UnsupportedEvaluationException("cast " + cast.getText());
+		}
+
+		// To a primitive.
+		if(cast.primitiveType() != null) {
+			Class<?> targetType = JavaNames.getPrimitiveType(cast.primitiveType().getText());
+			JavaTypedNode operand = buildExpression(cast.unaryExpression(), scope);
+			Type sourceType = operand.getType();
+			Class<?> sourcePrimitive = JavaTypes.getUnboxedType(sourceType);
+			JavaNode operandNode = operand.getNode();
+
+			if(targetType == null) {
+				throw new UnsupportedEvaluationException("cast " + cast.getText());
+			}
+
+			// Between primitives, numbers to numbers and booleans to booleans.
+			else if(JavaTypes.isPrimitive(sourceType) && JavaOperators.isNumeric(sourcePrimitive) == JavaOperators.isNumeric(targetType)) {
+				return fold(new JavaTypedNode(frame -> JavaOperators.convert(operandNode.execute(frame), targetType), targetType), operand);
+			}
+
+			// Unboxing, then widening.
+			else if(sourcePrimitive != null && !JavaTypes.isPrimitive(sourceType) && (sourcePrimitive.equals(targetType) || JavaTypes.isWidening(sourcePrimitive, targetType))) {
+				return new JavaTypedNode(frame -> JavaOperators.convert(JavaVariable.requireNonNull(operandNode.execute(frame)), targetType), targetType);
+			}
+
+			// Checking for the wrapper first, like (int) anObject.
+			else if(sourcePrimitive == null && JavaTypes.isReference(sourceType) && !JavaTypes.NULL_TYPE.equals(sourceType) && JavaTypes.isCastable(sourceType, JavaTypes.getBoxedType(targetType))) {
+				Class<?> boxedType = JavaTypes.getBoxedType(targetType);
+				return new JavaTypedNode(frame -> boxedType.cast(JavaVariable.requireNonNull(operandNode.execute(frame))), targetType);
+			}
+
+			throw new UnsupportedEvaluationException("cast " + sourceType.getTypeName() + " to " + targetType.getName());
+		}
+
+		// To a reference type.
+		Type targetType = names.parseType(cast.referenceType().getText());
+		JavaTypedNode operand = buildExpression(cast.unaryExpressionNotPlusMinus(), scope);
+		Type sourceType = operand.getType();
+		JavaNode operandNode = operand.getNode();
+
+		// Boxing, then widening, like (Object) 5.
+		if(JavaTypes.isPrimitive(sourceType)) {
+
+			if(!JavaTypes.isSubtype(JavaTypes.getBoxedType((Class<?>) sourceType), targetType)) {
+				throw new UnsupportedEvaluationException("cast " + sourceType.getTypeName() + " to " + targetType.getTypeName());
+			}
+
+			return new JavaTypedNode(convert(operand, targetType), targetType);
+		}
+
+		else if(JavaTypes.isVoid(sourceType) || !JavaTypes.isCastable(sourceType, targetType)) {
+			throw new UnsupportedEvaluationException("cast " + sourceType.getTypeName() + " to " + targetType.getTypeName());
+		}
+
+		// Only the class can be checked.
+		Class<?> targetClass = JavaTypes.getErasure(targetType);
+
+		return fold(new JavaTypedNode(frame -> {
+			Object value = operandNode.execute(frame);
+
+			if(value != null && !targetClass.isInstance(value)) {
+				throw new ClassCastException(value.getClass().getName() + " cannot be cast to " + targetClass.getName());
+			}
+
+			return value;
+		}, targetType), operand);
+	}
+
+	/**
+	 * Method to build an instanceof. The type has to be one that can be checked at runtime.
+	 *
+	 * @param relational -- the expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildInstanceof(RelationalExpressionContext relational, JavaScope scope) {
+		JavaTypedNode operand = buildExpression(relational.relationalExpression(), scope);
+		Type targetType = names.parseType(relational.referenceType().getText());
+
+		if(!isReifiable(targetType) || !JavaTypes.isReference(operand.getType()) || (!JavaTypes.NULL_TYPE.equals(operand.getType()) && !JavaTypes.isCastable(operand.getType(), targetType))) {
+			throw new UnsupportedEvaluationException("instanceof " + relational.getText());
+		}
+
+		Class<?> targetClass = JavaTypes.getErasure(targetType);
+		JavaNode operandNode = operand.getNode();
+
+		return new JavaTypedNode(frame -> targetClass.isInstance(operandNode.execute(frame)), boolean.class);
+	}
+
+	/**
+	 * Method to build a method call -- one of the user's methods, a static method on a type, or a method on an object.
+	 *
+	 * @param context -- the method call.
+	 * @param prefix -- the object, for a call that's a suffix on a primary expression.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the call.
+	 */
+	private JavaTypedNode buildMethodInvocation(ParserRuleContext context, JavaTypedNode prefix, JavaScope scope) {
+
+		// No super calls, or type arguments to infer around.
+		if(context.getToken(Java8Parser.SUPER, 0) != null || context.getRuleContext(TypeArgumentsContext.class, 0) != null) {
+			throw new UnsupportedEvaluationException("method call " + context.getText());
+		}
+
+		List<JavaTypedNode> arguments = buildArguments(context.getRuleContext(ArgumentListContext.class, 0), scope);
+		ParseTree firstChild = context.getChild(0);
+
+		// One of the user's methods.
+		if(firstChild instanceof MethodNameContext) {
+			String methodName = firstChild.getText();
+			names.checkSimpleName(methodName);
+
+			// One the interpreter is running, which might be the one being built.
+			TieredMethod tieredMethod = declaringMethod != null && declaringMethod.getName().equals(methodName) ? declaringMethod : JavaMethodTiers.getInstance().get(names.findMethodAction(methodName));
+
+			if(tieredMethod != null) {
+				return buildTieredCall(tieredMethod, arguments);
+			}
+
+			List<Method> methods = names.findMethods(methodName);
+
+			if(methods == null) {
+				throw new UnsupportedEvaluationException("cannot find method " + methodName);
+			}
+
+			Invocation invocation = JavaMembers.findMethod(methods, methodName, arguments, scope);
+			Method method = (Method) invocation.getExecutable();
+
+			return buildCall(null, invocation, JavaMembers.getInvoker(method, method.getDeclaringClass()), arguments);
+		}
+
+		String methodName = context.getToken(Java8Parser.Identifier, context.getTokens(Java8Parser.Identifier).size() - 1).getText();
+		JavaTypedNode target = prefix;
+
+		// A name, which is either a type or a variable.
+		if(firstChild instanceof TypeNameContext || firstChild instanceof ExpressionNameContext) {
+			Meaning meaning = resolveName(firstChild.getText(), scope);
+
+			if(meaning.type != null) {
+				Invocation invocation = JavaMembers.findMethod(meaning.type, methodName, arguments, scope);
+				Method method = (Method) invocation.getExecutable();
+
+				if(!Modifier.isStatic(method.getModifiers())) {
+					throw new UnsupportedEvaluationException("non-static method " + methodName);
+				}
+
+				return buildCall(null, invocation, JavaMembers.getInvoker(method, meaning.type), arguments);
+			}
+
+			target = valueOf(meaning, firstChild.getText());
+		}
+
+		// A primary expression.
+		else if(target == null) {
+			target = buildExpression((ParserRuleContext) firstChild, scope);
+		}
+
+		requireValue(target);
+
+		// An array only has clone of its own.
+		if(JavaTypes.isArray(target.getType())) {
+
+			if(!"clone".equals(methodName) || !arguments.isEmpty()) {
+				throw new UnsupportedEvaluationException("method " + methodName + " on an array");
+			}
+
+			JavaNode arrayNode = target.getNode();
+
+			return new JavaTypedNode(frame -> {
+				Object array = JavaVariable.requireNonNull(arrayNode.execute(frame));
+				Object copy = Array.newInstance(array.getClass().getComponentType(), Array.getLength(array));
+
+				System.arraycopy(array, 0, copy, 0, Array.getLength(array));
+				return copy;
+			}, target.getType());
+		}
+
+		Invocation invocation = JavaMembers.findMethod(target.getType(), methodName, arguments, scope);
+		Method method = (Method) invocation.getExecutable();
+
+		if(Modifier.isStatic(method.getModifiers())) {
+			throw new UnsupportedEvaluationException("static method " + methodName + " on an object");
+		}
+
+		return buildCall(target.getNode(), invocation, JavaMembers.getInvoker(method, JavaTypes.getErasure(target.getType())), arguments);
+	}
+
+	/**
+	 * Method to build a <code>new</code>. A diamond needs the type the value is going into.
+	 *
+	 * @param context -- the class instance creation.
+	 * @param targetType -- the type the value is going into, NULL if there isn't one.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildCreation(ParserRuleContext context, Type targetType, JavaScope scope) {
+
+		// No inner classes, anonymous classes, annotations or constructor type arguments.
+		if(!"new".equals(context.getChild(0).getText()) || context.getRuleContext(ClassBodyContext.class, 0) != null || context.getRuleContext(AnnotationContext.class, 0) != null
+				|| context.getRuleContext(TypeArgumentsContext.class, 0) != null) {
+			throw new UnsupportedEvaluationException("new " + context.getText());
+		}
+
+		StringBuilder typeName = new StringBuilder();
+		context.getTokens(Java8Parser.Identifier).forEach( identifier -> typeName.append(typeName.length() > 0 ? "." : "").append(identifier.getText()) );
+
+		// The type, with the diamond worked out from where it's going.
+		TypeArgumentsOrDiamondContext typeArguments = context.getRuleContext(TypeArgumentsOrDiamondContext.class, 0);
+		Type type;
+
+		if(typeArguments != null && typeArguments.typeArguments() == null) {
+			type = inferDiamond(JavaTypes.getErasure(names.parseType(typeName.toString())), targetType);
+		}
+
+		else {
+			type = names.parseType(typeName + (typeArguments != null ? typeArguments.getText() : ""));
+		}
+
+		if(type instanceof ParameterizedType && Arrays.stream(((ParameterizedType) type).getActualTypeArguments()).anyMatch( typeArgument -> typeArgument instanceof WildcardType )) {
+			throw new UnsupportedEvaluationException("new " + type.getTypeName());
+		}
+
+		List<JavaTypedNode> arguments = buildArguments(context.getRuleContext(ArgumentListContext.class, 0), scope);
+		Invocation invocation = JavaMembers.findConstructor(type, arguments, scope);
+
+		return buildCall(null, invocation, JavaMembers.getInvoker((Constructor<?>) invocation.getExecutable()), arguments);
+	}
+
+	/**
+	 * Method to work out the type arguments of a diamond from the type it's going into, like <code>HashMap&lt;String, Integer&gt;</code>
+	 * for a <code>Map&lt;String, Integer&gt;</code>. Each type argument has to come straight from the target.
+	 *
+	 * @param rawType -- the class being made.
+	 * @param targetType -- the type it's going into.
+	 * @return Type -- the parameterized type.
+	 */
+	private static Type inferDiamond(Class<?> rawType, Type targetType) {
+
+		if(!(targetType instanceof ParameterizedType) || rawType.getTypeParameters().length == 0) {
+			throw new UnsupportedEvaluationException("diamond for " + rawType.getName());
+		}
+
+		// How the target's type parameters are filled in by the class's own.
+		Map<TypeVariable<?>, Type> targetArguments = JavaTypes.getTypeArguments(JavaTypes.getParameterizedType(rawType, rawType.getTypeParameters()), JavaTypes.getErasure(targetType));
+		TypeVariable<?>[] targetParameters = JavaTypes.getErasure(targetType).getTypeParameters();
+		Type[] actualArguments = ((ParameterizedType) targetType).getActualTypeArguments();
+
+		if(targetArguments == null) {
+			throw new UnsupportedEvaluationException("diamond for " + rawType.getName());
+		}
+
+		Map<TypeVariable<?>, Type> inferred = new HashMap<TypeVariable<?>, Type>();
+
+		for(int parameterIndex = 0; parameterIndex < targetParameters.length; parameterIndex++) {
+			Type targetArgument = targetArguments.get(targetParameters[parameterIndex]);
+			Type actualArgument = actualArguments[parameterIndex];
+
+			if(actualArgument instanceof WildcardType) {
+				throw new UnsupportedEvaluationException("diamond for " + targetType.getTypeName());
+			}
+
+			else if(targetArgument instanceof TypeVariable && rawType.equals(((TypeVariable<?>) targetArgument).getGenericDeclaration())) {
+				Type previous = inferred.put((TypeVariable<?>) targetArgument, actualArgument);
+
+				if(previous != null && !previous.equals(actualArgument)) {
+					throw new UnsupportedEvaluationException("diamond for " + targetType.getTypeName());
+				}
+			}
+
+			else if(!actualArgument.equals(targetArgument)) {
+				throw new UnsupportedEvaluationException("diamond for " + targetType.getTypeName());
+			}
+		}
+
+		// Every type parameter needs a type argument, and no bounds to check it against.
+		Type[] typeArguments = new Type[rawType.getTypeParameters().length];
+
+		for(int parameterIndex = 0; parameterIndex < typeArguments.length; parameterIndex++) {
+			TypeVariable<?> typeParameter = rawType.getTypeParameters()[parameterIndex];
+
+			if(!inferred.containsKey(typeParameter) || !Arrays.asList(typeParameter.getBounds()).equals(Arrays.asList(Object.class))) {
+				throw new UnsupportedEvaluationException("diamond for " + rawType.getName());
+			}
+
+			typeArguments[parameterIndex] = inferred.get(typeParameter);
+		}
+
+		return JavaTypes.getParameterizedType(rawType, typeArguments);
+	}
+
+	/**
+	 * Method to build an array creation, with dimensions or an initializer.
+	 *
+	 * @param arrayCreation -- the array creation.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildArrayCreation(ArrayCreationExpressionContext arrayCreation, JavaScope scope) {
+
+		if(arrayCreation.getText().contains("@")) {
+			throw new UnsupportedEvaluationException("annotated array " + arrayCreation.getText());
+		}
+
+		Type elementType = arrayCreation.primitiveType() != null ? JavaNames.getPrimitiveType(arrayCreation.primitiveType().getText()) : names.parseType(arrayCreation.classOrInterfaceType().getText());
+
+		// No arrays of generic types.
+		if(!(elementType instanceof Class)) {
+			throw new UnsupportedEvaluationException("generic array creation " + arrayCreation.getText());
+		}
+
+		Type componentType = addDimensions(elementType, arrayCreation.dims());
+
+		if(arrayCreation.arrayInitializer() != null) {
+			return buildArrayInitializer(arrayCreation.arrayInitializer(), componentType, scope);
+		}
+
+		// The dimensions that are given, each an int.
+		List<JavaNode> dimensions = new ArrayList<JavaNode>();
+
+		for(DimExprContext dimension : arrayCreation.dimExprs().dimExpr()) {
+			dimensions.add(buildIndex(dimension.expression(), scope));
+			componentType = JavaTypes.getArrayType(componentType);
+		}
+
+		Class<?> componentClass = JavaTypes.getErasure(addDimensions(elementType, arrayCreation.dims()));
+		JavaNode[] dimensionNodes = dimensions.toArray(new JavaNode[dimensions.size()]);
+
+		return new JavaTypedNode(frame -> {
+			int[] lengths = new int[dimensionNodes.length];
+
+			for(int dimensionIndex = 0; dimensionIndex < lengths.length; dimensionIndex++) {
+				lengths[dimensionIndex] = (Integer) dimensionNodes[dimensionIndex].execute(frame);
+			}
+
+			return Array.newInstance(componentClass, lengths);
+		}, componentType);
+	}
+
+	/**
+	 * Method to build an array initializer, like <code>{1, 2, 3}</code>, for an array of a known type.
+	 *
+	 * @param arrayInitializer -- the initializer.
+	 * @param arrayType -- the type of the array.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the expression.
+	 */
+	private JavaTypedNode buildArrayInitializer(ArrayInitializerContext arrayInitializer, Type arrayType, JavaScope scope) {
+		Type componentType = JavaTypes.getComponentType(arrayType);
+
+		if(!(componentType instanceof Class)) {
+			throw new UnsupportedEvaluationException("array initializer for " + arrayType.getTypeName());
+		}
+
+		List<JavaNode> elements = new ArrayList<JavaNode>();
+
+		if(arrayInitializer.variableInitializerList() != null) {
+
+			for(VariableInitializerContext element : arrayInitializer.variableInitializerList().variableInitializer()) {
+				elements.add(buildInitializer(element, componentType, scope).getNode());
+			}
+		}
+
+		Class<?> componentClass = (Class<?>) componentType;
+		JavaNode[] elementNodes = elements.toArray(new JavaNode[elements.size()]);
+
+		return new JavaTypedNode(frame -> {
+			Object array = Array.newInstance(componentClass, elementNodes.length);
+
+			for(int elementIndex = 0; elementIndex < elementNodes.length; elementIndex++) {
+				Array.set(array, elementIndex, elementNodes[elementIndex].execute(frame));
+			}
+
+			return array;
+		}, arrayType);
+	}
+
+	/**
+	 * Method to build the value of a variable, or an array, converted to its type.
+	 *
+	 * @param initializer -- the initializer.
+	 * @param type -- the type of the variable.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the value, a constant if the initializer is one.
+	 */
+	private JavaTypedNode buildInitializer(VariableInitializerContext initializer, Type type, JavaScope scope) {
+
+		if(initializer.arrayInitializer() != null) {
+			return buildArrayInitializer(initializer.arrayInitializer(), type, scope);
+		}
+
+		return assign(buildExpression(initializer.expression(), scope, type), type);
+	}
+
+	/**
+	 * Method to build the arguments of a call.
+	 *
+	 * @param argumentList -- the arguments, NULL for none.
+	 * @param scope -- the local variables.
+	 * @return List -- the arguments.
+	 */
+	private List<JavaTypedNode> buildArguments(ArgumentListContext argumentList, JavaScope scope) {
+		List<JavaTypedNode> arguments = new ArrayList<JavaTypedNode>();
+
+		if(argumentList != null) {
+			argumentList.expression().forEach( argument -> arguments.add(buildExpression(argument, scope)) );
+		}
+
+		return arguments;
+	}
+
+	/**
+	 * Method to build a call to a method or constructor that's been picked. The object is worked out first, then the arguments, and
+	 * then the object is checked for null -- the same order as Java.
+	 *
+	 * @param target -- the object, NULL for a static method or a constructor.
+	 * @param invocation -- the method or constructor.
+	 * @param invoker -- the call.
+	 * @param arguments -- the arguments.
+	 * @return {@link JavaTypedNode} -- the call.
+	 */
+	private static JavaTypedNode buildCall(JavaNode target, Invocation invocation, Invoker invoker, List<JavaTypedNode> arguments) {
+		JavaNode[] argumentNodes = new JavaNode[arguments.size()];
+
+		for(int argumentIndex = 0; argumentIndex < argumentNodes.length; argumentIndex++) {
+			argumentNodes[argumentIndex] = convert(arguments.get(argumentIndex), invocation.getArgumentType(argumentIndex));
+		}
+
+		// The rest of the arguments go into an array for varargs.
+		boolean varargs = invocation.isVarargs();
+		int fixedCount = varargs ? invocation.getParameterTypes().length - 1 : argumentNodes.length;
+		Class<?> varargsClass = varargs ? JavaTypes.getErasure(JavaTypes.getComponentType(invocation.getParameterTypes()[fixedCount])) : null;
+
+		return new JavaTypedNode(frame -> {
+			Object targetValue = target != null ? target.execute(frame) : null;
+			Object[] argumentValues = new Object[varargs ? fixedCount + 1 : fixedCount];
+
+			for(int argumentIndex = 0; argumentIndex < fixedCount; argumentIndex++) {
+				argumentValues[argumentIndex] = argumentNodes[argumentIndex].execute(frame);
+			}
+
+			if(varargs) {
+				Object varargsArray = Array.newInstance(varargsClass, argumentNodes.length - fixedCount);
+
+				for(int argumentIndex = fixedCount; argumentIndex < argumentNodes.length; argumentIndex++) {
+					Array.set(varargsArray, argumentIndex - fixedCount, argumentNodes[argumentIndex].execute(frame));
+				}
+
+				argumentValues[fixedCount] = varargsArray;
+			}
+
+			if(target != null) {
+				JavaVariable.requireNonNull(targetValue);
+			}
+
+			return invoker.invoke(targetValue, argumentValues);
+		}, invocation.getReturnType());
+	}
+
+	/**
+	 * Method to build a call to one of the user's methods that the interpreter is running. There's only ever one method by a name,
+	 * so it only has to fit.
+	 *
+	 * @param tieredMethod -- the method.
+	 * @param arguments -- the arguments.
+	 * @return {@link JavaTypedNode} -- the call.
+	 */
+	private static JavaTypedNode buildTieredCall(TieredMethod tieredMethod, List<JavaTypedNode> arguments) {
+		Type[] parameterTypes = tieredMethod.getParameterTypes();
+
+		if(arguments.size() != parameterTypes.length) {
+			throw new UnsupportedEvaluationException("method " + tieredMethod.getName() + " cannot be applied to " + arguments.size() + " arguments");
+		}
+
+		// No narrowing of constants, the way there is in an assignment.
+		JavaNode[] argumentNodes = new JavaNode[parameterTypes.length];
+
+		for(int argumentIndex = 0; argumentIndex < argumentNodes.length; argumentIndex++) {
+			JavaTypedNode argument = arguments.get(argumentIndex);
+
+			if(!JavaTypes.isAssignable(argument.getType(), null, parameterTypes[argumentIndex], true)) {
+				throw new UnsupportedEvaluationException("method " + tieredMethod.getName() + " cannot be applied to " + argument.getType().getTypeName());
+			}
+
+			argumentNodes[argumentIndex] = convert(argument, parameterTypes[argumentIndex]);
+		}
+
+		return new JavaTypedNode(frame -> {
+			Object[] argumentValues = new Object[argumentNodes.length];
+
+			for(int argumentIndex = 0; argumentIndex < argumentValues.length; argumentIndex++) {
+				argumentValues[argumentIndex] = argumentNodes[argumentIndex].execute(frame);
+			}
+
+			return tieredMethod.invoke(argumentValues);
+		}, tieredMethod.getReturnType());
+	}
+
+	/**
+	 * Method to build something that can be assigned to -- a name, a field or an array element.
+	 *
+	 * @param variableContext -- the variable.
+	 * @param prefix -- the primary expression a suffix goes on, NULL for anything else.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaVariable} -- the variable.
+	 */
+	private JavaVariable buildVariable(ParserRuleContext variableContext, JavaTypedNode prefix, JavaScope scope) {
+		ParserRuleContext context = unwrap(variableContext);
+
+		switch(context.getRuleIndex()) {
+
+			case Java8Parser.RULE_expressionName: {
+				Meaning meaning = resolveName(context.getText(), scope);
+
+				if(meaning.variable == null) {
+					throw new UnsupportedEvaluationException("not a variable " + context.getText());
+				}
+
+				return meaning.variable;
+			}
+
+			case Java8Parser.RULE_fieldAccess:
+			case Java8Parser.RULE_fieldAccess_lf_primary: {
+				String fieldName = context.getToken(Java8Parser.Identifier, 0).getText();
+
+				if(context.getToken(Java8Parser.SUPER, 0) != null) {
+					throw new UnsupportedEvaluationException("super field " + fieldName);
+				}
+
+				return getFieldVariable(prefix != null ? prefix : buildExpression((ParserRuleContext) context.getChild(0), scope), fieldName);
+			}
+
+			case Java8Parser.RULE_arrayAccess:
+			case Java8Parser.RULE_arrayAccess_lf_primary:
+			case Java8Parser.RULE_arrayAccess_lfno_primary: {
+				return buildArrayAccess(context, prefix, scope);
+			}
+
+			// The last suffix of a primary expression.
+			case Java8Parser.RULE_primary: {
+				JavaTypedNode primary = build((ParserRuleContext) context.getChild(0), null, scope);
+
+				for(int childIndex = 1; childIndex < context.getChildCount() - 1; childIndex++) {
+					primary = build((ParserRuleContext) context.getChild(childIndex), primary, scope);
+				}
+
+				return buildVariable((ParserRuleContext) context.getChild(context.getChildCount() - 1), primary, scope);
+			}
+
+			// A variable in parentheses.
+			case Java8Parser.RULE_primaryNoNewArray:
+			case Java8Parser.RULE_primaryNoNewArray_lfno_arrayAccess:
+			case Java8Parser.RULE_primaryNoNewArray_lfno_primary:
+			case Java8Parser.RULE_primaryNoNewArray_lfno_primary_lfno_arrayAccess_lfno_primary: {
+
+				if("(".equals(context.getChild(0).getText())) {
+					return buildVariable((ParserRuleContext) context.getChild(1), null, scope);
+				}
+
+				throw new UnsupportedEvaluationException("not a variable " + context.getText());
+			}
+
+			default: {
+				throw new UnsupportedEvaluationException("not a variable " + context.getText());
+			}
+		}
+	}
+
+	/**
+	 * Method to build an array element, like <code>grid[i][j]</code>. All but the last index give arrays.
+	 *
+	 * @param context -- the array access.
+	 * @param prefix -- the primary expression a suffix goes on, NULL for anything else.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaVariable} -- the element.
+	 */
+	private JavaVariable buildArrayAccess(ParserRuleContext context, JavaTypedNode prefix, JavaScope scope) {
+		ParseTree arrayContext = context.getChild(0);
+		JavaTypedNode array = arrayContext instanceof ExpressionNameContext ? buildName(arrayContext.getText(), scope) : build((ParserRuleContext) arrayContext, prefix, scope);
+		JavaVariable element = null;
+
+		for(ExpressionContext indexContext : context.getRuleContexts(ExpressionContext.class)) {
+
+			if(element != null) {
+				array = valueOf(element);
+			}
+
+			Type componentType = JavaTypes.getComponentType(array.getType());
+
+			if(componentType == null) {
+				throw new UnsupportedEvaluationException("array required " + array.getType().getTypeName());
+			}
+
+			element = JavaVariable.arrayElement(array.getNode(), buildIndex(indexContext, scope), componentType);
+		}
+
+		return element;
+	}
+
+	/**
+	 * Method to build an array index or dimension, which has to promote to an int.
+	 *
+	 * @param indexContext -- the index.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaNode} -- the index, as an int.
+	 */
+	private JavaNode buildIndex(ParserRuleContext indexContext, JavaScope scope) {
+		JavaTypedNode index = buildExpression(indexContext, scope);
+		Class<?> primitiveType = JavaTypes.getUnboxedType(index.getType());
+
+		if(!JavaOperators.isIntegral(primitiveType) || !int.class.equals(JavaOperators.getPromotedType(primitiveType))) {
+			throw new UnsupportedEvaluationException("index " + index.getType().getTypeName());
+		}
+
+		return convert(index, int.class);
+	}
+
+	/**
+	 * Method to resolve a name the way the compiler does -- a local variable, then one of the user's variables, then a type, and
+	 * otherwise a package. Anything after the first part is a field, a member type, or a type in the package.
+	 *
+	 * @param name -- the name, like <code>System.out</code>.
+	 * @param scope -- the local variables.
+	 * @return {@link Meaning} -- what the name means.
+	 */
+	private Meaning resolveName(String name, JavaScope scope) {
+		List<String> nameParts = Arrays.asList(name.split("\\."));
+		String firstName = nameParts.get(0);
+		Meaning meaning = new Meaning();
+
+		// The first part.
+		Local local = scope.find(firstName);
+
+		if(local != null) {
+
+			if(!local.isInitialized()) {
+				throw new UnsupportedEvaluationException("variable " + firstName + " might not have been initialized");
+			}
+
+			meaning.variable = JavaVariable.local(local.getSlot(), local.getType(), local.isFinal());
+			meaning.constantValue = local.getConstantValue();
+		}
+
+		else {
+			names.checkSimpleName(firstName);
+			Field field = names.findField(firstName);
+
+			if(field != null) {
+				meaning = getStaticField(field);
+			}
+
+			else if((meaning.type = names.findSimpleType(firstName)) == null) {
+				meaning.packageName = firstName;
+			}
+		}
+
+		// The rest of it.
+		for(int partIndex = 1; partIndex < nameParts.size(); partIndex++) {
+			String namePart = nameParts.get(partIndex);
+			Meaning partMeaning = new Meaning();
+
+			if(meaning.packageName != null) {
+
+				if((partMeaning.type = names.findType(nameParts.subList(0, partIndex + 1))) == null) {
+					partMeaning.packageName = meaning.packageName + "." + namePart;
+				}
+			}
+
+			else if(meaning.type != null) {
+				Field field = JavaMembers.findField(meaning.type, namePart);
+
+				if(field != null && !Modifier.isStatic(field.getModifiers())) {
+					throw new UnsupportedEvaluationException("non-static variable " + namePart);
+				}
+
+				else if(field != null) {
+					partMeaning = getStaticField(field);
+				}
+
+				else if((partMeaning.type = names.findType(nameParts.subList(0, partIndex + 1))) == null) {
+					throw new UnsupportedEvaluationException("cannot find symbol " + namePart);
+				}
+			}
+
+			else {
+				partMeaning.variable = getFieldVariable(valueOf(meaning, namePart), namePart);
+			}
+
+			meaning = partMeaning;
+		}
+
+		return meaning;
+	}
+
+	/**
+	 * Method to get what a static field means. A final one of a JDK class that's a primitive or a String is a constant, like
+	 * <code>Integer.MAX_VALUE</code>.
+	 *
+	 * @param field -- the field.
+	 * @return {@link Meaning} -- the variable.
+	 */
+	private static Meaning getStaticField(Field field) {
+		Meaning meaning = new Meaning();
+		meaning.variable = JavaVariable.staticField(field, field.getGenericType());
+
+		if(Modifier.isFinal(field.getModifiers()) && (field.getType().isPrimitive() || String.class.equals(field.getType())) && !JavaMembers.isGenerated(field.getDeclaringClass())) {
+
+			try {
+				meaning.constantValue = field.get(null);
+			}
+
+			catch(IllegalAccessException e) {
+				throw new UnsupportedEvaluationException("field " + field.getName() + " not accessible");
+			}
+		}
+
+		return meaning;
+	}
+
+	/**
+	 * Method to get a field of an object, or the length of an array.
+	 *
+	 * @param target -- the object.
+	 * @param fieldName -- the field name.
+	 * @return {@link JavaVariable} -- the field.
+	 */
+	private static JavaVariable getFieldVariable(JavaTypedNode target, String fieldName) {
+		Type targetType = target.getType();
+
+		if(JavaTypes.isArray(targetType) && "length".equals(fieldName)) {
+			return JavaVariable.arrayLength(target.getNode());
+		}
+
+		else if(!JavaTypes.isReference(targetType) || JavaTypes.NULL_TYPE.equals(targetType)) {
+			throw new UnsupportedEvaluationException("field " + fieldName + " on " + targetType.getTypeName());
+		}
+
+		Field field = JavaMembers.findField(JavaTypes.getErasure(targetType), fieldName);
+
+		if(field == null || Modifier.isStatic(field.getModifiers())) {
+			throw new UnsupportedEvaluationException("field " + fieldName + " on " + targetType.getTypeName());
+		}
+
+		// Its type, with the type arguments of the object filled in.
+		Type fieldType = JavaTypes.getMemberType(field.getGenericType(), targetType, field.getDeclaringClass());
+
+		if(JavaTypes.containsTypeVariable(fieldType) || fieldType instanceof WildcardType) {
+			throw new UnsupportedEvaluationException("field type " + fieldType.getTypeName());
+		}
+
+		return JavaVariable.instanceField(target.getNode(), field, fieldType);
+	}
+
+	/**
+	 * Method to get the binary operator for the static types of its sides, the way the compiler picks it -- string concatenation,
+	 * arithmetic after binary numeric promotion, and so on.
+	 *
+	 * @param operator -- the operator.
+	 * @param leftType -- the type of the left side.
+	 * @param rightType -- the type of the right side.
+	 * @return {@link TypedOperator} -- the operator and its type.
+	 */
+	private static TypedOperator getBinaryOperator(String operator, Type leftType, Type rightType) {
+
+		if(JavaTypes.isVoid(leftType) || JavaTypes.isVoid(rightType)) {
+			throw new UnsupportedEvaluationException("void operand for " + operator);
+		}
+
+		Class<?> leftPrimitive = JavaTypes.getUnboxedType(leftType);
+		Class<?> rightPrimitive = JavaTypes.getUnboxedType(rightType);
+		boolean numeric = JavaOperators.isNumeric(leftPrimitive) && JavaOperators.isNumeric(rightPrimitive);
+		boolean integral = JavaOperators.isIntegral(leftPrimitive) && JavaOperators.isIntegral(rightPrimitive);
+		boolean logical = boolean.class.equals(leftPrimitive) && boolean.class.equals(rightPrimitive);
+
+		switch(operator) {
+
+			case "+":
+			case "-":
+			case "*":
+			case "/":
+			case "%": {
+
+				// Strings first.
+				if("+".equals(operator) && (JavaTypes.isString(leftType) || JavaTypes.isString(rightType))) {
+					return new TypedOperator((left, right) -> String.valueOf(left) + String.valueOf(right), String.class);
+				}
+
+				else if(numeric) {
+					Class<?> promotedType = JavaOperators.getPromotedType(leftPrimitive, rightPrimitive);
+					return new TypedOperator((left, right) -> JavaOperators.arithmetic(operator, promotedType, left, right), promotedType);
+				}
+
+				break;
+			}
+
+			case "<<":
+			case ">>":
+			case ">>>": {
+
+				// The left side decides the type, on its own.
+				if(integral) {
+					Class<?> promotedType = JavaOperators.getPromotedType(leftPrimitive);
+					return new TypedOperator((left, right) -> JavaOperators.shift(operator, promotedType, JavaVariable.requireNonNull(left), JavaVariable.requireNonNull(right)), promotedType);
+				}
+
+				break;
+			}
+
+			case "<":
+			case ">":
+			case "<=":
+			case ">=": {
+
+				if(numeric) {
+					Class<?> promotedType = JavaOperators.getPromotedType(leftPrimitive, rightPrimitive);
+					return new TypedOperator((left, right) -> JavaOperators.compare(operator, promotedType, JavaVariable.requireNonNull(left), JavaVariable.requireNonNull(right)), boolean.class);
+				}
+
+				break;
+			}
+
+			case "==":
+			case "!=": {
+				return getEqualityOperator(operator, leftType, rightType);
+			}
+
+			case "&":
+			case "|":
+			case "^": {
+
+				if(logical || integral) {
+					Class<?> promotedType = logical ? boolean.class : JavaOperators.getPromotedType(leftPrimitive, rightPrimitive);
+					return new TypedOperator((left, right) -> JavaOperators.bitwise(operator, promotedType, JavaVariable.requireNonNull(left), JavaVariable.requireNonNull(right)), promotedType);
+				}
+
+				break;
+			}
+		}
+
+		throw new UnsupportedEvaluationException("bad operands for " + operator + " " + leftType.getTypeName() + ", " + rightType.getTypeName());
+	}
+
+	/**
+	 * Method to get <code>==</code> or <code>!=</code>. If either side is a primitive, it compares values. Otherwise it compares
+	 * references, which the compiler only allows between types that could be the same object.
+	 *
+	 * @param operator -- the operator.
+	 * @param leftType -- the type of the left side.
+	 * @param rightType -- the type of the right side.
+	 * @return {@link TypedOperator} -- the operator.
+	 */
+	private static TypedOperator getEqualityOperator(String operator, Type leftType, Type rightType) {
+		boolean equal = "==".equals(operator);
+		boolean primitive = JavaTypes.isPrimitive(leftType) || JavaTypes.isPrimitive(rightType);
+
+		// Numbers.
+		if(primitive && JavaTypes.isNumeric(leftType) && JavaTypes.isNumeric(rightType)) {
+			Class<?> promotedType = JavaOperators.getPromotedType(JavaTypes.getUnboxedType(leftType), JavaTypes.getUnboxedType(rightType));
+			return new TypedOperator((left, right) -> JavaOperators.compare(operator, promotedType, JavaVariable.requireNonNull(left), JavaVariable.requireNonNull(right)), boolean.class);
+		}
+
+		// Booleans.
+		else if(primitive && JavaTypes.isBoolean(leftType) && JavaTypes.isBoolean(rightType)) {
+			return new TypedOperator((left, right) -> JavaVariable.requireNonNull(left).equals(JavaVariable.requireNonNull(right)) == equal, boolean.class);
+		}
+
+		// References. Strings could be equal or not depending on where they came from, so those go to the compiler.
+		else if(!primitive && (JavaTypes.NULL_TYPE.equals(leftType) || JavaTypes.NULL_TYPE.equals(rightType)
+								|| ((JavaTypes.isCastable(leftType, rightType) || JavaTypes.isCastable(rightType, leftType)) && !JavaTypes.isString(leftType) && !JavaTypes.isString(rightType)))) {
+			return new TypedOperator((left, right) -> (left == right) == equal, boolean.class);
+		}
+
+		throw new UnsupportedEvaluationException("incomparable types " + leftType.getTypeName() + ", " + rightType.getTypeName());
+	}
+
+	/**
+	 * Method to get the type of a conditional, from the types of its second and third operands.
+	 *
+	 * @param second -- the second operand.
+	 * @param third -- the third operand.
+	 * @return Type -- the type.
+	 */
+	private static Type getConditionalType(JavaTypedNode second, JavaTypedNode third) {
+		Type secondType = second.getType();
+		Type thirdType = third.getType();
+		Class<?> secondPrimitive = JavaTypes.getUnboxedType(secondType);
+		Class<?> thirdPrimitive = JavaTypes.getUnboxedType(thirdType);
+
+		if(JavaTypes.isVoid(secondType) || JavaTypes.isVoid(thirdType)) {
+			throw new UnsupportedEvaluationException("void operand for ?:");
+		}
+
+		else if(secondType.equals(thirdType)) {
+			return secondType;
+		}
+
+		// Primitives and their wrappers.
+		else if(secondPrimitive != null && thirdPrimitive != null) {
+
+			if(secondPrimitive.equals(thirdPrimitive)) {
+				return secondPrimitive;
+			}
+
+			else if(JavaOperators.isNumeric(secondPrimitive) && JavaOperators.isNumeric(thirdPrimitive)) {
+
+				// A byte and a short is a short.
+				if(Arrays.asList(byte.class, short.class).containsAll(Arrays.asList(secondPrimitive, thirdPrimitive))) {
+					return short.class;
+				}
+
+				// A small type and an int constant that fits in it is the small type.
+				else if(fitsConstant(third, secondPrimitive)) {
+					return secondPrimitive;
+				}
+
+				else if(fitsConstant(second, thirdPrimitive)) {
+					return thirdPrimitive;
+				}
+
+				return JavaOperators.getPromotedType(secondPrimitive, thirdPrimitive);
+			}
+		}
+
+		// Null and a primitive is the wrapper.
+		else if(JavaTypes.NULL_TYPE.equals(secondType) && JavaTypes.isPrimitive(thirdType)) {
+			return JavaTypes.getBoxedType((Class<?>) thirdType);
+		}
+
+		else if(JavaTypes.NULL_TYPE.equals(thirdType) && JavaTypes.isPrimitive(secondType)) {
+			return JavaTypes.getBoxedType((Class<?>) secondType);
+		}
+
+		// References, if one is the other's supertype.
+		else if(JavaTypes.isReference(secondType) && JavaTypes.isReference(thirdType)) {
+
+			if(JavaTypes.isSubtype(secondType, thirdType)) {
+				return thirdType;
+			}
+
+			else if(JavaTypes.isSubtype(thirdType, secondType)) {
+				return secondType;
+			}
+		}
+
+		throw new UnsupportedEvaluationException("incompatible types for ?: " + secondType.getTypeName() + ", " + thirdType.getTypeName());
+	}
+
+	/**
+	 * Method to check if an operand is an int constant that fits in a byte, short or char.
+	 *
+	 * @param operand -- the operand.
+	 * @param smallType -- byte, short or char.
+	 * @return TRUE if it fits, FALSE if not.
+	 */
+	private static boolean fitsConstant(JavaTypedNode operand, Class<?> smallType) {
+
+		if(!int.class.equals(operand.getType()) || !operand.isConstant() || !Arrays.asList(byte.class, short.class, char.class).contains(smallType)) {
+			return false;
+		}
+
+		int value = (Integer) operand.getConstantValue();
+		return JavaOperators.getInt(JavaOperators.convert(value, smallType)) == value;
+	}
+
+	/**
+	 * Method to build a condition, which has to be a boolean.
+	 *
+	 * @param conditionContext -- the condition.
+	 * @param scope -- the local variables.
+	 * @return {@link JavaTypedNode} -- the condition, unboxed.
+	 */
+	private JavaTypedNode buildCondition(ParserRuleContext conditionContext, JavaScope scope) {
+		JavaTypedNode condition = buildExpression(conditionContext, scope);
+
+		if(!JavaTypes.isBoolean(condition.getType())) {
+			throw new UnsupportedEvaluationException("condition " + condition.getType().getTypeName());
+		}
+
+		return new JavaTypedNode(convert(condition, boolean.class), boolean.class, condition.getConstantValue());
+	}
+
+	/**
+	 * Method to convert a value to go into a variable, which has to be allowed without a cast. A constant stays a constant.
+	 *
+	 * @param value -- the value.
+	 * @param type -- the type of the variable.
+	 * @return {@link JavaTypedNode} -- the converted value.
+	 */
+	private static JavaTypedNode assign(JavaTypedNode value, Type type) {
+
+		if(!JavaTypes.isAssignable(value.getType(), value.getConstantValue(), type, true)) {
+			throw new UnsupportedEvaluationException("incompatible types " + value.getType().getTypeName() + " to " + type.getTypeName());
+		}
+
+		Object constantValue = value.isConstant() && (JavaTypes.isPrimitive(type) || JavaTypes.isString(type)) ? JavaTypes.getConversion(value.getType(), type).apply(value.getConstantValue()) : null;
+		return new JavaTypedNode(convert(value, type), type, constantValue);
+	}
+
+	/**
+	 * Method to convert a value to a type -- boxing, unboxing or widening, if it needs any of them.
+	 *
+	 * @param value -- the value.
+	 * @param type -- the type to convert to.
+	 * @return {@link JavaNode} -- the converted value.
+	 */
+	private static JavaNode convert(JavaTypedNode value, Type type) {
+		JavaNode node = value.getNode();
+
+		// References stay as they are.
+		if(value.getType().equals(type) || (!JavaTypes.isPrimitive(value.getType()) && !JavaTypes.isPrimitive(type))) {
+			return node;
+		}
+
+		UnaryOperator<Object> conversion = JavaTypes.getConversion(value.getType(), type);
+		return frame -> conversion.apply(node.execute(frame));
+	}
+
+	/**
+	 * Method to turn an expression made of constants into a constant, the same as the compiler. Only primitives and Strings can be
+	 * constants, and anything that throws (like a division by zero) is left to throw when it runs.
+	 *
+	 * @param expression -- the expression.
+	 * @param operands -- what it's made of.
+	 * @return {@link JavaTypedNode} -- the constant, or the same expression if it isn't one.
+	 */
+	private static JavaTypedNode fold(JavaTypedNode expression, JavaTypedNode... operands) {
+
+		if(!JavaTypes.isPrimitive(expression.getType()) && !JavaTypes.isString(expression.getType())) {
+			return expression;
+		}
+
+		for(JavaTypedNode operand : operands) {
+
+			if(!operand.isConstant()) {
+				return expression;
+			}
+		}
+
+		try {
+			Object value = expression.getNode().execute(null);
+			return JavaTypedNode.constant(value instanceof String ? ((String) value).intern() : value, expression.getType());
+		}
+
+		catch(Throwable e) {
+			return expression;
+		}
+	}
+
+	/**
+	 * Method to get the value of a variable.
+	 *
+	 * @param variable -- the variable.
+	 * @return {@link JavaTypedNode} -- the value.
+	 */
+	private static JavaTypedNode valueOf(JavaVariable variable) {
+		return new JavaTypedNode(frame -> variable.get(frame, variable.locate(frame)), variable.getType());
+	}
+
+	/**
+	 * Method to get the value of a name, which has to be a variable.
+	 *
+	 * @param meaning -- what the name means.
+	 * @param name -- the name, to report.
+	 * @return {@link JavaTypedNode} -- the value.
+	 */
+	private static JavaTypedNode valueOf(Meaning meaning, String name) {
+
+		if(meaning.variable == null) {
+			throw new UnsupportedEvaluationException("not a variable " + name);
+		}
+
+		else if(meaning.constantValue != null) {
+			return JavaTypedNode.constant(meaning.constantValue, meaning.variable.getType());
+		}
+
+		return valueOf(meaning.variable);
+	}
+
+	/**
+	 * Method to make sure an expression has a value -- it isn't a call to a void method.
+	 *
+	 * @param expression -- the expression.
+	 */
+	private static void requireValue(JavaTypedNode expression) {
+
+		if(JavaTypes.isVoid(expression.getType())) {
+			throw new UnsupportedEvaluationException("void value");
+		}
+	}
+
+	/**
+	 * Method to make sure a variable can be assigned to.
+	 *
+	 * @param variable -- the variable.
+	 * @param context -- where it is, to report.
+	 * @return {@link JavaVariable} -- the same variable.
+	 */
+	private static JavaVariable requireAssignable(JavaVariable variable, ParserRuleContext context) {
+
+		if(!variable.isAssignable()) {
+			throw new UnsupportedEvaluationException("cannot assign a value to final variable " + context.getText());
+		}
+
+		return variable;
+	}
+
+	/**
+	 * Method to get the type of what an Iterable gives back.
+	 *
+	 * @param iterableType -- the type of the Iterable.
+	 * @return Type -- the element type, Object if the Iterable is raw.
+	 */
+	private static Type getIterableType(Type iterableType) {
+
+		if(!JavaTypes.isReference(iterableType) || JavaTypes.NULL_TYPE.equals(iterableType) || !Iterable.class.isAssignableFrom(JavaTypes.getErasure(iterableType))) {
+			throw new UnsupportedEvaluationException("for-each not applicable to " + iterableType.getTypeName());
+		}
+
+		Map<TypeVariable<?>, Type> typeArguments = JavaTypes.getTypeArguments(iterableType, Iterable.class);
+		Type elementType = typeArguments == null ? Object.class : typeArguments.get(Iterable.class.getTypeParameters()[0]);
+
+		// A wildcard gives back its upper bound.
+		if(elementType instanceof WildcardType) {
+			elementType = ((WildcardType) elementType).getLowerBounds().length > 0 ? Object.class : ((WildcardType) elementType).getUpperBounds()[0];
+		}
+
+		if(JavaTypes.containsTypeVariable(elementType)) {
+			throw new UnsupportedEvaluationException("for-each over " + iterableType.getTypeName());
+		}
+
+		return elementType;
+	}
+
+	/**
+	 * Method to check if a type can be checked at runtime -- a class, or a generic one with only <code>?</code> for its type arguments.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE if it can be, FALSE if not.
+	 */
+	private static boolean isReifiable(Type type) {
+
+		if(type instanceof Class) {
+			return true;
+		}
+
+		else if(type instanceof ParameterizedType) {
+
+			for(Type typeArgument : ((ParameterizedType) type).getActualTypeArguments()) {
+
+				if(!(typeArgument instanceof WildcardType) || ((WildcardType) typeArgument).getLowerBounds().length > 0 || !Object.class.equals(((WildcardType) typeArgument).getUpperBounds()[0])) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Method to check if a statement expression is one Java allows as a statement.
+	 *
+	 * @param statementExpression -- the statement expression.
+	 * @return TRUE if it is, FALSE if not.
+	 */
+	private static boolean isStatementExpression(StatementExpressionContext statementExpression) {
+		ParserRuleContext context = unwrap(statementExpression);
+
+		switch(context.getRuleIndex()) {
+
+			case Java8Parser.RULE_assignment:
+			case Java8Parser.RULE_preIncrementExpression:
+			case Java8Parser.RULE_preDecrementExpression:
+			case Java8Parser.RULE_postIncrementExpression:
+			case Java8Parser.RULE_postDecrementExpression:
+			case Java8Parser.RULE_methodInvocation:
+			case Java8Parser.RULE_methodInvocation_lfno_primary:
+			case Java8Parser.RULE_classInstanceCreationExpression:
+			case Java8Parser.RULE_classInstanceCreationExpression_lfno_primary: {
+				return true;
+			}
+
+			case Java8Parser.RULE_postfixExpression: {
+				return context.getChildCount() == 2;
+			}
+
+			// A primary expression ending in a call or a new.
+			case Java8Parser.RULE_primary: {
+				int lastRule = unwrap((ParserRuleContext) context.getChild(context.getChildCount() - 1)).getRuleIndex();
+				return lastRule == Java8Parser.RULE_methodInvocation_lf_primary || lastRule == Java8Parser.RULE_classInstanceCreationExpression_lf_primary;
+			}
+
+			default: {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Method to check the modifiers of a local variable. Only final is allowed, no annotations.
+	 *
+	 * @param modifiers -- the modifiers.
+	 * @return TRUE if it's final, FALSE if not.
+	 */
+	private static boolean isFinal(List<VariableModifierContext> modifiers) {
+
+		for(VariableModifierContext modifier : modifiers) {
+
+			if(modifier.annotation() != null) {
+				throw new UnsupportedEvaluationException("annotation " + modifier.getText());
+			}
+		}
+
+		return !modifiers.isEmpty();
+	}
+
+	/**
+	 * Method to add array dimensions onto a type, like the <code>[]</code> of <code>int x[]</code>.
+	 *
+	 * @param type -- the type.
+	 * @param dims -- the dimensions, NULL for none.
+	 * @return Type -- the array type.
+	 */
+	private static Type addDimensions(Type type, DimsContext dims) {
+
+		if(dims == null) {
+			return type;
+		}
+
+		else if(dims.annotation().size() > 0) {
+			throw new UnsupportedEvaluationException("annotated dimensions " + dims.getText());
+		}
+
+		Type arrayType = type;
+
+		for(int dimension = 0; dimension < dims.getChildCount() / 2; dimension++) {
+			arrayType = JavaTypes.getArrayType(arrayType);
+		}
+
+		return arrayType;
+	}
+
+	/**
+	 * Method to get past the parts of the parse tree that only have one child, like an expression that's only a conditional that's
+	 * only a postfix expression that's only a name.
+	 *
+	 * @param context -- the parse tree.
+	 * @return ParserRuleContext -- the first part with more than that.
+	 */
+	private static ParserRuleContext unwrap(ParserRuleContext context) {
+		ParserRuleContext unwrapped = context;
+
+		while(unwrapped.getChildCount() == 1 && unwrapped.getChild(0) instanceof ParserRuleContext) {
+			unwrapped = (ParserRuleContext) unwrapped.getChild(0);
+		}
+
+		return unwrapped;
+	}
+}
@@ -0,0 +1,351 @@
+package com.interpret.evaluator;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import com.actions.JavaAction;
+import com.actions.JavaExpression;
+import com.antlr.Java8Parser.ExpressionStatementContext;
+import com.antlr.Java8Parser.MethodDeclarationContext;
+import com.antlr.Java8Parser.StatementExpressionContext;
+import com.interpret.JavaDependencyGraph;
+import com.interpret.JavaInterpreterMaps;
+import com.interpret.evaluator.JavaMethodTiers.TieredMethod;
+import com.javasource.InterpreterSnippetClass;
+import com.javasource.InterpreterSuperClass;
+
+/**
+ * Class that runs statements by walking a tree built off of the parse tree, instead of generating a class and compiling it. It
+ * handles expressions, local variables, ifs, loops and methods, for example:
+ *
+ * <pre>
+ * for(int i = 0; i &lt; 10; i++) { total += i; }
+ * list.add("a" + count);
+ * while(n &gt; 1) { n = n % 2 == 0 ? n / 2 : 3 * n + 1; steps++; }
+ * </pre>
+ *
+ * The session's fields and methods are the same ones the compiled statements use, so the two can be mixed freely. Whether a
+ * statement gets interpreted is up to the {@link ExecutionEngine} -- anything the interpreter can't be sure about is handed to the
+ * compiler, statement by statement. Methods start out interpreted and get compiled once they're called enough, see
+ * {@link JavaMethodTiers}.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public final class JavaTreeInterpreter {
+
+	/**
+	 * The instance.
+	 */
+	private static final JavaTreeInterpreter INSTANCE = new JavaTreeInterpreter();
+
+	/**
+	 * The engine in use.
+	 */
+	private ExecutionEngine engine = ExecutionEngine.getDefault();
+
+	/**
+	 * The statements we interpreted.
+	 */
+	private long interpreted = 0;
+
+	/**
+	 * The statements we handed to the compiler.
+	 */
+	private long fallbacks = 0;
+
+	/**
+	 * Why statements were handed to the compiler, and how many times, kept under the {@link ExecutionEngine#INTERPRETER} engine.
+	 */
+	private Map<String, Long> fallbackReasons = new LinkedHashMap<String, Long>();
+
+	/**
+	 * The most different reasons to keep. Anything after that is counted as another reason.
+	 */
+	private static final int MAX_FALLBACK_REASONS = 20;
+
+	/**
+	 * What the reasons past the most we keep are counted under.
+	 */
+	private static final String OTHER_REASONS = "other reasons";
+
+	/**
+	 * No-op private constructor.
+	 */
+	private JavaTreeInterpreter() {
+		;
+	}
+
+	/**
+	 * Get the singleton instance.
+	 *
+	 * @return JavaTreeInterpreter -- the instance.
+	 */
+	public static JavaTreeInterpreter getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Getter for the engine in use.
+	 *
+	 * @return {@link ExecutionEngine} -- the engine.
+	 */
+	public ExecutionEngine getEngine() {
+		return this.engine;
+	}
+
+	/**
+	 * Setter for the engine in use.
+	 *
+	 * @param engine -- the engine.
+	 */
+	public void setEngine(ExecutionEngine engine) {
+		this.engine = engine;
+	}
+
+	/**
+	 * Method to get the statistics of the interpreter, to show the user.
+	 *
+	 * @return String -- the statistics.
+	 */
+	public String getStatistics() {
+		StringBuilder statistics = new StringBuilder("Interpreter (" + engine.name().toLowerCase() + "): " + interpreted + " interpreted, " + fallbacks + " handed to the compiler");
+
+		// Why, the most common first.
+		fallbackReasons.entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.forEach( fallbackReason -> statistics.append("\n\t").append(fallbackReason.getValue()).append(" x ").append(fallbackReason.getKey()) );
+
+		return statistics.toString();
+	}
+
+	/**
+	 * Method to try and run an action without the compiler. If it runs, it's put into the maps the same as a compiled one.
+	 *
+	 * @param javaAction -- the action.
+	 * @return String -- the result to show the user, NULL if the action needs the compiler.
+	 * @throws Exception if the statement threw one.
+	 */
+	public String interpret(JavaAction javaAction) throws Exception {
+
+		// Only statements, and only when we're allowed.
+		if(ExecutionEngine.COMPILER.equals(engine)) {
+			return null;
+		}
+
+		switch(javaAction.getActionType()) {
+
+			case DANGLING_EXPRESSION:
+			case IDENTIFIER:
+			case EXPRESSION:
+			case LOOP_OR_IF:
+			case METHOD: {
+				break;
+			}
+
+			default: {
+				return null;
+			}
+		}
+
+		JavaScope scope = new JavaScope(null, Collections.singletonList(Exception.class));
+		JavaStatementNode statement;
+		JavaTypedNode value = null;
+		String valueName = null;
+		TieredMethod tieredMethod = null;
+
+		try {
+			checkAction(javaAction);
+
+			JavaTreeBuilder builder = new JavaTreeBuilder(new JavaNames(javaAction));
+			ParserRuleContext parseTree = javaAction.getParseTree();
+
+			switch(javaAction.getActionType()) {
+
+				// An expression by itself, like x + 1 or list.add(5).
+				case DANGLING_EXPRESSION: {
+					JavaTypedNode expression = builder.buildExpression(((ExpressionStatementContext) parseTree).statementExpression().expression(), scope);
+					JavaNode expressionNode = expression.getNode();
+
+					value = expression;
+					statement = frame -> JavaCompletion.returning(expressionNode.execute(frame));
+					break;
+				}
+
+				// A name by itself, like x.
+				case IDENTIFIER: {
+					StatementExpressionContext statementExpression = ((ExpressionStatementContext) parseTree).statementExpression();
+
+					if(statementExpression.Identifier() == null) {
+						throw new UnsupportedEvaluationException("not a name " + statementExpression.getText());
+					}
+
+					valueName = statementExpression.Identifier().getText();
+					value = builder.buildName(valueName, scope);
+					statement = null;
+					break;
+				}
+
+				// An assignment, or an increment, of a session variable.
+				case EXPRESSION: {
+					String expressionVariable = ((JavaExpression) javaAction).getExpressionVariable();
+
+					if(expressionVariable == null || expressionVariable.contains(".")) {
+						throw new UnsupportedEvaluationException("expression on " + expressionVariable);
+					}
+
+					JavaNode expressionNode = builder.buildStatementExpression(((ExpressionStatementContext) parseTree).statementExpression(), scope).getNode();
+
+					valueName = expressionVariable;
+					value = builder.buildName(valueName, scope);
+					statement = frame -> {
+						expressionNode.execute(frame);
+						return JavaCompletion.NORMAL;
+					};
+
+					break;
+				}
+
+				// A method, which runs here until it's called enough to compile.
+				case METHOD: {
+					tieredMethod = builder.buildMethod((MethodDeclarationContext) parseTree, javaAction);
+					statement = null;
+					break;
+				}
+
+				// An if or a loop.
+				default: {
+					statement = builder.buildStatement(parseTree, scope);
+
+					if(!builder.isReachable()) {
+						throw new UnsupportedEvaluationException("statement cannot complete normally");
+					}
+
+					break;
+				}
+			}
+		}
+
+		// We couldn't be sure, so let the compiler do it.
+		catch(UnsupportedEvaluationException e) {
+			fallbacks++;
+
+			if(ExecutionEngine.INTERPRETER.equals(engine)) {
+				String fallbackReason = fallbackReasons.size() < MAX_FALLBACK_REASONS || fallbackReasons.containsKey(e.getMessage()) ? e.getMessage() : OTHER_REASONS;
+				fallbackReasons.merge(fallbackReason, 1L, Long::sum);
+			}
+
+			return null;
+		}
+
+		interpreted++;
+
+		// A method doesn't run anything yet, so it's part of the session right away.
+		if(tieredMethod != null) {
+			JavaInterpreterMaps.getInstance().putAppliedAction(javaAction);
+			JavaMethodTiers.getInstance().put(tieredMethod);
+			return InterpreterSuperClass.VALUE_RESULT + "Successfully created method " + tieredMethod.getName() + ".";
+		}
+
+		try {
+			JavaFrame frame = new JavaFrame(scope.getSlotCount());
+			JavaCompletion completion = statement != null ? statement.execute(frame) : JavaCompletion.NORMAL;
+
+			// It got through without throwing, so from here on it's the same as a compiled statement that ran.
+			JavaInterpreterMaps.getInstance().putAppliedAction(javaAction);
+
+			if(JavaCompletion.Kind.RETURN.equals(completion.getKind())) {
+				return JavaTypes.isVoid(value.getType()) ? InterpreterSuperClass.VOID_RESULT : InterpreterSuperClass.VALUE_RESULT + String.valueOf(completion.getValue());
+			}
+
+			// An if or a loop doesn't show anything.
+			if(valueName == null) {
+				return "";
+			}
+
+			return InterpreterSuperClass.VALUE_RESULT + valueName + " = " + value.getNode().execute(frame);
+		}
+
+		catch(Exception | Error e) {
+			throw e;
+		}
+
+		catch(Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Method to check that the action can be interpreted at all -- it parsed cleanly, all of it, and everything it depends on is
+	 * already part of the live session state.
+	 *
+	 * @param javaAction -- the action.
+	 */
+	private static void checkAction(JavaAction javaAction) {
+		ParserRuleContext parseTree = javaAction.getParseTree();
+
+		if(parseTree == null || parseTree.start == null || parseTree.stop == null) {
+			throw new UnsupportedEvaluationException("no parse tree");
+		}
+
+		// Caught exceptions change what the statement does when it throws.
+		else if(!JavaInterpreterMaps.getInstance().getExceptions().isEmpty()) {
+			throw new UnsupportedEvaluationException("exceptions are being caught");
+		}
+
+		else if(hasErrors(parseTree)) {
+			throw new UnsupportedEvaluationException("parse error");
+		}
+
+		// The tree has to be everything the user typed.
+		String rawInput = javaAction.getRawInput();
+
+		if(parseTree.start.getStartIndex() < 0 || parseTree.stop.getStopIndex() >= rawInput.length()
+				|| !rawInput.substring(0, parseTree.start.getStartIndex()).trim().isEmpty() || !rawInput.substring(parseTree.stop.getStopIndex() + 1).trim().isEmpty()) {
+			throw new UnsupportedEvaluationException("statement is not all of the input");
+		}
+
+		// Anything that would be replayed first has to have run already.
+		checkApplied(javaAction);
+	}
+
+	/**
+	 * Method to check that the fields and expressions an action depends on, all the way down, have already run.
+	 *
+	 * @param javaAction -- the action.
+	 */
+	private static void checkApplied(JavaAction javaAction) {
+
+		for(JavaAction dependentAction : JavaDependencyGraph.getInstance().getClosure(javaAction)) {
+
+			if(dependentAction != javaAction && InterpreterSnippetClass.isReplayable(dependentAction) && !dependentAction.isApplied()) {
+				throw new UnsupportedEvaluationException(dependentAction.getName() + " needs replaying");
+			}
+		}
+	}
+
+	/**
+	 * Method to check if the parser had to recover anywhere in the tree.
+	 *
+	 * @param parseTree -- the tree.
+	 * @return TRUE if it did, FALSE if not.
+	 */
+	private static boolean hasErrors(ParseTree parseTree) {
+
+		if(parseTree instanceof ErrorNode || (parseTree instanceof ParserRuleContext && ((ParserRuleContext) parseTree).exception != null)) {
+			return true;
+		}
+
+		for(int childIndex = 0; childIndex < parseTree.getChildCount(); childIndex++) {
+
+			if(hasErrors(parseTree.getChild(childIndex))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
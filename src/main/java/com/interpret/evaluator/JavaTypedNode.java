@@ -0,0 +1,97 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Type;
+
+/**
+ * Class that pairs a built expression with its static type -- the type the compiler would give it -- and its value, if it's a
+ * constant expression. The static type is what picks the operators and the overloads, never the value it happens to have.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaTypedNode {
+
+	/**
+	 * The expression.
+	 */
+	private final JavaNode node;
+
+	/**
+	 * The static type. Primitives are their primitive classes, <code>void</code> for a void method call.
+	 */
+	private final Type type;
+
+	/**
+	 * The value, if this is a constant expression.
+	 */
+	private final Object constantValue;
+
+	/**
+	 * Constructor for an expression that isn't a constant.
+	 *
+	 * @param node -- the expression.
+	 * @param type -- the static type.
+	 */
+	JavaTypedNode(JavaNode node, Type type) {
+		this(node, type, null);
+	}
+
+	/**
+	 * Constructor for an expression that might be a constant.
+	 *
+	 * @param node -- the expression.
+	 * @param type -- the static type.
+	 * @param constantValue -- the value, NULL if it isn't a constant.
+	 */
+	JavaTypedNode(JavaNode node, Type type, Object constantValue) {
+		this.node = node;
+		this.type = type;
+		this.constantValue = constantValue;
+	}
+
+	/**
+	 * Method to make a constant.
+	 *
+	 * @param value -- the value.
+	 * @param type -- the static type.
+	 * @return {@link JavaTypedNode} -- the constant.
+	 */
+	static JavaTypedNode constant(Object value, Type type) {
+		return new JavaTypedNode(frame -> value, type, value);
+	}
+
+	/**
+	 * Getter for the expression.
+	 *
+	 * @return {@link JavaNode} -- the expression.
+	 */
+	JavaNode getNode() {
+		return this.node;
+	}
+
+	/**
+	 * Getter for the static type.
+	 *
+	 * @return Type -- the static type.
+	 */
+	Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Return if this is a constant expression.
+	 *
+	 * @return TRUE for a constant, FALSE for not.
+	 */
+	boolean isConstant() {
+		return this.constantValue != null;
+	}
+
+	/**
+	 * Getter for the constant value.
+	 *
+	 * @return Object -- the value, NULL if it isn't a constant.
+	 */
+	Object getConstantValue() {
+		return this.constantValue;
+	}
+}
@@ -0,0 +1,870 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Class that holds the rules of Java's static types, for the interpreter. Types are the reflection types -- a {@link Class} for
+ * primitives, plain classes and raw types, a {@link ParameterizedType} for something like <code>List&lt;String&gt;</code>. Generics are
+ * followed as far as the compiler would need them to pick an overload or type an expression, for example:
+ *
+ * <pre>
+ * List&lt;Integer&gt; li = new ArrayList&lt;Integer&gt;();
+ * li.get(0) + 1;       // get() returns E, and E is Integer here, so this is addition and not an error.
+ * </pre>
+ *
+ * Anything that would take inference or capture conversion to work out -- generic methods, <code>?</code> as a type -- throws an
+ * {@link UnsupportedEvaluationException}, and the statement goes to the compiler.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+final class JavaTypes {
+
+	/**
+	 * The static type of <code>null</code>.
+	 */
+	static final Class<?> NULL_TYPE = NullType.class;
+
+	/**
+	 * Class that stands in for the type of <code>null</code>.
+	 */
+	private static final class NullType {
+		;
+	}
+
+	/**
+	 * The wrapper type of each of the primitive types.
+	 */
+	private static final Map<Class<?>, Class<?>> BOXED_TYPES = new HashMap<Class<?>, Class<?>>() {{
+		put(boolean.class, Boolean.class);
+		put(byte.class, Byte.class);
+		put(short.class, Short.class);
+		put(char.class, Character.class);
+		put(int.class, Integer.class);
+		put(long.class, Long.class);
+		put(float.class, Float.class);
+		put(double.class, Double.class);
+	}};
+
+	/**
+	 * The primitive types each primitive type widens to.
+	 */
+	private static final Map<Class<?>, List<Class<?>>> WIDENINGS = new HashMap<Class<?>, List<Class<?>>>() {{
+		put(byte.class, Arrays.<Class<?>>asList(short.class, int.class, long.class, float.class, double.class));
+		put(short.class, Arrays.<Class<?>>asList(int.class, long.class, float.class, double.class));
+		put(char.class, Arrays.<Class<?>>asList(int.class, long.class, float.class, double.class));
+		put(int.class, Arrays.<Class<?>>asList(long.class, float.class, double.class));
+		put(long.class, Arrays.<Class<?>>asList(float.class, double.class));
+		put(float.class, Arrays.<Class<?>>asList(double.class));
+	}};
+
+	/**
+	 * No-op private constructor.
+	 */
+	private JavaTypes() {
+		;
+	}
+
+	/**
+	 * Return if this is a primitive type, not counting <code>void</code>.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for a primitive, FALSE for not.
+	 */
+	static boolean isPrimitive(Type type) {
+		return type instanceof Class && ((Class<?>) type).isPrimitive() && !void.class.equals(type);
+	}
+
+	/**
+	 * Return if this is the type of a void method call.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for void, FALSE for not.
+	 */
+	static boolean isVoid(Type type) {
+		return void.class.equals(type);
+	}
+
+	/**
+	 * Return if this is a reference type, <code>null</code> included.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for a reference type, FALSE for not.
+	 */
+	static boolean isReference(Type type) {
+		return !isPrimitive(type) && !isVoid(type);
+	}
+
+	/**
+	 * Method to get the wrapper type of a primitive type.
+	 *
+	 * @param primitiveType -- the primitive type.
+	 * @return Class -- the wrapper type.
+	 */
+	static Class<?> getBoxedType(Class<?> primitiveType) {
+		return BOXED_TYPES.get(primitiveType);
+	}
+
+	/**
+	 * Method to get the primitive type a type is, or unboxes to.
+	 *
+	 * @param type -- the type.
+	 * @return Class -- the primitive type, NULL if it isn't a primitive or a wrapper.
+	 */
+	static Class<?> getUnboxedType(Type type) {
+		return type instanceof Class ? JavaOperators.getPrimitiveType((Class<?>) type) : null;
+	}
+
+	/**
+	 * Return if this type is a number, or unboxes to one (a char counts).
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for a number, FALSE for not.
+	 */
+	static boolean isNumeric(Type type) {
+		return JavaOperators.isNumeric(getUnboxedType(type));
+	}
+
+	/**
+	 * Return if this type is an integral number, or unboxes to one (a char counts).
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for an integral number, FALSE for not.
+	 */
+	static boolean isIntegral(Type type) {
+		return JavaOperators.isIntegral(getUnboxedType(type));
+	}
+
+	/**
+	 * Return if this type is a boolean, or unboxes to one.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for a boolean, FALSE for not.
+	 */
+	static boolean isBoolean(Type type) {
+		return boolean.class.equals(getUnboxedType(type));
+	}
+
+	/**
+	 * Return if this type is String.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for String, FALSE for not.
+	 */
+	static boolean isString(Type type) {
+		return String.class.equals(type);
+	}
+
+	/**
+	 * Return if this primitive type widens to the other one, not counting the same type.
+	 *
+	 * @param fromType -- the primitive type to widen.
+	 * @param toType -- the primitive type to widen to.
+	 * @return TRUE if it widens, FALSE if not.
+	 */
+	static boolean isWidening(Class<?> fromType, Class<?> toType) {
+		return WIDENINGS.containsKey(fromType) && WIDENINGS.get(fromType).contains(toType);
+	}
+
+	/**
+	 * Method to get the class a type erases to.
+	 *
+	 * @param type -- the type.
+	 * @return Class -- the erasure.
+	 */
+	static Class<?> getErasure(Type type) {
+
+		if(type instanceof Class) {
+			return (Class<?>) type;
+		}
+
+		else if(type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+
+		else if(type instanceof GenericArrayType) {
+			return Array.newInstance(getErasure(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		}
+
+		else if(type instanceof TypeVariable) {
+			return getErasure(((TypeVariable<?>) type).getBounds()[0]);
+		}
+
+		return getErasure(((WildcardType) type).getUpperBounds()[0]);
+	}
+
+	/**
+	 * Return if this is an array type.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE for an array, FALSE for not.
+	 */
+	static boolean isArray(Type type) {
+		return getComponentType(type) != null;
+	}
+
+	/**
+	 * Method to get the component type of an array type.
+	 *
+	 * @param type -- the array type.
+	 * @return Type -- the component type, NULL if it isn't an array.
+	 */
+	static Type getComponentType(Type type) {
+
+		if(type instanceof GenericArrayType) {
+			return ((GenericArrayType) type).getGenericComponentType();
+		}
+
+		return type instanceof Class && !NULL_TYPE.equals(type) ? ((Class<?>) type).getComponentType() : null;
+	}
+
+	/**
+	 * Method to make an array type.
+	 *
+	 * @param componentType -- the component type.
+	 * @return Type -- the array type.
+	 */
+	static Type getArrayType(Type componentType) {
+
+		if(componentType instanceof Class) {
+			return Array.newInstance((Class<?>) componentType, 0).getClass();
+		}
+
+		return new JavaGenericArrayType(componentType);
+	}
+
+	/**
+	 * Method to make a parameterized type, like <code>List&lt;String&gt;</code>.
+	 *
+	 * @param rawType -- the generic class.
+	 * @param typeArguments -- the type arguments.
+	 * @return ParameterizedType -- the type.
+	 */
+	static ParameterizedType getParameterizedType(Class<?> rawType, Type... typeArguments) {
+		return new JavaParameterizedType(rawType, typeArguments, rawType.getDeclaringClass());
+	}
+
+	/**
+	 * Method to make a wildcard, like <code>? extends Number</code>.
+	 *
+	 * @param upperBounds -- the upper bounds, just Object if there aren't any.
+	 * @param lowerBounds -- the lower bounds.
+	 * @return WildcardType -- the wildcard.
+	 */
+	static WildcardType getWildcardType(Type[] upperBounds, Type[] lowerBounds) {
+		return new JavaWildcardType(upperBounds, lowerBounds);
+	}
+
+	/**
+	 * Method to check if an expression can be assigned to (or passed as) a type, without a cast.
+	 *
+	 * @param sourceType -- the static type of the expression.
+	 * @param constantValue -- the value, if it's a constant expression. A constant int that fits can go into a byte, short or char.
+	 * @param targetType -- the type it's going to.
+	 * @param boxing -- TRUE to allow boxing and unboxing.
+	 * @return TRUE if it can, FALSE if not.
+	 */
+	static boolean isAssignable(Type sourceType, Object constantValue, Type targetType, boolean boxing) {
+
+		if(isVoid(sourceType) || isVoid(targetType)) {
+			return false;
+		}
+
+		else if(sourceType.equals(targetType)) {
+			return true;
+		}
+
+		// To a primitive, it has to widen, or be a constant that fits. Wrappers unbox first.
+		else if(isPrimitive(targetType)) {
+
+			if(isPrimitive(sourceType)) {
+				return isWidening((Class<?>) sourceType, (Class<?>) targetType) || isNarrowedConstant(sourceType, constantValue, (Class<?>) targetType);
+			}
+
+			Class<?> unboxedType = getUnboxedType(sourceType);
+			return boxing && unboxedType != null && (unboxedType.equals(targetType) || isWidening(unboxedType, (Class<?>) targetType));
+		}
+
+		// From a primitive to a reference, it gets boxed. A constant that fits can go into a Byte, Short or Character too.
+		else if(isPrimitive(sourceType)) {
+
+			if(!boxing) {
+				return false;
+			}
+
+			Class<?> unboxedType = getUnboxedType(targetType);
+
+			if(unboxedType != null && isNarrowedConstant(sourceType, constantValue, unboxedType)) {
+				return true;
+			}
+
+			return isSubtype(getBoxedType((Class<?>) sourceType), targetType);
+		}
+
+		return isSubtype(sourceType, targetType);
+	}
+
+	/**
+	 * Method to get the conversion for a value going from one type to another, once {@link #isAssignable(Type, Object, Type, boolean)}
+	 * (or a cast) has allowed it. Primitives are converted, and boxed into the right wrapper, the same way Java would.
+	 *
+	 * @param sourceType -- the static type of the value.
+	 * @param targetType -- the type it's going to.
+	 * @return UnaryOperator -- the conversion.
+	 */
+	static UnaryOperator<Object> getConversion(Type sourceType, Type targetType) {
+
+		// To a primitive. Unboxing a null throws.
+		if(isPrimitive(targetType)) {
+			Class<?> primitiveType = (Class<?>) targetType;
+
+			if(primitiveType.equals(sourceType)) {
+				return UnaryOperator.identity();
+			}
+
+			return value -> JavaOperators.convert(JavaVariable.requireNonNull(value), primitiveType);
+		}
+
+		// Boxing, into the wrapper the target wants, or the one that goes with the source.
+		else if(isPrimitive(sourceType)) {
+			Class<?> unboxedType = getUnboxedType(targetType);
+			Class<?> primitiveType = unboxedType != null ? unboxedType : (Class<?>) sourceType;
+
+			return value -> JavaOperators.convert(value, primitiveType);
+		}
+
+		return UnaryOperator.identity();
+	}
+
+	/**
+	 * Method to check if a constant fits into a byte, short or char.
+	 *
+	 * @param sourceType -- the type of the constant.
+	 * @param constantValue -- the value, NULL if it isn't a constant.
+	 * @param targetType -- byte, short or char.
+	 * @return TRUE if it fits, FALSE if not.
+	 */
+	private static boolean isNarrowedConstant(Type sourceType, Object constantValue, Class<?> targetType) {
+
+		if(constantValue == null || !(byte.class.equals(sourceType) || short.class.equals(sourceType) || char.class.equals(sourceType) || int.class.equals(sourceType))) {
+			return false;
+		}
+
+		long value = JavaOperators.getLong(constantValue);
+
+		if(byte.class.equals(targetType)) {
+			return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE;
+		}
+
+		else if(short.class.equals(targetType)) {
+			return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+		}
+
+		else if(char.class.equals(targetType)) {
+			return value >= Character.MIN_VALUE && value <= Character.MAX_VALUE;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Method to check if one reference type is a subtype of another, type arguments included. A raw type goes into a parameterized one
+	 * unchecked, the same as Java allows.
+	 *
+	 * @param sourceType -- the type.
+	 * @param targetType -- the type it might be a subtype of.
+	 * @return TRUE if it's a subtype, FALSE if not.
+	 */
+	static boolean isSubtype(Type sourceType, Type targetType) {
+
+		if(NULL_TYPE.equals(sourceType) || sourceType.equals(targetType) || Object.class.equals(targetType)) {
+			return true;
+		}
+
+		else if(targetType instanceof Class) {
+			return ((Class<?>) targetType).isAssignableFrom(getErasure(sourceType));
+		}
+
+		else if(targetType instanceof GenericArrayType) {
+			Type sourceComponentType = getComponentType(sourceType);
+			return sourceComponentType != null && isReference(sourceComponentType) && isSubtype(sourceComponentType, getComponentType(targetType));
+		}
+
+		else if(!(targetType instanceof ParameterizedType)) {
+			throw new UnsupportedEvaluationException("type " + targetType.getTypeName());
+		}
+
+		// The classes have to line up first.
+		Class<?> targetClass = getErasure(targetType);
+
+		if(!targetClass.isAssignableFrom(getErasure(sourceType))) {
+			return false;
+		}
+
+		// Then the type arguments, as the source sees them.
+		Map<TypeVariable<?>, Type> sourceArguments = getTypeArguments(sourceType, targetClass);
+
+		if(sourceArguments == null) {
+			return true;
+		}
+
+		TypeVariable<?>[] typeParameters = targetClass.getTypeParameters();
+		Type[] targetArguments = ((ParameterizedType) targetType).getActualTypeArguments();
+
+		for(int parameterIndex = 0; parameterIndex < typeParameters.length; parameterIndex++) {
+
+			if(!contains(targetArguments[parameterIndex], sourceArguments.get(typeParameters[parameterIndex]))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Method to check if a type argument fits inside another -- exactly, or inside the bounds of a wildcard.
+	 *
+	 * @param targetArgument -- the type argument, maybe a wildcard.
+	 * @param sourceArgument -- the type argument that has to fit.
+	 * @return TRUE if it fits, FALSE if not.
+	 */
+	private static boolean contains(Type targetArgument, Type sourceArgument) {
+
+		if(sourceArgument == null || containsTypeVariable(sourceArgument)) {
+			throw new UnsupportedEvaluationException("type argument " + sourceArgument);
+		}
+
+		else if(targetArgument.equals(sourceArgument)) {
+			return true;
+		}
+
+		else if(!(targetArgument instanceof WildcardType)) {
+			return false;
+		}
+
+		WildcardType wildcard = (WildcardType) targetArgument;
+
+		// A plain ? takes anything.
+		if(wildcard.getLowerBounds().length == 0 && Object.class.equals(wildcard.getUpperBounds()[0])) {
+			return true;
+		}
+
+		// Wildcards inside of wildcards, we leave to the compiler.
+		else if(sourceArgument instanceof WildcardType) {
+			throw new UnsupportedEvaluationException("wildcard " + sourceArgument.getTypeName());
+		}
+
+		for(Type upperBound : wildcard.getUpperBounds()) {
+
+			if(!isSubtype(sourceArgument, upperBound)) {
+				return false;
+			}
+		}
+
+		for(Type lowerBound : wildcard.getLowerBounds()) {
+
+			if(!isSubtype(lowerBound, sourceArgument)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Method to check if a reference type can be cast to another, or compared with <code>==</code>. Casts the compiler would reject
+	 * outright return FALSE. A cast to a parameterized type is only allowed when it can't go wrong at the type arguments.
+	 *
+	 * @param sourceType -- the static type of the expression.
+	 * @param targetType -- the type to cast to.
+	 * @return TRUE if it can be cast, FALSE if not.
+	 */
+	static boolean isCastable(Type sourceType, Type targetType) {
+
+		if(NULL_TYPE.equals(sourceType) || isSubtype(sourceType, targetType)) {
+			return true;
+		}
+
+		// Down to a parameterized type, only from a type that doesn't say anything about the type arguments.
+		else if(targetType instanceof ParameterizedType || targetType instanceof GenericArrayType) {
+			return sourceType instanceof Class && getErasure(sourceType).isAssignableFrom(getErasure(targetType));
+		}
+
+		return isCastable(getErasure(sourceType), getErasure(targetType));
+	}
+
+	/**
+	 * Method to check if one class can be cast to another.
+	 *
+	 * @param sourceClass -- the class of the expression.
+	 * @param targetClass -- the class to cast to.
+	 * @return TRUE if it can be cast, FALSE if not.
+	 */
+	private static boolean isCastable(Class<?> sourceClass, Class<?> targetClass) {
+
+		if(targetClass.isAssignableFrom(sourceClass) || sourceClass.isAssignableFrom(targetClass)) {
+			return true;
+		}
+
+		// Arrays, by their components.
+		else if(sourceClass.isArray() && targetClass.isArray()) {
+			return !sourceClass.getComponentType().isPrimitive() && !targetClass.getComponentType().isPrimitive() && isCastable(sourceClass.getComponentType(), targetClass.getComponentType());
+		}
+
+		// An interface and a class that isn't final could always meet in a subclass.
+		else if(sourceClass.isInterface() && !targetClass.isArray()) {
+			return targetClass.isInterface() || !Modifier.isFinal(targetClass.getModifiers());
+		}
+
+		else if(targetClass.isInterface() && !sourceClass.isArray()) {
+			return !Modifier.isFinal(sourceClass.getModifiers());
+		}
+
+		return false;
+	}
+
+	/**
+	 * Method to get the type arguments of a generic class, as some type sees them. For example, <code>ArrayList&lt;String&gt;</code> sees
+	 * the <code>E</code> of List as String.
+	 *
+	 * @param type -- the type, a subtype of the class.
+	 * @param genericClass -- the generic class.
+	 * @return Map -- the type arguments by type variable, NULL if the type is raw somewhere along the way.
+	 */
+	static Map<TypeVariable<?>, Type> getTypeArguments(Type type, Class<?> genericClass) {
+		Map<TypeVariable<?>, Type> typeArguments = new HashMap<TypeVariable<?>, Type>();
+		Class<?> typeClass = getErasure(type);
+
+		// Arrays and interfaces only get to Object.
+		if(typeClass.isArray() || NULL_TYPE.equals(typeClass) || (Object.class.equals(genericClass) && !Object.class.equals(typeClass))) {
+			return typeArguments;
+		}
+
+		// Lay the type arguments over the type variables.
+		if(type instanceof ParameterizedType) {
+			TypeVariable<?>[] typeParameters = typeClass.getTypeParameters();
+			Type[] actualTypeArguments = ((ParameterizedType) type).getActualTypeArguments();
+
+			for(int parameterIndex = 0; parameterIndex < typeParameters.length; parameterIndex++) {
+				typeArguments.put(typeParameters[parameterIndex], actualTypeArguments[parameterIndex]);
+			}
+		}
+
+		// A generic class used without type arguments is raw.
+		else if(typeClass.getTypeParameters().length > 0) {
+			return null;
+		}
+
+		if(typeClass.equals(genericClass)) {
+			return typeArguments;
+		}
+
+		// Go up through whichever supertype leads to the generic class.
+		List<Type> supertypes = new ArrayList<Type>(Arrays.asList(typeClass.getGenericInterfaces()));
+
+		if(typeClass.getGenericSuperclass() != null) {
+			supertypes.add(0, typeClass.getGenericSuperclass());
+		}
+
+		for(Type supertype : supertypes) {
+
+			if(genericClass.isAssignableFrom(getErasure(supertype))) {
+				return getTypeArguments(substitute(supertype, typeArguments), genericClass);
+			}
+		}
+
+		throw new UnsupportedEvaluationException("type " + type.getTypeName() + " as " + genericClass.getName());
+	}
+
+	/**
+	 * Method to get the type of a member -- a field type, a parameter or a return type -- as seen through the type it's used on. A raw
+	 * type only sees the erasure.
+	 *
+	 * @param memberType -- the generic type of the member.
+	 * @param receiverType -- the static type it's used on.
+	 * @param declaringClass -- the class that declares the member.
+	 * @return Type -- the type.
+	 */
+	static Type getMemberType(Type memberType, Type receiverType, Class<?> declaringClass) {
+		Map<TypeVariable<?>, Type> typeArguments = getTypeArguments(receiverType, declaringClass);
+
+		if(typeArguments == null) {
+			return getErasure(memberType);
+		}
+
+		return substitute(memberType, typeArguments);
+	}
+
+	/**
+	 * Method to put type arguments in for the type variables of a type.
+	 *
+	 * @param type -- the type.
+	 * @param typeArguments -- the type arguments by type variable.
+	 * @return Type -- the type with them put in. Type variables that aren't in the map stay.
+	 */
+	static Type substitute(Type type, Map<TypeVariable<?>, Type> typeArguments) {
+
+		if(type instanceof TypeVariable) {
+			return typeArguments.containsKey(type) ? typeArguments.get(type) : type;
+		}
+
+		else if(type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Type[] actualTypeArguments = parameterizedType.getActualTypeArguments().clone();
+
+			for(int argumentIndex = 0; argumentIndex < actualTypeArguments.length; argumentIndex++) {
+				actualTypeArguments[argumentIndex] = substitute(actualTypeArguments[argumentIndex], typeArguments);
+			}
+
+			Type ownerType = parameterizedType.getOwnerType() == null ? null : substitute(parameterizedType.getOwnerType(), typeArguments);
+			return new JavaParameterizedType((Class<?>) parameterizedType.getRawType(), actualTypeArguments, ownerType);
+		}
+
+		else if(type instanceof GenericArrayType) {
+			return getArrayType(substitute(((GenericArrayType) type).getGenericComponentType(), typeArguments));
+		}
+
+		else if(type instanceof WildcardType) {
+			WildcardType wildcard = (WildcardType) type;
+			return new JavaWildcardType(substitute(wildcard.getUpperBounds(), typeArguments), substitute(wildcard.getLowerBounds(), typeArguments));
+		}
+
+		return type;
+	}
+
+	/**
+	 * Method to put type arguments in for the type variables of several types.
+	 *
+	 * @param types -- the types.
+	 * @param typeArguments -- the type arguments by type variable.
+	 * @return Type[] -- the types with them put in.
+	 */
+	private static Type[] substitute(Type[] types, Map<TypeVariable<?>, Type> typeArguments) {
+		Type[] substitutedTypes = new Type[types.length];
+
+		for(int typeIndex = 0; typeIndex < types.length; typeIndex++) {
+			substitutedTypes[typeIndex] = substitute(types[typeIndex], typeArguments);
+		}
+
+		return substitutedTypes;
+	}
+
+	/**
+	 * Return if there's a type variable anywhere in this type.
+	 *
+	 * @param type -- the type.
+	 * @return TRUE if there is, FALSE if not.
+	 */
+	static boolean containsTypeVariable(Type type) {
+
+		if(type instanceof TypeVariable) {
+			return true;
+		}
+
+		else if(type instanceof ParameterizedType) {
+			return Arrays.stream(((ParameterizedType) type).getActualTypeArguments()).anyMatch(JavaTypes::containsTypeVariable);
+		}
+
+		else if(type instanceof GenericArrayType) {
+			return containsTypeVariable(((GenericArrayType) type).getGenericComponentType());
+		}
+
+		else if(type instanceof WildcardType) {
+			WildcardType wildcard = (WildcardType) type;
+			return Arrays.stream(wildcard.getUpperBounds()).anyMatch(JavaTypes::containsTypeVariable) || Arrays.stream(wildcard.getLowerBounds()).anyMatch(JavaTypes::containsTypeVariable);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Class for a parameterized type we put together ourselves. It's equal to the ones reflection hands back.
+	 */
+	private static final class JavaParameterizedType implements ParameterizedType {
+
+		/**
+		 * The generic class.
+		 */
+		private final Class<?> rawType;
+
+		/**
+		 * The type arguments.
+		 */
+		private final Type[] actualTypeArguments;
+
+		/**
+		 * The type this one is a member of, if it is.
+		 */
+		private final Type ownerType;
+
+		/**
+		 * Constructor for the type.
+		 *
+		 * @param rawType -- the generic class.
+		 * @param actualTypeArguments -- the type arguments.
+		 * @param ownerType -- the owner.
+		 */
+		private JavaParameterizedType(Class<?> rawType, Type[] actualTypeArguments, Type ownerType) {
+			this.rawType = rawType;
+			this.actualTypeArguments = actualTypeArguments;
+			this.ownerType = ownerType;
+		}
+
+		@Override
+		public Type[] getActualTypeArguments() {
+			return this.actualTypeArguments.clone();
+		}
+
+		@Override
+		public Type getRawType() {
+			return this.rawType;
+		}
+
+		@Override
+		public Type getOwnerType() {
+			return this.ownerType;
+		}
+
+		@Override
+		public boolean equals(Object otherType) {
+
+			if(!(otherType instanceof ParameterizedType)) {
+				return false;
+			}
+
+			ParameterizedType parameterizedType = (ParameterizedType) otherType;
+			return this.rawType.equals(parameterizedType.getRawType()) && Objects.equals(this.ownerType, parameterizedType.getOwnerType()) && Arrays.equals(this.actualTypeArguments, parameterizedType.getActualTypeArguments());
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(this.actualTypeArguments) ^ Objects.hashCode(this.ownerType) ^ this.rawType.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder typeName = new StringBuilder(this.rawType.getName()).append("<");
+
+			for(int argumentIndex = 0; argumentIndex < this.actualTypeArguments.length; argumentIndex++) {
+				typeName.append(argumentIndex == 0 ? "" : ", ").append(this.actualTypeArguments[argumentIndex].getTypeName());
+			}
+
+			return typeName.append(">").toString();
+		}
+	}
+
+	/**
+	 * Class for an array of a parameterized type we put together ourselves.
+	 */
+	private static final class JavaGenericArrayType implements GenericArrayType {
+
+		/**
+		 * The component type.
+		 */
+		private final Type componentType;
+
+		/**
+		 * Constructor for the type.
+		 *
+		 * @param componentType -- the component type.
+		 */
+		private JavaGenericArrayType(Type componentType) {
+			this.componentType = componentType;
+		}
+
+		@Override
+		public Type getGenericComponentType() {
+			return this.componentType;
+		}
+
+		@Override
+		public boolean equals(Object otherType) {
+			return otherType instanceof GenericArrayType && this.componentType.equals(((GenericArrayType) otherType).getGenericComponentType());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.componentType.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return this.componentType.getTypeName() + "[]";
+		}
+	}
+
+	/**
+	 * Class for a wildcard we put together ourselves.
+	 */
+	private static final class JavaWildcardType implements WildcardType {
+
+		/**
+		 * The upper bounds.
+		 */
+		private final Type[] upperBounds;
+
+		/**
+		 * The lower bounds.
+		 */
+		private final Type[] lowerBounds;
+
+		/**
+		 * Constructor for the wildcard.
+		 *
+		 * @param upperBounds -- the upper bounds.
+		 * @param lowerBounds -- the lower bounds.
+		 */
+		private JavaWildcardType(Type[] upperBounds, Type[] lowerBounds) {
+			this.upperBounds = upperBounds.length == 0 ? new Type[] { Object.class } : upperBounds;
+			this.lowerBounds = lowerBounds;
+		}
+
+		@Override
+		public Type[] getUpperBounds() {
+			return this.upperBounds.clone();
+		}
+
+		@Override
+		public Type[] getLowerBounds() {
+			return this.lowerBounds.clone();
+		}
+
+		@Override
+		public boolean equals(Object otherType) {
+
+			if(!(otherType instanceof WildcardType)) {
+				return false;
+			}
+
+			WildcardType wildcard = (WildcardType) otherType;
+			return Arrays.equals(this.upperBounds, wildcard.getUpperBounds()) && Arrays.equals(this.lowerBounds, wildcard.getLowerBounds());
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(this.upperBounds) ^ Arrays.hashCode(this.lowerBounds);
+		}
+
+		@Override
+		public String toString() {
+
+			if(this.lowerBounds.length > 0) {
+				return "? super " + this.lowerBounds[0].getTypeName();
+			}
+
+			return Object.class.equals(this.upperBounds[0]) ? "?" : "? extends " + this.upperBounds[0].getTypeName();
+		}
+	}
+}
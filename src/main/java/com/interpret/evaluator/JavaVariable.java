@@ -0,0 +1,256 @@
+package com.interpret.evaluator;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+
+/**
+ * Class for something the interpreter can assign to -- a local variable, a field or an array element. Getting at it is split in two,
+ * so that compound assignments and increments only work out the array and the index (or the object) once:
+ *
+ * <pre>
+ * Object location = variable.locate(frame);
+ * variable.set(frame, location, (Integer) variable.get(frame, location) + 1);
+ * </pre>
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+abstract class JavaVariable {
+
+	/**
+	 * The static type.
+	 */
+	private final Type type;
+
+	/**
+	 * Can it be assigned to? Final fields can't.
+	 */
+	private final boolean assignable;
+
+	/**
+	 * Constructor for the type.
+	 *
+	 * @param type -- the static type.
+	 * @param assignable -- TRUE if it can be assigned to, FALSE if not.
+	 */
+	JavaVariable(Type type, boolean assignable) {
+		this.type = type;
+		this.assignable = assignable;
+	}
+
+	/**
+	 * Getter for the static type.
+	 *
+	 * @return Type -- the static type.
+	 */
+	Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Return if this can be assigned to.
+	 *
+	 * @return TRUE if it can, FALSE if not.
+	 */
+	boolean isAssignable() {
+		return this.assignable;
+	}
+
+	/**
+	 * Method to work out where the variable is -- the object for a field, or the array and index for an element.
+	 *
+	 * @param frame -- the local variables.
+	 * @return Object -- the location.
+	 * @throws Throwable
+	 */
+	abstract Object locate(JavaFrame frame) throws Throwable;
+
+	/**
+	 * Method to get the value.
+	 *
+	 * @param frame -- the local variables.
+	 * @param location -- the location, from {@link #locate(JavaFrame)}.
+	 * @return Object -- the value.
+	 * @throws Throwable
+	 */
+	abstract Object get(JavaFrame frame, Object location) throws Throwable;
+
+	/**
+	 * Method to set the value. The value has to already be converted to the type of the variable.
+	 *
+	 * @param frame -- the local variables.
+	 * @param location -- the location, from {@link #locate(JavaFrame)}.
+	 * @param value -- the value.
+	 * @throws Throwable
+	 */
+	abstract void set(JavaFrame frame, Object location, Object value) throws Throwable;
+
+	/**
+	 * Method to make a local variable.
+	 *
+	 * @param slot -- the slot in the frame.
+	 * @param type -- the static type.
+	 * @param isFinal -- TRUE if it was declared final.
+	 * @return {@link JavaVariable} -- the variable.
+	 */
+	static JavaVariable local(int slot, Type type, boolean isFinal) {
+
+		return new JavaVariable(type, !isFinal) {
+
+			@Override
+			Object locate(JavaFrame frame) {
+				return null;
+			}
+
+			@Override
+			Object get(JavaFrame frame, Object location) {
+				return frame.get(slot);
+			}
+
+			@Override
+			void set(JavaFrame frame, Object location, Object value) {
+				frame.set(slot, value);
+			}
+		};
+	}
+
+	/**
+	 * Method to make a static field.
+	 *
+	 * @param field -- the field.
+	 * @param type -- the static type.
+	 * @return {@link JavaVariable} -- the variable.
+	 */
+	static JavaVariable staticField(Field field, Type type) {
+
+		return new JavaVariable(type, !Modifier.isFinal(field.getModifiers())) {
+
+			@Override
+			Object locate(JavaFrame frame) {
+				return null;
+			}
+
+			@Override
+			Object get(JavaFrame frame, Object location) throws IllegalAccessException {
+				return field.get(null);
+			}
+
+			@Override
+			void set(JavaFrame frame, Object location, Object value) throws IllegalAccessException {
+				field.set(null, value);
+			}
+		};
+	}
+
+	/**
+	 * Method to make a field of an object.
+	 *
+	 * @param target -- the expression for the object.
+	 * @param field -- the field.
+	 * @param type -- the static type.
+	 * @return {@link JavaVariable} -- the variable.
+	 */
+	static JavaVariable instanceField(JavaNode target, Field field, Type type) {
+
+		return new JavaVariable(type, !Modifier.isFinal(field.getModifiers())) {
+
+			@Override
+			Object locate(JavaFrame frame) throws Throwable {
+				return target.execute(frame);
+			}
+
+			@Override
+			Object get(JavaFrame frame, Object location) throws IllegalAccessException {
+				return field.get(requireNonNull(location));
+			}
+
+			@Override
+			void set(JavaFrame frame, Object location, Object value) throws IllegalAccessException {
+				field.set(requireNonNull(location), value);
+			}
+		};
+	}
+
+	/**
+	 * Method to make an array element. Like Java, a null array or a bad index only throws once the element is used.
+	 *
+	 * @param array -- the expression for the array.
+	 * @param index -- the expression for the index, already an int.
+	 * @param type -- the static type of the element.
+	 * @return {@link JavaVariable} -- the variable.
+	 */
+	static JavaVariable arrayElement(JavaNode array, JavaNode index, Type type) {
+
+		return new JavaVariable(type, true) {
+
+			@Override
+			Object locate(JavaFrame frame) throws Throwable {
+				return new Object[] { array.execute(frame), index.execute(frame) };
+			}
+
+			@Override
+			Object get(JavaFrame frame, Object location) {
+				Object[] arrayAndIndex = (Object[]) location;
+				return Array.get(requireNonNull(arrayAndIndex[0]), (Integer) arrayAndIndex[1]);
+			}
+
+			@Override
+			void set(JavaFrame frame, Object location, Object value) {
+				Object[] arrayAndIndex = (Object[]) location;
+				Object theArray = requireNonNull(arrayAndIndex[0]);
+
+				// Go straight through an object array, so storing the wrong type throws an ArrayStoreException like it should.
+				if(theArray instanceof Object[]) {
+					((Object[]) theArray)[(Integer) arrayAndIndex[1]] = value;
+				}
+
+				else {
+					Array.set(theArray, (Integer) arrayAndIndex[1], value);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Method to make the length of an array. It can't be assigned to.
+	 *
+	 * @param array -- the expression for the array.
+	 * @return {@link JavaVariable} -- the variable.
+	 */
+	static JavaVariable arrayLength(JavaNode array) {
+
+		return new JavaVariable(int.class, false) {
+
+			@Override
+			Object locate(JavaFrame frame) throws Throwable {
+				return array.execute(frame);
+			}
+
+			@Override
+			Object get(JavaFrame frame, Object location) {
+				return Array.getLength(requireNonNull(location));
+			}
+
+			@Override
+			void set(JavaFrame frame, Object location, Object value) {
+				throw new UnsupportedOperationException("length");
+			}
+		};
+	}
+
+	/**
+	 * Method to throw a NullPointerException for a null object or array, the same as Java.
+	 *
+	 * @param target -- the object or array.
+	 * @return Object -- the same object or array.
+	 */
+	static Object requireNonNull(Object target) {
+
+		if(target == null) {
+			throw new NullPointerException();
+		}
+
+		return target;
+	}
+}
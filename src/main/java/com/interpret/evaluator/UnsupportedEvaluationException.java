@@ -0,0 +1,24 @@
+package com.interpret.evaluator;
+
+/**
+ * Exception thrown when the evaluator comes across something it can't be sure it handles exactly the way Java would. The
+ * statement then goes through the compiler instead.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class UnsupportedEvaluationException extends RuntimeException {
+
+	/**
+	 * The serial version.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor to pass in what wasn't supported.
+	 *
+	 * @param message -- what wasn't supported.
+	 */
+	public UnsupportedEvaluationException(String message) {
+		super(message);
+	}
+}
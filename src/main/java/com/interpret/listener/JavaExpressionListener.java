@@ -5,6 +5,9 @@ import java.util.Scanner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+
 import com.actions.ActionType;
 import com.actions.JavaAction;
 import com.actions.JavaDanglingExpression;
@@ -16,6 +19,7 @@ import com.antlr.Java8BaseListener;
 import com.antlr.Java8Parser.AssignmentContext;
 import com.antlr.Java8Parser.LeftHandSideContext;
 import com.antlr.Java8Parser.MethodInvocationContext;
+import com.antlr.Java8Parser.MethodNameContext;
 import com.antlr.Java8Parser.MethodInvocation_lfno_primaryContext;
 import com.antlr.Java8Parser.PostDecrementExpressionContext;
 import com.antlr.Java8Parser.PostIncrementExpressionContext;
@@ -24,7 +28,17 @@ import com.antlr.Java8Parser.PreIncrementExpressionContext;
 import com.antlr.Java8Parser.StatementExpressionContext;
 import com.antlr.Java8Parser.TypeNameContext;
 import com.interpret.InterpreterUtils;
+import com.interpret.JavaDependencyGraph;
+import com.interpret.JavaInterpreterBenchmark;
+import com.interpret.JavaInterpreterCompiler;
 import com.interpret.JavaInterpreterMaps;
+import com.interpret.JavaInterpreterParser;
+import com.interpret.evaluator.ExecutionEngine;
+import com.interpret.evaluator.JavaExpressionEvaluator;
+import com.interpret.evaluator.JavaMethodTiers;
+import com.interpret.evaluator.JavaTreeInterpreter;
+import com.javasource.InterpreterSnippetClass;
+import com.javasource.InterpreterSuperClass;
 
 /**
  * Class that extends {@link Java8BaseListener} and parses and understands input as defined by the Java8 grammar.
@@ -115,45 +129,119 @@ public class JavaExpressionListener extends Java8BaseListener {
 			// This is a dangling expression, so grab it.
 			this.javaAction = new JavaDanglingExpression(this.rawInput);
 			
-			// If it matches the reserve methods.
-			boolean matchesReserved = ReservedMethods.getMethods().stream().anyMatch( reservedMethod -> this.rawInput.startsWith(reservedMethod) );
+			// Only a call to a reserved method by itself, like stats(); -- not a variable or a method whose name starts the same way.
+			ReservedMethods reservedMethod = getReservedMethod(statementExpression);
 			
 			// If this is a reserved method...
-			if(matchesReserved) {
-
-				// A save?
-				if(this.rawInput.startsWith(ReservedMethods.SAVE.getMethodName())) {
-					doReservedSave();
-				}
-				
-				// A load?
-				else if(this.rawInput.startsWith(ReservedMethods.LOAD.getMethodName())) {
-					doReservedLoad();
-				}
+			if(reservedMethod != null) {
 				
-				// Uncatch?
-				else if(this.rawInput.startsWith(ReservedMethods.UNCATCH.getMethodName())) {
-					doReservedUncatch();
-				}
-				
-				// Unimport?
-				else if(this.rawInput.startsWith(ReservedMethods.UNIMPORT.getMethodName())) {
-					doReservedUnimport();
-				}
-				
-				// Clear saves?
-				else if(this.rawInput.startsWith(ReservedMethods.CLEAR_SAVES.getMethodName())) {
-					doReservedClearSaves();
-				}
+				switch(reservedMethod) {
 				
-				// Exit?
-				else if(this.rawInput.startsWith(ReservedMethods.EXIT.getMethodName())) {
-					System.exit(0);
+					// A save?
+					case SAVE: {
+						doReservedSave();
+						break;
+					}
+					
+					// A load?
+					case LOAD: {
+						doReservedLoad();
+						break;
+					}
+					
+					// Uncatch?
+					case UNCATCH: {
+						doReservedUncatch();
+						break;
+					}
+					
+					// Unimport?
+					case UNIMPORT: {
+						doReservedUnimport();
+						break;
+					}
+					
+					// Add jar?
+					case ADD_JAR: {
+						doReservedAddJar();
+						break;
+					}
+					
+					// Clear saves?
+					case CLEAR_SAVES: {
+						doReservedClearSaves();
+						break;
+					}
+					
+					// Stats?
+					case STATS: {
+						doReservedStats();
+						break;
+					}
+					
+					// Engine?
+					case ENGINE: {
+						doReservedEngine();
+						break;
+					}
+					
+					// Tiers?
+					case TIERS: {
+						doReservedTiers();
+						break;
+					}
+					
+					// Types?
+					case TYPES: {
+						doReservedTypes();
+						break;
+					}
+					
+					// A benchmark?
+					case BENCHMARK: {
+						doReservedBenchmark();
+						break;
+					}
+					
+					// Exit?
+					case EXIT: {
+						System.exit(0);
+					}
 				}
 			}
 		}
 	}
 	
+	/**
+	 * Method to get the reserved method a statement calls. It has to be the whole statement, a call by its simple name, so that
+	 * <code>stats();</code> is one, but <code>statsCount++;</code> and <code>stats().clear();</code> aren't.
+	 * 
+	 * @param statementExpression -- the statement.
+	 * @return ReservedMethods -- the reserved method, NULL if it doesn't call one.
+	 */
+	private static ReservedMethods getReservedMethod(StatementExpressionContext statementExpression) {
+		
+		// Down through the rules that only wrap the one below them, to what the statement really is.
+		ParseTree expressionTree = statementExpression;
+		
+		while(expressionTree.getChildCount() == 1 && expressionTree.getChild(0) instanceof ParserRuleContext) {
+			expressionTree = expressionTree.getChild(0);
+		}
+		
+		// A call by a simple name.
+		MethodNameContext methodName = null;
+		
+		if(expressionTree instanceof MethodInvocation_lfno_primaryContext) {
+			methodName = ((MethodInvocation_lfno_primaryContext) expressionTree).methodName();
+		}
+		
+		else if(expressionTree instanceof MethodInvocationContext) {
+			methodName = ((MethodInvocationContext) expressionTree).methodName();
+		}
+		
+		return methodName == null ? null : ReservedMethods.getReservedMethod(methodName.getText());
+	}
+	
 	/**
 	 * Method to do the save method from a reserved method name match.
 	 */
@@ -300,15 +388,6 @@ public class JavaExpressionListener extends Java8BaseListener {
 				
 					// Get the file name.
 					JavaInterpreterMaps.getInstance().loadByDeserialize(fullFileDirectory.listFiles()[selected].getName());
-					
-					// Delete the class files.
-					for(String currentDirectoryFile : new File(".").list()) {
-						
-						// Wipe out the class files when we load.
-						if(currentDirectoryFile.endsWith(".class")) {
-							new File(currentDirectoryFile).delete();
-						}
-					}
 				}
 				
 				// Setup the load.
@@ -399,6 +478,158 @@ public class JavaExpressionListener extends Java8BaseListener {
 		}
 	}
 	
+	/**
+	 * Method to do the add jar method from a reserved method name match.
+	 */
+	private void doReservedAddJar() {
+		
+		// Try to gather out the jar.
+		Pattern parenPattern = Pattern.compile("addJar[(](.+)[)];");
+		Matcher matcher = parenPattern.matcher(this.rawInput);
+		
+		// Count the matches.
+		int matchCount = 0;
+		
+		// If we matched, tally the total.
+		while(matcher.find()) {
+			matchCount++;
+		}
+		
+		// If we have one match, we match our method signature.
+		if(matchCount == 1) {
+			
+			// Redo this...
+			matcher = parenPattern.matcher(this.rawInput);
+			matcher.matches();
+			
+			// Get the jar path, with or without quotes.
+			String jarPath = matcher.group(1).replace("\"", "").trim();
+			
+			// Add it onto the class path.
+			boolean addedSuccessfully = JavaInterpreterCompiler.getInstance().addJar(new File(jarPath));
+			
+			// Set up the java action.
+			this.javaAction = new JavaReservedMethod(ReservedMethods.ADD_JAR, addedSuccessfully);
+		}
+	}
+	
+	/**
+	 * Method to do the stats method from a reserved method name match.
+	 */
+	private void doReservedStats() {
+		System.out.println(JavaInterpreterCompiler.getInstance().getStatistics());
+		System.out.println(JavaExpressionEvaluator.getInstance().getStatistics());
+		System.out.println(JavaTreeInterpreter.getInstance().getStatistics());
+		System.out.println(JavaInterpreterMaps.getInstance().getStatistics());
+		System.out.println(JavaDependencyGraph.getInstance().getStatistics());
+		System.out.println(JavaInterpreterParser.getInstance().getStatistics());
+		this.javaAction = new JavaReservedMethod(ReservedMethods.STATS, true);
+	}
+	
+	/**
+	 * Method to do the tiers method from a reserved method name match.
+	 */
+	private void doReservedTiers() {
+		System.out.println(JavaMethodTiers.getInstance().getSummary());
+		this.javaAction = new JavaReservedMethod(ReservedMethods.TIERS, true);
+	}
+	
+	/**
+	 * Method to do the types method from a reserved method name match.
+	 */
+	private void doReservedTypes() {
+		System.out.println(InterpreterSnippetClass.getTypeSummary());
+		this.javaAction = new JavaReservedMethod(ReservedMethods.TYPES, true);
+	}
+	
+	/**
+	 * Method to do the benchmark method from a reserved method name match.
+	 */
+	private void doReservedBenchmark() {
+		
+		// Try to gather out the number of runs.
+		Pattern parenPattern = Pattern.compile("benchmark[(](.+)[)];");
+		Matcher matcher = parenPattern.matcher(this.rawInput);
+		
+		// Count the matches.
+		int matchCount = 0;
+		
+		// If we matched, tally the total.
+		while(matcher.find()) {
+			matchCount++;
+		}
+		
+		// If we have one match, we match our method signature.
+		if(matchCount == 1) {
+			
+			// Redo this...
+			matcher = parenPattern.matcher(this.rawInput);
+			matcher.matches();
+			
+			boolean success = false;
+			
+			// Run the last compiled statement, if there's been one.
+			try {
+				int runs = Integer.parseInt(matcher.group(1).trim());
+				InterpreterSuperClass lastStatement = JavaInterpreterCompiler.getInstance().getLastStatement();
+				
+				if(lastStatement != null && runs >= JavaInterpreterBenchmark.MINIMUM_RUNS) {
+					System.out.println(JavaInterpreterBenchmark.benchmark(lastStatement, runs));
+					success = true;
+				}
+			}
+			
+			catch(NumberFormatException e) {
+				;
+			}
+			
+			// The statement itself failed.
+			catch(Exception e) {
+				System.err.println("Benchmarked statement encountered failure : " + e);
+			}
+			
+			// Set up the java action.
+			this.javaAction = new JavaReservedMethod(ReservedMethods.BENCHMARK, success);
+		}
+	}
+	
+	/**
+	 * Method to do the engine method from a reserved method name match.
+	 */
+	private void doReservedEngine() {
+		
+		// Try to gather out the engine.
+		Pattern parenPattern = Pattern.compile("engine[(](.+)[)];");
+		Matcher matcher = parenPattern.matcher(this.rawInput);
+		
+		// Count the matches.
+		int matchCount = 0;
+		
+		// If we matched, tally the total.
+		while(matcher.find()) {
+			matchCount++;
+		}
+		
+		// If we have one match, we match our method signature.
+		if(matchCount == 1) {
+			
+			// Redo this...
+			matcher = parenPattern.matcher(this.rawInput);
+			matcher.matches();
+			
+			// Get the engine, with or without quotes.
+			ExecutionEngine engine = ExecutionEngine.fromName(matcher.group(1).replace("\"", "").trim());
+			
+			// Switch over to it.
+			if(engine != null) {
+				JavaTreeInterpreter.getInstance().setEngine(engine);
+			}
+			
+			// Set up the java action.
+			this.javaAction = new JavaReservedMethod(ReservedMethods.ENGINE, engine != null);
+		}
+	}
+	
 	/**
 	 * Method to do the clear saves method from a reserved method name match.
 	 */
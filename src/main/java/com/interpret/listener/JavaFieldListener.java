@@ -1,10 +1,18 @@
 package com.interpret.listener;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.actions.JavaAction;
+import com.actions.JavaArrayInitializer;
 import com.actions.JavaField;
 import com.antlr.Java8BaseListener;
+import com.antlr.Java8Parser.ArrayInitializerContext;
+import com.antlr.Java8Parser.FieldDeclarationContext;
 import com.antlr.Java8Parser.FieldModifierContext;
 import com.antlr.Java8Parser.VariableDeclaratorContext;
+import com.antlr.Java8Parser.VariableInitializerContext;
+import com.interpret.InterpreterUtils;
 
 /**
  * Class that extends {@link Java8BaseListener} and parses and understands input as defined by the Java8 grammar.
@@ -27,6 +35,21 @@ public class JavaFieldListener extends Java8BaseListener {
 	 * The field name.
 	 */
 	private String fieldName;
+	
+	/**
+	 * The field type.
+	 */
+	private String fieldType;
+	
+	/**
+	 * The declared variables.
+	 */
+	private List<String> variableDeclaratorIds = new ArrayList<String>();
+	
+	/**
+	 * The array initializer, if there's one variable with one.
+	 */
+	private JavaArrayInitializer arrayInitializer;
 
 	/**
 	 * Constructor to pass in the actual raw input.
@@ -49,8 +72,57 @@ public class JavaFieldListener extends Java8BaseListener {
 			rawInput = rawInput.replaceAll(this.modifier, "");
 		}
 		
+		// Build up the field.
+		JavaField javaField = new JavaField(rawInput, fieldName);
+		javaField.setFieldType(fieldType);
+		javaField.setVariableDeclaratorIds(variableDeclaratorIds);
+		javaField.setArrayInitializer(arrayInitializer);
+		
 		// Return this list.
-		return new JavaField(rawInput, fieldName);
+		return javaField;
+	}
+	
+	@Override
+	public void enterFieldDeclaration(FieldDeclarationContext ctx) {
+		
+		// Fields can be declared inside of the initializer (say, an anonymous class). We only want the outermost one.
+		if(this.fieldType != null) {
+			return;
+		}
+		
+		// Grab the type as it was typed.
+		this.fieldType = InterpreterUtils.getOriginalText(ctx.unannType());
+		
+		// And each of the variables it declares.
+		for(VariableDeclaratorContext variableDeclarator : ctx.variableDeclaratorList().variableDeclarator()) {
+			variableDeclaratorIds.add(InterpreterUtils.getOriginalText(variableDeclarator.variableDeclaratorId()));
+		}
+		
+		// An array initializer can get too big for one method, so keep its elements, and theirs, in case it needs splitting up.
+		VariableInitializerContext variableInitializer = ctx.variableDeclaratorList().variableDeclarator(0).variableInitializer();
+		
+		if(variableDeclaratorIds.size() == 1 && variableInitializer != null && variableInitializer.arrayInitializer() != null) {
+			arrayInitializer = getArrayInitializer(variableInitializer.arrayInitializer());
+		}
+	}
+	
+	/**
+	 * Method to get an array initializer, along with any initializers nested in it.
+	 * 
+	 * @param ctx -- the initializer.
+	 * @return {@link JavaArrayInitializer} -- the initializer.
+	 */
+	private static JavaArrayInitializer getArrayInitializer(ArrayInitializerContext ctx) {
+		List<JavaArrayInitializer> arrayElements = new ArrayList<JavaArrayInitializer>();
+		
+		if(ctx.variableInitializerList() != null) {
+			
+			for(VariableInitializerContext arrayElement : ctx.variableInitializerList().variableInitializer()) {
+				arrayElements.add(arrayElement.arrayInitializer() != null ? getArrayInitializer(arrayElement.arrayInitializer()) : new JavaArrayInitializer(InterpreterUtils.getOriginalText(arrayElement)));
+			}
+		}
+		
+		return new JavaArrayInitializer(InterpreterUtils.getOriginalText(ctx), arrayElements);
 	}
 
 	@Override
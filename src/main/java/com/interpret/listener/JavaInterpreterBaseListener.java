@@ -1,20 +1,19 @@
 package com.interpret.listener;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
-import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 
-import com.actions.ActionType;
 import com.actions.JavaAction;
+import com.actions.JavaActionSet;
 import com.actions.JavaClass;
 import com.actions.JavaEnum;
 import com.actions.JavaException;
@@ -22,9 +21,10 @@ import com.actions.JavaImport;
 import com.actions.JavaLoopOrIfStatement;
 import com.antlr.Java8BaseListener;
 import com.antlr.Java8Lexer;
-import com.antlr.Java8Parser;
 import com.antlr.Java8Parser.CatchClauseContext;
+import com.antlr.Java8Parser.ClassBodyDeclarationContext;
 import com.antlr.Java8Parser.ClassDeclarationContext;
+import com.antlr.Java8Parser.ClassMemberDeclarationContext;
 import com.antlr.Java8Parser.DoStatementContext;
 import com.antlr.Java8Parser.EnumDeclarationContext;
 import com.antlr.Java8Parser.ExpressionStatementContext;
@@ -33,9 +33,12 @@ import com.antlr.Java8Parser.ForStatementContext;
 import com.antlr.Java8Parser.IfThenElseStatementContext;
 import com.antlr.Java8Parser.IfThenStatementContext;
 import com.antlr.Java8Parser.ImportDeclarationContext;
+import com.antlr.Java8Parser.InterfaceDeclarationContext;
+import com.antlr.Java8Parser.LabeledStatementContext;
 import com.antlr.Java8Parser.MethodDeclarationContext;
 import com.antlr.Java8Parser.NormalClassDeclarationContext;
 import com.antlr.Java8Parser.WhileStatementContext;
+import com.interpret.InterpreterUtils;
 import com.interpret.JavaInterpreterMaps;
 
 /**
@@ -77,15 +80,12 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		// Find the relevant dependencies.
 		Set<JavaAction> dependentActions = getDependentActions(findIdentifiers(feildDeclarationContext));
 		
-		// Go walk this specifically.
-		Java8Parser newParser = getNewParser();
-		
 		// Pass through the raw input to the field listener.
 		JavaFieldListener listener = new JavaFieldListener(rawInput);
 		
-		// Get the walker and walk with the new listener.
+		// Walk the part of the tree we already have with the new listener.
 		ParseTreeWalker walker = new ParseTreeWalker();
-		walker.walk(listener, newParser.fieldDeclaration());
+		walker.walk(listener, feildDeclarationContext);
 		
 		// Set the new action.
 		this.newAction = listener.getJavaAction();
@@ -110,18 +110,16 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		// Find the relevant dependencies.
 		Set<JavaAction> dependentActions = getDependentActions(findIdentifiers(methodDeclarationContext));
 		
-		// Go walk this specifically.
-		Java8Parser newParser = getNewParser();
-		
 		// Pass through the raw input to the field listener.
 		JavaMethodListener listener = new JavaMethodListener(rawInput);
 		
-		// Get the walker and walk with the new listener.
+		// Walk the part of the tree we already have with the new listener.
 		ParseTreeWalker walker = new ParseTreeWalker();
-		walker.walk(listener, newParser.methodDeclaration());
+		walker.walk(listener, methodDeclarationContext);
 		
-		// Set the new action.
+		// Set the new action, holding onto the tree in case it can run without compiling.
 		this.newAction = listener.getJavaAction();
+		newAction.setParseTree(methodDeclarationContext);
 		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
@@ -138,21 +136,24 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		// Find the relevant dependencies.
 		Set<JavaAction> dependentActions = getDependentActions(findIdentifiers(statementContext));
 		
-		// Go walk this specifically.
-		Java8Parser newParser = getNewParser();
-		
 		// Pass through the raw input to the field listener.
 		JavaExpressionListener listener = new JavaExpressionListener(rawInput);
 		
-		// Get the walker and walk with the new listener.
+		// Walk the part of the tree we already have with the new listener.
 		ParseTreeWalker walker = new ParseTreeWalker();
-		walker.walk(listener, newParser.expressionStatement());
+		walker.walk(listener, statementContext);
 		
-		// Set the new action.
+		// Set the new action, holding onto the tree in case it can run without compiling.
 		this.newAction = listener.getJavaAction();
+		newAction.setParseTree(statementContext);
 		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
+		
+		// The conditional action is the same input, so it depends on the same things.
+		if(newAction.getConditionalAction() != null) {
+			newAction.getConditionalAction().setDependentActions(dependentActions);
+		}
 	}
 	
 	@Override
@@ -168,6 +169,7 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		
 		// The java loop.
 		this.newAction = new JavaLoopOrIfStatement(this.rawInput);
+		newAction.setParseTree(ifThenElseContext);
 		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
@@ -186,6 +188,7 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		
 		// The java loop.
 		this.newAction = new JavaLoopOrIfStatement(this.rawInput);
+		newAction.setParseTree(ifThenContext);
 		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
@@ -204,6 +207,7 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		
 		// The java loop.
 		this.newAction = new JavaLoopOrIfStatement(this.rawInput);
+		newAction.setParseTree(forStatementContext);
 		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
@@ -222,6 +226,7 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		
 		// The java loop.
 		this.newAction = new JavaLoopOrIfStatement(this.rawInput);
+		newAction.setParseTree(whileStatementContext);
 		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
@@ -240,6 +245,26 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 		
 		// The java loop.
 		this.newAction = new JavaLoopOrIfStatement(this.rawInput);
+		newAction.setParseTree(doStatementContext);
+		
+		// Set the dependent actions.
+		newAction.setDependentActions(dependentActions);
+	}
+	
+	@Override
+	public void enterLabeledStatement(LabeledStatementContext labeledStatementContext) {
+		
+		// The label goes with the statement it's on, so make sure we DON'T try and do that one again.
+		if(this.newAction != null) {
+			return;
+		}
+		
+		// Find the relevant dependencies.
+		Set<JavaAction> dependentActions = getDependentActions(findIdentifiers(labeledStatementContext));
+		
+		// The java loop.
+		this.newAction = new JavaLoopOrIfStatement(this.rawInput);
+		newAction.setParseTree(labeledStatementContext);
 		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
@@ -248,6 +273,11 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 	@Override
 	public void enterClassDeclaration(ClassDeclarationContext classDeclarationContext) {
 		
+		// A nested class or enum goes with the one it's in, so make sure we DON'T try and do it again.
+		if(this.newAction != null) {
+			return;
+		}
+		
 		// Find the relevant dependencies.
 		Set<JavaAction> dependentActions = getDependentActions(findIdentifiers(classDeclarationContext));
 		
@@ -265,10 +295,125 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 			this.newAction = new JavaClass(this.rawInput, normalClass.Identifier().getText());
 		}		
 		
+		// The snippet makes its members public, so statements can use them from a loader of their own.
+		newAction.setSnippetInput(toPublicDeclaration(classDeclarationContext));
+		
 		// Set the dependent actions.
 		newAction.setDependentActions(dependentActions);
 	}
 	
+	/**
+	 * Method to get a class or enum declaration with its members made public, along with those of the classes and interfaces nested
+	 * in it. A statement is loaded apart from the snippets, in a different runtime package, so anything package-private or protected
+	 * would throw an {@link IllegalAccessError} once it ran. Private members stay private, since nothing outside could name them
+	 * anyway, and so do enum constructors, which can't be public.
+	 * 
+	 * @param classDeclarationContext -- the declaration.
+	 * @return String -- the declaration, with its members public.
+	 */
+	private static String toPublicDeclaration(ClassDeclarationContext classDeclarationContext) {
+		
+		// The edits, by where they go in the declaration, with how much of it they replace.
+		TreeMap<Integer, Integer> publicEdits = new TreeMap<Integer, Integer>();
+		addPublicEdits(classDeclarationContext, classDeclarationContext.start.getStartIndex(), publicEdits);
+		
+		// Make them from the back, so the ones in front stay where they are.
+		StringBuilder publicDeclaration = new StringBuilder(InterpreterUtils.getOriginalText(classDeclarationContext));
+		
+		publicEdits.descendingMap().forEach( (editIndex, replacedLength) -> publicDeclaration.replace(editIndex, editIndex + replacedLength, replacedLength == 0 ? "public " : "public") );
+		
+		return publicDeclaration.toString();
+	}
+	
+	/**
+	 * Method to find the members of a class or enum that need making public.
+	 * 
+	 * @param classDeclarationContext -- the class or enum.
+	 * @param startIndex -- where the whole declaration starts.
+	 * @param publicEdits -- the edits, which the new ones get added to.
+	 */
+	private static void addPublicEdits(ClassDeclarationContext classDeclarationContext, int startIndex, Map<Integer, Integer> publicEdits) {
+		List<ClassBodyDeclarationContext> bodyDeclarations = new ArrayList<ClassBodyDeclarationContext>();
+		EnumDeclarationContext enumDeclaration = classDeclarationContext.enumDeclaration();
+		
+		if(enumDeclaration == null) {
+			bodyDeclarations.addAll(classDeclarationContext.normalClassDeclaration().classBody().classBodyDeclaration());
+		}
+		
+		else if(enumDeclaration.enumBody().enumBodyDeclarations() != null) {
+			bodyDeclarations.addAll(enumDeclaration.enumBody().enumBodyDeclarations().classBodyDeclaration());
+		}
+		
+		for(ClassBodyDeclarationContext bodyDeclaration : bodyDeclarations) {
+			ClassMemberDeclarationContext memberDeclaration = bodyDeclaration.classMemberDeclaration();
+			
+			if(bodyDeclaration.constructorDeclaration() != null && enumDeclaration == null) {
+				addPublicEdit(bodyDeclaration.constructorDeclaration(), bodyDeclaration.constructorDeclaration().constructorModifier(), startIndex, publicEdits);
+			}
+			
+			// Initializers have nothing to make public.
+			if(memberDeclaration == null) {
+				continue;
+			}
+			
+			if(memberDeclaration.fieldDeclaration() != null) {
+				addPublicEdit(memberDeclaration.fieldDeclaration(), memberDeclaration.fieldDeclaration().fieldModifier(), startIndex, publicEdits);
+			}
+			
+			else if(memberDeclaration.methodDeclaration() != null) {
+				addPublicEdit(memberDeclaration.methodDeclaration(), memberDeclaration.methodDeclaration().methodModifier(), startIndex, publicEdits);
+			}
+			
+			// A nested class or enum, and everything in it.
+			else if(memberDeclaration.classDeclaration() != null) {
+				ClassDeclarationContext nestedClass = memberDeclaration.classDeclaration();
+				
+				addPublicEdit(nestedClass, nestedClass.enumDeclaration() == null ? nestedClass.normalClassDeclaration().classModifier() : nestedClass.enumDeclaration().classModifier(), startIndex, publicEdits);
+				addPublicEdits(nestedClass, startIndex, publicEdits);
+			}
+			
+			// The members of an interface are public already.
+			else if(memberDeclaration.interfaceDeclaration() != null) {
+				InterfaceDeclarationContext nestedInterface = memberDeclaration.interfaceDeclaration();
+				
+				addPublicEdit(nestedInterface, nestedInterface.normalInterfaceDeclaration() == null ? nestedInterface.annotationTypeDeclaration().interfaceModifier() : nestedInterface.normalInterfaceDeclaration().interfaceModifier(), startIndex, publicEdits);
+			}
+		}
+	}
+	
+	/**
+	 * Method to make a member public, unless it's public or private already. A protected one gets its modifier replaced, and one
+	 * without any gets it put in front.
+	 * 
+	 * @param memberContext -- the member.
+	 * @param modifierContexts -- its modifiers.
+	 * @param startIndex -- where the whole declaration starts.
+	 * @param publicEdits -- the edits, which the new one gets added to.
+	 */
+	private static void addPublicEdit(ParserRuleContext memberContext, List<? extends ParserRuleContext> modifierContexts, int startIndex, Map<Integer, Integer> publicEdits) {
+		
+		for(ParserRuleContext modifierContext : modifierContexts) {
+			
+			switch(modifierContext.getText()) {
+				case "public":
+				case "private": {
+					return;
+				}
+				
+				case "protected": {
+					publicEdits.put(modifierContext.start.getStartIndex() - startIndex, "protected".length());
+					return;
+				}
+				
+				default: {
+					break;
+				}
+			}
+		}
+		
+		publicEdits.put(memberContext.start.getStartIndex() - startIndex, 0);
+	}
+	
 	@Override
 	public void enterCatchClause(CatchClauseContext exceptionContext) {
 		
@@ -303,71 +448,54 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 	}
 
 	/**
-	 * Method to determine the identifiers of the given parse tree. Brute force + recursion to see what parse trees
-	 * actually have the "Identifier" method on them, and store their text in a list to be returned.
+	 * Method to determine the identifiers of the given parse tree. Every rule under it that names something has the Identifier token
+	 * among its own children, as per the antlr grammar for java, so the first one of those is the name it uses.
 	 * 
 	 * @param parseContext -- the parse tree.
-	 * @return Set -- a string list of the identifiers (in order they were referenced).
+	 * @return Set -- a string list of the identifiers.
 	 */
 	private Set<String> findIdentifiers(ParserRuleContext parseContext) {
 		
 		// Get the list of identifiers.
 		Set<String> identifiers = new LinkedHashSet<String>();
 		
+		// The tree itself is the declaration or statement, so only the rules under it count.
+		addIdentifiers(parseContext, false, identifiers);
+		
+		// Return what we built up.
+		return identifiers;
+	}
+	
+	/**
+	 * Method to add the identifiers of a rule and everything under it, checking the token types rather than looking for an
+	 * Identifier method on each rule.
+	 * 
+	 * @param parseContext -- the rule.
+	 * @param takeIdentifier -- TRUE if the first Identifier token among its children is one of the identifiers.
+	 * @param identifiers -- the identifiers so far.
+	 */
+	private static void addIdentifiers(ParserRuleContext parseContext, boolean takeIdentifier, Set<String> identifiers) {
+		
 		// Go through each of the children trees that we have.
-		for(ParseTree aTree : parseContext.children) {
+		for(int childIndex = 0; childIndex < parseContext.getChildCount(); childIndex++) {
+			ParseTree aTree = parseContext.getChild(childIndex);
 			
-			try {
-				
-				// This is the identifier method that we wil invoke.
-				Method identifierMethod = aTree.getClass().getMethod("Identifier", null);
-				
-				// The terminal node is the identifier as per the antlr grammar for java.
-				TerminalNode node = null;
-				
-				// Invoke the method. We really should not have issues, but put them to the console if we do.
-				try {
-					if(identifierMethod.getReturnType().equals(List.class)) {
-						List<TerminalNode> listOfNodes = (List<TerminalNode>) identifierMethod.invoke(aTree, null);
-						
-						// We seem to only ever have one in here, so just grab it.
-						node = listOfNodes.get(0);
-					}
-					
-					else {
-						node = (TerminalNode) identifierMethod.invoke(aTree, null);
-					}
-				} 
-				
-				// Catch various exceptions here and re-throw the error.
-				catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					System.err.println("Exception... " + e);
-				}
-				
-				// If we made it here, we have a method for identifiers.
-				if(node != null) {
-					identifiers.add(node.getText());
-				}
-			}
-				
-			// No method? Keep going.
-			catch(NoSuchMethodException e) {
-				;
+			// Recurse on the rules.
+			if(aTree instanceof ParserRuleContext) {
+				addIdentifiers((ParserRuleContext) aTree, true, identifiers);
 			}
 			
-			// Recurse on all of the child nodes if they exist.
-			if(aTree.getChildCount() > 0) {
-				identifiers.addAll(findIdentifiers((ParserRuleContext)aTree));
-			}			
+			// Only the first Identifier of a rule is its name.
+			else if(takeIdentifier && ((TerminalNode) aTree).getSymbol().getType() == Java8Lexer.Identifier) {
+				identifiers.add(aTree.getText());
+				takeIdentifier = false;
+			}
 		}
-		
-		// Return what we built up.
-		return identifiers;
 	}
 	
 	/**
-	 * Method to find the relevent actions based on the identifiers. We will check each possible action type that might be referenced. If so,
-	 * then we will have the string associated to it in the compiled class to be referenced.
+	 * Method to find the relevent actions based on the identifiers. Each identifier is looked up once, and whatever action types it
+	 * matches are referenced in the compiled class.
 	 * 
 	 * @param relevantIdentifiers -- the names of the relevant identifiers.
 	 * @return Set -- a list of dependent actions to return based on the identifiers.
@@ -375,46 +503,14 @@ public class JavaInterpreterBaseListener extends Java8BaseListener {
 	private Set<JavaAction> getDependentActions(Set<String> relevantIdentifiers) {
 		
 		// The return list.
-		Set<JavaAction> dependentActions = new LinkedHashSet<JavaAction>();
+		Set<JavaAction> dependentActions = new JavaActionSet();
 		
-		// Loop through the identifiers.
+		// Loop through the identifiers, adding whatever each one could match.
 		for(String relevantIdentifer : relevantIdentifiers) {
-			
-			// Loop through each possible action that it could match.
-			for(ActionType possibleAction : ActionType.values()) {
-				
-				// If we have a match, add it.
-				if(JavaInterpreterMaps.getInstance().containsEntry(relevantIdentifer, possibleAction)) {
-					dependentActions.addAll(JavaInterpreterMaps.getInstance().getEntry(relevantIdentifer, possibleAction));
-				}
-			}
+			dependentActions.addAll(JavaInterpreterMaps.getInstance().getEntries(relevantIdentifer));
 		}
 		
 		// Return the built up list of dependents.
 		return dependentActions;
 	}
-	
-	/**
-	 * Method to get the new parser.
-	 * 
-	 * @return {@link Java8Parser}, the parser.
-	 */
-	private Java8Parser getNewParser() {
-		
-		// Put it into a lexer.
-    	Java8Lexer java8Lexer = new Java8Lexer(new ANTLRInputStream(this.rawInput));
-    	
-    	// Generate the token stream from that lexer.
-    	CommonTokenStream tokenStream = new CommonTokenStream(java8Lexer);
-    	
-    	// Now return the parser.
-    	Java8Parser parser = new Java8Parser(tokenStream);
-    	
-    	// Make the parser and lexer be quiet.
-    	parser.removeErrorListeners();
-    	java8Lexer.removeErrorListeners();
-    	
-    	// Now return.
-    	return parser;
-	}
 }
@@ -0,0 +1,518 @@
+package com.javasource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.actions.ActionType;
+import com.actions.JavaAction;
+import com.actions.JavaArrayInitializer;
+import com.actions.JavaField;
+
+/**
+ * Class that generates the snippet classes. Each field, method, class, enum and expression the user enters is compiled
+ * once into its own small class, and everything after that links against it rather than compiling it again. For example:
+ *
+ * <pre>
+ * int x = 5;                -->   public class Snippet_... { public static int x; public static void $init() { ... } }
+ * int m() { return x; }     -->   public class Snippet_... { public static int m() { return x; } }
+ * x = x + 2;                -->   public class Snippet_... { public static void $run() { x = x + 2; } }
+ * </pre>
+ *
+ * Snippets see each other through static imports, and the static fields hold the live values of the session. Fields are set
+ * through <code>$init()</code> when they're declared. Expressions run in their own statement, and only get a snippet with a
+ * <code>$run()</code> when they need replaying to build the state back up after a load.
+ *
+ * The user's classes and enums keep their name in theirs, so that <code>class Foo</code> lives in <code>Type_Foo_...</code>, with
+ * the hash of its snippet on the end, until it's declared differently, which makes a new version with a new hash. Every statement
+ * uses the same loaded version, so instances carry over from one statement to the next, and an old instance still in a field keeps
+ * its old version. Since every name comes from what's in the snippet, the same name always means the same class, even in a compile
+ * cached by an earlier run.
+ *
+ * Since nothing is replayed inline, the only code that can run into the JVM's 64KB limit on a method is a single declaration. A field
+ * with a big array initializer is split up, so that each chunk of its elements is filled in by a nested class of its own, with its own
+ * method and its own constant pool. Chunks are sized by the expressions in them, all the way down, and a nested row too big for one
+ * chunk is made by a nested class of its own, which splits it up the same way.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class InterpreterSnippetClass {
+
+	/**
+	 * The prefix of the snippet class names. The rest of the name comes from a hash of the source.
+	 */
+	private static final String CLASS_NAME_PREFIX = "Snippet_";
+
+	/**
+	 * The prefix of the snippet class names of the user's classes and enums. The rest is the type name and the hash of the source.
+	 */
+	private static final String TYPE_CLASS_NAME_PREFIX = "Type_";
+
+	/**
+	 * The versions of each of the user's classes and enums, as hashes of the snippet they were compiled from, in order.
+	 */
+	private static final Map<String, List<String>> TYPE_VERSIONS = new LinkedHashMap<String, List<String>>();
+
+	/**
+	 * The version of each of the user's classes and enums that was declared last.
+	 */
+	private static final Map<String, Integer> CURRENT_TYPE_VERSIONS = new HashMap<String, Integer>();
+
+	/**
+	 * The method that sets the fields of a field snippet.
+	 */
+	private static final String INIT_METHOD = "$init";
+
+	/**
+	 * The method that runs an expression snippet.
+	 */
+	private static final String RUN_METHOD = "$run";
+
+	/**
+	 * The most array initializer expressions, counting the ones in nested rows, filled in by one method. Anything bigger gets split
+	 * up into chunks of about this size.
+	 */
+	private static final int ARRAY_CHUNK_SIZE = 1000;
+
+	/**
+	 * Pattern for the modifiers at the start of a method or class declaration.
+	 */
+	private static final Pattern LEADING_MODIFIERS = Pattern.compile("^\\s*((?:(?:public|protected|private|static|final|abstract|synchronized|strictfp)\\s+)*)");
+
+	/**
+	 * String that represents the import declaration.
+	 */
+	private static final String IMPORT_DECLARATION = "package " + InterpreterSuperClass.GENERATED_PACKAGE + "; \n\n" +
+													 "import java.util.*; \n" +
+													 "import java.math.*; \n" +
+													 "import java.io.*; \n" +
+													 "%s \n" +
+													 "\n\n\n";
+
+	/**
+	 * String that represents a field snippet. The declaration itself goes into a local class, so that it can be run again
+	 * exactly as the user typed it, array initializers and all.
+	 */
+	private static final String FIELD_SNIPPET = "public class %s {\n\n" +
+		"\tpublic static %s %s;\n\n" +
+		"\tpublic static void " + INIT_METHOD + "() throws Exception {\n" +
+			"\t\tclass $Initializer {\n" +
+			"\t\t\t%s\n" +
+			"\t\t}\n\n" +
+			"\t\t$Initializer initializer = new $Initializer();\n" +
+			"%s" +
+		"\t}\n" +
+		"}";
+
+	/**
+	 * String that represents a field snippet with an array initializer too big for one method. The array is made up front, and each
+	 * chunk of it is filled in by one of the nested classes that follow.
+	 */
+	private static final String ARRAY_FIELD_SNIPPET = "public class %s {\n\n" +
+		"\tpublic static %s %s;\n\n" +
+		"\tpublic static void " + INIT_METHOD + "() throws Exception {\n" +
+			"\t\t%s $array = %s;\n" +
+			"%s" +
+			"\t\t%s = $array;\n" +
+		"\t}\n" +
+		"%s" +
+		"}";
+
+	/**
+	 * String that represents the nested class that fills in one chunk of a split up array initializer.
+	 */
+	private static final String ARRAY_CHUNK_CLASS = "\n\tstatic class $Fill%d {\n\n" +
+		"\t\tstatic void fill(%s $array) throws Exception {\n" +
+			"%s" +
+		"\t\t}\n" +
+		"\t}\n";
+
+	/**
+	 * String that represents the nested class that makes a nested row of a split up array initializer, when the row is too big for
+	 * one chunk. It fills the row in by chunks of its own.
+	 */
+	private static final String ARRAY_ROW_CLASS = "\n\tstatic class $Fill%d {\n\n" +
+		"\t\tstatic %s create() throws Exception {\n" +
+			"\t\t\t%s $array = %s;\n" +
+			"%s" +
+			"\t\t\treturn $array;\n" +
+		"\t\t}\n" +
+		"\t}\n";
+
+	/**
+	 * String that represents a method, class or enum snippet.
+	 */
+	private static final String MEMBER_SNIPPET = "public class %s {\n\n" +
+		"\t%s\n" +
+		"}";
+
+	/**
+	 * String that represents an expression snippet.
+	 */
+	private static final String EXPRESSION_SNIPPET = "public class %s {\n\n" +
+		"\tpublic static void " + RUN_METHOD + "() throws Exception {\n" +
+			"\t\t%s\n" +
+		"\t}\n" +
+		"}";
+
+	/**
+	 * Return if this action gets compiled into a snippet.
+	 *
+	 * @param javaAction -- the action to test.
+	 * @return TRUE for a snippet, FALSE for not.
+	 */
+	public static boolean isSnippet(JavaAction javaAction) {
+		return isMember(javaAction) || ActionType.EXPRESSION.equals(javaAction.getActionType());
+	}
+
+	/**
+	 * Return if this action is a member of its snippet that other classes import -- a field, method, class or enum.
+	 *
+	 * @param javaAction -- the action to test.
+	 * @return TRUE for a member, FALSE for not.
+	 */
+	public static boolean isMember(JavaAction javaAction) {
+
+		switch(javaAction.getActionType()) {
+			case FIELD:
+			case METHOD:
+			case CLASS:
+			case ENUM: {
+				return true;
+			}
+
+			default: {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Return if this action needs to be replayed from its snippet -- a field or an expression.
+	 *
+	 * @param javaAction -- the action to test.
+	 * @return TRUE for replayable, FALSE for not.
+	 */
+	public static boolean isReplayable(JavaAction javaAction) {
+		return ActionType.FIELD.equals(javaAction.getActionType()) || ActionType.EXPRESSION.equals(javaAction.getActionType());
+	}
+
+	/**
+	 * Return if this is one of the user's classes or enums, which are versioned.
+	 *
+	 * @param javaAction -- the action to test.
+	 * @return TRUE for a type, FALSE for not.
+	 */
+	public static boolean isType(JavaAction javaAction) {
+		return ActionType.CLASS.equals(javaAction.getActionType()) || ActionType.ENUM.equals(javaAction.getActionType());
+	}
+
+	/**
+	 * Method to keep track of the versions of a type, to show the user. The same snippet is always the same version, and a new one is
+	 * the next version. The class name doesn't use it, since it only counts what this run has seen.
+	 *
+	 * @param typeName -- the type name.
+	 * @param sourceHash -- the hash of the snippet source.
+	 */
+	private static synchronized void putTypeVersion(String typeName, String sourceHash) {
+		List<String> versions = TYPE_VERSIONS.computeIfAbsent(typeName, newTypeName -> new ArrayList<String>());
+
+		if(!versions.contains(sourceHash)) {
+			versions.add(sourceHash);
+		}
+
+		CURRENT_TYPE_VERSIONS.put(typeName, versions.indexOf(sourceHash) + 1);
+	}
+
+	/**
+	 * Method to get the snippet class name of a version of a type.
+	 *
+	 * @param typeName -- the type name.
+	 * @param sourceHash -- the hash of the snippet source.
+	 * @return String -- the simple class name.
+	 */
+	private static String getTypeClassName(String typeName, String sourceHash) {
+		return TYPE_CLASS_NAME_PREFIX + typeName + "_" + sourceHash;
+	}
+
+	/**
+	 * Method to get the versions of the user's classes and enums, to show the user.
+	 *
+	 * @return String -- the types, one to a line.
+	 */
+	public static synchronized String getTypeSummary() {
+		StringBuilder summary = new StringBuilder("User types: " + TYPE_VERSIONS.size());
+
+		TYPE_VERSIONS.forEach( (typeName, versions) -> summary.append("\n\t").append(typeName).append(" : version ").append(CURRENT_TYPE_VERSIONS.get(typeName))
+																.append(" of ").append(versions.size()).append(" (").append(getTypeClassName(typeName, versions.get(CURRENT_TYPE_VERSIONS.get(typeName) - 1)))
+																.append(")") );
+
+		return summary.toString();
+	}
+
+	/**
+	 * Method that will generate the snippet class for an action, and set the snippet class name on the action.
+	 *
+	 * @param javaAction -- the action.
+	 * @param importStatements -- the imports, including the static imports of any snippets it uses.
+	 * @return {@link JavaStringSource} -- the snippet source.
+	 */
+	public static JavaStringSource generateSnippet(JavaAction javaAction, String importStatements) {
+
+		// The template to fill in.
+		String snippetTemplate = String.format(IMPORT_DECLARATION, escape(importStatements)) + getSnippetBody(javaAction);
+
+		// Name it after the hash of what's in it, along with the type name if it's a type.
+		String sourceHash = InterpreterSuperClass.getSourceHash(String.format(snippetTemplate, ""));
+		String className = CLASS_NAME_PREFIX + sourceHash;
+
+		if(isType(javaAction)) {
+			putTypeVersion(javaAction.getName(), sourceHash);
+			className = getTypeClassName(javaAction.getName(), sourceHash);
+		}
+
+		javaAction.setSnippetClassName(InterpreterSuperClass.GENERATED_PACKAGE + "." + className);
+
+		return new JavaStringSource(javaAction.getSnippetClassName(), String.format(snippetTemplate, className));
+	}
+
+	/**
+	 * Method to get the static import of the member of a snippet.
+	 *
+	 * @param javaAction -- the field, method, class or enum.
+	 * @return String -- the static import.
+	 */
+	public static String getStaticImport(JavaAction javaAction) {
+		return "import static " + javaAction.getSnippetClassName() + "." + javaAction.getName() + ";";
+	}
+
+	/**
+	 * Method to get the name of the method that replays a snippet.
+	 *
+	 * @param javaAction -- the field or expression.
+	 * @return String -- the method name.
+	 */
+	public static String getReplayMethodName(JavaAction javaAction) {
+		return ActionType.FIELD.equals(javaAction.getActionType()) ? INIT_METHOD : RUN_METHOD;
+	}
+
+	/**
+	 * Method to get the body of the snippet, with the class name left to fill in.
+	 *
+	 * @param javaAction -- the action.
+	 * @return String -- the snippet body.
+	 */
+	private static String getSnippetBody(JavaAction javaAction) {
+
+		switch(javaAction.getActionType()) {
+
+			// Fields are declared as static, and copied over from the initializer.
+			case FIELD: {
+				JavaField javaField = (JavaField) javaAction;
+
+				// An array initializer that won't fit in one method gets split up.
+				if(javaField.getArrayInitializer() != null && javaField.getArrayInitializer().getSize() > ARRAY_CHUNK_SIZE && javaField.getFieldType() != null) {
+					return getArrayFieldSnippetBody(javaField);
+				}
+
+				// The declared variables, and the copies from the initializer.
+				StringBuilder variableDeclarators = new StringBuilder();
+				StringBuilder variableCopies = new StringBuilder();
+
+				for(String variableDeclaratorId : javaField.getVariableDeclaratorIds()) {
+
+					// Drop any array dimensions off of the name.
+					String variableName = variableDeclaratorId.replaceAll("\\[.*", "").trim();
+
+					variableDeclarators.append(variableDeclarators.length() == 0 ? "" : ", ").append(variableDeclaratorId);
+					variableCopies.append("\t\t").append(variableName).append(" = initializer.").append(variableName).append(";\n");
+				}
+
+				return String.format(FIELD_SNIPPET, "%1$s", escape(javaField.getFieldType() == null ? "Object" : javaField.getFieldType()), escape(variableDeclarators.toString()), escape(javaField.getRawInput()), escape(variableCopies.toString()));
+			}
+
+			// Methods, classes and enums become static members. Classes and enums come with their members made public.
+			case METHOD:
+			case CLASS:
+			case ENUM: {
+				return String.format(MEMBER_SNIPPET, "%1$s", escape(toStaticMember(javaAction.getSnippetInput())));
+			}
+
+			// Expressions get run.
+			case EXPRESSION: {
+				return String.format(EXPRESSION_SNIPPET, "%1$s", escape(javaAction.getRawInput()));
+			}
+
+			default: {
+				throw new IllegalArgumentException("No snippet for action type " + javaAction.getActionType());
+			}
+		}
+	}
+
+	/**
+	 * Method to get the body of a field snippet whose array initializer is split up into chunks. For example,
+	 * <code>int[] values = {1, 2, ...};</code> becomes <code>int[] $array = new int[n];</code>, followed by a call to
+	 * <code>$Fill0.fill($array)</code> for the first chunk, <code>$Fill1.fill($array)</code> for the next one, and so on.
+	 *
+	 * @param javaField -- the field, with one variable and its array initializer.
+	 * @return String -- the snippet body.
+	 */
+	private static String getArrayFieldSnippetBody(JavaField javaField) {
+		String variableDeclaratorId = javaField.getVariableDeclaratorIds().get(0);
+		String variableName = variableDeclaratorId.replaceAll("\\[.*", "").trim();
+
+		// The dimensions can be on the type or the name, or both.
+		String arrayType = (javaField.getFieldType() + variableDeclaratorId.substring(variableName.length())).replaceAll("\\s+", " ").replaceAll("\\s*\\[\\s*\\]", "[]").trim();
+
+		// Every chunk and row gets its own class, numbered in the order they're made.
+		List<String> fillClasses = new ArrayList<String>();
+		String fillCalls = getFillCalls(javaField.getArrayInitializer(), arrayType, "\t\t", fillClasses);
+
+		return String.format(ARRAY_FIELD_SNIPPET, "%1$s", escape(javaField.getFieldType()), escape(variableDeclaratorId), escape(arrayType),
+								escape(getArrayCreation(arrayType, javaField.getArrayInitializer().getElements().size())), escape(fillCalls), escape(variableName),
+								escape(String.join("", fillClasses)));
+	}
+
+	/**
+	 * Method to split up filling in an array into chunks, each filled in by a nested class of its own. A nested row that fits in a
+	 * chunk is pasted into it as it is, and one that doesn't is made by a nested class of its own, split up the same way.
+	 *
+	 * @param arrayInitializer -- the array initializer.
+	 * @param arrayType -- the type of the array.
+	 * @param indent -- the indent of the calls.
+	 * @param fillClasses -- the nested classes so far, which the new ones get added to.
+	 * @return String -- the calls that fill in the array, one to a chunk.
+	 */
+	private static String getFillCalls(JavaArrayInitializer arrayInitializer, String arrayType, String indent, List<String> fillClasses) {
+		String elementType = arrayType.substring(0, arrayType.length() - 2);
+		List<JavaArrayInitializer> arrayElements = arrayInitializer.getElements();
+
+		StringBuilder fillCalls = new StringBuilder();
+		StringBuilder chunkAssignments = new StringBuilder();
+		int chunkSize = 0;
+
+		for(int elementIndex = 0; elementIndex < arrayElements.size(); elementIndex++) {
+			JavaArrayInitializer arrayElement = arrayElements.get(elementIndex);
+			String elementValue = arrayElement.getText();
+			int elementSize = 1;
+
+			// A nested row too big for a chunk gets made on its own, and one that fits can't stand on its own, so it needs its type in front of it.
+			if(arrayElement.isInitializer() && arrayElement.getSize() > ARRAY_CHUNK_SIZE) {
+				elementValue = "$Fill" + addRowClass(arrayElement, elementType, fillClasses) + ".create()";
+			}
+
+			else if(arrayElement.isInitializer()) {
+				elementValue = "new " + getRawType(elementType) + " " + elementValue;
+				elementSize = Math.max(arrayElement.getSize(), 1);
+			}
+
+			// Start a new chunk if this one would get too big.
+			if(chunkSize > 0 && chunkSize + elementSize > ARRAY_CHUNK_SIZE) {
+				fillCalls.append(indent).append("$Fill").append(addChunkClass(arrayType, chunkAssignments.toString(), fillClasses)).append(".fill($array);\n");
+				chunkAssignments.setLength(0);
+				chunkSize = 0;
+			}
+
+			chunkAssignments.append("\t\t\t$array[").append(elementIndex).append("] = ").append(elementValue).append(";\n");
+			chunkSize += elementSize;
+		}
+
+		if(chunkSize > 0) {
+			fillCalls.append(indent).append("$Fill").append(addChunkClass(arrayType, chunkAssignments.toString(), fillClasses)).append(".fill($array);\n");
+		}
+
+		return fillCalls.toString();
+	}
+
+	/**
+	 * Method to add the nested class that fills in one chunk of an array.
+	 *
+	 * @param arrayType -- the type of the array.
+	 * @param chunkAssignments -- the assignments of the chunk.
+	 * @param fillClasses -- the nested classes so far.
+	 * @return int -- the number of the new class.
+	 */
+	private static int addChunkClass(String arrayType, String chunkAssignments, List<String> fillClasses) {
+		fillClasses.add(String.format(ARRAY_CHUNK_CLASS, fillClasses.size(), arrayType, chunkAssignments));
+
+		return fillClasses.size() - 1;
+	}
+
+	/**
+	 * Method to add the nested class that makes a nested row of an array, along with the classes that fill it in.
+	 *
+	 * @param arrayInitializer -- the row.
+	 * @param arrayType -- the type of the row.
+	 * @param fillClasses -- the nested classes so far.
+	 * @return int -- the number of the new class.
+	 */
+	private static int addRowClass(JavaArrayInitializer arrayInitializer, String arrayType, List<String> fillClasses) {
+
+		// Hold its number before the classes that fill it in take the next ones.
+		int rowClassIndex = fillClasses.size();
+		fillClasses.add("");
+
+		String fillCalls = getFillCalls(arrayInitializer, arrayType, "\t\t\t", fillClasses);
+		fillClasses.set(rowClassIndex, String.format(ARRAY_ROW_CLASS, rowClassIndex, arrayType, arrayType, getArrayCreation(arrayType, arrayInitializer.getElements().size()), fillCalls));
+
+		return rowClassIndex;
+	}
+
+	/**
+	 * Method to get the creation of an empty array, with the length given on its first dimension. For example, <code>int[][]</code>
+	 * of length 3 is <code>new int[3][]</code>.
+	 *
+	 * @param arrayType -- the type of the array.
+	 * @param length -- the length.
+	 * @return String -- the array creation.
+	 */
+	private static String getArrayCreation(String arrayType, int length) {
+		return "new " + getRawType(arrayType).replaceFirst("\\[\\]", "[" + length + "]");
+	}
+
+	/**
+	 * Method to get the raw type of a type, since arrays can't be made of a generic type.
+	 *
+	 * @param type -- the type.
+	 * @return String -- the type without any type arguments.
+	 */
+	private static String getRawType(String type) {
+		String rawType = type;
+
+		while(rawType.matches(".*<[^<>]*>.*")) {
+			rawType = rawType.replaceAll("<[^<>]*>", "");
+		}
+
+		return rawType;
+	}
+
+	/**
+	 * Method to turn a method or class declaration into a public static member, no matter what modifiers the user gave it.
+	 *
+	 * @param rawInput -- the declaration.
+	 * @return String -- the public static declaration.
+	 */
+	private static String toStaticMember(String rawInput) {
+		Matcher leadingModifiers = LEADING_MODIFIERS.matcher(rawInput);
+		leadingModifiers.find();
+
+		// Keep everything but the access and static modifiers.
+		String keptModifiers = leadingModifiers.group(1).replaceAll("\\b(public|protected|private|static)\\b\\s*", "");
+
+		return "public static " + keptModifiers + rawInput.substring(leadingModifiers.end());
+	}
+
+	/**
+	 * Method to escape user input so it can go through {@link String#format(String, Object...)} a second time.
+	 *
+	 * @param userInput -- the user input.
+	 * @return String -- the escaped input.
+	 */
+	private static String escape(String userInput) {
+		return userInput.replace("%", "%%");
+	}
+}
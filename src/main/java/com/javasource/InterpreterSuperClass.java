@@ -2,6 +2,13 @@ package com.javasource;
 
 import java.io.File;
 import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+import com.actions.JavaAction;
+import com.compiler.JavaInterpreterClassCache;
 
 /**
  * Abstract class that every 'new' class will extend. We'll assign a random class name to each of the subclasses, but they'll
@@ -19,10 +26,126 @@ public abstract class InterpreterSuperClass {
 	 */
 	public abstract Object evaluate() throws Exception;
 	
+	/**
+	 * What a statement returns when there's no value to show.
+	 */
+	public static final String VOID_RESULT = "\t\tResult returned: --> Return type of statement was void. Values or expressions may have been printed to the console.";
+	
+	/**
+	 * The start of what a statement returns when it has a value to show.
+	 */
+	public static final String VALUE_RESULT = "\t\tResult returned: --> ";
+	
+	/**
+	 * A statement that has a value.
+	 */
+	protected interface ValueStatement {
+		Object evaluate() throws Exception;
+	}
+	
+	/**
+	 * A statement that doesn't have a value, like a call to a void method.
+	 */
+	protected interface VoidStatement {
+		void evaluate() throws Exception;
+	}
+	
+	/**
+	 * Method to run a statement that has a value and show it. Statements are passed in as lambdas, so that the compiler picks between
+	 * this and {@link #result(VoidStatement)} for us. A lambda with a value fits both, but this one is more specific, so it wins. A void
+	 * method call only fits the other one. That way we know the shape of the statement from the one compile, instead of compiling, failing
+	 * on a void, and compiling again.
+	 * 
+	 * @param statement -- the statement.
+	 * @return String -- the result to show the user.
+	 * @throws Exception
+	 */
+	protected static String result(ValueStatement statement) throws Exception {
+		return VALUE_RESULT + statement.evaluate();
+	}
+	
+	/**
+	 * Method to run a statement that doesn't have a value.
+	 * 
+	 * @param statement -- the statement.
+	 * @return String -- the result to show the user.
+	 * @throws Exception
+	 */
+	protected static String result(VoidStatement statement) throws Exception {
+		statement.evaluate();
+		return VOID_RESULT;
+	}
+	
+	/**
+	 * The snippet methods to replay before the statement runs, in order.
+	 */
+	private List<Method> replayMethods = Collections.emptyList();
+	
+	/**
+	 * The fields and expressions the snippet methods replay, in the same order.
+	 */
+	private List<JavaAction> replayActions = Collections.emptyList();
+	
+	/**
+	 * Method to set the snippet methods to replay before the statement runs.
+	 * 
+	 * @param replayMethods -- the <code>$init()</code> and <code>$run()</code> methods of the snippets, in order.
+	 * @param replayActions -- the fields and expressions they replay, in the same order.
+	 */
+	public void setReplayMethods(List<Method> replayMethods, List<JavaAction> replayActions) {
+		this.replayMethods = replayMethods;
+		this.replayActions = replayActions;
+	}
+	
+	/**
+	 * Method that replays the fields and expressions the statement depends on that haven't run yet -- a new field, or what came back
+	 * from a load. Everything else is already there in the live session state. This is called from inside {@link #evaluate()}, so that
+	 * anything it throws is handled the same as the statement itself. The calls are made reflectively, so the statement class doesn't
+	 * have to be compiled against every snippet it replays. Each one is part of the live state as soon as it's run without throwing,
+	 * and none of them are replayed again if the statement is.
+	 * 
+	 * @throws Exception
+	 */
+	protected void replay() throws Exception {
+		
+		for(int replayIndex = 0; replayIndex < replayMethods.size(); replayIndex++) {
+			
+			// Throw what the snippet threw, not the reflection wrapper.
+			try {
+				replayMethods.get(replayIndex).invoke(null);
+				replayActions.get(replayIndex).setApplied(true);
+			}
+			
+			catch(InvocationTargetException e) {
+				
+				if(e.getCause() instanceof Exception) {
+					throw (Exception) e.getCause();
+				}
+				
+				throw (Error) e.getCause();
+			}
+		}
+		
+		// They're all live now.
+		replayMethods = Collections.emptyList();
+		replayActions = Collections.emptyList();
+	}
+	
+	/**
+	 * The package every generated class lives in.
+	 */
+	public static final String GENERATED_PACKAGE = "repl";
+	
+	/**
+	 * The prefix of the statement class names. The rest of the name comes from a hash of the source.
+	 */
+	private static final String CLASS_NAME_PREFIX = "CompileClass_";
+	
 	/**
 	 * String that represents the import declaration.
 	 */
-	private static final String IMPORT_DECLARATION = "import com.javasource.InterpreterSuperClass; \n" +
+	private static final String IMPORT_DECLARATION = "package " + GENERATED_PACKAGE + "; \n\n" +
+													 "import com.javasource.InterpreterSuperClass; \n" +
 													 "import java.util.*; \n" +
 													 "import java.math.*; \n" +
 													 "import java.io.*; \n" +
@@ -32,7 +155,7 @@ public abstract class InterpreterSuperClass {
 	/**
 	 * String that represents the declaration prefix of a class that extends this one.
 	 */
-	private static final String CLASS_DECLARATION_PREFIX = "public class CompileClass extends InterpreterSuperClass {\n\n %s \n\n";
+	private static final String CLASS_DECLARATION_PREFIX = "public class %s extends InterpreterSuperClass {\n\n";
 	
 	/**
 	 * String that represents the declaration suffix of a class that extends this one.
@@ -45,6 +168,7 @@ public abstract class InterpreterSuperClass {
 	private static final String EXPRESSION_METHOD_STRING = "\t@Override\n" +
 		"\tpublic Object evaluate() throws Exception {\n" +
 			"\t\ttry {\n" +
+			"\t\t\treplay();\n" +
 			"\t\t\t%s\n" +
 			"\t\t}\n" +
 			"\t\t%s\n" +
@@ -53,38 +177,58 @@ public abstract class InterpreterSuperClass {
 			"\t\t}\n" +
 		"\t}\n";
 	
+	/**
+	 * The file the last generated class is written to, so it can be looked at. It's off unless <code>-Dinterpreter.log</code> names
+	 * a file.
+	 */
+	private static final File LOG_FILE = System.getProperty("interpreter.log") == null ? null : new File(System.getProperty("interpreter.log"));
+	
 	/**
 	 * String that represents the fully built class that will be used to return feedback to the user.
 	 */
 	private static final String OVERALL_CLASS = IMPORT_DECLARATION + CLASS_DECLARATION_PREFIX + EXPRESSION_METHOD_STRING + CLASS_DECLARATION_SUFFIX;
 	
 	/**
-	 * Method that will return a shell of a new class with expression value put into it.
+	 * Method that will return a shell of a new class with expression value put into it. The class is named after a hash of its
+	 * source, so the same statement always ends up as the same class.
 	 * 
-	 * @param globalCode -- the global, class-level code.
+	 * @param importStatements -- the imports, including the static imports of any snippets the statement uses.
 	 * @param localCode -- the local, expression-level code.
+	 * @param exceptionStatements -- the catch clauses.
 	 * @return String -- the text version of a new class.
 	 */
-	public static JavaStringSource generateClass(String importStatements, String globalCode, String localCode, String exceptionStatements) {		
-		String sourceFile = String.format(OVERALL_CLASS, importStatements, globalCode, localCode, exceptionStatements);
+	public static JavaStringSource generateClass(String importStatements, String localCode, String exceptionStatements) {
+		String className = CLASS_NAME_PREFIX + getSourceHash(String.format(OVERALL_CLASS, importStatements, "", localCode, exceptionStatements));
+		String sourceFile = String.format(OVERALL_CLASS, importStatements, className, localCode, exceptionStatements);
 		log(sourceFile);
-		return new JavaStringSource(sourceFile);
+		return new JavaStringSource(GENERATED_PACKAGE + "." + className, sourceFile);
 	}
 	
 	/**
-	 * Print the source file to a log file.
+	 * Method to get the hash that generated class names are made from.
+	 * 
+	 * @param source -- the source, without the class name in it.
+	 * @return String -- the hash.
+	 */
+	static String getSourceHash(String source) {
+		return JavaInterpreterClassCache.getKey(source).substring(0, 16);
+	}
+	
+	/**
+	 * Print the source file to the log file, if there is one.
 	 * 
 	 * @param sourceFile -- the source file as a string.
 	 */
 	private static void log(String sourceFile) {
 		
+		// It's only for looking at what got compiled, so don't touch the disk unless we were asked to.
+		if(LOG_FILE == null) {
+			return;
+		}
+		
 		// Try to log it here.
-		try {
-			File logFile = new File("FILELOG.java");
-			logFile.createNewFile();
-			PrintWriter writer = new PrintWriter(logFile);
+		try(PrintWriter writer = new PrintWriter(LOG_FILE)) {
 			writer.write(sourceFile);
-			writer.close();
 		}
 		
 		catch(Exception e) {
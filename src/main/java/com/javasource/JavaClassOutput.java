@@ -0,0 +1,82 @@
+package com.javasource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * A file object that represents compiled Java bytecode that is kept in memory, rather than written to a .class file on disk.
+ * The compiler writes the class into {@link #openOutputStream()} and we read the bytes back through {@link #getBytes()}. Classes
+ * compiled earlier in the session are handed back to the compiler the same way, through {@link #openInputStream()}.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaClassOutput extends SimpleJavaFileObject {
+
+	/**
+	 * The binary name of the class (for example, CompileClass).
+	 */
+	private String className;
+
+	/**
+	 * The bytecode of this "file".
+	 */
+	private ByteArrayOutputStream byteCode = new ByteArrayOutputStream();
+
+	/**
+	 * Constructs a new class output for the given class name.
+	 *
+	 * @param className -- the binary name of the class being compiled.
+	 */
+	public JavaClassOutput(String className) {
+		super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+
+		// Set the class name.
+		this.className = className;
+	}
+	
+	/**
+	 * Constructs a class output for a class that has already been compiled.
+	 *
+	 * @param className -- the binary name of the class.
+	 * @param byteCode -- the bytecode of the class.
+	 */
+	public JavaClassOutput(String className, byte[] byteCode) {
+		this(className);
+		
+		// Put the bytecode in.
+		this.byteCode.write(byteCode, 0, byteCode.length);
+	}
+
+	/**
+	 * Getter for the class name.
+	 *
+	 * @return String -- the binary name of the class.
+	 */
+	public String getClassName() {
+		return this.className;
+	}
+
+	/**
+	 * Method to get the bytecode that the compiler wrote.
+	 *
+	 * @return byte[] -- the bytecode.
+	 */
+	public byte[] getBytes() {
+		return this.byteCode.toByteArray();
+	}
+
+	@Override
+	public InputStream openInputStream() {
+		return new ByteArrayInputStream(getBytes());
+	}
+
+	@Override
+	public OutputStream openOutputStream() {
+		return this.byteCode;
+	}
+}
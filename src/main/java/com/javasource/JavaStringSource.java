@@ -18,18 +18,33 @@ public class JavaStringSource extends SimpleJavaFileObject {
      * The source code of this "file".
      */
     private String code;
+    
+    /**
+     * The fully qualified name of the class this source declares.
+     */
+    private String className;
 
     /**
      * Constructs a new JavaSourceFromString.
      * 
-     * @param name -- The name of the compilation unit represented by this file object.
+     * @param className -- The fully qualified name of the class the compilation unit declares.
      * @param code -- The source code for the compilation unit represented by this file object.
      */
-    public JavaStringSource(String code) {
-        super(URI.create("string:///CompileClass" + Kind.SOURCE.extension), Kind.SOURCE);
+    public JavaStringSource(String className, String code) {
+        super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
         
         // Set the code... to the code, wrapped by a class declaration.
         this.code = code;
+        this.className = className;
+    }
+    
+    /**
+     * Getter for the class name.
+     * 
+     * @return String -- the fully qualified class name.
+     */
+    public String getClassName() {
+    	return className;
     }
 
     @Override
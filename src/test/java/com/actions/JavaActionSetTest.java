@@ -0,0 +1,134 @@
+package com.actions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Checks that a set of actions leaves out an action whose id has been let go of -- when it's iterated, sized or changed afterwards,
+ * when the id goes while it's being iterated, and when its slot has been given to another action -- and that what's left still
+ * comes back in order. Run it with the main classes on
+ * the classpath; it exits with an error on the first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaActionSetTest {
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		checkReleasedBefore();
+		checkReleasedDuring();
+		checkRemoveAfterSkip();
+		checkSlotReused();
+
+		System.out.println("JavaActionSetTest passed.");
+	}
+
+	/**
+	 * An id let go of before the set is used again is gone from it.
+	 */
+	private static void checkReleasedBefore() {
+		JavaAction a = new JavaField("int a = 1;", "a"), b = new JavaExpression("a = 2;", "a"), c = new JavaField("int c = a;", "c");
+		JavaActionSet actionSet = new JavaActionSet(Arrays.asList(a, b, c));
+
+		b.releaseActionId();
+
+		check(collect(actionSet).equals(Arrays.asList(a, c)), "the set should only have a and c, not " + collect(actionSet));
+		check(actionSet.size() == 2, "the set should have 2 actions, not " + actionSet.size());
+		check(!actionSet.contains(b), "the set shouldn't have b");
+		check(actionSet.getActionIds().length == 2, "the set should have 2 ids, not " + actionSet.getActionIds().length);
+
+		// Depended on again, it's a new action as far as the set is concerned.
+		check(actionSet.add(b), "b should go back in");
+		check(collect(actionSet).equals(Arrays.asList(a, c, b)), "the set should have a, c and b, not " + collect(actionSet));
+	}
+
+	/**
+	 * An id let go of while the set is being iterated is skipped.
+	 */
+	private static void checkReleasedDuring() {
+		JavaAction a = new JavaField("int a = 1;", "a"), b = new JavaExpression("a = 2;", "a"), c = new JavaField("int c = a;", "c");
+		JavaActionSet actionSet = new JavaActionSet(Arrays.asList(a, b, c));
+		List<JavaAction> iterated = new ArrayList<JavaAction>();
+
+		for(JavaAction javaAction : actionSet) {
+			iterated.add(javaAction);
+
+			if(javaAction == a) {
+				b.releaseActionId();
+			}
+		}
+
+		check(iterated.equals(Arrays.asList(a, c)), "the iteration should only give a and c, not " + iterated);
+	}
+
+	/**
+	 * The action given out last is still the one removed, even if an id after it was skipped to find out if there's more.
+	 */
+	private static void checkRemoveAfterSkip() {
+		JavaAction a = new JavaField("int a = 1;", "a"), b = new JavaExpression("a = 2;", "a"), c = new JavaField("int c = a;", "c");
+		JavaActionSet actionSet = new JavaActionSet(Arrays.asList(a, b, c));
+		Iterator<JavaAction> actionIterator = actionSet.iterator();
+
+		check(actionIterator.next() == a, "a should come first");
+		b.releaseActionId();
+		check(actionIterator.hasNext(), "c should still be there");
+		actionIterator.remove();
+
+		check(collect(actionSet).equals(Arrays.asList(c)), "the set should only have c, not " + collect(actionSet));
+	}
+
+	/**
+	 * An id let go of doesn't turn into the action its slot is given to next, and that action still comes after the others.
+	 */
+	private static void checkSlotReused() {
+		JavaAction a = new JavaField("int a = 1;", "a"), b = new JavaExpression("a = 2;", "a"), c = new JavaField("int c = a;", "c");
+		JavaActionSet actionSet = new JavaActionSet(Arrays.asList(a, b, c));
+
+		long releasedId = b.getActionId();
+		b.releaseActionId();
+		JavaAction d = new JavaField("int d = c;", "d");
+		JavaActionSet otherSet = new JavaActionSet(Arrays.asList(d, a));
+
+		check((int) d.getActionId() == (int) releasedId, "d should have been given b's slot");
+
+		check(collect(actionSet).equals(Arrays.asList(a, c)), "the set should only have a and c, not " + collect(actionSet));
+		check(!actionSet.contains(d), "the set shouldn't have d");
+		check(collect(otherSet).equals(Arrays.asList(a, d)), "the other set should have a and d, not " + collect(otherSet));
+
+		check(actionSet.addAll(otherSet), "d should go in");
+		check(collect(actionSet).equals(Arrays.asList(a, c, d)), "the set should have a, c and d, not " + collect(actionSet));
+	}
+
+	/**
+	 * Method to get the actions of a set, in order.
+	 *
+	 * @param actionSet -- the set.
+	 * @return List -- the actions.
+	 */
+	private static List<JavaAction> collect(JavaActionSet actionSet) {
+		List<JavaAction> javaActions = new ArrayList<JavaAction>();
+		actionSet.forEach(javaActions::add);
+
+		return javaActions;
+	}
+
+	/**
+	 * Method to fail if a check doesn't hold.
+	 *
+	 * @param condition -- the check.
+	 * @param message -- what went wrong if it doesn't.
+	 */
+	private static void check(boolean condition, String message) {
+
+		if(!condition) {
+			throw new AssertionError(message);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.compiler;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Checks the class cache -- that the memory tier stays under its byte budget by evicting the least recently used entries, and that
+ * the disk tier gives back what was written, in a new cache, and nothing for a file that's been damaged or is under the wrong key.
+ * Run it with the main classes on the classpath; it exits with an error on the first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterClassCacheTest {
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		checkEviction();
+		checkBudget();
+		checkDisk();
+
+		System.out.println("JavaInterpreterClassCacheTest passed.");
+	}
+
+	/**
+	 * The least recently used entry is the one that goes.
+	 */
+	private static void checkEviction() {
+		JavaInterpreterClassCache cache = new JavaInterpreterClassCache(300, null);
+
+		cache.put("a", classes("A", 100));
+		cache.put("b", classes("B", 100));
+		cache.put("c", classes("C", 100));
+
+		// Using a makes b the eldest.
+		check(cache.get("a") != null, "a should be cached");
+		cache.put("d", classes("D", 100));
+
+		check(cache.get("b") == null, "b should have been evicted");
+		check(cache.get("a") != null && cache.get("c") != null && cache.get("d") != null, "a, c and d should be cached");
+		check(cache.getEvictions() == 1, "there should be one eviction, not " + cache.getEvictions());
+	}
+
+	/**
+	 * The memory tier never holds more than its budget, unless the one entry is bigger than all of it.
+	 */
+	private static void checkBudget() {
+		JavaInterpreterClassCache cache = new JavaInterpreterClassCache(1000, null);
+
+		for(int entry = 0; entry < 50; entry++) {
+			cache.put("key" + entry, classes("C" + entry, 90 + entry));
+			check(cache.getMemoryBytes() <= 1000, "over budget at " + cache.getMemoryBytes() + " bytes");
+		}
+
+		// Putting the same key again replaces it, rather than counting it twice.
+		long memoryBytes = cache.getMemoryBytes();
+		cache.put("key49", classes("C49", 139));
+		check(cache.getMemoryBytes() == memoryBytes, "a replaced entry should be counted once");
+
+		// Something bigger than the whole budget stays, by itself.
+		cache.put("big", classes("Big", 5000));
+		check(cache.get("big") != null && cache.getMemoryBytes() == 5000, "the big entry should be all that's left");
+	}
+
+	/**
+	 * What goes to disk comes back in a new cache, and a bad file is a miss.
+	 *
+	 * @throws Exception
+	 */
+	private static void checkDisk() throws Exception {
+		File diskDirectory = Files.createTempDirectory("classcache").toFile();
+
+		try {
+			Map<String, byte[]> written = classes("Disk", 200);
+			new JavaInterpreterClassCache(1000, diskDirectory).put("disk", written);
+
+			// A new cache has nothing in memory, so it has to come off the disk.
+			JavaInterpreterClassCache cache = new JavaInterpreterClassCache(1000, diskDirectory);
+			Map<String, byte[]> read = cache.get("disk");
+
+			check(read != null && read.keySet().equals(written.keySet()) && Arrays.equals(read.get("Disk"), written.get("Disk")), "the classes should come back off the disk");
+			check(cache.getDiskHits() == 1 && cache.get("disk") != null && cache.getMemoryHits() == 1, "the disk hit should be promoted into memory");
+
+			// A file under the wrong name isn't the entry for that key.
+			File cacheFile = new File(diskDirectory, "disk.classes");
+			Files.copy(cacheFile.toPath(), new File(diskDirectory, "other.classes").toPath());
+			check(new JavaInterpreterClassCache(1000, diskDirectory).get("other") == null, "a file under the wrong key should be a miss");
+
+			// Nor is one that's been cut short.
+			try(RandomAccessFile truncatedFile = new RandomAccessFile(cacheFile, "rw")) {
+				truncatedFile.setLength(truncatedFile.length() - 10);
+			}
+
+			check(new JavaInterpreterClassCache(1000, diskDirectory).get("disk") == null, "a truncated file should be a miss");
+			check(!cacheFile.exists(), "a bad file should be deleted");
+		}
+
+		finally {
+			Files.walk(diskDirectory.toPath()).sorted(Comparator.reverseOrder()).map( path -> path.toFile() ).forEach(File::delete);
+		}
+	}
+
+	/**
+	 * Method to make one class of a given size, that starts the way a class file does.
+	 *
+	 * @param className -- the class name.
+	 * @param size -- the number of bytes.
+	 * @return Map -- the class.
+	 */
+	private static Map<String, byte[]> classes(String className, int size) {
+		byte[] byteCode = new byte[size];
+		byteCode[0] = (byte) 0xCA;
+		byteCode[1] = (byte) 0xFE;
+		byteCode[2] = (byte) 0xBA;
+		byteCode[3] = (byte) 0xBE;
+
+		return Collections.singletonMap(className, byteCode);
+	}
+
+	/**
+	 * Method to fail if a check doesn't hold.
+	 *
+	 * @param condition -- the check.
+	 * @param message -- what went wrong.
+	 */
+	private static void check(boolean condition, String message) {
+
+		if(!condition) {
+			throw new AssertionError(message);
+		}
+	}
+}
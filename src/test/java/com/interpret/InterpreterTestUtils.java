@@ -0,0 +1,77 @@
+package com.interpret;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Class that contains utility methods for the checks, to type lines into the interpreter as the user would.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class InterpreterTestUtils {
+
+	/**
+	 * Method to type lines into the interpreter, and get back what it printed.
+	 *
+	 * @param lines -- the lines.
+	 * @return String -- what was printed.
+	 * @throws Exception
+	 */
+	public static String run(String... lines) throws Exception {
+		return run(false, lines);
+	}
+
+	/**
+	 * Method to type lines into the interpreter, and get back what it printed, errors included.
+	 *
+	 * @param lines -- the lines.
+	 * @return String -- what was printed.
+	 * @throws Exception
+	 */
+	public static String runWithErrors(String... lines) throws Exception {
+		return run(true, lines);
+	}
+
+	/**
+	 * Method to type lines into the interpreter, and get back what it printed.
+	 *
+	 * @param withErrors -- TRUE to get back what it printed to the error stream too, FALSE to leave that where it was.
+	 * @param lines -- the lines.
+	 * @return String -- what was printed.
+	 * @throws Exception
+	 */
+	private static String run(boolean withErrors, String... lines) throws Exception {
+		InputStream systemIn = System.in;
+		PrintStream systemOut = System.out;
+		PrintStream systemErr = System.err;
+		ByteArrayOutputStream outputBytes = new ByteArrayOutputStream();
+		PrintStream output = new PrintStream(outputBytes, true, "UTF-8");
+
+		System.setIn(new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8)));
+		System.setOut(output);
+
+		if(withErrors) {
+			System.setErr(output);
+		}
+
+		try {
+			new JavaInterpreter().go();
+		}
+
+		// It stops once there are no more lines.
+		catch(NoSuchElementException e) {
+		}
+
+		finally {
+			System.setIn(systemIn);
+			System.setOut(systemOut);
+			System.setErr(systemErr);
+		}
+
+		return new String(outputBytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,146 @@
+package com.interpret;
+
+/**
+ * Checks that the input knows when a statement is complete -- braces in strings, chars and comments don't count, and a string that
+ * isn't closed, a text block, or a character the lexer doesn't know is finished with straight away, since no line after it can fix it.
+ * The interpreter has to carry on with the next statement after one of those, rather than wait for lines that won't help. Run it with
+ * the main classes and the antlr runtime on the classpath; it exits with an error on the first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterInputTest {
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+
+		// Braces in strings and chars.
+		checkComplete("String s = \"{\";");
+		checkComplete("String s = \"}\";");
+		checkComplete("String s = \"\\\"{\";");
+		checkComplete("char c = '{';");
+		checkComplete("char c = '}';");
+		checkIncomplete("if(true) {", "String s = \"}\";");
+		checkComplete("if(true) {", "String s = \"}\";", "}");
+
+		// And in comments, including ones over more than one line.
+		checkComplete("int a = 1; // {");
+		checkComplete("int b = /* { */ 2;");
+		checkIncomplete("int c = 1; /* {");
+		checkIncomplete("int c = 1; /* {", "}");
+		checkComplete("int c = 1; /* {", "} */");
+		checkIncomplete("void f() { /* } */");
+		checkComplete("void f() { /* } */", "// }", "}");
+
+		// A line that ends in the middle of an expression goes on, whatever the braces say.
+		checkIncomplete("int d = 1 +");
+		checkComplete("int d = 1 +", "2;");
+
+		// A string or a char that isn't closed can't be fixed by the next line.
+		checkRejected("String s = \"abc;");
+		checkRejected("String s = \"{");
+		checkRejected("char c = 'a;");
+		checkRejected("if(true) {", "String s = \"}");
+
+		// Java 8 doesn't have text blocks, so the lexer sees an empty string and then one that isn't closed.
+		checkRejected("String t = \"\"\"");
+		checkRejected("String t = \"\"\"", "{", "\"\"\";");
+		checkRejected("String t = \"\"\"{");
+
+		// Nor does it have these characters.
+		checkRejected("int # = 1;");
+		checkRejected("int x = `1`;");
+		checkRejected("if(true) {", "int # = 1;");
+
+		// Once the input is reset, it starts over.
+		JavaInterpreterInput javaInput = add("String s = \"{");
+		javaInput.reset();
+		javaInput.addLine("int e = 1;");
+
+		if(!javaInput.isComplete() || !javaInput.isValid() || !"int e = 1;".equals(javaInput.getInput())) {
+			throw new AssertionError("After a reset, int e = 1; should be complete and valid on its own");
+		}
+
+		// The interpreter gives up on the rejected ones, and goes on to the next statement.
+		String output = InterpreterTestUtils.run("String unclosedInput = \"{",
+				"String textBlockInput = \"\"\"",
+				"int # = 1;",
+				"int afterInput = 3;",
+				"System.out.println(\"afterInput=\" + afterInput);");
+
+		if(!output.contains("afterInput=3")) {
+			throw new AssertionError("The interpreter should go on after the rejected input:\n" + output);
+		}
+
+		System.out.println("JavaInterpreterInputTest passed.");
+	}
+
+	/**
+	 * Method to add the lines to a new input.
+	 *
+	 * @param lines -- the lines.
+	 * @return {@link JavaInterpreterInput} -- the input.
+	 */
+	private static JavaInterpreterInput add(String... lines) {
+		JavaInterpreterInput javaInput = new JavaInterpreterInput();
+
+		for(String line : lines) {
+			javaInput.addLine(line);
+		}
+
+		return javaInput;
+	}
+
+	/**
+	 * Method to check the lines are a complete statement, and could be a valid one.
+	 *
+	 * @param lines -- the lines.
+	 */
+	private static void checkComplete(String... lines) {
+		JavaInterpreterInput javaInput = add(lines);
+
+		if(!javaInput.isComplete() || !javaInput.isValid()) {
+			throw new AssertionError(describe(lines) + " should be complete and valid");
+		}
+	}
+
+	/**
+	 * Method to check the lines need more after them.
+	 *
+	 * @param lines -- the lines.
+	 */
+	private static void checkIncomplete(String... lines) {
+		JavaInterpreterInput javaInput = add(lines);
+
+		if(javaInput.isComplete() || !javaInput.isValid()) {
+			throw new AssertionError(describe(lines) + " should need more lines");
+		}
+	}
+
+	/**
+	 * Method to check the lines can't be a statement, and that no more are waited for.
+	 *
+	 * @param lines -- the lines.
+	 */
+	private static void checkRejected(String... lines) {
+		JavaInterpreterInput javaInput = add(lines);
+
+		if(!javaInput.isComplete() || javaInput.isValid()) {
+			throw new AssertionError(describe(lines) + " should be rejected without waiting for more lines");
+		}
+	}
+
+	/**
+	 * Method to describe the lines for a failed check.
+	 *
+	 * @param lines -- the lines.
+	 * @return String -- the description.
+	 */
+	private static String describe(String... lines) {
+		return "[" + String.join("\\n", lines) + "]";
+	}
+}
@@ -0,0 +1,238 @@
+package com.interpret;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Comparator;
+
+import com.actions.ActionType;
+import com.actions.JavaAction;
+
+/**
+ * Checks that the maps keep the session right as it changes:
+ *
+ * <ul>
+ * <li>A session saved and loaded again has the values it had, even those changed by statements that aren't replayed.</li>
+ * <li>Fields that share an object still share it after a load.</li>
+ * <li>Methods follow a field that's declared again, and the session loads back without the old one.</li>
+ * <li>A method declared again doesn't depend on the one it replaces, and what called the old one calls the new one.</li>
+ * <li>A change to a field is only handed to the methods that use it.</li>
+ * <li>An assignment only throws away the history it really makes dead.</li>
+ * </ul>
+ *
+ * Run it with the main classes and the antlr runtime on the classpath; it saves under ./serialize, and exits with an error on the
+ * first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterMapsTest {
+
+	/**
+	 * The folder the session is saved to.
+	 */
+	private static final String SAVE_FOLDER = "JavaInterpreterMapsTest";
+
+	/**
+	 * What is printed once the session is loaded.
+	 */
+	private static final String LOAD_COMPLETE = "LOAD complete!";
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+
+		// The loop changes x without being kept, so only the live value has the last three.
+		String output = InterpreterTestUtils.run("int x = 1;",
+				"x++;",
+				"for(int i = 0; i < 3; i++) { x += 1; }",
+				"save(" + SAVE_FOLDER + ");",
+				"load(" + SAVE_FOLDER + ");",
+				"System.out.println(\"x=\" + x);");
+
+		try {
+			int loadIndex = output.indexOf(LOAD_COMPLETE);
+
+			if(loadIndex < 0) {
+				throw new AssertionError("The session didn't load:\n" + output);
+			}
+
+			if(!output.substring(loadIndex).contains("x=5")) {
+				throw new AssertionError("x should be 5 after the load:\n" + output.substring(loadIndex));
+			}
+		}
+
+		// Don't leave the save behind.
+		finally {
+			deleteSave();
+		}
+
+		// Two fields that point at the same list still do after the load.
+		try {
+			output = InterpreterTestUtils.run("java.util.List<Integer> la = new java.util.ArrayList<Integer>();",
+					"java.util.List<Integer> lb = la;",
+					"la.add(1);",
+					"save(" + SAVE_FOLDER + ");",
+					"load(" + SAVE_FOLDER + ");",
+					"la.add(2);",
+					"System.out.println(\"lb=\" + lb + \", same=\" + (la == lb));");
+
+			if(!output.substring(Math.max(0, output.indexOf(LOAD_COMPLETE))).contains("lb=[1, 2], same=true")) {
+				throw new AssertionError("la and lb should still be the same list after the load:\n" + output);
+			}
+		}
+
+		finally {
+			deleteSave();
+		}
+
+		// A method reads the field that's declared now, not the one it was compiled against.
+		output = InterpreterTestUtils.run("int r = 5;",
+				"int getR() { return r; }",
+				"int twiceR() { return getR() * 2; }",
+				"int r = 100;",
+				"System.out.println(\"getR=\" + getR() + \", twiceR=\" + twiceR());");
+
+		if(!output.contains("getR=100, twiceR=200")) {
+			throw new AssertionError("getR() and twiceR() should read the new r:\n" + output);
+		}
+
+		// The new declaration doesn't need the old one, or what was assigned to it, to be loaded again.
+		try {
+			output = InterpreterTestUtils.run("int q = 5;",
+					"q = 3;",
+					"int q = 9;",
+					"save(" + SAVE_FOLDER + ");",
+					"load(" + SAVE_FOLDER + ");",
+					"System.out.println(\"q=\" + q);");
+
+			if(!output.substring(Math.max(0, output.indexOf(LOAD_COMPLETE))).contains("q=9")) {
+				throw new AssertionError("q should be 9 after the load:\n" + output);
+			}
+		}
+
+		finally {
+			deleteSave();
+		}
+
+		// A method declared again doesn't depend on the one it replaces, so it isn't compiled again when what the old one used changes.
+		output = InterpreterTestUtils.run("int base = 10;",
+				"int add(int v) { return v + base; }",
+				"int add(int v) { return v; }",
+				"add(2);",
+				"String base = \"s\";",
+				"System.out.println(\"add=\" + add(2));");
+
+		if(!output.contains("add=2")) {
+			throw new AssertionError("add(2) shouldn't compile the add() it replaced:\n" + output);
+		}
+
+		// And what called the old one calls the new one.
+		output = InterpreterTestUtils.run("int inc(int v) { return v; }",
+				"int twiceInc(int v) { return inc(v) * 2; }",
+				"int inc(int v) { return v + 1; }",
+				"System.out.println(\"twiceInc=\" + twiceInc(1));");
+
+		if(!output.contains("twiceInc=4")) {
+			throw new AssertionError("twiceInc() should call the new inc():\n" + output);
+		}
+
+		// Changing a field only touches the methods that use it.
+		output = InterpreterTestUtils.run("int rb = 1;",
+				"int readRb() { return rb; }",
+				"int twiceRb() { return readRb() * 2; }",
+				"int seven() { return 7; }",
+				"rb = rb + 1;",
+				"System.out.println(\"readRb=\" + readRb() + \", twiceRb=\" + twiceRb() + \", seven=\" + seven());");
+
+		if(!output.contains("readRb=2, twiceRb=4, seven=7")) {
+			throw new AssertionError("readRb() and twiceRb() should read the new rb:\n" + output);
+		}
+
+		if(!usesExpressionOf("readRb", "rb")) {
+			throw new AssertionError("readRb() uses rb, so it should depend on rb = rb + 1");
+		}
+
+		if(usesExpressionOf("twiceRb", "rb") || usesExpressionOf("seven", "rb")) {
+			throw new AssertionError("twiceRb() and seven() don't use rb, so they shouldn't depend on rb = rb + 1");
+		}
+
+		// A plain reassignment makes the assignment before it dead.
+		output = InterpreterTestUtils.run("int cz = 1;",
+				"cz = 4;",
+				"cz = 7;",
+				"System.out.println(\"cz=\" + cz);");
+
+		checkHistory(output, "cz=7", "cz", 1);
+
+		// One that reads the variable needs what came before it.
+		output = InterpreterTestUtils.run("int cx = 1;",
+				"cx = 4;",
+				"cx = cx + 1;",
+				"System.out.println(\"cx=\" + cx);");
+
+		checkHistory(output, "cx=5", "cx", 2);
+
+		// And one that changes something else along the way has to be kept, even once it's reassigned.
+		output = InterpreterTestUtils.run("int cw = 0;",
+				"int bumpCw() { cw++; return 10; }",
+				"int cy = 1;",
+				"cy = bumpCw();",
+				"cy = 5;",
+				"System.out.println(\"cy=\" + cy + \", cw=\" + cw);");
+
+		checkHistory(output, "cy=5, cw=1", "cy", 2);
+
+		System.out.println("JavaInterpreterMapsTest passed.");
+	}
+
+	/**
+	 * Method to delete the save, so it isn't left behind.
+	 *
+	 * @throws Exception
+	 */
+	private static void deleteSave() throws Exception {
+		File saveFolder = new File("serialize", SAVE_FOLDER);
+
+		if(saveFolder.exists()) {
+			Files.walk(saveFolder.toPath()).sorted(Comparator.reverseOrder()).map( path -> path.toFile() ).forEach(File::delete);
+		}
+	}
+
+	/**
+	 * Method to check what a session printed, and how many expressions were kept for a variable.
+	 *
+	 * @param output -- what was printed.
+	 * @param expectedOutput -- what it should have printed.
+	 * @param variableName -- the variable.
+	 * @param expectedExpressions -- how many of its expressions should be kept.
+	 */
+	private static void checkHistory(String output, String expectedOutput, String variableName, int expectedExpressions) {
+
+		if(!output.contains(expectedOutput)) {
+			throw new AssertionError("It should have printed " + expectedOutput + ":\n" + output);
+		}
+
+		int keptExpressions = JavaInterpreterMaps.getInstance().getEntry(variableName, ActionType.EXPRESSION).size();
+
+		if(keptExpressions != expectedExpressions) {
+			throw new AssertionError(expectedExpressions + " expressions should be kept for " + variableName + ", not " + keptExpressions);
+		}
+	}
+
+	/**
+	 * Method to check if a method was handed an expression on a variable.
+	 *
+	 * @param methodName -- the method.
+	 * @param variableName -- the variable.
+	 * @return TRUE if the method depends on an expression on the variable, FALSE if not.
+	 */
+	private static boolean usesExpressionOf(String methodName, String variableName) {
+		JavaAction javaMethod = JavaInterpreterMaps.getInstance().getEntry(methodName, ActionType.METHOD).get(0);
+
+		return javaMethod.getDependentActions().stream().anyMatch( dependentAction -> ActionType.EXPRESSION.equals(dependentAction.getActionType())
+				&& variableName.equals(dependentAction.getName()) );
+	}
+}
@@ -0,0 +1,67 @@
+package com.interpret;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+
+import com.antlr.Java8Parser.BlockStatementsContext;
+import com.antlr.Java8Parser.ClassBodyDeclarationContext;
+import com.antlr.Java8Parser.CompilationUnitContext;
+
+/**
+ * Checks that statements are parsed from the rule their first tokens point to, rather than missing and going through the compilation
+ * unit. Run it with the main classes and the antlr runtime on the classpath; it exits with an error on the first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaInterpreterParserTest {
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 */
+	public static void main(String[] args) {
+
+		// Methods, whatever their return type.
+		assertStartRule("int fib(int n) { if(n < 2) { return n; } return fib(n - 1) + fib(n - 2); }", ClassBodyDeclarationContext.class);
+		assertStartRule("void hello() { System.out.println(\"hi\"); }", ClassBodyDeclarationContext.class);
+		assertStartRule("List<String> top() { return names; }", ClassBodyDeclarationContext.class);
+		assertStartRule("java.util.Map<String, java.util.List<Integer>> index() { return null; }", ClassBodyDeclarationContext.class);
+		assertStartRule("String[] words() { return new String[0]; }", ClassBodyDeclarationContext.class);
+
+		// Generic and annotated methods.
+		assertStartRule("<T> java.util.List<T> wrap(T item) { return java.util.Collections.singletonList(item); }", ClassBodyDeclarationContext.class);
+		assertStartRule("@Override public String toString() { return \"x\"; }", ClassBodyDeclarationContext.class);
+		assertStartRule("@SuppressWarnings(\"unchecked\") <T> T cast(Object o) { return (T) o; }", ClassBodyDeclarationContext.class);
+
+		// Constructors.
+		assertStartRule("Foo() { }", ClassBodyDeclarationContext.class);
+		assertStartRule("Foo(int v) throws Exception { this.v = v; }", ClassBodyDeclarationContext.class);
+		assertStartRule("Foo(@Named(\"v\") int v) { this.v = v; }", ClassBodyDeclarationContext.class);
+
+		// Fields and statements.
+		assertStartRule("java.util.List<String> names = new java.util.ArrayList<String>();", ClassBodyDeclarationContext.class);
+		assertStartRule("foo(x);", BlockStatementsContext.class);
+		assertStartRule("x = x * 2 + 1;", BlockStatementsContext.class);
+		assertStartRule("a < b;", BlockStatementsContext.class);
+		assertStartRule("for(int i = 0; i < 3; i++) { x += i; }", BlockStatementsContext.class);
+
+		// Input that isn't anything still goes through the compilation unit.
+		assertStartRule("x = ;", CompilationUnitContext.class);
+
+		System.out.println("JavaInterpreterParserTest passed.");
+	}
+
+	/**
+	 * Method to check the rule a statement was parsed from.
+	 *
+	 * @param rawInput -- the statement.
+	 * @param expectedContext -- the context the parse tree should start from.
+	 */
+	private static void assertStartRule(String rawInput, Class<? extends ParserRuleContext> expectedContext) {
+		ParserRuleContext parseTree = JavaInterpreterParser.getInstance().parse(rawInput);
+
+		if(!expectedContext.equals(parseTree.getClass())) {
+			throw new AssertionError(rawInput + " was parsed from " + parseTree.getClass().getSimpleName() + ", not " + expectedContext.getSimpleName());
+		}
+	}
+}
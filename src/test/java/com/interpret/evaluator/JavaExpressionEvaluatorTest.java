@@ -0,0 +1,226 @@
+package com.interpret.evaluator;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import com.antlr.Java8Parser.ExpressionStatementContext;
+import com.interpret.JavaInterpreterParser;
+
+/**
+ * Checks that the evaluator gets the same values the compiler does -- overflow of ints, longs and doubles, integer division, char
+ * and String concatenation, and comparisons. Each expression is written out twice, once as the input to evaluate and once as Java in
+ * here, so the value it has to match is the one javac came up with, boxed type and all. What the evaluator can't be sure of has to
+ * be handed to the compiler rather than guessed at. Run it with the main classes and the antlr runtime on the classpath; it exits
+ * with an error on the first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaExpressionEvaluatorTest {
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 */
+	public static void main(String[] args) {
+
+		// Int overflow wraps around.
+		check("2147483647 + 1", 2147483647 + 1);
+		check("-2147483647 - 2", -2147483647 - 2);
+		check("46341 * 46341", 46341 * 46341);
+		check("-(-2147483647 - 1)", -(-2147483647 - 1));
+		check("(-2147483647 - 1) / -1", (-2147483647 - 1) / -1);
+		check("1 << 31", 1 << 31);
+		check("1 << 32", 1 << 32);
+
+		// So does long overflow, and an int side gets widened first.
+		check("9223372036854775807L + 1", 9223372036854775807L + 1);
+		check("3037000500L * 3037000500L", 3037000500L * 3037000500L);
+		check("(-9223372036854775807L - 1) / -1", (-9223372036854775807L - 1) / -1);
+		check("2147483647 + 1L", 2147483647 + 1L);
+		check("2147483647 * 2 + 1L", 2147483647 * 2 + 1L);
+		check("1L << 63", 1L << 63);
+		check("1L << 64", 1L << 64);
+		check("-1 >>> 1", -1 >>> 1);
+		check("-1L >>> 1", -1L >>> 1);
+
+		// The smallest int and long literals only fit with the minus in front, which is left to the compiler.
+		checkFallback("-2147483648");
+		checkFallback("-9223372036854775808L");
+
+		// Doubles and floats overflow to infinity, and keep their rounding.
+		check("1e308 * 10", 1e308 * 10);
+		check("-1e308 * 10", -1e308 * 10);
+		check("3.4e38f * 10", 3.4e38f * 10);
+		check("3.4e38f * 10.0", 3.4e38f * 10.0);
+		check("0.1 + 0.2", 0.1 + 0.2);
+		check("0.1f + 0.2f", 0.1f + 0.2f);
+		check("16777216f + 1", 16777216f + 1);
+		check("1e-323 / 10", 1e-323 / 10);
+		check("1.0 / 0", 1.0 / 0);
+		check("-1.0 / 0", -1.0 / 0);
+		check("0.0 / 0", 0.0 / 0);
+		check("-0.0 * 1", -0.0 * 1);
+		check("(int) 1e10", (int) 1e10);
+		check("(long) -1e30", (long) -1e30);
+		check("(int) (0.0 / 0)", (int) (0.0 / 0));
+
+		// Integer division truncates toward zero, and the remainder takes the sign of the left side.
+		check("7 / 2", 7 / 2);
+		check("-7 / 2", -7 / 2);
+		check("7 / -2", 7 / -2);
+		check("7 % -3", 7 % -3);
+		check("-7 % 3", -7 % 3);
+		check("7L / 2", 7L / 2);
+		check("7 / 2 * 2.0", 7 / 2 * 2.0);
+		check("7 / 2.0", 7 / 2.0);
+		check("-7.5 % 2", -7.5 % 2);
+		check("(byte) 100 / (short) 7", (byte) 100 / (short) 7);
+		check("'z' / 2", 'z' / 2);
+
+		// Dividing by zero throws, so the compiled statement has to be the one to do it. It's fine where it won't run.
+		checkFallback("1 / 0");
+		checkFallback("5 % 0L");
+		checkFallback("'a' / (char) 0");
+		check("false && 1 / 0 == 0", false);
+		check("true ? 1 : 1 / 0", 1);
+
+		// A char on its own is a number, and only a String makes it text.
+		check("'a' + 1", 'a' + 1);
+		check("'a' + 'b'", 'a' + 'b');
+		check("(char) ('a' + 1)", (char) ('a' + 1));
+		check("(char) 65601", (char) 65601);
+		check("'a' + \"b\"", 'a' + "b");
+		check("'a' + 'b' + \"c\"", 'a' + 'b' + "c");
+		check("\"c\" + 'a' + 'b'", "c" + 'a' + 'b');
+		check("\"c\" + ('a' + 'b')", "c" + ('a' + 'b'));
+		check("'\\n' + 0", '\n' + 0);
+		check("\"\\101\" + '\\t' + (char) 66", "\101" + '\t' + (char) 66);
+
+		// String concatenation goes left to right, and prints numbers the way Java does.
+		check("1 + 2 + \"x\"", 1 + 2 + "x");
+		check("\"x\" + 1 + 2", "x" + 1 + 2);
+		check("\"x\" + (1 + 2)", "x" + (1 + 2));
+		check("\"\" + 1.0f", "" + 1.0f);
+		check("\"\" + 1e10", "" + 1e10);
+		check("\"\" + 100.0 / 3", "" + 100.0 / 3);
+		check("\"\" + 0.1f * 3", "" + 0.1f * 3);
+		check("\"\" + (byte) -1 + (short) 40000", "" + (byte) -1 + (short) 40000);
+		check("\"\" + 9223372036854775807L + 1", "" + 9223372036854775807L + 1);
+		check("\"\" + (0.0 / 0) + (-1.0 / 0)", "" + (0.0 / 0) + (-1.0 / 0));
+		check("\"is \" + true + (1 < 2)", "is " + true + (1 < 2));
+
+		// Comparisons promote both sides first.
+		check("1 < 2", 1 < 2);
+		check("'a' == 97", 'a' == 97);
+		check("'a' < 'b'", 'a' < 'b');
+		check("3 >= 3.0", 3 >= 3.0);
+		check("0.1 + 0.2 == 0.3", 0.1 + 0.2 == 0.3);
+		check("0.1f + 0.2f == 0.3f", 0.1f + 0.2f == 0.3f);
+		check("0.0 == -0.0", 0.0 == -0.0);
+		check("0.0 / 0 == 0.0 / 0", 0.0 / 0 == 0.0 / 0);
+		check("0.0 / 0 != 0.0 / 0", 0.0 / 0 != 0.0 / 0);
+		check("0.0 / 0 < 1", 0.0 / 0 < 1);
+		check("0.0 / 0 >= 1", 0.0 / 0 >= 1);
+		check("16777217 == 16777217f", 16777217 == 16777217f);
+		check("9007199254740993L == 9007199254740992.0", 9007199254740993L == 9007199254740992.0);
+		check("2147483647 + 1 < 0", 2147483647 + 1 < 0);
+		check("(byte) 200 == -56", (byte) 200 == -56);
+		check("true != false", true != false);
+		check("1 < 2 == 2 < 1", 1 < 2 == 2 < 1);
+		check("1 < 2 && 2 < 3 || 1 / 1 > 5", 1 < 2 && 2 < 3 || 1 / 1 > 5);
+
+		// Comparing Strings compares references, which it can't know.
+		checkFallback("\"a\" == \"a\"");
+		checkFallback("\"a\" < \"b\"");
+
+		System.out.println("JavaExpressionEvaluatorTest passed.");
+	}
+
+	/**
+	 * Method to check the evaluator gets the same value as the compiler, of the same boxed type.
+	 *
+	 * @param expression -- the expression to evaluate.
+	 * @param expected -- the same expression, compiled.
+	 */
+	private static void check(String expression, Object expected) {
+		Object actual;
+
+		try {
+			actual = evaluate(expression);
+		}
+
+		catch(UnsupportedEvaluationException e) {
+			throw new AssertionError(expression + " was handed to the compiler : " + e.getMessage());
+		}
+
+		if(!expected.equals(actual)) {
+			throw new AssertionError(expression + " evaluated to " + describe(actual) + ", not " + describe(expected));
+		}
+	}
+
+	/**
+	 * Method to check the evaluator hands an expression to the compiler.
+	 *
+	 * @param expression -- the expression to evaluate.
+	 */
+	private static void checkFallback(String expression) {
+
+		try {
+			Object actual = evaluate(expression);
+			throw new AssertionError(expression + " should have been handed to the compiler, not evaluated to " + describe(actual));
+		}
+
+		catch(UnsupportedEvaluationException e) {
+			;
+		}
+	}
+
+	/**
+	 * Method to parse an expression the way the interpreter does, and evaluate it.
+	 *
+	 * @param expression -- the expression.
+	 * @return Object -- the value, boxed.
+	 */
+	private static Object evaluate(String expression) {
+		ExpressionStatementContext expressionStatement = findExpressionStatement(JavaInterpreterParser.getInstance().parse(expression + ";"));
+
+		if(expressionStatement == null || expressionStatement.statementExpression().expression() == null) {
+			throw new AssertionError(expression + " didn't parse as an expression");
+		}
+
+		return JavaExpressionEvaluator.getInstance().evaluateExpression(expressionStatement.statementExpression().expression(), true);
+	}
+
+	/**
+	 * Method to find the expression statement in a parse tree.
+	 *
+	 * @param parseTree -- the tree.
+	 * @return ExpressionStatementContext -- the statement, NULL if there isn't one.
+	 */
+	private static ExpressionStatementContext findExpressionStatement(ParseTree parseTree) {
+
+		if(parseTree instanceof ExpressionStatementContext) {
+			return (ExpressionStatementContext) parseTree;
+		}
+
+		for(int childIndex = 0; childIndex < parseTree.getChildCount(); childIndex++) {
+			ExpressionStatementContext expressionStatement = findExpressionStatement(parseTree.getChild(childIndex));
+
+			if(expressionStatement != null) {
+				return expressionStatement;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method to describe a value, with its type.
+	 *
+	 * @param value -- the value.
+	 * @return String -- the description.
+	 */
+	private static String describe(Object value) {
+		return value == null ? "null" : value + " (" + value.getClass().getSimpleName() + ")";
+	}
+}
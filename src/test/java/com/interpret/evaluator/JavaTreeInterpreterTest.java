@@ -0,0 +1,183 @@
+package com.interpret.evaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.interpret.InterpreterTestUtils;
+
+/**
+ * Checks that the tree interpreter gets the same results as the compiler -- loops and labels, compound assignments, narrowing, and
+ * the exceptions a statement can throw. The same statements are typed in under <code>engine(interpreter)</code> and then under
+ * <code>engine(compiler)</code>, each with their own variables, and what comes back has to match. The interpreter also has to have
+ * handled all of them itself. Run it with the main classes and the antlr runtime on the classpath; it exits with an error on the
+ * first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class JavaTreeInterpreterTest {
+
+	/**
+	 * The statements, with <code>$</code> standing in for the start of each variable name.
+	 */
+	private static final String[] STATEMENTS = {
+
+		// Loops and labels.
+		"int $sum = 0;",
+		"outer: for(int i = 0; i < 5; i++) { for(int j = 0; j < 5; j++) { if(j == 3) continue outer; if(i == 3) break outer; $sum += i * j; } }",
+		"$sum;",
+		"int $n = 0;",
+		"while(true) { $n += 3; if($n > 10) break; }",
+		"$n;",
+		"do { $n--; } while($n > 5);",
+		"$n;",
+		"block: { $sum = -1; if($n == 5) break block; $sum = -2; }",
+		"$sum;",
+		"$n = 20;",
+		"scan: while($n > 0) { $n--; if($n % 3 == 0) continue scan; for(;;) { if($n % 7 == 0) break scan; break; } $sum++; }",
+		"$sum;",
+		"$n;",
+
+		// Compound assignments, which narrow back to the type of the variable.
+		"byte $b = 10;",
+		"$b += 300;",
+		"$b;",
+		"short $s = 1;",
+		"$s *= 40000;",
+		"$s;",
+		"char $c = 'a';",
+		"$c += 2;",
+		"$c;",
+		"int $i = 7;",
+		"$i /= 2;",
+		"$i <<= 3;",
+		"$i %= 5;",
+		"$i;",
+		"$i = -17;",
+		"$i >>>= 28;",
+		"$i;",
+		"long $l = Integer.MAX_VALUE;",
+		"$l += 1;",
+		"$l;",
+		"double $d = 1;",
+		"$d /= 3;",
+		"$d;",
+
+		// Casts that narrow.
+		"$i = (int) 3.99e10;",
+		"$i;",
+		"$b = (byte) 200;",
+		"$b;",
+		"$c = (char) 65601;",
+		"$c;",
+		"$l = (long) -2.5;",
+		"$l;",
+
+		// Exceptions, which leave the variables the way they were.
+		"String $str = null;",
+		"$str.length();",
+		"int[] $arr = new int[3];",
+		"$arr[3] = 1;",
+		"$i = $arr[-1];",
+		"$i;",
+		"$i = 10 / ($arr[0]);",
+		"$i;"
+	};
+
+	/**
+	 * Pattern for a result, or the exception a statement threw.
+	 */
+	private static final Pattern RESULT_PATTERN = Pattern.compile("Result returned: --> (.*)|Statement encountered failure : ([\\w.$]+)");
+
+	/**
+	 * Pattern for the hash code on the end of an object that doesn't have its own toString, which is different every run.
+	 */
+	private static final Pattern IDENTITY_PATTERN = Pattern.compile("@[0-9a-f]+\\b");
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		String interpreted = run("engine(interpreter);", "interp_");
+		String compiled = run("engine(compiler);", "comp_");
+
+		List<String> interpretedResults = getResults(interpreted, "interp_");
+		List<String> compiledResults = getResults(compiled, "comp_");
+
+		if(!interpretedResults.equals(compiledResults)) {
+			StringBuilder differences = new StringBuilder();
+
+			for(int resultIndex = 0; resultIndex < Math.max(interpretedResults.size(), compiledResults.size()); resultIndex++) {
+				String interpretedResult = resultIndex < interpretedResults.size() ? interpretedResults.get(resultIndex) : "(nothing)";
+				String compiledResult = resultIndex < compiledResults.size() ? compiledResults.get(resultIndex) : "(nothing)";
+				differences.append(interpretedResult.equals(compiledResult) ? "    " : "--> ").append(interpretedResult).append("  |  ").append(compiledResult).append("\n");
+			}
+
+			throw new AssertionError("The interpreter and the compiler don't agree (interpreted | compiled):\n" + differences);
+		}
+
+		// Make sure there was something to compare.
+		if(!interpretedResults.containsAll(Arrays.asList("$sum = 9", "$sum = -1", "$sum = 2", "$n = 14", "$b = 54", "$s = -25536", "$c = c", "java.lang.NullPointerException", "java.lang.ArrayIndexOutOfBoundsException", "java.lang.ArithmeticException"))) {
+			throw new AssertionError("Missing results:\n" + interpretedResults);
+		}
+
+		// The interpreter has to have run them itself, rather than handing them over.
+		Matcher statisticsMatcher = Pattern.compile("Interpreter \\(interpreter\\): (\\d+) interpreted, (\\d+) handed to the compiler.*(\n\t.*)*").matcher(interpreted);
+		boolean statisticsFound = statisticsMatcher.find();
+
+		if(!statisticsFound || Integer.parseInt(statisticsMatcher.group(1)) == 0 || Integer.parseInt(statisticsMatcher.group(2)) != 0) {
+			throw new AssertionError("The interpreter handed statements to the compiler:\n" + (statisticsFound ? statisticsMatcher.group() : interpreted));
+		}
+
+		System.out.println("JavaTreeInterpreterTest passed.");
+	}
+
+	/**
+	 * Method to pull the results out of what was printed, with the variable names put back the way they were typed.
+	 *
+	 * @param output -- what was printed.
+	 * @param prefix -- what the variable names start with.
+	 * @return List -- the results, and the exceptions, in order.
+	 */
+	private static List<String> getResults(String output, String prefix) {
+		List<String> results = new ArrayList<String>();
+		Matcher resultMatcher = RESULT_PATTERN.matcher(output);
+
+		while(resultMatcher.find()) {
+			String result = resultMatcher.group(1) != null ? resultMatcher.group(1).trim() : resultMatcher.group(2);
+
+			// Leave out the reserved methods.
+			if(!result.endsWith(" complete!")) {
+				results.add(IDENTITY_PATTERN.matcher(result.replace(prefix, "$")).replaceAll("@"));
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * Method to type the statements into the interpreter under an engine, and get back what it printed, errors included.
+	 *
+	 * @param engine -- the statement that picks the engine.
+	 * @param prefix -- what to start the variable names with.
+	 * @return String -- what was printed.
+	 * @throws Exception
+	 */
+	private static String run(String engine, String prefix) throws Exception {
+		List<String> lines = new ArrayList<String>();
+		lines.add(engine);
+
+		for(String statement : STATEMENTS) {
+			lines.add(statement.replace("$", prefix));
+		}
+
+		lines.add("stats();");
+
+		return InterpreterTestUtils.runWithErrors(lines.toArray(new String[lines.size()]));
+	}
+}
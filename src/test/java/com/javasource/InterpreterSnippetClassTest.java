@@ -0,0 +1,88 @@
+package com.javasource;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.interpret.InterpreterTestUtils;
+
+/**
+ * Checks the snippets that need more than the declaration pasted in:
+ *
+ * <ul>
+ * <li>A flat array with more elements than fit in one chunk.</li>
+ * <li>A nested array whose rows are each too big for one chunk.</li>
+ * <li>A nested array of many small rows, which only gets too big counting the rows' elements.</li>
+ * <li>A class whose members aren't public, used from compiled statements in loaders of their own.</li>
+ * </ul>
+ *
+ * Run it with the main classes and the antlr runtime on the classpath; it exits with an error on the first check that fails.
+ *
+ * @author <a href="mailto:mxt4877@rit.edu">Mike Thomsen</a>
+ */
+public class InterpreterSnippetClassTest {
+
+	/**
+	 * Run the checks.
+	 *
+	 * @param args -- not used.
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+
+		// 2500 elements, 3 times their index.
+		String output = InterpreterTestUtils.runWithErrors("int[] flat = " + getRow(2500, 0, 3) + ";",
+				"System.out.println(\"flat=\" + flat.length + \",\" + flat[0] + \",\" + flat[999] + \",\" + flat[1000] + \",\" + flat[2499]);");
+
+		check(output, "flat=2500,0,2997,3000,7497");
+
+		// Two rows of 9000, the second one starting at 9000.
+		output = InterpreterTestUtils.runWithErrors("int[][] wide = {" + getRow(9000, 0, 1) + ", " + getRow(9000, 9000, 1) + "};",
+				"long wideSum = Arrays.stream(wide).flatMapToInt(Arrays::stream).asLongStream().sum();",
+				"System.out.println(\"wide=\" + wide.length + \",\" + wide[0].length + \",\" + wide[1].length + \",\" + wide[0][8999] + \",\" + wide[1][0] + \",\" + wideSum);");
+
+		check(output, "wide=2,9000,9000,8999,9000,161991000");
+
+		// 1500 rows of two, the row index and its square.
+		output = InterpreterTestUtils.runWithErrors("long[][] tall = {" + IntStream.range(0, 1500).mapToObj(index -> "{" + index + "L, " + index + "L * " + index + "L}").collect(Collectors.joining(", ")) + "};",
+				"System.out.println(\"tall=\" + tall.length + \",\" + tall[0][1] + \",\" + tall[1000][0] + \",\" + tall[1499][1]);");
+
+		check(output, "tall=1500,0,1000,2247001");
+
+		// Package-private and protected members, nested types included, used from statements the compiler runs.
+		output = InterpreterTestUtils.runWithErrors("engine(compiler);",
+				"class Counter { int count; protected String label = \"c\"; Counter() {} void inc() { count++; } static class Inner { int v = 7; } enum Mode { ON, OFF } }",
+				"Counter counter = new Counter();",
+				"counter.inc();",
+				"System.out.println(\"counter=\" + counter.count + \",\" + counter.label + \",\" + new Counter.Inner().v + \",\" + Counter.Mode.OFF.ordinal());",
+				"engine(auto);");
+
+		check(output, "counter=1,c,7,1");
+
+		System.out.println("InterpreterSnippetClassTest passed.");
+	}
+
+	/**
+	 * Method to get an array initializer of ints, each its index times a step, plus a start.
+	 *
+	 * @param length -- the number of elements.
+	 * @param start -- the first element.
+	 * @param step -- how much each element is up on the one before it.
+	 * @return String -- the initializer.
+	 */
+	private static String getRow(int length, int start, int step) {
+		return IntStream.range(0, length).mapToObj(index -> String.valueOf(start + index * step)).collect(Collectors.joining(", ", "{", "}"));
+	}
+
+	/**
+	 * Method to fail if what was printed doesn't have what it should.
+	 *
+	 * @param output -- what was printed.
+	 * @param expected -- what it should have.
+	 */
+	private static void check(String output, String expected) {
+
+		if(!output.contains(expected)) {
+			throw new AssertionError("Should have printed " + expected + ":\n" + (output.length() > 2000 ? output.substring(0, 2000) + "..." : output));
+		}
+	}
+}